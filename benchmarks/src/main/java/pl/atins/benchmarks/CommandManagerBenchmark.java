@@ -0,0 +1,95 @@
+package pl.atins.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.atins.config.CommandHistoryProperties;
+import pl.atins.config.CommandJournalProperties;
+import pl.atins.config.ConflictRetryProperties;
+import pl.atins.core.ChangeTracker;
+import pl.atins.core.CommandJournal;
+import pl.atins.core.CommandRecord;
+import pl.atins.core.ConflictRetryExecutor;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.HRCommandManager;
+import pl.atins.core.PromoteEmployeeCommand;
+import pl.atins.repository.EmployeeRepository;
+import pl.atins.repository.EntityChangeRepository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code HRCommandManager} execute and undo of a promotion, with history, change tracking and retry
+ * bookkeeping in place but persistence stubbed out. Actors rotate over {@code actors} histories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandManagerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int employees;
+
+    @Param({"1", "1000"})
+    private int actors;
+
+    private Workforce workforce;
+    private EmployeeRepository employeeRepository;
+    private EmployeeEventPublisher eventPublisher;
+    private HRCommandManager commandManager;
+    private String[] actorNames;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        workforce = Workforce.generate(employees);
+        employeeRepository = Stubs.repository(EmployeeRepository.class, Map.of(
+                "findById", args -> workforce.findById(args[0]),
+                "save", args -> args[0]));
+        var entityChangeRepository = Stubs.repository(EntityChangeRepository.class, Map.of(
+                "findMaxSequence", args -> 0L));
+        eventPublisher = new EmployeeEventPublisher(Runnable::run);
+        var historyProperties = new CommandHistoryProperties();
+        commandManager = new HRCommandManager(employeeRepository, eventPublisher, historyProperties,
+                Stubs.transactionManager(), new CommandJournal(new CommandJournalProperties(), historyProperties),
+                new ConflictRetryExecutor(new ConflictRetryProperties(), new SimpleMeterRegistry()),
+                new ChangeTracker(Stubs.jdbcTemplate(), entityChangeRepository));
+        actorNames = new String[actors];
+        for (int i = 0; i < actors; i++) {
+            actorNames[i] = "actor-" + i;
+        }
+    }
+
+    @Benchmark
+    public CommandRecord execute() {
+        var employee = workforce.get(next++);
+        var command = new PromoteEmployeeCommand(employee, "Senior Engineer", BigDecimal.TEN,
+                employeeRepository, eventPublisher);
+        return commandManager.executeCommand(actorNames[next % actors], command);
+    }
+
+    @Benchmark
+    public Optional<CommandRecord> executeAndUndo() {
+        var employee = workforce.get(next++);
+        var actor = actorNames[next % actors];
+        var command = new PromoteEmployeeCommand(employee, employee.getJobTitle(), BigDecimal.ZERO,
+                employeeRepository, eventPublisher);
+        commandManager.executeCommand(actor, command);
+        return commandManager.undoLastCommand(actor);
+    }
+}
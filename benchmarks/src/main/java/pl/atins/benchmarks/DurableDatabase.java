@@ -0,0 +1,64 @@
+package pl.atins.benchmarks;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import pl.atins.HrSystemApplication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without the web layer on the durable profile, with the database file and journal
+ * in a scratch directory. The seeded database of each size is kept as a database image under
+ * {@code hr-benchmarks} in the temp directory, so only the first run pays for generating it; delete the
+ * image after changing the entities, since a stale image is ignored and the workforce is generated again.
+ */
+final class DurableDatabase {
+
+    static final int DEPARTMENTS = 50;
+
+    private static final Path IMAGES = Path.of(System.getProperty("java.io.tmpdir"), "hr-benchmarks");
+
+    private DurableDatabase() {
+    }
+
+    static Path scratchDirectory() {
+        try {
+            return Files.createTempDirectory("hr-durable-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static ConfigurableApplicationContext start(Path directory, int employees, String... overrides) {
+        var image = IMAGES.resolve("durable-" + employees + ".zip");
+        var arguments = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.profiles.active=durable",
+                "--hr.persistence.directory=" + directory.resolve("db"),
+                "--hr.persistence.backup.directory=" + directory.resolve("backups"),
+                "--hr.commands.journal.directory=" + directory.resolve("journal"),
+                "--hr.database.image.enabled=true",
+                "--hr.database.image.location=" + image,
+                "--hr.database.image.export=" + Files.notExists(image),
+                "--hr.seed.employees=" + employees,
+                "--hr.seed.departments=" + DEPARTMENTS,
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN"));
+        arguments.addAll(List.of(overrides));
+        return SpringApplication.run(HrSystemApplication.class, arguments.toArray(String[]::new));
+    }
+
+    static void delete(Path directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
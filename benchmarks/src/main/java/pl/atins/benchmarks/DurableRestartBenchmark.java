@@ -0,0 +1,80 @@
+package pl.atins.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.atins.dto.EmployeeResponse;
+import pl.atins.service.EmployeeService;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from starting the application on an existing file database until it serves its first read,
+ * after a clean shutdown and after a crash. Before each restart a batch of salaries is updated; the crash
+ * variant then stops the database with {@code SHUTDOWN IMMEDIATELY}, so the store has to recover from
+ * its last written chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DurableRestartBenchmark {
+
+    private static final int UPDATES = 10_000;
+
+    @Param({"1000000"})
+    private int employees;
+
+    @Param({"clean", "crash"})
+    private String shutdown;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = DurableDatabase.scratchDirectory();
+    }
+
+    @Setup(Level.Iteration)
+    public void stopAfterWrites() {
+        var running = DurableDatabase.start(directory, employees);
+        var jdbcTemplate = running.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("UPDATE employee SET salary = salary + 1 WHERE id <= ?", UPDATES);
+        if (shutdown.equals("crash")) {
+            jdbcTemplate.execute("SHUTDOWN IMMEDIATELY");
+        }
+        running.close();
+    }
+
+    @Benchmark
+    public EmployeeResponse restart() {
+        context = DurableDatabase.start(directory, employees);
+        return context.getBean(EmployeeService.class).getEmployeeById((long) employees);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DurableDatabase.delete(directory);
+    }
+}
@@ -0,0 +1,123 @@
+package pl.atins.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.atins.core.DatabaseMaintenance;
+import pl.atins.dto.CreateEmployeeRequest;
+import pl.atins.dto.EmployeeResponse;
+import pl.atins.dto.SalaryAdjustmentRequest;
+import pl.atins.service.EmployeeService;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Committed writes per second through the service layer against the durable profile's file database,
+ * for different write delays and cache sizes, optionally while hot backups run back to back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DurableWriteBenchmark {
+
+    @Param({"1000000"})
+    private int employees;
+
+    @Param({"0ms", "500ms"})
+    private String writeDelay;
+
+    @Param({"16MB", "256MB"})
+    private String cacheSize;
+
+    @Param({"false", "true"})
+    private boolean backupRunning;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private DatabaseMaintenance databaseMaintenance;
+    private Thread backups;
+    // Interrupting the backup thread would close H2's file channels under it
+    private volatile boolean backingUp;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = DurableDatabase.scratchDirectory();
+        context = DurableDatabase.start(directory, employees,
+                "--hr.persistence.write-delay=" + writeDelay,
+                "--hr.persistence.cache-size=" + cacheSize,
+                "--hr.persistence.backup.retention=1");
+        employeeService = context.getBean(EmployeeService.class);
+        databaseMaintenance = context.getBean(DatabaseMaintenance.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void startBackups() {
+        if (backupRunning) {
+            backingUp = true;
+            backups = Thread.ofPlatform().daemon().start(() -> {
+                while (backingUp) {
+                    databaseMaintenance.backup();
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopBackups() throws InterruptedException {
+        if (backups != null) {
+            backingUp = false;
+            backups.join();
+            backups = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        DurableDatabase.delete(directory);
+    }
+
+    @Benchmark
+    public EmployeeResponse createEmployee() {
+        var id = next++;
+        var request = new CreateEmployeeRequest();
+        request.setFirstName("Bench");
+        request.setLastName("Hire" + id);
+        request.setEmail("bench.hire." + id + "." + System.nanoTime() + "@company.com");
+        request.setJobTitle("Developer");
+        request.setHireDate(LocalDate.of(2024, 1, 1));
+        request.setSalary(new BigDecimal("52000"));
+        request.setSupervisorId(1L + ThreadLocalRandom.current().nextInt(employees / 8));
+        request.setDepartmentIds(Set.of(1L + id % DurableDatabase.DEPARTMENTS));
+        return employeeService.createEmployee(request);
+    }
+
+    @Benchmark
+    public BigDecimal adjustSalary() {
+        var request = new SalaryAdjustmentRequest();
+        request.setStrategyType("annual_raise");
+        request.setAmount(BigDecimal.ONE);
+        return employeeService.adjustSalary(1L + ThreadLocalRandom.current().nextInt(employees), request);
+    }
+}
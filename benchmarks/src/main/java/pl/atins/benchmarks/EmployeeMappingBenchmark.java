@@ -0,0 +1,65 @@
+package pl.atins.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.atins.dto.EmployeeResponse;
+import pl.atins.repository.EmployeeRepository;
+import pl.atins.service.EmployeeServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping in {@code EmployeeServiceImpl}, reached through its public read methods
+ * with an in-memory repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int employees;
+
+    private EmployeeServiceImpl employeeService;
+    private Workforce workforce;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        workforce = Workforce.generate(employees);
+        var employeeRepository = Stubs.repository(EmployeeRepository.class, Map.of(
+                "findAll", args -> workforce.employees(),
+                "findById", args -> workforce.findById(args[0])));
+        employeeService = new EmployeeServiceImpl(employeeRepository, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public EmployeeResponse mapSingleEmployee() {
+        next = (next + 1) % employees;
+        return employeeService.getEmployeeById(workforce.get(next).getId());
+    }
+
+    @Benchmark
+    public EmployeeResponse mapSupervisorWithSubordinates() {
+        return employeeService.getEmployeeById(1L);
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> mapAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+}
@@ -0,0 +1,92 @@
+package pl.atins.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.core.EmployeeEventObserver;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.domain.Employee;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out cost of {@code EmployeeEventPublisher.publishEvent} outside a transaction. With the common pool
+ * the number includes task submission only; observers then run concurrently with the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPublisherBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int observers;
+
+    @Param({"inline", "common-pool"})
+    private String dispatch;
+
+    @Param({"100", "10000"})
+    private int employees;
+
+    private EmployeeEventPublisher publisher;
+    private Workforce workforce;
+    private EmployeeEvent event;
+    private final LongAdder delivered = new LongAdder();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Executor executor = "inline".equals(dispatch) ? Runnable::run : ForkJoinPool.commonPool();
+        publisher = new EmployeeEventPublisher(executor);
+        for (int i = 0; i < observers; i++) {
+            publisher.addObserver(new CountingObserver(delivered));
+        }
+        workforce = Workforce.generate(employees);
+        event = newEvent(workforce.get(0));
+    }
+
+    @Benchmark
+    public void publishPreparedEvent() {
+        publisher.publishEvent(event);
+    }
+
+    @Benchmark
+    public void createAndPublishEvent(Blackhole blackhole) {
+        var created = newEvent(workforce.get(next++));
+        publisher.publishEvent(created);
+        blackhole.consume(created);
+    }
+
+    private static EmployeeEvent newEvent(Employee employee) {
+        return new EmployeeEvent(employee, EmployeeEvent.EventType.SALARY_ADJUSTED,
+                "Salary adjusted via strategy", employee.getSalary(), employee.getSalary());
+    }
+
+    private record CountingObserver(LongAdder delivered) implements EmployeeEventObserver {
+
+        @Override
+        public void onEmployeeEvent(EmployeeEvent event) {
+            delivered.increment();
+        }
+
+        @Override
+        public boolean isInterestedIn(EmployeeEvent.EventType eventType) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package pl.atins.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.atins.HrSystemApplication;
+import pl.atins.domain.Employee;
+import pl.atins.dto.EmployeeResponse;
+import pl.atins.repository.EmployeeRepository;
+import pl.atins.service.EmployeeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository queries and a transactional service read against an in-memory H2 seeded by the synthetic
+ * workforce generator. The application context starts without the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+
+    private static final int DEPARTMENTS = 50;
+    private static final String[] NAME_FRAGMENTS = {"mit", "son", "Nowak", "ski", "Lee", "Mar", "Wil", "Ann"};
+
+    @Param({"1000", "10000", "100000"})
+    private int employees;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private EmployeeService employeeService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(HrSystemApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + employees,
+                "--hr.seed.employees=" + employees,
+                "--hr.seed.departments=" + DEPARTMENTS,
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.root=WARN");
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EmployeeResponse findEmployeeById() {
+        return employeeService.getEmployeeById(1L + (next++ % employees));
+    }
+
+    @Benchmark
+    public List<Employee> findBySupervisor() {
+        return employeeRepository.findBySupervisorId(1L + (next++ % (employees / 8)));
+    }
+
+    @Benchmark
+    public List<Employee> findByDepartment() {
+        return employeeRepository.findByDepartmentId(1L + (next++ % DEPARTMENTS));
+    }
+
+    @Benchmark
+    public List<Employee> searchByName() {
+        return employeeRepository.findByNameContaining(NAME_FRAGMENTS[next++ % NAME_FRAGMENTS.length]);
+    }
+
+    @Benchmark
+    public List<Employee> findWithSupervisorByIds() {
+        var from = next++ % Math.max(1, employees - 100);
+        var ids = new ArrayList<Long>(100);
+        for (int i = 0; i < 100; i++) {
+            ids.add(1L + from + i);
+        }
+        return employeeRepository.findAllWithSupervisorByIdIn(ids);
+    }
+}
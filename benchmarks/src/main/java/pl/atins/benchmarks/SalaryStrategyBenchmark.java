@@ -0,0 +1,65 @@
+package pl.atins.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.atins.core.AnnualRaiseStrategy;
+import pl.atins.core.PromotionBonusStrategy;
+import pl.atins.core.SalaryAdjustmentStrategy;
+import pl.atins.service.SalaryServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryStrategyBenchmark {
+
+    private static final String[] STRATEGY_TYPES = {"annual_raise", "promotion_bonus", "ANNUAL_RAISE", "Promotion_Bonus"};
+
+    @Param({"100", "1000", "10000"})
+    private int employees;
+
+    private Workforce workforce;
+    private SalaryAdjustmentStrategy annualRaise;
+    private SalaryAdjustmentStrategy promotionBonus;
+    private SalaryServiceImpl salaryService;
+    private BigDecimal amount;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        workforce = Workforce.generate(employees);
+        annualRaise = new AnnualRaiseStrategy(new BigDecimal("0.035"));
+        promotionBonus = new PromotionBonusStrategy(new BigDecimal("2500.00"));
+        salaryService = new SalaryServiceImpl(null, null);
+        amount = new BigDecimal("0.05");
+    }
+
+    @Benchmark
+    public BigDecimal annualRaise() {
+        return annualRaise.adjustSalary(workforce.get(next++));
+    }
+
+    @Benchmark
+    public BigDecimal promotionBonus() {
+        return promotionBonus.adjustSalary(workforce.get(next++));
+    }
+
+    @Benchmark
+    public SalaryAdjustmentStrategy createStrategy() {
+        return salaryService.createStrategy(STRATEGY_TYPES[next++ & 3], amount);
+    }
+}
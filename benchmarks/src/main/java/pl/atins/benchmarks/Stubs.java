@@ -0,0 +1,72 @@
+package pl.atins.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the persistence layer, so service benchmarks measure application code only.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    // Implements a repository interface with the given methods; anything else fails loudly
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Stub" + type.getSimpleName();
+                default:
+                    var implementation = methods.get(method.getName());
+                    if (implementation == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return implementation.apply(args);
+            }
+        });
+    }
+
+    static JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                return new int[batchArgs.size()];
+            }
+        };
+    }
+
+    // Runs transaction callbacks and synchronizations without a resource behind them
+    static AbstractPlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+}
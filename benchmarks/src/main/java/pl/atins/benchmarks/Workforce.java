@@ -0,0 +1,95 @@
+package pl.atins.benchmarks;
+
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Deterministic organisation used by the benchmarks: a supervisor tree with fan-out {@value #FAN_OUT},
+ * one department per {@value #DEPARTMENT_SIZE} employees, every fifth employee in a second department.
+ */
+final class Workforce {
+
+    static final int FAN_OUT = 8;
+    static final int DEPARTMENT_SIZE = 50;
+
+    private static final String[] FIRST_NAMES = {"Anna", "Piotr", "Maria", "Jan", "Katarzyna", "Tomasz", "Ewa", "Marek"};
+    private static final String[] LAST_NAMES = {"Nowak", "Kowalski", "Wisniewska", "Wojcik", "Kaminska", "Lewandowski"};
+    private static final String[] JOB_TITLES = {"Developer", "Analyst", "Manager", "Designer", "Accountant", "Recruiter"};
+
+    private final List<Employee> employees;
+    private final List<Department> departments;
+    private final Map<Long, Employee> employeesById;
+
+    private Workforce(List<Employee> employees, List<Department> departments) {
+        this.employees = employees;
+        this.departments = departments;
+        this.employeesById = new HashMap<>();
+        employees.forEach(employee -> employeesById.put(employee.getId(), employee));
+    }
+
+    static Workforce generate(int size) {
+        var departments = new ArrayList<Department>();
+        for (int i = 0; i < Math.max(1, size / DEPARTMENT_SIZE); i++) {
+            var department = new Department();
+            department.setId((long) i + 1);
+            department.setName("Department " + (i + 1));
+            department.setDescription("Generated department " + (i + 1));
+            department.setLocation("Building " + (char) ('A' + i % 26));
+            department.setEmployees(new HashSet<>());
+            departments.add(department);
+        }
+
+        var employees = new ArrayList<Employee>(size);
+        for (int i = 0; i < size; i++) {
+            var employee = new Employee();
+            employee.setId((long) i + 1);
+            employee.setVersion(0L);
+            employee.setFirstName(FIRST_NAMES[i % FIRST_NAMES.length]);
+            employee.setLastName(LAST_NAMES[i % LAST_NAMES.length] + i);
+            employee.setEmail("employee" + i + "@company.com");
+            employee.setJobTitle(JOB_TITLES[i % JOB_TITLES.length]);
+            employee.setHireDate(LocalDate.of(2015, 1, 1).plusDays(i % 3000));
+            employee.setSalary(BigDecimal.valueOf(40_000 + (i * 37L) % 60_000, 0).setScale(2));
+            employee.setPhone("+48-555-" + (1000 + i % 9000));
+            employee.setOfficeLocation("Floor " + (i % 12));
+            employee.setSubordinates(new HashSet<>());
+            if (i > 0) {
+                employee.addSupervisor(employees.get((i - 1) / FAN_OUT));
+            }
+            employee.addDepartment(departments.get(i % departments.size()));
+            if (i % 5 == 0 && departments.size() > 1) {
+                employee.addDepartment(departments.get((i + 1) % departments.size()));
+            }
+            employees.add(employee);
+        }
+        for (int i = 0; i < departments.size() && i < employees.size(); i++) {
+            departments.get(i).setHead(employees.get(i));
+        }
+        return new Workforce(employees, departments);
+    }
+
+    List<Employee> employees() {
+        return employees;
+    }
+
+    List<Department> departments() {
+        return departments;
+    }
+
+    Optional<Employee> findById(Object id) {
+        return Optional.ofNullable(employeesById.get((Long) id));
+    }
+
+    Employee get(int index) {
+        return employees.get(index % employees.size());
+    }
+}
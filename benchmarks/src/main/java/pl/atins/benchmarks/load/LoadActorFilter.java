@@ -0,0 +1,35 @@
+package pl.atins.benchmarks.load;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Authenticates load requests started in this JVM as the actor named by {@link Workload#ACTOR_HEADER}, so
+ * the HR command endpoints see a principal without a real identity provider.
+ */
+class LoadActorFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var actor = request.getHeader(Workload.ACTOR_HEADER);
+        if (actor == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Principal principal = () -> actor;
+        chain.doFilter(new HttpServletRequestWrapper(request) {
+            @Override
+            public Principal getUserPrincipal() {
+                return principal;
+            }
+        }, response);
+    }
+}
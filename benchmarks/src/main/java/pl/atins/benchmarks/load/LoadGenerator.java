@@ -0,0 +1,203 @@
+package pl.atins.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.FileNotFoundException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are issued on a fixed schedule regardless of how quickly earlier ones
+ * complete, and each latency is taken from the moment the request was due rather than when it was
+ * actually sent. A stalled server therefore shows up in the percentiles instead of silently lowering
+ * the offered rate.
+ */
+final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final HttpClient httpClient;
+    private final Workload workload;
+    private final LoadOptions options;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final Map<Scenario, Stats> stats = new EnumMap<>(Scenario.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadGenerator(HttpClient httpClient, Workload workload, LoadOptions options) {
+        this.httpClient = httpClient;
+        this.workload = workload;
+        this.options = options;
+
+        var weights = weights(options);
+        scenarios = weights.keySet().toArray(Scenario[]::new);
+        cumulativeWeights = new int[scenarios.length];
+        var total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += weights.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+            stats.put(scenarios[i], new Stats());
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Scenario mix has no positive weights");
+        }
+    }
+
+    LoadReport run(String target) throws InterruptedException, FileNotFoundException {
+        var startedAt = Instant.now();
+        var intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) options.rate();
+        var start = System.nanoTime();
+        var measureFrom = start + options.warmup().toNanos();
+        var end = measureFrom + options.duration().toNanos();
+
+        var intended = (double) start;
+        while (intended < end) {
+            var due = (long) intended;
+            var delay = due - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+                continue;
+            }
+            dispatch(pick(), due, due >= measureFrom);
+            intended += options.arrival() == LoadOptions.Arrival.POISSON
+                    ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos
+                    : intervalNanos;
+        }
+        awaitInFlight();
+
+        var durationSeconds = options.duration().toNanos() / 1e9;
+        var results = new ArrayList<LoadReport.EndpointResult>();
+        var histograms = new EnumMap<Scenario, Histogram>(Scenario.class);
+        for (Scenario scenario : scenarios) {
+            var scenarioStats = stats.get(scenario);
+            var histogram = scenarioStats.latencies.getIntervalHistogram();
+            histograms.put(scenario, histogram);
+            results.add(LoadReport.EndpointResult.of(scenario, histogram, scenarioStats.errors.sum(),
+                    scenarioStats.rejected.sum(), scenarioStats.dropped.sum(), durationSeconds));
+        }
+        writeHistogramLog(histograms, startedAt);
+        return new LoadReport(startedAt.toString(), target, options.rate(), options.arrival().name(),
+                durationSeconds, results);
+    }
+
+    private void dispatch(Scenario scenario, long intendedStart, boolean measured) {
+        var scenarioStats = stats.get(scenario);
+        if (inFlight.incrementAndGet() > options.maxInFlight()) {
+            inFlight.decrementAndGet();
+            if (measured) {
+                scenarioStats.dropped.increment();
+            }
+            return;
+        }
+
+        httpClient.sendAsync(scenario.request(workload), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    var micros = (System.nanoTime() - intendedStart) / 1_000;
+                    scenarioStats.latencies.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                    if (failure != null || response.statusCode() >= 500) {
+                        scenarioStats.errors.increment();
+                    } else if (response.statusCode() >= 400) {
+                        scenarioStats.rejected.increment();
+                    }
+                });
+    }
+
+    private Scenario pick() {
+        var roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        var deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    // Tagged per scenario, so the log can be opened in HistogramLogAnalyzer alongside other runs
+    private void writeHistogramLog(Map<Scenario, Histogram> histograms, Instant startedAt)
+            throws FileNotFoundException {
+        var logPath = histogramLogPath(options.report());
+        var writer = new HistogramLogWriter(logPath.toFile());
+        try {
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startedAt.toEpochMilli());
+            writer.outputLegend();
+            histograms.forEach((scenario, histogram) -> {
+                histogram.setTag(scenario.key());
+                writer.outputIntervalHistogram(histogram);
+            });
+        } finally {
+            writer.close();
+        }
+    }
+
+    static Path histogramLogPath(Path report) {
+        var name = report.getFileName().toString().replaceFirst("\\.json$", "");
+        return report.resolveSibling(name + ".hlog");
+    }
+
+    // --write-ratio rescales the write scenarios so they make up that share of the total weight
+    private static Map<Scenario, Integer> weights(LoadOptions options) {
+        var weights = new EnumMap<Scenario, Integer>(Scenario.class);
+        options.mix().forEach((scenario, weight) -> {
+            if (weight > 0) {
+                weights.put(scenario, weight);
+            }
+        });
+        if (options.writeRatio() == null) {
+            return weights;
+        }
+
+        var reads = weights.entrySet().stream().filter(entry -> !entry.getKey().isWrite())
+                .mapToInt(Map.Entry::getValue).sum();
+        var writes = weights.entrySet().stream().filter(entry -> entry.getKey().isWrite())
+                .mapToInt(Map.Entry::getValue).sum();
+        var ratio = options.writeRatio();
+        var scaled = new EnumMap<Scenario, Integer>(Scenario.class);
+        weights.forEach((scenario, weight) -> {
+            var share = scenario.isWrite()
+                    ? writes == 0 ? 0 : ratio * weight / writes
+                    : reads == 0 ? 0 : (1 - ratio) * weight / reads;
+            var value = (int) Math.round(share * 10_000);
+            if (value > 0) {
+                scaled.put(scenario, value);
+            }
+        });
+        return scaled;
+    }
+
+    List<Scenario> getScenarios() {
+        return List.of(scenarios);
+    }
+
+    private static final class Stats {
+        private final Recorder latencies = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+}
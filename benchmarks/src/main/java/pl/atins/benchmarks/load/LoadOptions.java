@@ -0,0 +1,108 @@
+package pl.atins.benchmarks.load;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}. Options are given as {@code --name=value}; anything not recognised
+ * here is handed to the application when it is started in-process.
+ */
+record LoadOptions(
+        URI target,
+        int rate,
+        Arrival arrival,
+        Duration warmup,
+        Duration duration,
+        int employees,
+        int departments,
+        int maxInFlight,
+        Duration requestTimeout,
+        Map<Scenario, Integer> mix,
+        Double writeRatio,
+        Path report,
+        Path baseline,
+        double tolerancePercent,
+        double minDeltaMillis,
+        List<String> applicationArgs) {
+
+    enum Arrival {
+        CONSTANT, POISSON
+    }
+
+    static LoadOptions parse(String[] args) {
+        URI target = null;
+        var rate = 200;
+        var arrival = Arrival.POISSON;
+        var warmup = Duration.ofSeconds(10);
+        var duration = Duration.ofSeconds(60);
+        var employees = 500;
+        var departments = 10;
+        var maxInFlight = 1_000;
+        var requestTimeout = Duration.ofSeconds(30);
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        Arrays.stream(Scenario.values()).forEach(scenario -> mix.put(scenario, scenario.getDefaultWeight()));
+        Double writeRatio = null;
+        var report = Path.of("load-report.json");
+        Path baseline = null;
+        var tolerancePercent = 10.0;
+        var minDeltaMillis = 1.0;
+        var applicationArgs = new ArrayList<String>();
+
+        for (String arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            var name = arg.substring(2, separator);
+            var value = arg.substring(separator + 1);
+            switch (name) {
+                case "target" -> target = URI.create(value);
+                case "rate" -> rate = Integer.parseInt(value);
+                case "arrival" -> arrival = Arrival.valueOf(value.toUpperCase());
+                case "warmup" -> warmup = Duration.parse(value);
+                case "duration" -> duration = Duration.parse(value);
+                case "employees" -> employees = Integer.parseInt(value);
+                case "departments" -> departments = Integer.parseInt(value);
+                case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "request-timeout" -> requestTimeout = Duration.parse(value);
+                case "mix" -> parseMix(value, mix);
+                case "write-ratio" -> writeRatio = Double.parseDouble(value);
+                case "report" -> report = Path.of(value);
+                case "baseline" -> baseline = Path.of(value);
+                case "tolerance" -> tolerancePercent = Double.parseDouble(value);
+                case "min-delta-ms" -> minDeltaMillis = Double.parseDouble(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (writeRatio != null && (writeRatio < 0 || writeRatio > 1)) {
+            throw new IllegalArgumentException("Write ratio must be between 0 and 1");
+        }
+        if (employees < 2 || departments < 1) {
+            throw new IllegalArgumentException("At least 2 employees and 1 department are needed");
+        }
+        return new LoadOptions(target, rate, arrival, warmup, duration, employees, departments, maxInFlight,
+                requestTimeout, mix, writeRatio, report, baseline, tolerancePercent, minDeltaMillis,
+                List.copyOf(applicationArgs));
+    }
+
+    // e.g. employee-by-id=50,employee-create=5; scenarios not listed keep their default weight
+    private static void parseMix(String value, Map<Scenario, Integer> mix) {
+        for (String entry : value.split(",")) {
+            var parts = entry.split("[=:]");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            mix.put(Scenario.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+    }
+}
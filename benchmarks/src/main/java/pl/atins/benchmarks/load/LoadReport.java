@@ -0,0 +1,110 @@
+package pl.atins.benchmarks.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of one run, written as JSON so later runs can be compared against it. Latencies are in
+ * milliseconds and measured from the intended start of each request.
+ */
+record LoadReport(
+        String startedAt,
+        String target,
+        int rate,
+        String arrival,
+        double durationSeconds,
+        List<EndpointResult> endpoints) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    record EndpointResult(
+            String scenario,
+            String endpoint,
+            long count,
+            long errors,
+            long rejected,
+            long dropped,
+            double throughput,
+            double meanMs,
+            double p50Ms,
+            double p90Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs) {
+
+        static EndpointResult of(Scenario scenario, Histogram micros, long errors, long rejected, long dropped,
+                                 double durationSeconds) {
+            return new EndpointResult(scenario.key(), scenario.getEndpoint(), micros.getTotalCount(), errors,
+                    rejected, dropped, micros.getTotalCount() / durationSeconds, micros.getMean() / 1000,
+                    millis(micros, 50), millis(micros, 90), millis(micros, 99), millis(micros, 99.9),
+                    micros.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram micros, double percentile) {
+            return micros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    record Regression(String scenario, double baselineP99Ms, double currentP99Ms, double changePercent) {
+    }
+
+    void write(Path path) throws IOException {
+        OBJECT_MAPPER.writeValue(path.toFile(), this);
+    }
+
+    static LoadReport read(Path path) throws IOException {
+        return OBJECT_MAPPER.readValue(Files.readAllBytes(path), LoadReport.class);
+    }
+
+    // A p99 counts as regressed when it grew by more than the tolerance and by more than the absolute floor,
+    // so sub-millisecond jitter on fast endpoints does not fail the comparison
+    List<Regression> compareTo(LoadReport baseline, double tolerancePercent, double minDeltaMillis) {
+        Map<String, EndpointResult> previous = baseline.endpoints().stream()
+                .collect(Collectors.toMap(EndpointResult::scenario, Function.identity()));
+        var regressions = new ArrayList<Regression>();
+        for (EndpointResult current : endpoints) {
+            var before = previous.get(current.scenario());
+            if (before == null || before.count() == 0 || current.count() == 0) {
+                continue;
+            }
+            var delta = current.p99Ms() - before.p99Ms();
+            var changePercent = before.p99Ms() > 0 ? delta * 100 / before.p99Ms() : 0;
+            if (delta > minDeltaMillis && changePercent > tolerancePercent) {
+                regressions.add(new Regression(current.scenario(), before.p99Ms(), current.p99Ms(), changePercent));
+            }
+        }
+        return regressions;
+    }
+
+    void print(PrintStream out, LoadReport baseline) {
+        Map<String, EndpointResult> previous = baseline == null ? Map.of() : baseline.endpoints().stream()
+                .collect(Collectors.toMap(EndpointResult::scenario, Function.identity()));
+
+        out.printf("%n%s, %d req/s %s arrivals, %.0f s measured%n", target, rate, arrival.toLowerCase(),
+                durationSeconds);
+        out.printf("%-26s %8s %7s %7s %7s %9s %9s %9s %9s %9s %10s%n", "scenario", "count", "errors", "4xx",
+                "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "p99 vs base");
+        for (EndpointResult result : endpoints) {
+            var before = previous.get(result.scenario());
+            var change = before == null || before.p99Ms() == 0 ? "" :
+                    "%+.1f%%".formatted((result.p99Ms() - before.p99Ms()) * 100 / before.p99Ms());
+            out.printf("%-26s %8d %7d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %10s%n", result.scenario(),
+                    result.count(), result.errors(), result.rejected(), result.dropped(), result.throughput(),
+                    result.p50Ms(), result.p90Ms(), result.p99Ms(), result.maxMs(), change);
+        }
+    }
+}
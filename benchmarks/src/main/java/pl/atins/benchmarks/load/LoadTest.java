@@ -0,0 +1,94 @@
+package pl.atins.benchmarks.load;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.atins.HrSystemApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives the REST API with an open-model request mix and reports per-endpoint latency percentiles.
+ * Without {@code --target} the application is started in this JVM on a random port, with each request
+ * authenticated as one of a few load actors.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar pl.atins.benchmarks.load.LoadTest \
+ *     --rate=300 --duration=PT2M --write-ratio=0.2 --report=current.json --baseline=release.json
+ * </pre>
+ *
+ * The exit status is 1 when any endpoint's p99 regressed against the baseline beyond {@code --tolerance}
+ * percent (and by more than {@code --min-delta-ms}).
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = LoadOptions.parse(args);
+        var baseline = options.baseline() != null ? LoadReport.read(options.baseline()) : null;
+
+        ConfigurableApplicationContext context = null;
+        var status = 0;
+        try (var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            var target = options.target();
+            if (target == null) {
+                context = start(options.applicationArgs());
+                target = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            } else if (!options.applicationArgs().isEmpty()) {
+                throw new IllegalArgumentException("Unknown options: " + options.applicationArgs());
+            }
+
+            System.out.printf("Seeding %d departments and %d employees at %s%n", options.departments(),
+                    options.employees(), target);
+            var workload = new Workload(httpClient, target, options.requestTimeout());
+            workload.seed(options.employees(), options.departments());
+
+            var generator = new LoadGenerator(httpClient, workload, options);
+            System.out.printf("Running %s warm-up and %s measurement at %d req/s over %s%n", options.warmup(),
+                    options.duration(), options.rate(), generator.getScenarios().stream().map(Scenario::key).toList());
+            var report = generator.run(target.toString());
+
+            report.write(options.report());
+            report.print(System.out, baseline);
+            System.out.printf("%nReport written to %s, histograms to %s%n", options.report(),
+                    LoadGenerator.histogramLogPath(options.report()));
+
+            if (baseline != null) {
+                var regressions = report.compareTo(baseline, options.tolerancePercent(), options.minDeltaMillis());
+                if (!regressions.isEmpty()) {
+                    System.out.printf("%np99 regressions against %s:%n", options.baseline());
+                    regressions.forEach(regression -> System.out.printf("  %-26s %9.2f ms -> %9.2f ms (%+.1f%%)%n",
+                            regression.scenario(), regression.baselineP99Ms(), regression.currentP99Ms(),
+                            regression.changePercent()));
+                    status = 1;
+                }
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(status);
+    }
+
+    private static ConfigurableApplicationContext start(List<String> applicationArgs) {
+        var args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.pl.atins=WARN"));
+        args.addAll(applicationArgs);
+        return SpringApplication.run(new Class<?>[]{HrSystemApplication.class, LoadActorFilter.class},
+                args.toArray(String[]::new));
+    }
+}
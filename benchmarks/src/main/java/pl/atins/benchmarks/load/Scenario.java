@@ -0,0 +1,126 @@
+package pl.atins.benchmarks.load;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One request type of the load mix. Reads dominate by default, roughly matching the production split.
+ */
+enum Scenario {
+
+    EMPLOYEE_BY_ID("GET /api/employees/{id}", 30, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/api/employees/" + workload.employeeId());
+        }
+    },
+    EMPLOYEE_SEARCH("GET /api/employees?name=", 8, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/api/employees?name=" + Workload.LAST_NAMES[
+                    ThreadLocalRandom.current().nextInt(Workload.LAST_NAMES.length)]);
+        }
+    },
+    EMPLOYEES_BY_DEPARTMENT("GET /api/employees?departmentId=", 8, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/api/employees?departmentId=" + workload.departmentId());
+        }
+    },
+    EMPLOYEES_BY_SUPERVISOR("GET /api/employees?supervisorId=", 6, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/api/employees?supervisorId=" + workload.supervisorId());
+        }
+    },
+    DEPARTMENT_BY_ID("GET /api/departments/{id}", 10, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/api/departments/" + workload.departmentId());
+        }
+    },
+    DEPARTMENTS("GET /api/departments", 5, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/api/departments");
+        }
+    },
+    COMMAND_HISTORY("GET /api/hr-commands/history-size", 3, false) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.request("GET", "/api/hr-commands/history-size", null);
+        }
+    },
+    EMPLOYEE_CREATE("POST /api/employees", 5, true) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.request("POST", "/api/employees", workload.newEmployee());
+        }
+    },
+    EMPLOYEE_UPDATE("PUT /api/employees/{id}", 5, true) {
+        @Override
+        HttpRequest request(Workload workload) {
+            var phone = "+48 600 %03d %03d".formatted(ThreadLocalRandom.current().nextInt(1000),
+                    ThreadLocalRandom.current().nextInt(1000));
+            return workload.request("PUT", "/api/employees/" + workload.employeeId(),
+                    "{\"phone\":\"" + phone + "\"}");
+        }
+    },
+    SALARY_ADJUST("POST /api/employees/{id}/salary/adjust", 5, true) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.request("POST", "/api/employees/" + workload.employeeId() + "/salary/adjust",
+                    "{\"strategyType\":\"annual_raise\",\"amount\":2}");
+        }
+    },
+    COMMAND_PROMOTE("POST /api/hr-commands/{id}/promote", 5, true) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.request("POST", "/api/hr-commands/" + workload.employeeId()
+                    + "/promote?newJobTitle=" + Workload.JOB_TITLES[
+                    ThreadLocalRandom.current().nextInt(Workload.JOB_TITLES.length)] + "&salaryIncrease=100", null);
+        }
+    },
+    COMMAND_UNDO("POST /api/hr-commands/undo", 3, true) {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.request("POST", "/api/hr-commands/undo", null);
+        }
+    };
+
+    private final String endpoint;
+    private final int defaultWeight;
+    private final boolean write;
+
+    Scenario(String endpoint, int defaultWeight, boolean write) {
+        this.endpoint = endpoint;
+        this.defaultWeight = defaultWeight;
+        this.write = write;
+    }
+
+    abstract HttpRequest request(Workload workload);
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    boolean isWrite() {
+        return write;
+    }
+
+    String key() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    static Scenario fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key().equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + key));
+    }
+}
@@ -0,0 +1,159 @@
+package pl.atins.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data the scenarios work against. Departments and employees are created through the public API before
+ * the run, so the harness works the same against an in-process application and a deployed one.
+ */
+final class Workload {
+
+    static final String ACTOR_HEADER = "X-Load-Actor";
+    static final String[] FIRST_NAMES = {"Anna", "Piotr", "Maria", "Jan", "Katarzyna", "Tomasz", "Ewa", "Marek"};
+    static final String[] LAST_NAMES = {"Nowak", "Kowalski", "Wisniewska", "Wojcik", "Kaminska", "Lewandowski"};
+    static final String[] JOB_TITLES = {"Developer", "Analyst", "Designer", "Accountant", "Recruiter", "Architect"};
+
+    private static final int SEED_CONCURRENCY = 16;
+    private static final int ACTORS = 50;
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long[] departmentIds = new long[0];
+    private long[] supervisorIds = new long[0];
+    private long[] employeeIds = new long[0];
+
+    Workload(HttpClient httpClient, URI baseUri, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+    }
+
+    // One in ten employees is a supervisor; everyone else reports to one of them
+    void seed(int employees, int departments) throws InterruptedException {
+        departmentIds = createAll(departments, i -> request("POST", "/api/departments",
+                "{\"name\":\"Load %s %d\",\"description\":\"Load test department\",\"location\":\"Floor %d\"}"
+                        .formatted(runId, i, i % 10)));
+
+        var supervisors = Math.max(1, employees / 10);
+        supervisorIds = createAll(supervisors, i -> request("POST", "/api/employees", newEmployee(null)));
+        var subordinates = createAll(employees - supervisors, i -> request("POST", "/api/employees",
+                newEmployee(supervisorIds[i % supervisorIds.length])));
+
+        employeeIds = new long[employees];
+        System.arraycopy(supervisorIds, 0, employeeIds, 0, supervisors);
+        System.arraycopy(subordinates, 0, employeeIds, supervisors, subordinates.length);
+    }
+
+    long employeeId() {
+        return employeeIds[ThreadLocalRandom.current().nextInt(employeeIds.length)];
+    }
+
+    long supervisorId() {
+        return supervisorIds[ThreadLocalRandom.current().nextInt(supervisorIds.length)];
+    }
+
+    long departmentId() {
+        return departmentIds[ThreadLocalRandom.current().nextInt(departmentIds.length)];
+    }
+
+    String newEmployee() {
+        return newEmployee(supervisorId());
+    }
+
+    HttpRequest get(String path) {
+        return request("GET", path, null);
+    }
+
+    HttpRequest request(String method, String path, String json) {
+        var builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(requestTimeout)
+                .header(ACTOR_HEADER, "load-" + ThreadLocalRandom.current().nextInt(ACTORS));
+        if (json == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private String newEmployee(Long supervisorId) {
+        var random = ThreadLocalRandom.current();
+        var number = sequence.incrementAndGet();
+        return """
+                {"firstName":"%s","lastName":"%s","email":"load-%s-%d@company.com","jobTitle":"%s",\
+                "hireDate":"2020-01-01","salary":%d,"supervisorId":%s,"departmentIds":[%d]}"""
+                .formatted(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)], runId, number,
+                        JOB_TITLES[random.nextInt(JOB_TITLES.length)], random.nextInt(40_000, 120_000),
+                        supervisorId, departmentId());
+    }
+
+    private long[] createAll(int count, RequestFactory factory) throws InterruptedException {
+        var permits = new Semaphore(SEED_CONCURRENCY);
+        var results = new ArrayList<Future<Long>>(count);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                var request = factory.create(i);
+                permits.acquire();
+                results.add(executor.submit(release(permits, () -> create(request))));
+            }
+        }
+        return results.stream().mapToLong(Workload::join).toArray();
+    }
+
+    private long create(HttpRequest request) throws IOException, InterruptedException {
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201 && response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding " + request.uri() + " failed with status "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private static <T> Callable<T> release(Semaphore permits, Callable<T> task) {
+        return () -> {
+            try {
+                return task.call();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    private static long join(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not seed load test data", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while seeding load test data", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create(int index);
+    }
+}
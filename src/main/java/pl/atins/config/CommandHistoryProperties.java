@@ -0,0 +1,19 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.commands.history")
+public class CommandHistoryProperties {
+
+    private int maxEntriesPerActor = 50;
+
+    private int maxActors = 10_000;
+
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    private Duration archiveRetention = Duration.ofDays(90);
+}
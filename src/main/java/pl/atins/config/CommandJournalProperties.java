@@ -0,0 +1,19 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "hr.commands.journal")
+public class CommandJournalProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data", "journal");
+
+    private int snapshotInterval = 1000;
+
+    private boolean fsync = true;
+}
@@ -0,0 +1,21 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.commands.scheduler")
+public class CommandSchedulerProperties {
+
+    private Duration tick = Duration.ofSeconds(1);
+
+    private int wheelSize = 64;
+
+    private int levels = 4;
+
+    private int workers = 4;
+
+    private int batchSize = 500;
+}
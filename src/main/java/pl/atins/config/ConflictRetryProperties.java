@@ -0,0 +1,19 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.concurrency.retry")
+public class ConflictRetryProperties {
+
+    private int maxAttempts = 4;
+
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    private Duration maxBackoff = Duration.ofMillis(200);
+
+    private double multiplier = 2.0;
+}
@@ -1,8 +1,10 @@
 package pl.atins.config;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import pl.atins.core.WorkforceGenerator;
 import pl.atins.domain.Department;
 import pl.atins.domain.Employee;
 import pl.atins.repository.DepartmentRepository;
@@ -17,12 +19,23 @@ public class DataLoader implements CommandLineRunner {
 
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
+    private final WorkforceGenerator workforceGenerator;
+    private final SeedProperties seedProperties;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     public void run(String... args) {
-        if (employeeRepository.count() == 0) {
+        if (employeeRepository.count() > 0) {
+            return;
+        }
+
+        if (seedProperties.getEmployees() > 0) {
+            workforceGenerator.generate();
+        } else {
             loadSampleData();
+            departmentRepository.recountEmployees();
         }
+        entityManagerFactory.getCache().evictAll();
     }
 
     private void loadSampleData() {
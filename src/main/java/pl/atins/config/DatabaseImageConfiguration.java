@@ -0,0 +1,39 @@
+package pl.atins.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.atins.core.DatabaseImage;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "hr.database.image.enabled", havingValue = "true")
+public class DatabaseImageConfiguration {
+
+    @Bean
+    public static BeanPostProcessor databaseImageRestorer(ObjectProvider<DatabaseImage> databaseImage) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    databaseImage.getObject().restore(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer databaseImageSchemaAction(DatabaseImage databaseImage) {
+        return hibernateProperties -> {
+            if (databaseImage.isRestored()) {
+                hibernateProperties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            }
+        };
+    }
+}
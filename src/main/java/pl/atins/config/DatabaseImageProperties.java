@@ -0,0 +1,19 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "hr.database.image")
+public class DatabaseImageProperties {
+
+    private boolean enabled = false;
+
+    private Path location = Path.of("data/hr-image.zip");
+
+    private boolean export = false;
+
+    private boolean exitAfterExport = false;
+}
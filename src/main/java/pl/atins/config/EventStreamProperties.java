@@ -0,0 +1,31 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.events.stream")
+public class EventStreamProperties {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST, DISCONNECT
+    }
+
+    private int bufferSize = 256;
+
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    private int replaySize = 10_000;
+
+    private int maxSubscribers = 10_000;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    private Duration timeout = Duration.ofMinutes(30);
+
+    private Duration writeTimeout = Duration.ofSeconds(10);
+
+    private int drainBatchSize = 64;
+}
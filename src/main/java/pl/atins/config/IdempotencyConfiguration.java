@@ -0,0 +1,22 @@
+package pl.atins.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.atins.core.IdempotencyFilter;
+import pl.atins.core.IdempotencyStore;
+
+@Configuration
+@ConditionalOnProperty(name = "hr.idempotency.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                       IdempotencyProperties properties) {
+        var registration = new FilterRegistrationBean<>(new IdempotencyFilter(store, properties));
+        registration.addUrlPatterns("/api/employees/*", "/api/departments/*", "/api/hr-commands/*");
+        registration.setName("idempotencyFilter");
+        return registration;
+    }
+}
@@ -0,0 +1,19 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+
+    private int cacheSize = 10_000;
+
+    private Duration ttl = Duration.ofHours(24);
+
+    private int maxBodySize = 1024 * 1024;
+}
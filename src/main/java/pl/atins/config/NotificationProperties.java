@@ -0,0 +1,33 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.notifications")
+public class NotificationProperties {
+
+    private Duration window = Duration.ofSeconds(30);
+
+    private String hrRecipient = "hr@company.com";
+
+    private String sender = "hr-system@company.com";
+
+    private int burst = 20;
+
+    private double ratePerSecond = 5;
+
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Retry {
+
+        private int maxAttempts = 5;
+
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofMinutes(15);
+    }
+}
@@ -6,7 +6,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import pl.atins.core.AuditLogObserver;
 import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.EventStreamHub;
 import pl.atins.core.NotificationObserver;
+import pl.atins.core.SalaryAnalytics;
 
 @Configuration
 @RequiredArgsConstructor
@@ -15,12 +17,16 @@ public class ObserverConfiguration {
     private final EmployeeEventPublisher publisher;
     private final AuditLogObserver auditLogObserver;
     private final NotificationObserver notificationObserver;
+    private final EventStreamHub eventStreamHub;
+    private final SalaryAnalytics salaryAnalytics;
 
     @Bean
     public ApplicationRunner registerObservers() {
         return args -> {
             publisher.addObserver(auditLogObserver);
             publisher.addObserver(notificationObserver);
+            publisher.addObserver(eventStreamHub);
+            publisher.addObserver(salaryAnalytics);
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.persistence")
+public class PersistenceProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data", "db");
+
+    private DataSize cacheSize = DataSize.ofMegabytes(64);
+
+    private Duration writeDelay = Duration.ofMillis(500);
+
+    private Compaction compaction = new Compaction();
+
+    private Backup backup = new Backup();
+
+    @Data
+    public static class Compaction {
+
+        // Cron expression; "-" disables scheduled compaction
+        private String schedule = "0 0 3 * * *";
+
+        private int fillRateThreshold = 80;
+
+        private Duration maxDuration = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Backup {
+
+        // Cron expression; "-" disables scheduled backups
+        private String schedule = "-";
+
+        private Path directory = Path.of("data", "backups");
+
+        private int retention = 7;
+    }
+}
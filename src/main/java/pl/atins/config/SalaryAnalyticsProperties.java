@@ -0,0 +1,18 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.analytics.salaries")
+public class SalaryAnalyticsProperties {
+
+    private double relativeAccuracy = 0.01;
+
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+
+    // 0 uses one thread per available processor
+    private int threads = 0;
+}
@@ -0,0 +1,75 @@
+package pl.atins.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+@ConditionalOnProperty(name = "hr.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties,
+                                              ApplicationContext applicationContext) {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provider.getCacheManager(URI.create("hr-system:" + applicationContext.getId() + ":"
+                + System.identityHashCode(applicationContext)), getClass().getClassLoader());
+
+        var timeToLive = OptionalLong.of(properties.getTimeToLive().toNanos());
+        create(cacheManager, Employee.class.getName(), properties.getEmployeeEntries(), timeToLive);
+        create(cacheManager, Department.class.getName(), properties.getDepartmentEntries(), timeToLive);
+        create(cacheManager, Employee.class.getName() + ".departments", properties.getCollectionEntries(), timeToLive);
+        create(cacheManager, Department.class.getName() + ".employees", properties.getCollectionEntries(), timeToLive);
+        create(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, properties.getQueryEntries(),
+                timeToLive);
+        create(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, OptionalLong.empty());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Department.employees is the inverse side; without this it is only evicted when both sides are updated
+            hibernateProperties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "default", Tags.empty());
+    }
+
+    private static void create(CacheManager cacheManager, String region, long maximumSize, OptionalLong timeToLive) {
+        var configuration = new CaffeineConfiguration<>()
+                .setMaximumSize(maximumSize > 0 ? OptionalLong.of(maximumSize) : OptionalLong.empty())
+                .setExpireAfterWrite(timeToLive);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,23 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.cache")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = true;
+
+    private long employeeEntries = 100_000;
+
+    private long departmentEntries = 10_000;
+
+    private long collectionEntries = 100_000;
+
+    private long queryEntries = 10_000;
+
+    private Duration timeToLive = Duration.ofMinutes(30);
+}
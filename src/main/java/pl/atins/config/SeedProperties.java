@@ -0,0 +1,43 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "hr.seed")
+public class SeedProperties {
+
+    // 0 keeps the hand-written sample data; anything above generates a synthetic workforce of that size
+    private int employees = 0;
+
+    private int departments = 50;
+
+    private double spanOfControl = 8.0;
+
+    private int maxDepth = 8;
+
+    private double departmentSkew = 1.0;
+
+    private double departmentAffinity = 0.9;
+
+    private double secondaryDepartmentRatio = 0.1;
+
+    private Salary salary = new Salary();
+
+    private int batchSize = 5000;
+
+    // 0 uses one thread per available processor
+    private int threads = 0;
+
+    private long randomSeed = 42;
+
+    @Data
+    public static class Salary {
+
+        private long entryLevel = 45000;
+
+        private double levelStep = 1.3;
+
+        private double spread = 0.15;
+    }
+}
@@ -0,0 +1,17 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hr.threads.pinning")
+public class VirtualThreadProperties {
+
+    private boolean monitorEnabled = true;
+
+    private Duration threshold = Duration.ofMillis(20);
+
+    private int maxLoggedLocations = 100;
+}
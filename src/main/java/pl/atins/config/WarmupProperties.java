@@ -0,0 +1,15 @@
+package pl.atins.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "hr.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+
+    private int iterations = 200;
+
+    private int sampleSize = 100;
+}
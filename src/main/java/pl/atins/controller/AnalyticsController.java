@@ -0,0 +1,23 @@
+package pl.atins.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.atins.dto.SalaryStatisticsResponse;
+import pl.atins.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/salaries")
+    public ResponseEntity<SalaryStatisticsResponse> getSalaryStatistics() {
+        var response = analyticsService.getSalaryStatistics();
+        return ResponseEntity.ok(response);
+    }
+}
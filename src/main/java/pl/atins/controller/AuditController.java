@@ -0,0 +1,59 @@
+package pl.atins.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.service.AuditService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+public class AuditController {
+
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getAuditEvents(
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) EmployeeEvent.EventType type) {
+
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Parameter 'from' must not be after 'to'");
+        }
+
+        var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (var generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                auditService.streamEvents(employeeId, from, to, type, event -> {
+                    try {
+                        writer.writeValue(generator, event);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
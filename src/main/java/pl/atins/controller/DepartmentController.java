@@ -13,8 +13,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import pl.atins.core.EntityTags;
 import pl.atins.dto.CreateDepartmentRequest;
 import pl.atins.dto.DepartmentResponse;
+import pl.atins.dto.DepartmentMembersRequest;
+import pl.atins.dto.DepartmentRosterResponse;
+import pl.atins.dto.MembershipChangeResponse;
+import pl.atins.dto.MoveMembersRequest;
 import pl.atins.dto.UpdateDepartmentRequest;
 import pl.atins.service.DepartmentService;
 
@@ -26,6 +32,7 @@ import java.util.List;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final EntityTags entityTags;
 
     @PostMapping
     public ResponseEntity<DepartmentResponse> createDepartment(@Valid @RequestBody CreateDepartmentRequest request) {
@@ -34,8 +41,41 @@ public class DepartmentController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DepartmentResponse> getDepartmentById(@PathVariable Long id) {
+    public ResponseEntity<DepartmentResponse> getDepartmentById(@PathVariable Long id, WebRequest webRequest) {
+        var etag = entityTags.department(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         var response = departmentService.getDepartmentById(id);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @GetMapping("/{id}/employees")
+    public ResponseEntity<DepartmentRosterResponse> getRoster(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "lastName") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest webRequest) {
+        var etag = entityTags.all();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        var response = departmentService.getRoster(id, sort, after, limit);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    @PostMapping("/{id}/members")
+    public ResponseEntity<MembershipChangeResponse> addMembers(@PathVariable Long id,
+                                                               @Valid @RequestBody DepartmentMembersRequest request) {
+        var response = departmentService.addMembers(id, request.getEmployeeIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/members/move")
+    public ResponseEntity<MembershipChangeResponse> moveMembers(@PathVariable Long id,
+                                                                @Valid @RequestBody MoveMembersRequest request) {
+        var response = departmentService.moveMembers(id, request.getTargetDepartmentId(), request.getEmployeeIds());
         return ResponseEntity.ok(response);
     }
 
@@ -56,7 +96,13 @@ public class DepartmentController {
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) Boolean empty,
-            @RequestParam(required = false) Integer minEmployees) {
+            @RequestParam(required = false) Integer minEmployees,
+            WebRequest webRequest) {
+
+        var etag = entityTags.all();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
 
         List<DepartmentResponse> departments;
 
@@ -72,7 +118,7 @@ public class DepartmentController {
             departments = departmentService.getAllDepartments();
         }
 
-        return ResponseEntity.ok(departments);
+        return ResponseEntity.ok().eTag(etag).body(departments);
     }
 
     @PutMapping("/{id}")
@@ -1,5 +1,7 @@
 package pl.atins.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,14 +15,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import pl.atins.core.EntityTags;
+import pl.atins.dto.ChangeFeedResponse;
 import pl.atins.dto.CreateEmployeeRequest;
 import pl.atins.dto.EmployeeResponse;
+import pl.atins.dto.EmployeeView;
 import pl.atins.dto.SalaryAdjustmentRequest;
 import pl.atins.dto.UpdateEmployeeRequest;
 import pl.atins.service.EmployeeService;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/employees")
@@ -28,6 +35,8 @@ import java.util.List;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EntityTags entityTags;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<EmployeeResponse> createEmployee(@Valid @RequestBody CreateEmployeeRequest request) {
@@ -36,8 +45,25 @@ public class EmployeeController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EmployeeResponse> getEmployeeById(@PathVariable Long id) {
-        var response = employeeService.getEmployeeById(id);
+    public ResponseEntity<Object> getEmployeeById(
+            @PathVariable Long id,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(required = false) Set<String> expand,
+            WebRequest webRequest) {
+        var view = EmployeeView.of(fields, expand);
+        var etag = entityTags.employee(id, view);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        var response = employeeService.getEmployeeById(id, view);
+        return ResponseEntity.ok().eTag(etag).body(render(response, view));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedResponse> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        var response = employeeService.getChanges(since, limit);
         return ResponseEntity.ok(response);
     }
 
@@ -48,27 +74,36 @@ public class EmployeeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<EmployeeResponse>> getAllEmployees(
+    public ResponseEntity<List<Object>> getAllEmployees(
             @RequestParam(required = false) String jobTitle,
             @RequestParam(required = false) Long departmentId,
             @RequestParam(required = false) Long supervisorId,
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Set<String> fields,
+            @RequestParam(required = false) Set<String> expand,
+            WebRequest webRequest) {
+
+        var view = EmployeeView.of(fields, expand);
+        var etag = entityTags.all(view);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
 
         List<EmployeeResponse> employees;
 
         if (jobTitle != null) {
-            employees = employeeService.getEmployeesByJobTitle(jobTitle);
+            employees = employeeService.getEmployeesByJobTitle(jobTitle, view);
         } else if (departmentId != null) {
-            employees = employeeService.getEmployeesByDepartment(departmentId);
+            employees = employeeService.getEmployeesByDepartment(departmentId, view);
         } else if (supervisorId != null) {
-            employees = employeeService.getEmployeesBySupervisor(supervisorId);
+            employees = employeeService.getEmployeesBySupervisor(supervisorId, view);
         } else if (name != null) {
-            employees = employeeService.searchEmployeesByName(name);
+            employees = employeeService.searchEmployeesByName(name, view);
         } else {
-            employees = employeeService.getAllEmployees();
+            employees = employeeService.getAllEmployees(view);
         }
 
-        return ResponseEntity.ok(employees);
+        return ResponseEntity.ok().eTag(etag).body(employees.stream().map(employee -> render(employee, view)).toList());
     }
 
     @PutMapping("/{id}")
@@ -125,4 +160,13 @@ public class EmployeeController {
         var response = employeeService.removeFromDepartment(id, departmentId);
         return ResponseEntity.ok(response);
     }
+
+    private Object render(EmployeeResponse response, EmployeeView view) {
+        if (view.isFull()) {
+            return response;
+        }
+        ObjectNode node = objectMapper.valueToTree(response);
+        node.retain(view.includedFields());
+        return node;
+    }
 }
\ No newline at end of file
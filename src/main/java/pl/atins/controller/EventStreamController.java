@@ -0,0 +1,34 @@
+package pl.atins.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.core.EventStreamHub;
+
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventStreamController {
+
+    private final EventStreamHub eventStreamHub;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestParam(required = false) Set<EmployeeEvent.EventType> type,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String lastEventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+
+        var filter = new EventStreamHub.Filter(type, departmentId, employeeId);
+        return eventStreamHub.subscribe(filter, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
@@ -1,22 +1,33 @@
 package pl.atins.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import pl.atins.core.AssignSupervisorCommand;
 import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.EntityLoader;
 import pl.atins.core.HRCommandManager;
 import pl.atins.core.PromoteEmployeeCommand;
+import pl.atins.core.RetryOnConflict;
+import pl.atins.dto.BatchCommandRequest;
+import pl.atins.dto.BatchCommandResponse;
 import pl.atins.dto.EmployeeResponse;
+import pl.atins.exception.UnauthenticatedException;
 import pl.atins.repository.EmployeeRepository;
 import pl.atins.service.EmployeeService;
+import pl.atins.service.HRCommandService;
 
 import java.math.BigDecimal;
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/hr-commands")
@@ -26,65 +37,87 @@ public class HRCommandController {
     private final HRCommandManager commandManager;
     private final EmployeeRepository employeeRepository;
     private final EmployeeEventPublisher eventPublisher;
+    private final EntityLoader entityLoader;
     private final EmployeeService employeeService;
+    private final HRCommandService hrCommandService;
 
     @PostMapping("/{employeeId}/promote")
+    @RetryOnConflict
     public ResponseEntity<EmployeeResponse> promoteEmployee(
+            Principal principal,
             @PathVariable Long employeeId,
             @RequestParam String newJobTitle,
             @RequestParam(required = false) BigDecimal salaryIncrease) {
+        var actor = actorOf(principal);
 
         var employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with id: " + employeeId));
 
         var command = new PromoteEmployeeCommand(employee, newJobTitle, salaryIncrease,
                 employeeRepository, eventPublisher);
-        commandManager.executeCommand(command);
+        commandManager.executeCommand(actor, command);
 
         var response = employeeService.getEmployeeById(employeeId);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{employeeId}/assign-supervisor/{supervisorId}")
+    @RetryOnConflict
     public ResponseEntity<EmployeeResponse> assignSupervisor(
+            Principal principal,
             @PathVariable Long employeeId,
             @PathVariable Long supervisorId) {
+        var actor = actorOf(principal);
 
-        var employee = employeeRepository.findById(employeeId)
+        var employees = entityLoader.employees(List.of(employeeId, supervisorId));
+        var employee = Optional.ofNullable(employees.get(employeeId))
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with id: " + employeeId));
-        var supervisor = employeeRepository.findById(supervisorId)
+        var supervisor = Optional.ofNullable(employees.get(supervisorId))
                 .orElseThrow(() -> new IllegalArgumentException("Supervisor not found with id: " + supervisorId));
 
         var command = new AssignSupervisorCommand(employee, supervisor, employeeRepository, eventPublisher);
-        commandManager.executeCommand(command);
+        commandManager.executeCommand(actor, command);
 
         var response = employeeService.getEmployeeById(employeeId);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCommandResponse> executeBatch(
+            Principal principal,
+            @Valid @RequestBody BatchCommandRequest request) {
+        return ResponseEntity.ok(hrCommandService.executeBatch(actorOf(principal), request.getCommands()));
+    }
+
     @PostMapping("/undo")
-    public ResponseEntity<String> undoLastCommand() {
-        if (!commandManager.canUndo()) {
+    public ResponseEntity<String> undoLastCommand(Principal principal) {
+        if (commandManager.undoLastCommand(actorOf(principal)).isEmpty()) {
             return ResponseEntity.badRequest().body("No commands to undo");
         }
 
-        commandManager.undoLastCommand();
         return ResponseEntity.ok("Last command undone successfully");
     }
 
     @GetMapping("/can-undo")
-    public ResponseEntity<Boolean> canUndo() {
-        return ResponseEntity.ok(commandManager.canUndo());
+    public ResponseEntity<Boolean> canUndo(Principal principal) {
+        return ResponseEntity.ok(commandManager.canUndo(actorOf(principal)));
     }
 
     @GetMapping("/history-size")
-    public ResponseEntity<Integer> getHistorySize() {
-        return ResponseEntity.ok(commandManager.getHistorySize());
+    public ResponseEntity<Integer> getHistorySize(Principal principal) {
+        return ResponseEntity.ok(commandManager.getHistorySize(actorOf(principal)));
     }
 
     @PostMapping("/clear-history")
-    public ResponseEntity<String> clearHistory() {
-        commandManager.clearHistory();
+    public ResponseEntity<String> clearHistory(Principal principal) {
+        commandManager.clearHistory(actorOf(principal));
         return ResponseEntity.ok("Command history cleared");
     }
-}
\ No newline at end of file
+
+    static String actorOf(Principal principal) {
+        if (principal == null || principal.getName() == null || principal.getName().isBlank()) {
+            throw new UnauthenticatedException("HR commands require an authenticated user");
+        }
+        return principal.getName();
+    }
+}
@@ -0,0 +1,55 @@
+package pl.atins.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pl.atins.domain.ScheduledCommand;
+import pl.atins.dto.ScheduleCommandRequest;
+import pl.atins.dto.ScheduledCommandResponse;
+import pl.atins.service.ScheduledCommandService;
+
+import java.security.Principal;
+import java.util.List;
+
+import static pl.atins.controller.HRCommandController.actorOf;
+
+@RestController
+@RequestMapping("/api/hr-commands/scheduled")
+@RequiredArgsConstructor
+public class ScheduledCommandController {
+
+    private final ScheduledCommandService scheduledCommandService;
+
+    @PostMapping
+    public ResponseEntity<List<ScheduledCommandResponse>> scheduleCommands(
+            Principal principal,
+            @Valid @RequestBody ScheduleCommandRequest request) {
+        var response = scheduledCommandService.scheduleCommands(actorOf(principal), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ScheduledCommandResponse>> getScheduledCommands(
+            @RequestParam(required = false) ScheduledCommand.Status status) {
+        return ResponseEntity.ok(scheduledCommandService.getScheduledCommands(status));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ScheduledCommandResponse> getScheduledCommand(@PathVariable Long id) {
+        return ResponseEntity.ok(scheduledCommandService.getScheduledCommand(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ScheduledCommandResponse> cancelScheduledCommand(@PathVariable Long id) {
+        return ResponseEntity.ok(scheduledCommandService.cancelScheduledCommand(id));
+    }
+}
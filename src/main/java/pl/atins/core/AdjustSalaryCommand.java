@@ -0,0 +1,82 @@
+package pl.atins.core;
+
+import pl.atins.domain.Employee;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+
+public class AdjustSalaryCommand implements HRCommand {
+
+    private final Employee employee;
+    private final SalaryAdjustmentStrategy strategy;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeEventPublisher eventPublisher;
+
+    private BigDecimal previousSalary;
+    private BigDecimal newSalary;
+    private boolean executed = false;
+
+    public AdjustSalaryCommand(Employee employee, SalaryAdjustmentStrategy strategy,
+            EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher) {
+        this.employee = employee;
+        this.strategy = strategy;
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void execute() {
+        if (executed) {
+            throw new IllegalStateException("Command already executed");
+        }
+
+        previousSalary = employee.getSalary();
+        newSalary = strategy.adjustSalary(employee);
+        employee.setSalary(newSalary);
+
+        employeeRepository.save(employee);
+
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.SALARY_ADJUSTED,
+                "Salary adjusted via command", previousSalary, newSalary);
+        eventPublisher.publishEvent(event);
+
+        executed = true;
+    }
+
+    @Override
+    public void undo() {
+        if (!executed) {
+            throw new IllegalStateException("Cannot undo command that wasn't executed");
+        }
+
+        employee.setSalary(previousSalary);
+
+        employeeRepository.save(employee);
+
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.SALARY_ADJUSTED,
+                "Salary adjustment undone", newSalary, previousSalary);
+        eventPublisher.publishEvent(event);
+
+        executed = false;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Adjust salary of %s %s from %s to %s",
+                employee.getFirstName(), employee.getLastName(), previousSalary, newSalary);
+    }
+
+    @Override
+    public boolean canUndo() {
+        return executed;
+    }
+
+    @Override
+    public UndoRecord toUndoRecord() {
+        if (!executed) {
+            throw new IllegalStateException("Cannot record command that wasn't executed");
+        }
+
+        return new SalaryAdjustmentUndoRecord(employee.getId(), getDescription(), previousSalary, newSalary);
+    }
+}
@@ -83,4 +83,15 @@ public class AssignSupervisorCommand implements HRCommand {
     public boolean canUndo() {
         return executed;
     }
+
+    @Override
+    public UndoRecord toUndoRecord() {
+        if (!executed) {
+            throw new IllegalStateException("Cannot record command that wasn't executed");
+        }
+
+        return new SupervisorAssignmentUndoRecord(employee.getId(), getDescription(),
+                previousSupervisor != null ? previousSupervisor.getId() : null,
+                previousSupervisorSince, newSupervisor.getId());
+    }
 }
\ No newline at end of file
@@ -1,14 +1,43 @@
 package pl.atins.core;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import pl.atins.domain.AuditEvent;
+import pl.atins.repository.AuditEventRepository;
+
+import java.util.List;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class AuditLogObserver implements EmployeeEventObserver {
 
+    private final AuditEventRepository auditEventRepository;
+
     @Override
     public void onEmployeeEvent(EmployeeEvent event) {
+        logEvent(event);
+        auditEventRepository.save(toAuditEvent(event));
+    }
+
+    @Override
+    public void onEmployeeEvents(List<EmployeeEvent> events) {
+        events.forEach(this::logEvent);
+        auditEventRepository.saveAll(events.stream().map(this::toAuditEvent).toList());
+    }
+
+    @Override
+    public boolean isInterestedIn(EmployeeEvent.EventType eventType) {
+        return true;
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    private void logEvent(EmployeeEvent event) {
         log.info("AUDIT: {} - Employee: {} {} (ID: {}), Details: {}, Old Value: {}, New Value: {}",
                 event.getEventType(),
                 event.getEmployee().getFirstName(),
@@ -19,8 +48,24 @@ public class AuditLogObserver implements EmployeeEventObserver {
                 event.getNewValue());
     }
 
-    @Override
-    public boolean isInterestedIn(EmployeeEvent.EventType eventType) {
-        return true;
+    private AuditEvent toAuditEvent(EmployeeEvent event) {
+        var employee = event.getEmployee();
+        var auditEvent = new AuditEvent();
+        auditEvent.setEmployeeId(employee.getId());
+        auditEvent.setEmployeeName(employee.getFirstName() + " " + employee.getLastName());
+        auditEvent.setEventType(event.getEventType());
+        auditEvent.setOccurredAt(event.getTimestamp());
+        auditEvent.setDetails(event.getDetails());
+        auditEvent.setOldValue(describe(event.getOldValue()));
+        auditEvent.setNewValue(describe(event.getNewValue()));
+        return auditEvent;
+    }
+
+    private String describe(Object value) {
+        var text = EmployeeEvent.describe(value);
+        if (text == null) {
+            return null;
+        }
+        return text.length() > AuditEvent.VALUE_LENGTH ? text.substring(0, AuditEvent.VALUE_LENGTH) : text;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package pl.atins.core;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.atins.domain.EntityChange;
+import pl.atins.repository.EntityChangeRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class ChangeTracker {
+
+    private static final String UPSERT_SQL = "MERGE INTO entity_change (entity_type, entity_id, sequence, deleted, changed_at) " +
+            "KEY (entity_type, entity_id) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String BACKFILL_SQL = "INSERT INTO entity_change (entity_type, entity_id, sequence, deleted, changed_at) " +
+            "SELECT ?, t.id, ?, FALSE, ? FROM %s t WHERE NOT EXISTS " +
+            "(SELECT 1 FROM entity_change c WHERE c.entity_type = ? AND c.entity_id = t.id)";
+
+    private static final String SEQUENCE_SQL = "SELECT sequence FROM entity_change " +
+            "WHERE entity_type = ? AND entity_id = ? AND deleted = FALSE";
+
+    private record Key(EntityChange.EntityType type, Long id) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityChangeRepository entityChangeRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long lastSequence;
+
+    public ChangeTracker(JdbcTemplate jdbcTemplate, EntityChangeRepository entityChangeRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityChangeRepository = entityChangeRepository;
+    }
+
+    @PostConstruct
+    public void restoreSequence() {
+        lastSequence = entityChangeRepository.findMaxSequence();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void backfill() {
+        var sequence = allocate();
+        try {
+            var now = Timestamp.from(Instant.now());
+            var employees = jdbcTemplate.update(BACKFILL_SQL.formatted("employee"),
+                    EntityChange.EntityType.EMPLOYEE.name(), sequence, now, EntityChange.EntityType.EMPLOYEE.name());
+            var departments = jdbcTemplate.update(BACKFILL_SQL.formatted("department"),
+                    EntityChange.EntityType.DEPARTMENT.name(), sequence, now, EntityChange.EntityType.DEPARTMENT.name());
+            if (employees + departments > 0) {
+                log.info("Recorded {} employees and {} departments without change history", employees, departments);
+            }
+        } finally {
+            release(sequence);
+        }
+    }
+
+    public void employeeChanged(Long id) {
+        record(new Key(EntityChange.EntityType.EMPLOYEE, id), false);
+    }
+
+    public void employeesChanged(Collection<Long> ids) {
+        ids.forEach(this::employeeChanged);
+    }
+
+    public void employeeDeleted(Long id) {
+        record(new Key(EntityChange.EntityType.EMPLOYEE, id), true);
+    }
+
+    public void departmentChanged(Long id) {
+        record(new Key(EntityChange.EntityType.DEPARTMENT, id), false);
+    }
+
+    public void departmentDeleted(Long id) {
+        record(new Key(EntityChange.EntityType.DEPARTMENT, id), true);
+    }
+
+    public long getStableSequence() {
+        lock.lock();
+        try {
+            return inFlight.isEmpty() ? lastSequence : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public OptionalLong findSequence(EntityChange.EntityType type, Long id) {
+        var sequences = jdbcTemplate.queryForList(SEQUENCE_SQL, Long.class, type.name(), id);
+        return sequences.isEmpty() ? OptionalLong.empty() : OptionalLong.of(sequences.getFirst());
+    }
+
+    private void record(Key key, boolean deleted) {
+        if (key.id() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().merge(key, deleted, Boolean::logicalOr);
+            return;
+        }
+
+        var sequence = allocate();
+        try {
+            write(Map.of(key, deleted), sequence);
+        } finally {
+            release(sequence);
+        }
+    }
+
+    private long allocate() {
+        lock.lock();
+        try {
+            var sequence = ++lastSequence;
+            inFlight.add(sequence);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long sequence) {
+        lock.lock();
+        try {
+            inFlight.remove(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Map<Key, Boolean> changes, long sequence) {
+        var changedAt = Timestamp.from(Instant.now());
+        var arguments = new ArrayList<Object[]>(changes.size());
+        changes.forEach((key, deleted) -> arguments.add(
+                new Object[]{key.type().name(), key.id(), sequence, deleted, changedAt}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, arguments);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Boolean> pendingChanges() {
+        var pending = (Map<Key, Boolean>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        var changes = new LinkedHashMap<Key, Boolean>();
+        TransactionSynchronizationManager.bindResource(this, changes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long sequence;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!changes.isEmpty()) {
+                    sequence = allocate();
+                    write(changes, sequence);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (sequence != 0) {
+                    release(sequence);
+                }
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTracker.this);
+            }
+        });
+        return changes;
+    }
+}
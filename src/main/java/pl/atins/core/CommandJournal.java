@@ -0,0 +1,405 @@
+package pl.atins.core;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import pl.atins.config.CommandHistoryProperties;
+import pl.atins.config.CommandJournalProperties;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+@Component
+@Slf4j
+public class CommandJournal {
+
+    private static final String JOURNAL_FILE = "commands.journal";
+    private static final String SNAPSHOT_FILE = "commands.snapshot";
+    private static final String PREVIOUS_SNAPSHOT_FILE = "commands.snapshot.previous";
+    private static final String ARCHIVE_PREFIX = "commands-";
+    private static final String ARCHIVE_SUFFIX = ".journal";
+    private static final int SNAPSHOT_MAGIC = 0x48524353;
+    private static final int FORMAT_VERSION = 1;
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    private final CommandJournalProperties properties;
+    private final CommandHistoryProperties historyProperties;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel channel;
+    private long journalSize;
+    private Supplier<List<CommandRecord>> stateSupplier;
+    private long lastSequence;
+    private long snapshotSequence = -1;
+    private long previousSnapshotSequence = -1;
+    private long archivedSequence;
+    private int entriesSinceSnapshot;
+
+    public CommandJournal(CommandJournalProperties properties, CommandHistoryProperties historyProperties) {
+        this.properties = properties;
+        this.historyProperties = historyProperties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public List<CommandRecord> recover(Supplier<List<CommandRecord>> stateSupplier) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+
+        lock.lock();
+        try {
+            this.stateSupplier = stateSupplier;
+            var directory = properties.getDirectory();
+            Files.createDirectories(directory);
+
+            var state = new TreeMap<Long, CommandRecord>();
+            var archives = listArchives();
+            archivedSequence = archives.isEmpty() ? 0 : archiveSequence(archives.getLast());
+            snapshotSequence = readSnapshot(directory.resolve(SNAPSHOT_FILE), state);
+            if (snapshotSequence < 0) {
+                previousSnapshotSequence = readSnapshot(directory.resolve(PREVIOUS_SNAPSHOT_FILE), state);
+                for (var archive : archives) {
+                    if (archiveSequence(archive) > previousSnapshotSequence) {
+                        replay(archive, state, false);
+                    }
+                }
+            }
+            var journal = directory.resolve(JOURNAL_FILE);
+            replay(journal, state, true);
+
+            channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            journalSize = channel.size();
+            channel.position(journalSize);
+            lastSequence = Math.max(lastSequence, state.isEmpty() ? 0 : state.lastKey());
+
+            log.info("Recovered {} command records from journal in {}", state.size(), directory);
+            return new ArrayList<>(state.values());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover command journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void recordExecuted(CommandRecord record) {
+        append(JournalCodec.ENTRY_EXECUTED, out -> JournalCodec.writeCommandRecord(out, record),
+                record.getSequence());
+    }
+
+    public void recordUndone(CommandRecord record) {
+        append(JournalCodec.ENTRY_UNDONE, out -> {
+            out.writeLong(record.getSequence());
+            out.writeUTF(record.getActor());
+        }, record.getSequence());
+    }
+
+    public void recordCleared(String actor, long sequence) {
+        append(JournalCodec.ENTRY_CLEARED, out -> {
+            out.writeLong(sequence);
+            out.writeUTF(actor);
+        }, sequence);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            if (entriesSinceSnapshot > 0) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            log.error("Failed to write command journal snapshot on close", e);
+        } finally {
+            if (channel != null) {
+                closeQuietly();
+                channel = null;
+            }
+            lock.unlock();
+        }
+    }
+
+    private void append(byte entryType, EntryWriter writer, long sequence) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (channel == null) {
+                throw new IllegalStateException("Command journal has not been recovered yet");
+            }
+            try {
+                reopenIfClosed();
+                writeFrame(entryType, writer);
+            } catch (IOException e) {
+                // Closing makes the next append cut back a partially written entry
+                closeQuietly();
+                throw new UncheckedIOException("Failed to append entry to command journal", e);
+            }
+
+            lastSequence = Math.max(lastSequence, sequence);
+            if (++entriesSinceSnapshot >= properties.getSnapshotInterval()) {
+                try {
+                    snapshot();
+                } catch (IOException e) {
+                    log.error("Failed to write command journal snapshot, retrying on the next append", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeFrame(byte entryType, EntryWriter writer) throws IOException {
+        var bytes = new ByteArrayOutputStream(128);
+        var out = new DataOutputStream(bytes);
+        out.writeByte(entryType);
+        writer.write(out);
+        var payload = bytes.toByteArray();
+
+        var crc = new CRC32();
+        crc.update(payload);
+        var frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        if (properties.isFsync()) {
+            channel.force(false);
+        }
+        journalSize = channel.position();
+    }
+
+    private void reopenIfClosed() throws IOException {
+        if (channel.isOpen()) {
+            return;
+        }
+        channel = FileChannel.open(properties.getDirectory().resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        if (channel.size() > journalSize) {
+            channel.truncate(journalSize);
+        }
+        journalSize = channel.size();
+        channel.position(journalSize);
+    }
+
+    private void closeQuietly() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close command journal", e);
+        }
+    }
+
+    private void snapshot() throws IOException {
+        if (lastSequence <= archivedSequence) {
+            return;
+        }
+
+        var directory = properties.getDirectory();
+        var records = stateSupplier.get();
+
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(lastSequence);
+        out.writeInt(records.size());
+        for (CommandRecord record : records) {
+            JournalCodec.writeCommandRecord(out, record);
+        }
+        var crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+
+        var temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (var snapshotChannel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                snapshotChannel.write(buffer);
+            }
+            snapshotChannel.force(true);
+        }
+        var current = directory.resolve(SNAPSHOT_FILE);
+        if (snapshotSequence >= 0) {
+            Files.move(current, directory.resolve(PREVIOUS_SNAPSHOT_FILE),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            previousSnapshotSequence = snapshotSequence;
+            snapshotSequence = -1;
+        }
+        Files.move(temporary, current, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshotSequence = lastSequence;
+
+        channel.close();
+        Files.move(directory.resolve(JOURNAL_FILE), directory.resolve(archiveName(lastSequence)),
+                StandardCopyOption.REPLACE_EXISTING);
+        archivedSequence = lastSequence;
+        journalSize = 0;
+        channel = FileChannel.open(directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        entriesSinceSnapshot = 0;
+        log.info("Wrote command journal snapshot with {} records at sequence {}", records.size(), lastSequence);
+
+        deleteExpiredArchives();
+    }
+
+    private void deleteExpiredArchives() {
+        var cutoff = Instant.now().minus(historyProperties.getArchiveRetention());
+        try {
+            for (var archive : listArchives()) {
+                if (archiveSequence(archive) <= previousSnapshotSequence
+                        && Files.getLastModifiedTime(archive).toInstant().isBefore(cutoff)) {
+                    Files.delete(archive);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete expired command journal archives", e);
+        }
+    }
+
+    private long readSnapshot(Path snapshot, TreeMap<Long, CommandRecord> state) throws IOException {
+        if (!Files.exists(snapshot)) {
+            return -1;
+        }
+
+        var bytes = Files.readAllBytes(snapshot);
+        if (bytes.length < Long.BYTES) {
+            log.warn("Command journal snapshot {} is truncated, falling back to older state", snapshot);
+            return -1;
+        }
+        var crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        var in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION
+                || ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong() != crc.getValue()) {
+            log.warn("Command journal snapshot {} is corrupt, falling back to older state", snapshot);
+            return -1;
+        }
+
+        lastSequence = in.readLong();
+        var count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            var record = JournalCodec.readCommandRecord(in);
+            state.put(record.getSequence(), record);
+        }
+        return lastSequence;
+    }
+
+    private void replay(Path journal, TreeMap<Long, CommandRecord> state, boolean truncateTornTail)
+            throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+
+        try (var readChannel = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+            long validEnd = 0;
+            while (true) {
+                header.clear();
+                if (readChannel.read(header, validEnd) < FRAME_HEADER_BYTES) {
+                    break;
+                }
+                header.flip();
+                var length = header.getInt();
+                var expectedCrc = header.getInt();
+                if (length <= 0 || validEnd + FRAME_HEADER_BYTES + length > readChannel.size()) {
+                    break;
+                }
+
+                var payload = ByteBuffer.allocate(length);
+                readChannel.read(payload, validEnd + FRAME_HEADER_BYTES);
+                var crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+
+                apply(new DataInputStream(new ByteArrayInputStream(payload.array())), state);
+                validEnd += FRAME_HEADER_BYTES + length;
+            }
+
+            if (validEnd < readChannel.size()) {
+                log.warn("Discarding {} bytes of torn or corrupt entries at the end of {}",
+                        readChannel.size() - validEnd, journal);
+                if (truncateTornTail) {
+                    readChannel.truncate(validEnd);
+                }
+            }
+        }
+    }
+
+    private void apply(DataInputStream in, TreeMap<Long, CommandRecord> state) throws IOException {
+        var entryType = in.readByte();
+        switch (entryType) {
+            case JournalCodec.ENTRY_EXECUTED -> {
+                var record = JournalCodec.readCommandRecord(in);
+                state.put(record.getSequence(), record);
+                lastSequence = Math.max(lastSequence, record.getSequence());
+            }
+            case JournalCodec.ENTRY_UNDONE -> state.remove(in.readLong());
+            case JournalCodec.ENTRY_CLEARED -> {
+                var watermark = in.readLong();
+                var actor = in.readUTF();
+                state.headMap(watermark, true).values().removeIf(record -> record.getActor().equals(actor));
+            }
+            default -> throw new IOException("Unknown journal entry type: " + entryType);
+        }
+    }
+
+    private List<Path> listArchives() throws IOException {
+        try (Stream<Path> files = Files.list(properties.getDirectory())) {
+            return files.filter(this::isArchive).sorted().toList();
+        }
+    }
+
+    private boolean isArchive(Path path) {
+        var name = path.getFileName().toString();
+        return name.startsWith(ARCHIVE_PREFIX) && name.endsWith(ARCHIVE_SUFFIX);
+    }
+
+    private static String archiveName(long sequence) {
+        return String.format("%s%020d%s", ARCHIVE_PREFIX, sequence, ARCHIVE_SUFFIX);
+    }
+
+    private static long archiveSequence(Path archive) {
+        var name = archive.getFileName().toString();
+        return Long.parseLong(name.substring(ARCHIVE_PREFIX.length(), name.length() - ARCHIVE_SUFFIX.length()));
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,20 @@
+package pl.atins.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+@Getter
+@RequiredArgsConstructor
+public class CommandRecord {
+
+    private final long sequence;
+    private final String actor;
+    private final Instant executedAt;
+    private final UndoRecord undoRecord;
+
+    public String getDescription() {
+        return undoRecord.getDescription();
+    }
+}
@@ -0,0 +1,35 @@
+package pl.atins.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import pl.atins.repository.EmployeeRepository;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@RequiredArgsConstructor
+public class CompositeUndoRecord implements UndoRecord {
+
+    private final String description;
+    private final List<UndoRecord> steps;
+
+    @Override
+    public Set<Long> getReferencedEmployeeIds() {
+        var ids = new LinkedHashSet<Long>();
+        for (UndoRecord step : steps) {
+            ids.addAll(step.getReferencedEmployeeIds());
+        }
+        return ids;
+    }
+
+    @Override
+    public void undo(EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher) {
+        employeeRepository.findAllById(getReferencedEmployeeIds());
+
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            steps.get(i).undo(employeeRepository, eventPublisher);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.atins.config.ConflictRetryProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@Slf4j
+public class ConflictRetryExecutor {
+
+    private final ConflictRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryExecutor(ConflictRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T, E extends Throwable> T execute(String operation, Attempt<T, E> attempt) throws E {
+        var retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.run();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("hr.concurrency.conflicts", "operation", operation).increment();
+                if (!retryable) {
+                    throw e;
+                }
+                if (attemptNumber >= properties.getMaxAttempts()) {
+                    meterRegistry.counter("hr.concurrency.retries.exhausted", "operation", operation).increment();
+                    log.warn("Giving up on {} after {} conflicting attempts", operation, attemptNumber);
+                    throw e;
+                }
+
+                meterRegistry.counter("hr.concurrency.retries", "operation", operation).increment();
+                log.debug("Concurrent modification in {}, retrying (attempt {})", operation, attemptNumber + 1);
+                if (!backOff(attemptNumber)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean backOff(int attemptNumber) {
+        var ceiling = Math.min(properties.getMaxBackoff().toNanos(),
+                (long) (properties.getInitialBackoff().toNanos()
+                        * Math.pow(properties.getMultiplier(), attemptNumber - 1)));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            var delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+            Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Attempt<T, E extends Throwable> {
+        T run() throws E;
+    }
+}
@@ -0,0 +1,332 @@
+package pl.atins.core;
+
+import jakarta.persistence.Entity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import pl.atins.config.DatabaseImageProperties;
+import pl.atins.domain.Employee;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.zip.ZipInputStream;
+
+@Component
+@Slf4j
+public class DatabaseImage {
+
+    private static final String MANIFEST_SUFFIX = ".properties";
+    private static final String DATABASE_FILE_SUFFIX = ".mv.db";
+    private static final Duration COMPACTION_TIME = Duration.ofMinutes(5);
+
+    enum Format {
+        SCRIPT, BINARY
+    }
+
+    private final DatabaseImageProperties properties;
+    private final ObjectProvider<DataSource> dataSource;
+    private final Environment environment;
+    private final ApplicationContext applicationContext;
+    private final DatabaseMaintenance databaseMaintenance;
+
+    private volatile boolean restored;
+
+    public DatabaseImage(DatabaseImageProperties properties, ObjectProvider<DataSource> dataSource,
+                         Environment environment, ApplicationContext applicationContext,
+                         DatabaseMaintenance databaseMaintenance) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.environment = environment;
+        this.applicationContext = applicationContext;
+        this.databaseMaintenance = databaseMaintenance;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public boolean restore(DataSource target) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+
+        var image = properties.getLocation();
+        var manifestPath = manifestPath(image);
+        if (!Files.exists(image) || !Files.exists(manifestPath)) {
+            log.info("No database image at {}, building the database from scratch", image);
+            return false;
+        }
+
+        var manifest = readManifest(manifestPath);
+        var schema = schemaFingerprint();
+        if (!schema.equals(manifest.getProperty("schema"))) {
+            log.warn("Database image {} was built for schema {} but the entities are at {}, ignoring it",
+                    image, manifest.getProperty("schema"), schema);
+            return false;
+        }
+
+        var started = System.nanoTime();
+        var format = Format.valueOf(manifest.getProperty("format", Format.SCRIPT.name()));
+        var databaseFile = databaseFile();
+        if (format == Format.BINARY && databaseFile == null) {
+            log.warn("Database image {} is a file image but the database is not file based, ignoring it", image);
+            return false;
+        }
+
+        restored = format == Format.BINARY ? extract(image, databaseFile) : runScript(image, target);
+        if (restored) {
+            log.info("Restored {} database image {} ({} employees, created {}) in {} ms",
+                    format.name().toLowerCase(), image, manifest.getProperty("employees"),
+                    manifest.getProperty("created"), (System.nanoTime() - started) / 1_000_000);
+        }
+        return restored;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void exportIfRequested() {
+        if (!properties.isExport() || restored) {
+            return;
+        }
+
+        export();
+        if (properties.isExitAfterExport()) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    public void export() {
+        var image = properties.getLocation();
+        var temporary = image.resolveSibling(image.getFileName() + ".tmp");
+        var format = databaseFile() != null ? Format.BINARY : Format.SCRIPT;
+        var started = System.nanoTime();
+        try {
+            if (image.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(image.toAbsolutePath().getParent());
+            }
+            if (format == Format.BINARY) {
+                databaseMaintenance.compact(100, COMPACTION_TIME);
+            }
+            long employees;
+            try (var connection = dataSource.getObject().getConnection();
+                 var statement = connection.createStatement()) {
+                if (!isH2(connection)) {
+                    throw new IllegalStateException("Database images are only supported on H2");
+                }
+                try (var count = statement.executeQuery("SELECT COUNT(*) FROM employee")) {
+                    count.next();
+                    employees = count.getLong(1);
+                }
+                Files.deleteIfExists(temporary);
+                statement.execute(format == Format.BINARY
+                        ? "BACKUP TO " + literal(temporary)
+                        : "SCRIPT TO " + literal(temporary) + " COMPRESSION ZIP");
+            }
+            Files.move(temporary, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            var manifest = new Properties();
+            manifest.setProperty("schema", schemaFingerprint());
+            manifest.setProperty("format", format.name());
+            manifest.setProperty("created", Instant.now().toString());
+            manifest.setProperty("employees", Long.toString(employees));
+            try (var out = Files.newBufferedWriter(manifestPath(image))) {
+                manifest.store(out, "hr-system database image");
+            }
+            log.info("Exported {} database image with {} employees to {} in {} ms", format.name().toLowerCase(),
+                    employees, image, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export database image to " + image, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to export database image to " + image, e);
+        }
+    }
+
+    private boolean runScript(Path image, DataSource target) {
+        try (var connection = target.getConnection()) {
+            if (!isH2(connection)) {
+                log.warn("Database images are only supported on H2, ignoring {}", image);
+                return false;
+            }
+            if (hasSchema(connection)) {
+                log.info("Database already has a schema, not restoring {}", image);
+                return false;
+            }
+            try (var statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM " + literal(image) + " COMPRESSION ZIP");
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to restore database image " + image, e);
+        }
+    }
+
+    private boolean extract(Path image, Path databaseFile) {
+        if (Files.exists(databaseFile)) {
+            log.info("Database file {} already exists, not restoring {}", databaseFile, image);
+            return false;
+        }
+
+        var temporary = databaseFile.resolveSibling(databaseFile.getFileName() + ".tmp");
+        try (var zip = new ZipInputStream(Files.newInputStream(image))) {
+            for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                if (entry.getName().endsWith(DATABASE_FILE_SUFFIX)) {
+                    Files.createDirectories(databaseFile.toAbsolutePath().getParent());
+                    Files.copy(zip, temporary, StandardCopyOption.REPLACE_EXISTING);
+                    Files.move(temporary, databaseFile, StandardCopyOption.ATOMIC_MOVE);
+                    return true;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to restore database image " + image, e);
+        }
+        log.warn("Database image {} does not contain a database file, ignoring it", image);
+        return false;
+    }
+
+    Path databaseFile() {
+        var url = environment.getProperty("spring.datasource.url", "");
+        if (!url.startsWith("jdbc:h2:")) {
+            return null;
+        }
+        var name = url.substring("jdbc:h2:".length()).split(";", 2)[0];
+        if (name.startsWith("mem:") || name.startsWith("tcp:") || name.startsWith("ssl:") || name.startsWith("zip:")) {
+            return null;
+        }
+        name = name.startsWith("file:") ? name.substring("file:".length()) : name;
+        name = name.startsWith("~") ? System.getProperty("user.home") + name.substring(1) : name;
+        return Path.of(name + DATABASE_FILE_SUFFIX);
+    }
+
+    static String schemaFingerprint() {
+        var scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        var description = new StringBuilder();
+        scanner.findCandidateComponents(Employee.class.getPackageName()).stream()
+                .map(candidate -> loadClass(candidate.getBeanClassName()))
+                .sorted(Comparator.comparing(Class::getName))
+                .forEach(type -> {
+                    description.append(type.getName()).append(describe(type.getAnnotations())).append('\n');
+                    Arrays.stream(type.getDeclaredFields())
+                            .sorted(Comparator.comparing(Field::getName))
+                            .forEach(field -> description.append(field.getName()).append(':')
+                                    .append(field.getGenericType().getTypeName())
+                                    .append(describe(field.getAnnotations())).append('\n'));
+                });
+        try {
+            var digest = MessageDigest.getInstance("SHA-256")
+                    .digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String describe(Annotation[] annotations) {
+        return Arrays.stream(annotations)
+                .sorted(Comparator.comparing(annotation -> annotation.annotationType().getName()))
+                .map(DatabaseImage::describe)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String describe(Annotation annotation) {
+        return Arrays.stream(annotation.annotationType().getDeclaredMethods())
+                .sorted(Comparator.comparing(Method::getName))
+                .map(member -> member.getName() + "=" + describeValue(invoke(member, annotation)))
+                .collect(Collectors.joining(",", "@" + annotation.annotationType().getName() + "(", ")"));
+    }
+
+    private static String describeValue(Object value) {
+        if (value instanceof Annotation annotation) {
+            return describe(annotation);
+        }
+        if (value instanceof Annotation[] annotations) {
+            return Arrays.stream(annotations).map(DatabaseImage::describe).collect(Collectors.joining(",", "{", "}"));
+        }
+        if (value instanceof Class<?> type) {
+            return type.getName();
+        }
+        if (value instanceof Class<?>[] types) {
+            return Arrays.stream(types).map(Class::getName).collect(Collectors.joining(",", "{", "}"));
+        }
+        if (value instanceof Object[] values) {
+            return Arrays.toString(values);
+        }
+        if (value != null && value.getClass().isArray()) {
+            return Arrays.deepToString(new Object[]{value});
+        }
+        return String.valueOf(value);
+    }
+
+    private static Object invoke(Method member, Annotation annotation) {
+        try {
+            member.setAccessible(true);
+            return member.invoke(annotation);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path manifestPath(Path image) {
+        return image.resolveSibling(image.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    private static Properties readManifest(Path path) {
+        var manifest = new Properties();
+        try (var in = Files.newBufferedReader(path)) {
+            manifest.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read database image manifest " + path, e);
+        }
+        return manifest;
+    }
+
+    private static boolean isH2(Connection connection) throws SQLException {
+        return "H2".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static boolean hasSchema(Connection connection) throws SQLException {
+        try (var tables = connection.getMetaData().getTables(null, null, "EMPLOYEE", new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private static String literal(Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+}
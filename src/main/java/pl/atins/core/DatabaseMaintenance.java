@@ -0,0 +1,198 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.engine.Database;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.db.Store;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.atins.config.PersistenceProperties;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToDoubleFunction;
+
+@Component
+@Slf4j
+public class DatabaseMaintenance {
+
+    private static final String BACKUP_PREFIX = "hr-";
+    private static final String BACKUP_SUFFIX = ".zip";
+    private static final DateTimeFormatter BACKUP_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final PersistenceProperties properties;
+    private final ObjectProvider<DataSource> dataSource;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public DatabaseMaintenance(PersistenceProperties properties, ObjectProvider<DataSource> dataSource,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        if (properties.isEnabled()) {
+            gauge(meterRegistry, "hr.database.file.size", store -> store.getMvStore().getFileStore().size());
+            gauge(meterRegistry, "hr.database.fill.rate", DatabaseMaintenance::liveDataPercentage);
+            gauge(meterRegistry, "hr.database.cache.used", store -> store.getMvStore().getCacheSizeUsed() * 1024.0 * 1024);
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void configure() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        try (var connection = dataSource.getObject().getConnection();
+             var statement = connection.createStatement()) {
+            if (database(connection) == null) {
+                log.warn("Persistence is enabled but the database is not a file-based H2 database, " +
+                        "keeping its defaults");
+                return;
+            }
+            statement.execute("SET CACHE_SIZE " + properties.getCacheSize().toKilobytes());
+            statement.execute("SET WRITE_DELAY " + properties.getWriteDelay().toMillis());
+            log.info("Database store uses a {} MB cache and writes changes within {} ms",
+                    properties.getCacheSize().toMegabytes(), properties.getWriteDelay().toMillis());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to configure the database store", e);
+        }
+    }
+
+    @Scheduled(cron = "${hr.persistence.compaction.schedule:-}")
+    public void scheduledCompaction() {
+        if (properties.isEnabled()) {
+            compact();
+        }
+    }
+
+    @Scheduled(cron = "${hr.persistence.backup.schedule:-}")
+    public void scheduledBackup() {
+        if (properties.isEnabled()) {
+            backup();
+        }
+    }
+
+    public boolean compact() {
+        return compact(properties.getCompaction().getFillRateThreshold(), properties.getCompaction().getMaxDuration());
+    }
+
+    public boolean compact(int fillRateThreshold, Duration maxDuration) {
+        if (!lock.tryLock()) {
+            log.info("Database maintenance already in progress, skipping compaction");
+            return false;
+        }
+        try (var connection = dataSource.getObject().getConnection()) {
+            var store = requireStore(connection);
+            var fillRate = liveDataPercentage(store);
+            if (fillRate >= fillRateThreshold) {
+                log.debug("Database file is {}% live data, no compaction needed", fillRate);
+                return false;
+            }
+
+            var sizeBefore = store.getMvStore().getFileStore().size();
+            var started = System.nanoTime();
+            store.compactFile((int) maxDuration.toMillis());
+            log.info("Compacted database file from {} KB ({}% live) to {} KB ({}% live) in {} ms",
+                    sizeBefore / 1024, fillRate, store.getMvStore().getFileStore().size() / 1024,
+                    liveDataPercentage(store), (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to compact the database", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path backup() {
+        var directory = properties.getBackup().getDirectory();
+        var target = directory.resolve(BACKUP_PREFIX + BACKUP_TIMESTAMP.format(Instant.now()) + BACKUP_SUFFIX);
+        var temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        lock.lock();
+        try {
+            Files.createDirectories(directory);
+            var started = System.nanoTime();
+            try (var connection = dataSource.getObject().getConnection();
+                 var statement = connection.createStatement()) {
+                requireStore(connection);
+                statement.execute("BACKUP TO '" + temporary.toAbsolutePath().toString().replace("'", "''") + "'");
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Backed up database to {} ({} KB) in {} ms", target, Files.size(target) / 1024,
+                    (System.nanoTime() - started) / 1_000_000);
+            prune(directory);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to back up the database to " + target, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to back up the database to " + target, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void prune(Path directory) throws IOException {
+        try (var backups = Files.list(directory)) {
+            var expired = backups
+                    .filter(path -> path.getFileName().toString().startsWith(BACKUP_PREFIX)
+                            && path.getFileName().toString().endsWith(BACKUP_SUFFIX))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .skip(Math.max(1, properties.getBackup().getRetention()))
+                    .toList();
+            for (var backup : expired) {
+                Files.deleteIfExists(backup);
+                log.info("Removed expired database backup {}", backup);
+            }
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, ToDoubleFunction<Store> metric) {
+        meterRegistry.gauge(name, this, maintenance -> maintenance.readStore(metric));
+    }
+
+    private double readStore(ToDoubleFunction<Store> metric) {
+        try (var connection = dataSource.getObject().getConnection()) {
+            var database = database(connection);
+            return database == null ? Double.NaN : metric.applyAsDouble(database.getStore());
+        } catch (SQLException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static int liveDataPercentage(Store store) {
+        return store.getMvStore().getFileStore().getChunksFillRate();
+    }
+
+    private static Store requireStore(Connection connection) throws SQLException {
+        var database = database(connection);
+        if (database == null) {
+            throw new IllegalStateException("Database maintenance requires a file-based H2 database");
+        }
+        return database.getStore();
+    }
+
+    private static Database database(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(JdbcConnection.class)
+                || !(connection.unwrap(JdbcConnection.class).getSession() instanceof SessionLocal session)) {
+            return null;
+        }
+        var database = session.getDatabase();
+        return database.isPersistent() && database.getStore() != null ? database : null;
+    }
+}
@@ -1,9 +1,14 @@
 package pl.atins.core;
 
 import lombok.Getter;
+import org.hibernate.Hibernate;
+import pl.atins.domain.Department;
 import pl.atins.domain.Employee;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Getter
 public class EmployeeEvent {
@@ -18,14 +23,62 @@ public class EmployeeEvent {
     private final String details;
     private final Object oldValue;
     private final Object newValue;
+    private final Long supervisorId;
+    private final String jobTitle;
+    private String supervisorEmail;
+    private Set<Long> departmentIds;
 
     public EmployeeEvent(Employee employee, EventType eventType, String details, Object oldValue, Object newValue) {
         this.employee = employee;
         this.eventType = eventType;
         this.details = details;
-        this.oldValue = oldValue;
-        this.newValue = newValue;
+        this.oldValue = Hibernate.unproxy(oldValue);
+        this.newValue = Hibernate.unproxy(newValue);
         this.timestamp = LocalDateTime.now();
+        this.jobTitle = employee.getJobTitle();
+        var supervisor = employee.getSupervisor();
+        this.supervisorId = supervisor != null ? supervisor.getId() : null;
+        if (supervisor != null && Hibernate.isInitialized(supervisor)) {
+            this.supervisorEmail = supervisor.getEmail();
+        }
+        var departments = employee.getDepartments();
+        if (departments == null) {
+            this.departmentIds = Set.of();
+        } else if (Hibernate.isInitialized(departments)) {
+            this.departmentIds = departments.stream()
+                    .map(Department::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+    }
+
+    public Set<Long> getDepartmentIds() {
+        return departmentIds != null ? departmentIds : Set.of();
+    }
+
+    boolean hasDepartmentIds() {
+        return departmentIds != null;
+    }
+
+    boolean hasSupervisorEmail() {
+        return supervisorId == null || supervisorEmail != null;
+    }
+
+    void resolveDepartmentIds(Set<Long> departmentIds) {
+        this.departmentIds = Set.copyOf(departmentIds);
+    }
+
+    void resolveSupervisorEmail(String supervisorEmail) {
+        this.supervisorEmail = supervisorEmail;
+    }
+
+    public static String describe(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Employee employee
+                ? employee.getFirstName() + " " + employee.getLastName() + " (ID: " + employee.getId() + ")"
+                : value.toString();
     }
 
     @Override
@@ -0,0 +1,73 @@
+package pl.atins.core;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+@Component
+public class EmployeeEventDetails {
+
+    private static final String MEMBERSHIPS_SQL = "SELECT employee_id, department_id FROM employee_department " +
+            "WHERE employee_id IN (%s)";
+
+    private static final String EMAILS_SQL = "SELECT id, email FROM employee WHERE id IN (%s)";
+
+    private static final int MAX_IDS_PER_QUERY = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeEventDetails(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void resolve(List<EmployeeEvent> events) {
+        var employeeIds = new LinkedHashSet<Long>();
+        var supervisorIds = new LinkedHashSet<Long>();
+        for (EmployeeEvent event : events) {
+            if (!event.hasDepartmentIds()) {
+                employeeIds.add(event.getEmployee().getId());
+            }
+            if (!event.hasSupervisorEmail()) {
+                supervisorIds.add(event.getSupervisorId());
+            }
+        }
+        if (employeeIds.isEmpty() && supervisorIds.isEmpty()) {
+            return;
+        }
+
+        var departmentIds = new HashMap<Long, Set<Long>>();
+        query(MEMBERSHIPS_SQL, employeeIds, (employeeId, departmentId) -> departmentIds
+                .computeIfAbsent(employeeId, ignored -> new HashSet<>()).add((Long) departmentId));
+        var emails = new HashMap<Long, String>();
+        query(EMAILS_SQL, supervisorIds, (id, email) -> emails.put(id, (String) email));
+
+        for (EmployeeEvent event : events) {
+            if (!event.hasDepartmentIds()) {
+                event.resolveDepartmentIds(departmentIds.getOrDefault(event.getEmployee().getId(), Set.of()));
+            }
+            if (!event.hasSupervisorEmail()) {
+                event.resolveSupervisorEmail(emails.get(event.getSupervisorId()));
+            }
+        }
+    }
+
+    private void query(String sql, Collection<Long> ids, BiConsumer<Long, Object> handler) {
+        var remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += MAX_IDS_PER_QUERY) {
+            var chunk = remaining.subList(from, Math.min(remaining.size(), from + MAX_IDS_PER_QUERY));
+            jdbcTemplate.query(String.format(sql, String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+                    rs -> {
+                        handler.accept(rs.getLong(1), rs.getObject(2));
+                    }, chunk.toArray());
+        }
+    }
+}
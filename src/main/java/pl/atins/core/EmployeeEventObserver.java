@@ -1,8 +1,22 @@
 package pl.atins.core;
 
+import java.util.List;
+
 public interface EmployeeEventObserver {
 
     void onEmployeeEvent(EmployeeEvent event);
 
+    default void onEmployeeEvents(List<EmployeeEvent> events) {
+        events.forEach(this::onEmployeeEvent);
+    }
+
     boolean isInterestedIn(EmployeeEvent.EventType eventType);
+
+    default boolean isSynchronous() {
+        return false;
+    }
+
+    default boolean isTransactional() {
+        return false;
+    }
 }
\ No newline at end of file
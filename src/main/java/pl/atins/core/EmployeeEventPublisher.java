@@ -1,25 +1,138 @@
 package pl.atins.core;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 @Component
+@Slf4j
 public class EmployeeEventPublisher {
 
     private final List<EmployeeEventObserver> observers = new ArrayList<>();
+    private final Executor executor;
+    private final EmployeeEventDetails details;
+
+    @Autowired
+    public EmployeeEventPublisher(WorkerThreads workerThreads, EmployeeEventDetails details) {
+        this(workerThreads.isVirtual()
+                ? Executors.newThreadPerTaskExecutor(workerThreads.factory("hr-event-"))
+                : ForkJoinPool.commonPool(), details);
+    }
+
+    public EmployeeEventPublisher(Executor executor) {
+        this(executor, null);
+    }
+
+    public EmployeeEventPublisher(Executor executor, EmployeeEventDetails details) {
+        this.executor = executor;
+        this.details = details;
+    }
 
     public void addObserver(EmployeeEventObserver observer) {
         observers.add(observer);
     }
 
     public void publishEvent(EmployeeEvent event) {
+        publishEvents(List.of(event));
+    }
+
+    public void publishEvents(List<EmployeeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (details != null) {
+            details.resolve(events);
+        }
         for (EmployeeEventObserver observer : observers) {
-            if (observer.isInterestedIn(event.getEventType())) {
-                CompletableFuture.runAsync(() -> observer.onEmployeeEvent(event));
+            if (observer.isTransactional()) {
+                deliver(observer, interesting(observer, events));
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEvents().add(List.copyOf(events));
+            return;
+        }
+
+        dispatch(events);
+    }
+
+    private void dispatch(List<EmployeeEvent> events) {
+        for (EmployeeEventObserver observer : observers) {
+            if (observer.isTransactional()) {
+                continue;
+            }
+            var interesting = interesting(observer, events);
+            if (interesting.isEmpty()) {
+                continue;
+            }
+            if (observer.isSynchronous()) {
+                notify(observer, interesting);
+            } else {
+                executor.execute(() -> notify(observer, interesting));
             }
         }
     }
-}
\ No newline at end of file
+
+    private static List<EmployeeEvent> interesting(EmployeeEventObserver observer, List<EmployeeEvent> events) {
+        return events.stream()
+                .filter(event -> observer.isInterestedIn(event.getEventType()))
+                .toList();
+    }
+
+    private static void deliver(EmployeeEventObserver observer, List<EmployeeEvent> events) {
+        if (events.size() == 1) {
+            observer.onEmployeeEvent(events.getFirst());
+        } else if (!events.isEmpty()) {
+            observer.onEmployeeEvents(events);
+        }
+    }
+
+    private void notify(EmployeeEventObserver observer, List<EmployeeEvent> events) {
+        try {
+            deliver(observer, events);
+        } catch (RuntimeException e) {
+            log.error("Observer {} failed to handle {}", observer.getClass().getSimpleName(),
+                    events.size() == 1 ? events.getFirst() : events.size() + " events", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service && service != ForkJoinPool.commonPool()) {
+            service.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<EmployeeEvent>> pendingEvents() {
+        var pending = (List<List<EmployeeEvent>>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        var events = new ArrayList<List<EmployeeEvent>>();
+        TransactionSynchronizationManager.bindResource(this, events);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(EmployeeEventPublisher.this::dispatch);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EmployeeEventPublisher.this);
+            }
+        });
+        return events;
+    }
+}
@@ -0,0 +1,50 @@
+package pl.atins.core;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+@Component
+public class EntityLoader {
+
+    private final EntityManager entityManager;
+
+    public EntityLoader(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Map<Long, Employee> employees(Collection<Long> ids) {
+        return load(Employee.class, ids, Employee::getId);
+    }
+
+    public Map<Long, Department> departments(Collection<Long> ids) {
+        return load(Department.class, ids, Department::getId);
+    }
+
+    private <T> Map<Long, T> load(Class<T> type, Collection<Long> ids, Function<T, Long> idOf) {
+        var distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<T> entities = entityManager.unwrap(Session.class)
+                .byMultipleIds(type)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(false)
+                .with(CacheMode.NORMAL)
+                .multiLoad(distinctIds);
+        var loaded = new HashMap<Long, T>(entities.size() * 2);
+        entities.stream().filter(Objects::nonNull).forEach(entity -> loaded.put(idOf.apply(entity), entity));
+        return loaded;
+    }
+}
@@ -0,0 +1,47 @@
+package pl.atins.core;
+
+import org.springframework.stereotype.Component;
+import pl.atins.domain.EntityChange;
+import pl.atins.dto.EmployeeView;
+
+import java.util.OptionalLong;
+
+@Component
+public class EntityTags {
+
+    private final ChangeTracker changeTracker;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    public EntityTags(ChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    public String employee(Long id, EmployeeView view) {
+        return tag(changeTracker.findSequence(EntityChange.EntityType.EMPLOYEE, id), view);
+    }
+
+    public String department(Long id) {
+        return tag(changeTracker.findSequence(EntityChange.EntityType.DEPARTMENT, id));
+    }
+
+    public String all() {
+        return all(EmployeeView.FULL);
+    }
+
+    public String all(EmployeeView view) {
+        return tag(OptionalLong.of(changeTracker.getStableSequence()), view);
+    }
+
+    private String tag(OptionalLong sequence) {
+        return tag(sequence, EmployeeView.FULL);
+    }
+
+    private String tag(OptionalLong sequence, EmployeeView view) {
+        if (sequence.isEmpty()) {
+            return null;
+        }
+        var tag = epoch + "-" + sequence.getAsLong();
+        return "\"" + (view.isFull() ? tag : tag + "-" + view.variant()) + "\"";
+    }
+}
@@ -0,0 +1,402 @@
+package pl.atins.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.atins.config.EventStreamProperties;
+import pl.atins.dto.EmployeeEventMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class EventStreamHub implements EmployeeEventObserver {
+
+    public record Filter(Set<EmployeeEvent.EventType> types, Long departmentId, Long employeeId) {
+
+        boolean matches(EmployeeEvent.EventType type, EmployeeEventMessage message) {
+            return (types == null || types.isEmpty() || types.contains(type))
+                    && (departmentId == null || message.getDepartmentIds().contains(departmentId))
+                    && (employeeId == null || employeeId.equals(message.getEmployeeId()));
+        }
+    }
+
+    private record Entry(long sequence, EmployeeEvent.EventType type, EmployeeEventMessage message, String json) {
+
+        boolean matches(Filter filter) {
+            return filter.matches(type, message);
+        }
+    }
+
+    private final EventStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService drainExecutor;
+    private final long epoch = System.currentTimeMillis();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Entry[] ring;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter disconnected;
+    private final Counter stalled;
+
+    @Autowired
+    public EventStreamHub(EventStreamProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("hr-sse-", 0)
+                .factory()), meterRegistry);
+    }
+
+    EventStreamHub(EventStreamProperties properties, ObjectMapper objectMapper, ExecutorService drainExecutor,
+                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.ring = new Entry[properties.getReplaySize()];
+        this.drainExecutor = drainExecutor;
+        this.delivered = meterRegistry.counter("hr.events.stream.delivered");
+        this.dropped = meterRegistry.counter("hr.events.stream.dropped");
+        this.disconnected = meterRegistry.counter("hr.events.stream.disconnected.slow");
+        this.stalled = meterRegistry.counter("hr.events.stream.disconnected.stalled");
+        meterRegistry.gauge("hr.events.stream.subscribers", subscribers, Set::size);
+    }
+
+    @Override
+    public void onEmployeeEvent(EmployeeEvent event) {
+        var message = toMessage(event);
+        lock.lock();
+        try {
+            message.setSequence(++sequence);
+            var entry = new Entry(sequence, event.getEventType(), message, toJson(message));
+            ring[(int) (sequence % ring.length)] = entry;
+            for (Subscriber subscriber : subscribers) {
+                if (entry.matches(subscriber.filter)) {
+                    subscriber.offer(entry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isInterestedIn(EmployeeEvent.EventType eventType) {
+        return true;
+    }
+
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
+    public SseEmitter subscribe(Filter filter, String lastEventId) {
+        return subscribe(filter, lastEventId, new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter subscribe(Filter filter, String lastEventId, SseEmitter emitter) {
+        var resumeAfter = parseEventId(lastEventId);
+        if (subscribers.size() >= properties.getMaxSubscribers()) {
+            throw new IllegalStateException("Too many event stream subscribers");
+        }
+
+        var subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        lock.lock();
+        try {
+            if (resumeAfter != null) {
+                replay(subscriber, resumeAfter);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.heartbeatDue = true;
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${hr.events.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            scheduleDrain(subscriber);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hr.events.stream.write-timeout:PT10S}")
+    public void disconnectStalledSubscribers() {
+        var now = System.nanoTime();
+        var timeout = properties.getWriteTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            var writer = subscriber.writer;
+            if (writer != null && now - subscriber.sendStartedAt > timeout && subscribers.remove(subscriber)) {
+                log.debug("Disconnecting event stream subscriber blocked on a write for over {}",
+                        properties.getWriteTimeout());
+                stalled.increment();
+                subscriber.close();
+                writer.interrupt();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        drainExecutor.shutdownNow();
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private void replay(Subscriber subscriber, long resumeAfter) {
+        var oldestRetained = Math.max(1, sequence - ring.length + 1);
+        if (resumeAfter < 0 || resumeAfter > sequence || resumeAfter + 1 < oldestRetained) {
+            subscriber.resetRequired = true;
+            return;
+        }
+        for (long next = resumeAfter + 1; next <= sequence; next++) {
+            var entry = ring[(int) (next % ring.length)];
+            if (entry.matches(subscriber.filter)) {
+                subscriber.backlog.addLast(entry);
+            }
+        }
+    }
+
+    private Long parseEventId(String eventId) {
+        if (eventId == null || eventId.isBlank()) {
+            return null;
+        }
+        var separator = eventId.indexOf('-');
+        try {
+            if (separator < 0) {
+                throw new NumberFormatException();
+            }
+            var idEpoch = Long.parseLong(eventId.substring(0, separator));
+            var idSequence = Long.parseLong(eventId.substring(separator + 1));
+            return idEpoch == epoch ? idSequence : -1L;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid event id: " + eventId);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                drainExecutor.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        var batch = subscriber.poll(properties.getDrainBatchSize());
+        try {
+            if (batch.reset()) {
+                send(subscriber, SseEmitter.event().name("reset")
+                        .data(Map.of("reason", "Requested events are no longer available"), MediaType.APPLICATION_JSON));
+            }
+            if (batch.droppedCount() > 0) {
+                send(subscriber, SseEmitter.event().name("dropped")
+                        .data(Map.of("count", batch.droppedCount()), MediaType.APPLICATION_JSON));
+            }
+            for (Entry entry : batch.entries()) {
+                send(subscriber, SseEmitter.event()
+                        .id(eventId(entry.sequence()))
+                        .name(entry.message().getEventType())
+                        .data(entry.json(), MediaType.APPLICATION_JSON));
+            }
+            delivered.increment(batch.entries().size());
+            if (batch.overflowed()) {
+                subscribers.remove(subscriber);
+                disconnected.increment();
+                send(subscriber, SseEmitter.event().name("overflow")
+                        .data(Map.of("reason", "Subscriber fell too far behind"), MediaType.APPLICATION_JSON));
+                subscriber.emitter.complete();
+                return;
+            }
+            if (batch.isEmpty() && batch.heartbeat()) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping event stream subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.close();
+            return;
+        }
+
+        subscriber.draining.set(false);
+        if (subscriber.hasPending()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        if (subscriber.isClosed()) {
+            throw new IllegalStateException("Subscriber was disconnected");
+        }
+        subscriber.sendStartedAt = System.nanoTime();
+        subscriber.writer = Thread.currentThread();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.writer = null;
+        }
+    }
+
+    private EmployeeEventMessage toMessage(EmployeeEvent event) {
+        var employee = event.getEmployee();
+        var message = new EmployeeEventMessage();
+        message.setEventType(event.getEventType().name());
+        message.setEmployeeId(employee.getId());
+        message.setEmployeeName(employee.getFirstName() + " " + employee.getLastName());
+        message.setDepartmentIds(event.getDepartmentIds());
+        message.setTimestamp(event.getTimestamp());
+        message.setDetails(event.getDetails());
+        message.setOldValue(EmployeeEvent.describe(event.getOldValue()));
+        message.setNewValue(EmployeeEvent.describe(event.getNewValue()));
+        return message;
+    }
+
+    private String toJson(EmployeeEventMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Batch(List<Entry> entries, long droppedCount, boolean reset, boolean overflowed,
+                         boolean heartbeat) {
+
+        boolean isEmpty() {
+            return entries.isEmpty() && droppedCount == 0 && !reset && !overflowed;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final ReentrantLock queueLock = new ReentrantLock();
+        private final ArrayDeque<Entry> backlog = new ArrayDeque<>();
+        private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long droppedCount;
+        private boolean resetRequired;
+        private boolean overflowed;
+        private boolean closed;
+        private volatile boolean heartbeatDue;
+        private volatile Thread writer;
+        private volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        void offer(Entry entry) {
+            queueLock.lock();
+            try {
+                if (closed || overflowed) {
+                    return;
+                }
+                if (queue.size() >= properties.getBufferSize()) {
+                    if (properties.getOverflowPolicy() == EventStreamProperties.OverflowPolicy.DISCONNECT) {
+                        overflowed = true;
+                        queue.clear();
+                        backlog.clear();
+                    } else {
+                        queue.pollFirst();
+                        droppedCount++;
+                        dropped.increment();
+                    }
+                }
+                if (!overflowed) {
+                    queue.addLast(entry);
+                }
+            } finally {
+                queueLock.unlock();
+            }
+            scheduleDrain(this);
+        }
+
+        Batch poll(int maxEntries) {
+            queueLock.lock();
+            try {
+                var entries = new ArrayList<Entry>(Math.min(maxEntries, backlog.size() + queue.size()));
+                while (entries.size() < maxEntries && !backlog.isEmpty()) {
+                    entries.add(backlog.pollFirst());
+                }
+                while (entries.size() < maxEntries && !queue.isEmpty()) {
+                    entries.add(queue.pollFirst());
+                }
+                var batch = new Batch(entries, droppedCount, resetRequired, overflowed, heartbeatDue);
+                droppedCount = 0;
+                resetRequired = false;
+                heartbeatDue = false;
+                return batch;
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        boolean hasPending() {
+            queueLock.lock();
+            try {
+                return !closed && (!backlog.isEmpty() || !queue.isEmpty() || droppedCount > 0 || overflowed);
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        boolean isClosed() {
+            queueLock.lock();
+            try {
+                return closed;
+            } finally {
+                queueLock.unlock();
+            }
+        }
+
+        void close() {
+            queueLock.lock();
+            try {
+                closed = true;
+                backlog.clear();
+                queue.clear();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+}
@@ -9,4 +9,6 @@ public interface HRCommand {
     String getDescription();
 
     boolean canUndo();
+
+    UndoRecord toUndoRecord();
 }
\ No newline at end of file
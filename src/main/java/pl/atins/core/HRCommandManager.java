@@ -1,57 +1,252 @@
 package pl.atins.core;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.atins.config.CommandHistoryProperties;
+import pl.atins.repository.EmployeeRepository;
 
-import java.util.Stack;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @Slf4j
 public class HRCommandManager {
 
-    private final Stack<HRCommand> commandHistory = new Stack<>();
+    private final ConcurrentMap<String, ActorHistory> histories = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeEventPublisher eventPublisher;
+    private final CommandHistoryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final CommandJournal journal;
+    private final ConflictRetryExecutor retryExecutor;
+    private final ChangeTracker changeTracker;
 
-    public void executeCommand(HRCommand command) {
+    public HRCommandManager(EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher,
+                            CommandHistoryProperties properties, PlatformTransactionManager transactionManager,
+                            CommandJournal journal, ConflictRetryExecutor retryExecutor, ChangeTracker changeTracker) {
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = journal;
+        this.retryExecutor = retryExecutor;
+        this.changeTracker = changeTracker;
+    }
+
+    @PostConstruct
+    public void restoreHistories() {
+        var records = journal.recover(this::snapshotRecords);
+        records.forEach(this::push);
+        sequence.set(journal.getLastSequence());
+        if (!records.isEmpty()) {
+            log.info("Restored {} undoable commands for {} actors", records.size(), histories.size());
+        }
+    }
+
+    public CommandRecord executeCommand(String actor, HRCommand command) {
         try {
-            command.execute();
-            commandHistory.push(command);
-            log.info("Executed command: {}", command.getDescription());
+            var record = transactionTemplate.execute(status -> {
+                command.execute();
+                var executed = new CommandRecord(sequence.incrementAndGet(), actor, Instant.now(),
+                        command.toUndoRecord());
+                changeTracker.employeesChanged(executed.getUndoRecord().getReferencedEmployeeIds());
+                journalBeforeCommit(() -> remember(executed), () -> forget(executed));
+                return executed;
+            });
+            log.info("Executed command for {}: {}", actor, command.getDescription());
+            return record;
         } catch (Exception e) {
-            log.error("Failed to execute command: {}", command.getDescription(), e);
+            log.error("Failed to execute command for {}: {}", actor, command.getDescription(), e);
             throw e;
         }
     }
 
-    public void undoLastCommand() {
-        if (commandHistory.isEmpty()) {
-            throw new IllegalStateException("No commands to undo");
+    public Optional<CommandRecord> undoLastCommand(String actor) {
+        var history = histories.get(actor);
+        var lastCommand = history != null ? history.pop() : null;
+        if (lastCommand == null) {
+            return Optional.empty();
+        }
+
+        var undoRolledBack = new AtomicBoolean();
+        try {
+            retryExecutor.execute("HRCommandManager.undoLastCommand", () -> transactionTemplate.execute(status -> {
+                lastCommand.getUndoRecord().undo(employeeRepository, eventPublisher);
+                changeTracker.employeesChanged(lastCommand.getUndoRecord().getReferencedEmployeeIds());
+                journalBeforeCommit(() -> journal.recordUndone(lastCommand), () -> undoRolledBack.set(true));
+                return lastCommand;
+            }));
+        } catch (Exception e) {
+            push(lastCommand);
+            if (undoRolledBack.get()) {
+                rejournal(lastCommand);
+            }
+            log.error("Failed to undo command for {}: {}", actor, lastCommand.getDescription(), e);
+            throw e;
         }
 
-        var lastCommand = commandHistory.pop();
-        if (!lastCommand.canUndo()) {
-            throw new IllegalStateException("Last command cannot be undone");
+        log.info("Undid command for {}: {}", actor, lastCommand.getDescription());
+        return Optional.of(lastCommand);
+    }
+
+    public boolean canUndo(String actor) {
+        var history = histories.get(actor);
+        return history != null && history.size() > 0;
+    }
+
+    public int getHistorySize(String actor) {
+        var history = histories.get(actor);
+        return history != null ? history.size() : 0;
+    }
+
+    public void clearHistory(String actor) {
+        histories.remove(actor);
+        journal.recordCleared(actor, sequence.get());
+        log.info("Command history cleared for {}", actor);
+    }
+
+    @Scheduled(fixedDelayString = "${hr.commands.history.sweep-interval:PT1M}")
+    public void evictIdleHistories() {
+        var idleCutoff = System.nanoTime() - properties.getIdleTimeout().toNanos();
+        histories.keySet().forEach(actor -> histories.computeIfPresent(actor,
+                (key, history) -> history.lastAccess() - idleCutoff < 0 ? null : history));
+
+        var excess = histories.size() - properties.getMaxActors();
+        if (excess > 0) {
+            histories.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), entry.getValue().lastAccess()))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(excess)
+                    .forEach(oldest -> histories.computeIfPresent(oldest.getKey(),
+                            (key, history) -> history.lastAccess() == oldest.getValue() ? null : history));
         }
+    }
 
+    private void remember(CommandRecord record) {
+        // Pushed before journaling so a snapshot taken by this append already contains the record
+        var history = push(record);
         try {
-            lastCommand.undo();
-            log.info("Undid command: {}", lastCommand.getDescription());
-        } catch (Exception e) {
-            commandHistory.push(lastCommand);
-            log.error("Failed to undo command: {}", lastCommand.getDescription(), e);
+            journal.recordExecuted(record);
+        } catch (RuntimeException e) {
+            history.remove(record);
             throw e;
         }
     }
 
-    public boolean canUndo() {
-        return !commandHistory.isEmpty() && commandHistory.peek().canUndo();
+    private void forget(CommandRecord record) {
+        var history = histories.get(record.getActor());
+        if (history != null) {
+            history.remove(record);
+        }
+        try {
+            journal.recordUndone(record);
+        } catch (RuntimeException e) {
+            log.error("Failed to journal rolled back command {} for {}", record.getSequence(), record.getActor(), e);
+        }
+    }
+
+    private void rejournal(CommandRecord record) {
+        try {
+            journal.recordExecuted(record);
+        } catch (RuntimeException e) {
+            log.error("Failed to journal command {} for {} again after its undo was rolled back",
+                    record.getSequence(), record.getActor(), e);
+        }
+    }
+
+    private void journalBeforeCommit(Runnable journaling, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journaling.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean journaled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                journaling.run();
+                journaled = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (journaled && status != STATUS_COMMITTED) {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private ActorHistory push(CommandRecord record) {
+        return histories.compute(record.getActor(), (key, history) -> {
+            var target = history != null ? history : new ActorHistory();
+            target.push(record, properties.getMaxEntriesPerActor());
+            return target;
+        });
+    }
+
+    int getActorCount() {
+        return histories.size();
     }
 
-    public int getHistorySize() {
-        return commandHistory.size();
+    List<CommandRecord> snapshotRecords() {
+        return histories.values().stream()
+                .flatMap(history -> history.records.stream())
+                .sorted(Comparator.comparingLong(CommandRecord::getSequence))
+                .toList();
     }
 
-    public void clearHistory() {
-        commandHistory.clear();
-        log.info("Command history cleared");
+    private static final class ActorHistory {
+
+        private final ConcurrentLinkedDeque<CommandRecord> records = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile long lastAccess = System.nanoTime();
+
+        void push(CommandRecord record, int capacity) {
+            lastAccess = System.nanoTime();
+            records.addLast(record);
+            if (size.incrementAndGet() > capacity && records.pollFirst() != null) {
+                size.decrementAndGet();
+            }
+        }
+
+        CommandRecord pop() {
+            lastAccess = System.nanoTime();
+            var record = records.pollLast();
+            if (record != null) {
+                size.decrementAndGet();
+            }
+            return record;
+        }
+
+        void remove(CommandRecord record) {
+            if (records.remove(record)) {
+                size.decrementAndGet();
+            }
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        long lastAccess() {
+            return lastAccess;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package pl.atins.core;
+
+public enum HRCommandType {
+    PROMOTE, ASSIGN_SUPERVISOR, SALARY_ADJUSTMENT
+}
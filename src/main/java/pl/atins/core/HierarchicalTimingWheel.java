@@ -0,0 +1,187 @@
+package pl.atins.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+@Slf4j
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    private final long[] spans;
+    private final List<Entry<K>>[][] slots;
+    private final List<Entry<K>> overflow = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Entry<K>> inbox = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<K, Entry<K>> entries = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    private long currentTick;
+    private volatile Thread ticker;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(Duration tick, int wheelSize, int levels, Clock clock) {
+        if (tick.toMillis() <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+
+        this.tickMillis = tick.toMillis();
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.clock = clock;
+        this.spans = new long[levels + 1];
+        this.spans[0] = 1;
+        for (int level = 1; level <= levels; level++) {
+            spans[level] = Math.multiplyExact(spans[level - 1], wheelSize);
+        }
+        this.slots = new List[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new ArrayList<>();
+            }
+        }
+        this.currentTick = Math.floorDiv(clock.millis(), tickMillis);
+    }
+
+    public void schedule(K key, Instant deadline) {
+        var entry = new Entry<>(key, Math.ceilDiv(deadline.toEpochMilli(), tickMillis));
+        var previous = entries.put(key, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        inbox.add(entry);
+    }
+
+    public boolean cancel(K key) {
+        var entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void start(String threadName, Consumer<List<K>> handler) {
+        start(Thread.ofPlatform().name(threadName).daemon(), handler);
+    }
+
+    public void start(Thread.Builder threadBuilder, Consumer<List<K>> handler) {
+        ticker = threadBuilder.start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    var expired = advance();
+                    if (!expired.isEmpty()) {
+                        handler.accept(expired);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Timing wheel handler failed", e);
+                }
+                var untilNextTick = (currentTick + 1) * tickMillis - clock.millis();
+                if (untilNextTick > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(untilNextTick));
+                }
+            }
+        });
+    }
+
+    public void stop() {
+        var thread = ticker;
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ticker = null;
+    }
+
+    List<K> advance() {
+        var expired = new ArrayList<K>();
+        Entry<K> entry;
+        while ((entry = inbox.poll()) != null) {
+            place(entry, expired);
+        }
+
+        var nowTick = Math.floorDiv(clock.millis(), tickMillis);
+        while (currentTick < nowTick) {
+            currentTick++;
+            if (currentTick % spans[levels - 1] == 0 && !overflow.isEmpty()) {
+                var pending = new ArrayList<>(overflow);
+                overflow.clear();
+                pending.forEach(overflowed -> place(overflowed, expired));
+            }
+            for (int level = levels - 1; level >= 1; level--) {
+                if (currentTick % spans[level] == 0) {
+                    cascade(slots[level][slotIndex(currentTick, level)], expired);
+                }
+            }
+            cascade(slots[0][slotIndex(currentTick, 0)], expired);
+        }
+        return expired;
+    }
+
+    private void cascade(List<Entry<K>> slot, List<K> expired) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        var pending = new ArrayList<>(slot);
+        slot.clear();
+        pending.forEach(entry -> place(entry, expired));
+    }
+
+    private void place(Entry<K> entry, List<K> expired) {
+        if (entry.cancelled) {
+            return;
+        }
+
+        var delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            if (entries.remove(entry.key, entry)) {
+                expired.add(entry.key);
+            }
+            return;
+        }
+
+        for (int level = 0; level < levels; level++) {
+            if (delta < spans[level + 1]) {
+                slots[level][slotIndex(entry.deadlineTick, level)].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) Math.floorMod(tick / spans[level], (long) wheelSize);
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
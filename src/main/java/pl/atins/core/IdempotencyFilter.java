@@ -0,0 +1,155 @@
+package pl.atins.core;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import pl.atins.config.IdempotencyProperties;
+import pl.atins.domain.IdempotencyRecord;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Set;
+
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("POST", "PUT");
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+        this.store = store;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !IDEMPOTENT_METHODS.contains(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var key = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > IdempotencyRecord.KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be between 1 and " + IdempotencyRecord.KEY_LENGTH + " characters");
+            return;
+        }
+        if (request.getContentLengthLong() > properties.getMaxBodySize()) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large for an idempotent request");
+            return;
+        }
+
+        var body = request.getInputStream().readNBytes(properties.getMaxBodySize() + 1);
+        if (body.length > properties.getMaxBodySize()) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large for an idempotent request");
+            return;
+        }
+        var cachedRequest = new CachedBodyHttpServletRequest(request, body);
+        var fingerprint = fingerprint(cachedRequest);
+
+        if (replayIfStored(key, fingerprint, response)) {
+            return;
+        }
+        if (!store.tryBegin(key)) {
+            writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is already in progress");
+            return;
+        }
+
+        try {
+            if (replayIfStored(key, fingerprint, response)) {
+                return;
+            }
+
+            var cachingResponse = new ContentCachingResponseWrapper(response);
+            chain.doFilter(cachedRequest, cachingResponse);
+
+            var status = cachingResponse.getStatus();
+            if (isStorable(status)) {
+                store.save(key, new IdempotencyStore.StoredResponse(fingerprint, status,
+                        cachingResponse.getContentType(), cachingResponse.getContentAsByteArray(), Instant.now()));
+            }
+            cachingResponse.copyBodyToResponse();
+        } finally {
+            store.finish(key);
+        }
+    }
+
+    private boolean replayIfStored(String key, String fingerprint, HttpServletResponse response) throws IOException {
+        var stored = store.find(key);
+        if (stored.isEmpty()) {
+            return false;
+        }
+
+        if (!stored.get().getFingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+            return true;
+        }
+
+        response.setStatus(stored.get().getStatusCode());
+        if (stored.get().getContentType() != null) {
+            response.setContentType(stored.get().getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.get().getBody().length);
+        response.getOutputStream().write(stored.get().getBody());
+        log.debug("Replayed stored response for idempotency key {}", key);
+        return true;
+    }
+
+    private static boolean isStorable(int status) {
+        return status < 500 && status != HttpStatus.CONFLICT.value() && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private static String fingerprint(CachedBodyHttpServletRequest request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            var principal = request.getUserPrincipal();
+            if (principal != null) {
+                digest.update((byte) '\n');
+                digest.update(principal.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(request.getBody());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        var json = String.format("{\"timestamp\":\"%s\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\"}",
+                LocalDateTime.now(), status.value(), status.getReasonPhrase(), message);
+        response.getOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
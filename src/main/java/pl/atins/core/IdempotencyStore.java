@@ -0,0 +1,134 @@
+package pl.atins.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.atins.config.IdempotencyProperties;
+import pl.atins.domain.IdempotencyRecord;
+import pl.atins.repository.IdempotencyRecordRepository;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final LinkedHashMap<String, StoredResponse> cache;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, IdempotencyProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > properties.getCacheSize();
+            }
+        };
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse cached;
+        lock.lock();
+        try {
+            cached = cache.get(key);
+        } finally {
+            lock.unlock();
+        }
+
+        if (cached == null) {
+            cached = repository.findById(key)
+                    .map(StoredResponse::new)
+                    .orElse(null);
+            if (cached != null) {
+                remember(key, cached);
+            }
+        }
+
+        return Optional.ofNullable(cached).filter(response -> !isExpired(response.getCreatedAt()));
+    }
+
+    public boolean tryBegin(String key) {
+        return inFlight.add(key);
+    }
+
+    public void finish(String key) {
+        inFlight.remove(key);
+    }
+
+    public void save(String key, StoredResponse response) {
+        var record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setFingerprint(response.getFingerprint());
+        record.setStatusCode(response.getStatusCode());
+        record.setContentType(response.getContentType());
+        record.setResponseBody(response.getBody());
+        record.setCreatedAt(response.getCreatedAt());
+
+        try {
+            repository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key {} was stored concurrently", key);
+        }
+        remember(key, response);
+    }
+
+    @Scheduled(fixedDelayString = "${hr.idempotency.cleanup-interval:PT10M}")
+    public void removeExpired() {
+        var cutoff = Instant.now().minus(properties.getTtl());
+        var removed = repository.deleteCreatedBefore(cutoff);
+
+        lock.lock();
+        try {
+            cache.values().removeIf(response -> response.getCreatedAt().isBefore(cutoff));
+        } finally {
+            lock.unlock();
+        }
+
+        if (removed > 0) {
+            log.info("Removed {} expired idempotency records", removed);
+        }
+    }
+
+    private void remember(String key, StoredResponse response) {
+        lock.lock();
+        try {
+            cache.put(key, response);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isExpired(Instant createdAt) {
+        return createdAt.isBefore(Instant.now().minus(properties.getTtl()));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class StoredResponse {
+
+        private final String fingerprint;
+        private final int statusCode;
+        private final String contentType;
+        private final byte[] body;
+        private final Instant createdAt;
+
+        StoredResponse(IdempotencyRecord record) {
+            this(record.getFingerprint(), record.getStatusCode(), record.getContentType(),
+                    record.getResponseBody() != null ? record.getResponseBody() : new byte[0],
+                    record.getCreatedAt());
+        }
+    }
+}
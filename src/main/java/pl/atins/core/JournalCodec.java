@@ -0,0 +1,145 @@
+package pl.atins.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+final class JournalCodec {
+
+    static final byte ENTRY_EXECUTED = 1;
+    static final byte ENTRY_UNDONE = 2;
+    static final byte ENTRY_CLEARED = 3;
+
+    private static final byte RECORD_PROMOTION = 1;
+    private static final byte RECORD_SUPERVISOR_ASSIGNMENT = 2;
+    private static final byte RECORD_COMPOSITE = 3;
+    private static final byte RECORD_SALARY_ADJUSTMENT = 4;
+
+    private JournalCodec() {
+    }
+
+    static void writeCommandRecord(DataOutput out, CommandRecord record) throws IOException {
+        out.writeLong(record.getSequence());
+        out.writeUTF(record.getActor());
+        out.writeLong(record.getExecutedAt().toEpochMilli());
+        writeUndoRecord(out, record.getUndoRecord());
+    }
+
+    static CommandRecord readCommandRecord(DataInput in) throws IOException {
+        var sequence = in.readLong();
+        var actor = in.readUTF();
+        var executedAt = Instant.ofEpochMilli(in.readLong());
+        return new CommandRecord(sequence, actor, executedAt, readUndoRecord(in));
+    }
+
+    static void writeUndoRecord(DataOutput out, UndoRecord undoRecord) throws IOException {
+        if (undoRecord instanceof PromotionUndoRecord promotion) {
+            out.writeByte(RECORD_PROMOTION);
+            out.writeLong(promotion.getEmployeeId());
+            out.writeUTF(promotion.getDescription());
+            writeNullableString(out, promotion.getPreviousJobTitle());
+            writeNullableString(out, promotion.getNewJobTitle());
+            writeNullableDecimal(out, promotion.getPreviousSalary());
+            writeNullableDecimal(out, promotion.getNewSalary());
+        } else if (undoRecord instanceof SupervisorAssignmentUndoRecord assignment) {
+            out.writeByte(RECORD_SUPERVISOR_ASSIGNMENT);
+            out.writeLong(assignment.getEmployeeId());
+            out.writeUTF(assignment.getDescription());
+            writeNullableLong(out, assignment.getPreviousSupervisorId());
+            writeNullableLong(out, assignment.getPreviousSupervisorSince() != null
+                    ? assignment.getPreviousSupervisorSince().toEpochDay() : null);
+            out.writeLong(assignment.getNewSupervisorId());
+        } else if (undoRecord instanceof SalaryAdjustmentUndoRecord adjustment) {
+            out.writeByte(RECORD_SALARY_ADJUSTMENT);
+            out.writeLong(adjustment.getEmployeeId());
+            out.writeUTF(adjustment.getDescription());
+            writeNullableDecimal(out, adjustment.getPreviousSalary());
+            writeNullableDecimal(out, adjustment.getNewSalary());
+        } else if (undoRecord instanceof CompositeUndoRecord composite) {
+            out.writeByte(RECORD_COMPOSITE);
+            out.writeUTF(composite.getDescription());
+            out.writeInt(composite.getSteps().size());
+            for (UndoRecord step : composite.getSteps()) {
+                writeUndoRecord(out, step);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported undo record: " + undoRecord.getClass().getName());
+        }
+    }
+
+    static UndoRecord readUndoRecord(DataInput in) throws IOException {
+        var type = in.readByte();
+        return switch (type) {
+            case RECORD_PROMOTION -> new PromotionUndoRecord(in.readLong(), in.readUTF(),
+                    readNullableString(in), readNullableString(in),
+                    readNullableDecimal(in), readNullableDecimal(in));
+            case RECORD_SUPERVISOR_ASSIGNMENT -> {
+                var employeeId = in.readLong();
+                var description = in.readUTF();
+                var previousSupervisorId = readNullableLong(in);
+                var previousSince = readNullableLong(in);
+                yield new SupervisorAssignmentUndoRecord(employeeId, description, previousSupervisorId,
+                        previousSince != null ? LocalDate.ofEpochDay(previousSince) : null, in.readLong());
+            }
+            case RECORD_SALARY_ADJUSTMENT -> new SalaryAdjustmentUndoRecord(in.readLong(), in.readUTF(),
+                    readNullableDecimal(in), readNullableDecimal(in));
+            case RECORD_COMPOSITE -> {
+                var description = in.readUTF();
+                var count = in.readInt();
+                var steps = new ArrayList<UndoRecord>(count);
+                for (int i = 0; i < count; i++) {
+                    steps.add(readUndoRecord(in));
+                }
+                yield new CompositeUndoRecord(description, steps);
+            }
+            default -> throw new IOException("Unknown undo record type: " + type);
+        };
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readNullableLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeNullableDecimal(DataOutput out, BigDecimal value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            var unscaled = value.unscaledValue().toByteArray();
+            out.writeInt(value.scale());
+            out.writeShort(unscaled.length);
+            out.write(unscaled);
+        }
+    }
+
+    private static BigDecimal readNullableDecimal(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        var scale = in.readInt();
+        var unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,17 @@
+package pl.atins.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "hr.notifications.transport", havingValue = "log", matchIfMissing = true)
+public class LogNotificationTransport implements NotificationTransport {
+
+    @Override
+    public void send(NotificationDigest digest) {
+        log.info("Sending notification digest to {} ({} events):\n{}",
+                digest.getRecipient(), digest.size(), digest.render());
+    }
+}
@@ -0,0 +1,77 @@
+package pl.atins.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MacroCommand implements HRCommand {
+
+    private final List<HRCommand> commands;
+    private final String description;
+    private final List<UndoRecord> undoRecords = new ArrayList<>();
+
+    private boolean executed = false;
+
+    public MacroCommand(List<HRCommand> commands, String description) {
+        this.commands = List.copyOf(commands);
+        this.description = description;
+    }
+
+    @Override
+    public void execute() {
+        if (executed) {
+            throw new IllegalStateException("Command already executed");
+        }
+
+        try {
+            for (HRCommand command : commands) {
+                command.execute();
+                undoRecords.add(command.toUndoRecord());
+            }
+        } catch (RuntimeException e) {
+            undoExecuted();
+            throw e;
+        }
+
+        executed = true;
+    }
+
+    @Override
+    public void undo() {
+        if (!executed) {
+            throw new IllegalStateException("Cannot undo command that wasn't executed");
+        }
+
+        undoExecuted();
+        executed = false;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return executed;
+    }
+
+    @Override
+    public UndoRecord toUndoRecord() {
+        if (!executed) {
+            throw new IllegalStateException("Cannot record command that wasn't executed");
+        }
+
+        return new CompositeUndoRecord(description, List.copyOf(undoRecords));
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    private void undoExecuted() {
+        for (int i = undoRecords.size() - 1; i >= 0; i--) {
+            commands.get(i).undo();
+        }
+        undoRecords.clear();
+    }
+}
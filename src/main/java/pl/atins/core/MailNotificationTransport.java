@@ -0,0 +1,27 @@
+package pl.atins.core;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+import pl.atins.config.NotificationProperties;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "hr.notifications.transport", havingValue = "smtp")
+public class MailNotificationTransport implements NotificationTransport {
+
+    private final JavaMailSender mailSender;
+    private final NotificationProperties properties;
+
+    @Override
+    public void send(NotificationDigest digest) {
+        var message = new SimpleMailMessage();
+        message.setFrom(properties.getSender());
+        message.setTo(digest.getRecipient());
+        message.setSubject(digest.getSubject());
+        message.setText(digest.render());
+        mailSender.send(message);
+    }
+}
@@ -0,0 +1,55 @@
+package pl.atins.core;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+public class MembershipCache {
+
+    private static final String EMPLOYEE_DEPARTMENTS = Employee.class.getName() + ".departments";
+    private static final String DEPARTMENT_EMPLOYEES = Department.class.getName() + ".employees";
+
+    private final Cache cache;
+
+    public MembershipCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void evict(Collection<Long> employeeIds, Collection<Long> departmentIds) {
+        var employees = List.copyOf(employeeIds);
+        var departments = List.copyOf(departmentIds);
+        evictNowAndAfterCompletion(() -> {
+            employees.forEach(id -> {
+                cache.evictEntityData(Employee.class, id);
+                cache.evictCollectionData(EMPLOYEE_DEPARTMENTS, id);
+            });
+            departments.forEach(id -> cache.evictCollectionData(DEPARTMENT_EMPLOYEES, id));
+        });
+    }
+
+    public void evictDepartments(Collection<Long> departmentIds) {
+        var departments = List.copyOf(departmentIds);
+        evictNowAndAfterCompletion(() -> departments.forEach(id -> cache.evictEntityData(Department.class, id)));
+    }
+
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
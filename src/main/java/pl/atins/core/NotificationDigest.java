@@ -0,0 +1,95 @@
+package pl.atins.core;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Getter
+public class NotificationDigest {
+
+    public record Change(EmployeeEvent first, EmployeeEvent last, int count) {
+
+        public Object oldValue() {
+            return first.getOldValue();
+        }
+
+        public Object newValue() {
+            return last.getNewValue();
+        }
+
+        private Change followedBy(Change later) {
+            return new Change(first, later.last, count + later.count);
+        }
+    }
+
+    private final String recipient;
+    private final Instant firstQueuedAt;
+    private final Map<String, Change> changes = new LinkedHashMap<>();
+    private int duplicates;
+    private int attempts;
+    private Instant nextAttemptAt;
+
+    public NotificationDigest(String recipient, Instant firstQueuedAt) {
+        this.recipient = recipient;
+        this.firstQueuedAt = firstQueuedAt;
+    }
+
+    void add(EmployeeEvent event) {
+        add(event.getEmployee().getId() + ":" + event.getEventType(), new Change(event, event, 1));
+    }
+
+    NotificationDigest absorb(NotificationDigest newer) {
+        newer.changes.forEach(this::add);
+        duplicates += newer.duplicates;
+        return this;
+    }
+
+    boolean isDue(Instant windowCutoff, Instant now) {
+        return !firstQueuedAt.isAfter(windowCutoff) && (nextAttemptAt == null || !nextAttemptAt.isAfter(now));
+    }
+
+    void failed(Instant retryAt) {
+        attempts++;
+        nextAttemptAt = retryAt;
+    }
+
+    public List<Change> getChangeList() {
+        return List.copyOf(changes.values());
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    public String getSubject() {
+        return size() == 1
+                ? "HR update: 1 change"
+                : "HR update: " + size() + " changes";
+    }
+
+    public String render() {
+        return changes.values().stream()
+                .map(change -> {
+                    var event = change.last();
+                    var line = String.format("- %s: %s %s - %s",
+                            event.getEventType(),
+                            event.getEmployee().getFirstName(),
+                            event.getEmployee().getLastName(),
+                            event.getDetails());
+                    return change.count() == 1 ? line : String.format("%s (%d changes: %s -> %s)", line,
+                            change.count(), EmployeeEvent.describe(change.oldValue()),
+                            EmployeeEvent.describe(change.newValue()));
+                })
+                .collect(Collectors.joining("\n"));
+    }
+
+    private void add(String key, Change change) {
+        if (changes.merge(key, change, Change::followedBy) != change) {
+            duplicates++;
+        }
+    }
+}
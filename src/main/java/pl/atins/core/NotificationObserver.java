@@ -1,9 +1,21 @@
 package pl.atins.core;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import pl.atins.config.NotificationProperties;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Component
 @Slf4j
@@ -12,7 +24,41 @@ public class NotificationObserver implements EmployeeEventObserver {
     private static final Set<EmployeeEvent.EventType> NOTIFICATION_EVENTS = Set.of(
             EmployeeEvent.EventType.HIRED,
             EmployeeEvent.EventType.PROMOTED,
-            EmployeeEvent.EventType.TERMINATED);
+            EmployeeEvent.EventType.TERMINATED,
+            EmployeeEvent.EventType.SUPERVISOR_ASSIGNED,
+            EmployeeEvent.EventType.DEPARTMENT_CHANGED);
+
+    private final NotificationTransport transport;
+    private final NotificationProperties properties;
+    private final TokenBucket rateLimiter;
+    private final ConcurrentMap<String, NotificationDigest> pending = new ConcurrentHashMap<>();
+
+    private final DistributionSummary digestSize;
+    private final Timer digestDelay;
+    private final Counter duplicatesDropped;
+    private final Counter rateLimited;
+    private final Counter failures;
+    private final Counter abandoned;
+
+    public NotificationObserver(NotificationTransport transport, NotificationProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.properties = properties;
+        this.rateLimiter = new TokenBucket(properties.getBurst(), properties.getRatePerSecond());
+        this.digestSize = DistributionSummary.builder("hr.notifications.digest.size")
+                .description("Events delivered per notification digest")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.digestDelay = Timer.builder("hr.notifications.digest.delay")
+                .description("Time from the first queued event to digest delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.duplicatesDropped = meterRegistry.counter("hr.notifications.events.deduplicated");
+        this.rateLimited = meterRegistry.counter("hr.notifications.digests.rate_limited");
+        this.failures = meterRegistry.counter("hr.notifications.digests.failed");
+        this.abandoned = meterRegistry.counter("hr.notifications.digests.abandoned");
+        meterRegistry.gauge("hr.notifications.pending.recipients", pending, ConcurrentMap::size);
+    }
 
     @Override
     public void onEmployeeEvent(EmployeeEvent event) {
@@ -22,7 +68,14 @@ public class NotificationObserver implements EmployeeEventObserver {
                 event.getEmployee().getLastName(),
                 event.getDetails());
 
-        sendNotification(event);
+        var now = Instant.now();
+        for (String recipient : recipientsOf(event)) {
+            pending.compute(recipient, (key, digest) -> {
+                var target = digest != null ? digest : new NotificationDigest(key, now);
+                target.add(event);
+                return target;
+            });
+        }
     }
 
     @Override
@@ -30,7 +83,67 @@ public class NotificationObserver implements EmployeeEventObserver {
         return NOTIFICATION_EVENTS.contains(eventType);
     }
 
-    private void sendNotification(EmployeeEvent event) {
-        log.info("Sending notification email/SMS for event: {}", event.getEventType());
+    @Scheduled(fixedDelayString = "${hr.notifications.flush-interval:PT1S}")
+    public void flushDueDigests() {
+        flush(Instant.now(), false);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(Instant.now(), true);
+    }
+
+    int pendingRecipients() {
+        return pending.size();
+    }
+
+    void flush(Instant now, boolean force) {
+        var cutoff = now.minus(properties.getWindow());
+        for (var entry : pending.entrySet()) {
+            if (!force && !entry.getValue().isDue(cutoff, now)) {
+                continue;
+            }
+            if (!force && !rateLimiter.tryAcquire()) {
+                rateLimited.increment();
+                return;
+            }
+
+            var digest = pending.remove(entry.getKey());
+            if (digest != null) {
+                sendNotification(digest, now);
+            }
+        }
+    }
+
+    private void sendNotification(NotificationDigest digest, Instant now) {
+        try {
+            transport.send(digest);
+            digestSize.record(digest.size());
+            digestDelay.record(Duration.between(digest.getFirstQueuedAt(), now));
+            duplicatesDropped.increment(digest.getDuplicates());
+        } catch (Exception e) {
+            failures.increment();
+            var retry = properties.getRetry();
+            if (digest.getAttempts() + 1 >= retry.getMaxAttempts()) {
+                abandoned.increment();
+                log.error("Failed to send notification digest to {} after {} attempts, dropping {} changes",
+                        digest.getRecipient(), digest.getAttempts() + 1, digest.size(), e);
+                return;
+            }
+            var backoff = retry.getInitialBackoff().multipliedBy(1L << Math.min(digest.getAttempts(), 30));
+            digest.failed(now.plus(backoff.compareTo(retry.getMaxBackoff()) < 0 ? backoff : retry.getMaxBackoff()));
+            log.error("Failed to send notification digest to {}, retrying {} changes at {}",
+                    digest.getRecipient(), digest.size(), digest.getNextAttemptAt(), e);
+            pending.merge(digest.getRecipient(), digest, (newer, failed) -> failed.absorb(newer));
+        }
+    }
+
+    private Set<String> recipientsOf(EmployeeEvent event) {
+        var recipients = new LinkedHashSet<String>();
+        if (event.getSupervisorEmail() != null) {
+            recipients.add(event.getSupervisorEmail());
+        }
+        recipients.add(properties.getHrRecipient());
+        return recipients;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,6 @@
+package pl.atins.core;
+
+public interface NotificationTransport {
+
+    void send(NotificationDigest digest);
+}
@@ -77,4 +77,14 @@ public class PromoteEmployeeCommand implements HRCommand {
     public boolean canUndo() {
         return executed;
     }
+
+    @Override
+    public UndoRecord toUndoRecord() {
+        if (!executed) {
+            throw new IllegalStateException("Cannot record command that wasn't executed");
+        }
+
+        return new PromotionUndoRecord(employee.getId(), getDescription(),
+                previousJobTitle, newJobTitle, previousSalary, employee.getSalary());
+    }
 }
\ No newline at end of file
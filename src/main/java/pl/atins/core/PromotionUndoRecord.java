@@ -0,0 +1,50 @@
+package pl.atins.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Set;
+
+@Getter
+@RequiredArgsConstructor
+public class PromotionUndoRecord implements UndoRecord {
+
+    private final long employeeId;
+    private final String description;
+    private final String previousJobTitle;
+    private final String newJobTitle;
+    private final BigDecimal previousSalary;
+    private final BigDecimal newSalary;
+
+    @Override
+    public Set<Long> getReferencedEmployeeIds() {
+        return Set.of(employeeId);
+    }
+
+    @Override
+    public void undo(EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher) {
+        var employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new IllegalStateException("Employee no longer exists with id: " + employeeId));
+
+        if (!Objects.equals(employee.getJobTitle(), newJobTitle) || !sameAmount(employee.getSalary(), newSalary)) {
+            throw new IllegalStateException(
+                    "Employee with id " + employeeId + " was modified after the promotion and cannot be reverted");
+        }
+
+        employee.setJobTitle(previousJobTitle);
+        employee.setSalary(previousSalary);
+
+        employeeRepository.save(employee);
+
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED,
+                "Employee promotion undone", newJobTitle, previousJobTitle);
+        eventPublisher.publishEvent(event);
+    }
+
+    private static boolean sameAmount(BigDecimal left, BigDecimal right) {
+        return left == null ? right == null : right != null && left.compareTo(right) == 0;
+    }
+}
@@ -0,0 +1,134 @@
+package pl.atins.core;
+
+public class QuantileSketch {
+
+    private static final int INITIAL_BUCKETS = 128;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] counts = new long[0];
+    private int offset;
+    private long nonPositiveCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1, got " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        if (value <= 0) {
+            nonPositiveCount++;
+        } else {
+            var index = index(value);
+            ensureCapacity(index);
+            counts[index - offset]++;
+        }
+        count++;
+    }
+
+    public boolean remove(double value) {
+        if (value <= 0) {
+            if (nonPositiveCount == 0) {
+                return false;
+            }
+            nonPositiveCount--;
+        } else {
+            var index = index(value) - offset;
+            if (index < 0 || index >= counts.length || counts[index] == 0) {
+                return false;
+            }
+            counts[index]--;
+        }
+        count--;
+        return true;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] > 0) {
+                var index = other.offset + i;
+                ensureCapacity(index);
+                counts[index - offset] += other.counts[i];
+            }
+        }
+        nonPositiveCount += other.nonPositiveCount;
+        count += other.count;
+    }
+
+    public QuantileSketch copy() {
+        var copy = new QuantileSketch(relativeAccuracy);
+        copy.counts = counts.clone();
+        copy.offset = offset;
+        copy.nonPositiveCount = nonPositiveCount;
+        copy.count = count;
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double quantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        var rank = (long) (quantile * (count - 1));
+        if (rank < nonPositiveCount) {
+            return 0;
+        }
+        var seen = nonPositiveCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return value(offset + i);
+            }
+        }
+        return value(offset + counts.length - 1);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    private void ensureCapacity(int index) {
+        if (counts.length == 0) {
+            counts = new long[INITIAL_BUCKETS];
+            offset = index - INITIAL_BUCKETS / 2;
+            return;
+        }
+        if (index >= offset && index < offset + counts.length) {
+            return;
+        }
+
+        var from = Math.min(offset, index);
+        var to = Math.max(offset + counts.length, index + 1);
+        var slack = (to - from) / 2;
+        var newOffset = index < offset ? from - slack : from;
+        var grown = new long[to - from + slack];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+}
@@ -0,0 +1,25 @@
+package pl.atins.core;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RetryOnConflictAspect {
+
+    private final ConflictRetryExecutor retryExecutor;
+
+    @Around("@annotation(pl.atins.core.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        var signature = joinPoint.getSignature();
+        var operation = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        return retryExecutor.execute(operation, joinPoint::proceed);
+    }
+}
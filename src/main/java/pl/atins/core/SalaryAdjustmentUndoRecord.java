@@ -0,0 +1,42 @@
+package pl.atins.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+@Getter
+@RequiredArgsConstructor
+public class SalaryAdjustmentUndoRecord implements UndoRecord {
+
+    private final long employeeId;
+    private final String description;
+    private final BigDecimal previousSalary;
+    private final BigDecimal newSalary;
+
+    @Override
+    public Set<Long> getReferencedEmployeeIds() {
+        return Set.of(employeeId);
+    }
+
+    @Override
+    public void undo(EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher) {
+        var employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new IllegalStateException("Employee no longer exists with id: " + employeeId));
+
+        if (employee.getSalary() == null || newSalary == null || employee.getSalary().compareTo(newSalary) != 0) {
+            throw new IllegalStateException(
+                    "Salary of employee with id " + employeeId + " was changed after the adjustment and cannot be reverted");
+        }
+
+        employee.setSalary(previousSalary);
+
+        employeeRepository.save(employee);
+
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.SALARY_ADJUSTED,
+                "Salary adjustment undone", newSalary, previousSalary);
+        eventPublisher.publishEvent(event);
+    }
+}
@@ -0,0 +1,245 @@
+package pl.atins.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.atins.config.SalaryAnalyticsProperties;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class SalaryAnalytics implements EmployeeEventObserver {
+
+    private static final String ID_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM employee";
+
+    private static final String DEPARTMENT_SALARIES_SQL = "SELECT ed.department_id, e.salary FROM employee e " +
+            "JOIN employee_department ed ON ed.employee_id = e.id WHERE e.id BETWEEN ? AND ? AND e.salary IS NOT NULL";
+
+    private static final String JOB_TITLE_SALARIES_SQL = "SELECT job_title, salary FROM employee " +
+            "WHERE id BETWEEN ? AND ? AND salary IS NOT NULL AND job_title IS NOT NULL";
+
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    public record Snapshot(Map<Long, QuantileSketch> departments, Map<String, QuantileSketch> jobTitles,
+                           Instant rebuiltAt) {
+    }
+
+    private record Sketches(Map<Long, QuantileSketch> departments, Map<String, QuantileSketch> jobTitles) {
+
+        Sketches() {
+            this(new HashMap<>(), new HashMap<>());
+        }
+    }
+
+    private record Change(BigDecimal salary, String jobTitle, Set<Long> departmentIds, boolean added) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SalaryAnalyticsProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private Sketches sketches = new Sketches();
+    private Instant rebuiltAt;
+    private List<Change> changedDuringRebuild;
+
+    public SalaryAnalytics(JdbcTemplate jdbcTemplate, SalaryAnalyticsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean isInterestedIn(EmployeeEvent.EventType eventType) {
+        return eventType == EmployeeEvent.EventType.HIRED
+                || eventType == EmployeeEvent.EventType.TERMINATED
+                || eventType == EmployeeEvent.EventType.SALARY_ADJUSTED;
+    }
+
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
+    @Override
+    public void onEmployeeEvent(EmployeeEvent event) {
+        var employee = event.getEmployee();
+        var jobTitle = event.getJobTitle();
+        var departmentIds = event.getDepartmentIds();
+        switch (event.getEventType()) {
+            case HIRED -> apply(new Change(employee.getSalary(), jobTitle, departmentIds, true));
+            case TERMINATED -> apply(new Change(employee.getSalary(), jobTitle, departmentIds, false));
+            case SALARY_ADJUSTED -> {
+                if (event.getOldValue() instanceof BigDecimal oldSalary
+                        && event.getNewValue() instanceof BigDecimal newSalary) {
+                    apply(new Change(oldSalary, jobTitle, departmentIds, false),
+                            new Change(newSalary, jobTitle, departmentIds, true));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${hr.analytics.salaries.rebuild-interval:PT15M}",
+            fixedDelayString = "${hr.analytics.salaries.rebuild-interval:PT15M}")
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            var started = System.nanoTime();
+            lock.lock();
+            try {
+                changedDuringRebuild = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            var rebuilt = scan();
+
+            lock.lock();
+            try {
+                changedDuringRebuild.forEach(change -> apply(rebuilt, change));
+                sketches = rebuilt;
+                rebuiltAt = Instant.now();
+            } finally {
+                lock.unlock();
+            }
+            log.info("Rebuilt salary sketches for {} departments and {} job titles in {} ms",
+                    rebuilt.departments().size(), rebuilt.jobTitles().size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.unlock();
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            var departments = new HashMap<Long, QuantileSketch>();
+            sketches.departments().forEach((id, sketch) -> {
+                if (!sketch.isEmpty()) {
+                    departments.put(id, sketch.copy());
+                }
+            });
+            var jobTitles = new HashMap<String, QuantileSketch>();
+            sketches.jobTitles().forEach((title, sketch) -> {
+                if (!sketch.isEmpty()) {
+                    jobTitles.put(title, sketch.copy());
+                }
+            });
+            return new Snapshot(departments, jobTitles, rebuiltAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Sketches scan() {
+        var range = jdbcTemplate.queryForObject(ID_RANGE_SQL, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        var result = new Sketches();
+        if (range == null || range[1] < range[0] || range[1] == 0) {
+            return result;
+        }
+
+        var threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        var partitions = threads * PARTITIONS_PER_THREAD;
+        var step = Math.max(1, (range[1] - range[0] + partitions) / partitions);
+        var parts = new ArrayList<Future<Sketches>>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (long from = range[0]; from <= range[1]; from += step) {
+                var start = from;
+                var end = Math.min(range[1], from + step - 1);
+                parts.add(executor.submit(() -> scan(start, end)));
+            }
+            for (Future<Sketches> part : parts) {
+                merge(result, part.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Salary sketch rebuild failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding salary sketches", e);
+        }
+        return result;
+    }
+
+    private Sketches scan(long from, long to) {
+        var part = new Sketches();
+        jdbcTemplate.query(DEPARTMENT_SALARIES_SQL, rs -> {
+            sketch(part.departments(), rs.getLong(1)).add(rs.getBigDecimal(2).doubleValue());
+        }, from, to);
+        jdbcTemplate.query(JOB_TITLE_SALARIES_SQL, rs -> {
+            sketch(part.jobTitles(), rs.getString(1)).add(rs.getBigDecimal(2).doubleValue());
+        }, from, to);
+        return part;
+    }
+
+    private void merge(Sketches into, Sketches part) {
+        part.departments().forEach((id, sketch) -> sketch(into.departments(), id).merge(sketch));
+        part.jobTitles().forEach((title, sketch) -> sketch(into.jobTitles(), title).merge(sketch));
+    }
+
+    private void apply(Change... changes) {
+        lock.lock();
+        try {
+            for (Change change : changes) {
+                apply(sketches, change);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(change);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(Sketches target, Change change) {
+        if (change.salary() == null) {
+            return;
+        }
+        var salary = change.salary().doubleValue();
+        for (Long departmentId : change.departmentIds()) {
+            update(sketch(target.departments(), departmentId), salary, change.added());
+        }
+        if (change.jobTitle() != null) {
+            update(sketch(target.jobTitles(), change.jobTitle()), salary, change.added());
+        }
+    }
+
+    private static void update(QuantileSketch sketch, double salary, boolean added) {
+        if (added) {
+            sketch.add(salary);
+        } else {
+            sketch.remove(salary);
+        }
+    }
+
+    private <K> QuantileSketch sketch(Map<K, QuantileSketch> sketches, K key) {
+        return sketches.computeIfAbsent(key, ignored -> new QuantileSketch(properties.getRelativeAccuracy()));
+    }
+}
@@ -0,0 +1,58 @@
+package pl.atins.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import pl.atins.config.WarmupProperties;
+import pl.atins.dto.DepartmentResponse;
+import pl.atins.repository.EmployeeRepository;
+import pl.atins.service.DepartmentService;
+import pl.atins.service.EmployeeService;
+
+@Component
+@Slf4j
+public class StartupWarmup {
+
+    private final WarmupProperties properties;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeService employeeService;
+    private final DepartmentService departmentService;
+
+    public StartupWarmup(WarmupProperties properties, EmployeeRepository employeeRepository,
+                         EmployeeService employeeService, DepartmentService departmentService) {
+        this.properties = properties;
+        this.employeeRepository = employeeRepository;
+        this.employeeService = employeeService;
+        this.departmentService = departmentService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        var started = System.nanoTime();
+        var employeeIds = employeeRepository.findIds(Limit.of(properties.getSampleSize()));
+        var departmentIds = departmentService.getAllDepartments().stream().map(DepartmentResponse::getId).toList();
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+
+        for (int i = 0; i < properties.getIterations(); i++) {
+            var employeeId = employeeIds.get(i % employeeIds.size());
+            employeeService.getEmployeeById(employeeId);
+            employeeService.getEmployeesBySupervisor(employeeId);
+            if (!departmentIds.isEmpty()) {
+                departmentService.getDepartmentById(departmentIds.get(i % departmentIds.size()));
+            }
+        }
+        log.info("Warmed up {} iterations over {} employees and {} departments in {} ms", properties.getIterations(),
+                employeeIds.size(), departmentIds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,61 @@
+package pl.atins.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import pl.atins.repository.EmployeeRepository;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+@Getter
+@RequiredArgsConstructor
+public class SupervisorAssignmentUndoRecord implements UndoRecord {
+
+    private final long employeeId;
+    private final String description;
+    private final Long previousSupervisorId;
+    private final LocalDate previousSupervisorSince;
+    private final long newSupervisorId;
+
+    @Override
+    public Set<Long> getReferencedEmployeeIds() {
+        var ids = new HashSet<Long>();
+        ids.add(employeeId);
+        ids.add(newSupervisorId);
+        if (previousSupervisorId != null) {
+            ids.add(previousSupervisorId);
+        }
+        return ids;
+    }
+
+    @Override
+    public void undo(EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher) {
+        var employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new IllegalStateException("Employee no longer exists with id: " + employeeId));
+        var currentSupervisor = employee.getSupervisor();
+
+        if (currentSupervisor == null || !Objects.equals(currentSupervisor.getId(), newSupervisorId)) {
+            throw new IllegalStateException("Supervisor of employee with id " + employeeId
+                    + " was changed after the assignment and cannot be reverted");
+        }
+
+        if (previousSupervisorId != null) {
+            var previousSupervisor = employeeRepository.findById(previousSupervisorId)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Previous supervisor no longer exists with id: " + previousSupervisorId));
+            employee.addSupervisor(previousSupervisor);
+            employee.setSupervisorSince(previousSupervisorSince);
+        } else {
+            employee.setSupervisor(null);
+            employee.setSupervisorSince(null);
+        }
+
+        employeeRepository.save(employee);
+
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.SUPERVISOR_ASSIGNED,
+                "Supervisor assignment undone", currentSupervisor, employee.getSupervisor());
+        eventPublisher.publishEvent(event);
+    }
+}
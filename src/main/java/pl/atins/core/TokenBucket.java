@@ -0,0 +1,47 @@
+package pl.atins.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+public class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        this(capacity, tokensPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double tokensPerSecond, LongSupplier nanoClock) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            var now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package pl.atins.core;
+
+import pl.atins.repository.EmployeeRepository;
+
+import java.util.Set;
+
+public interface UndoRecord {
+
+    String getDescription();
+
+    Set<Long> getReferencedEmployeeIds();
+
+    void undo(EmployeeRepository employeeRepository, EmployeeEventPublisher eventPublisher);
+}
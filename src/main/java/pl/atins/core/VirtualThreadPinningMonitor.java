@@ -0,0 +1,97 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+import pl.atins.config.VirtualThreadProperties;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(prefix = "hr.threads.pinning", name = "monitor-enabled", matchIfMissing = true)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final VirtualThreadProperties properties;
+    private final Timer pinned;
+    private final Counter submitFailed;
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.pinned = Timer.builder("hr.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(meterRegistry);
+        this.submitFailed = Counter.builder("hr.threads.virtual.submit.failed")
+                .description("Virtual threads that could not be scheduled on a carrier")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getThreshold()).withStackTrace();
+        stream.enable(SUBMIT_FAILED_EVENT);
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.increment());
+        stream.setMaxAge(Duration.ofMinutes(1));
+        stream.startAsync();
+        log.info("Monitoring virtual thread pinning above {}", properties.getThreshold());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+
+        var allFrames = stackTrace.getFrames();
+        var site = 0;
+        while (site < allFrames.size() - 1 && isJdkFrame(allFrames.get(site))) {
+            site++;
+        }
+        var frames = allFrames.subList(site, Math.min(allFrames.size(), site + LOGGED_FRAMES)).stream()
+                .map(VirtualThreadPinningMonitor::describe)
+                .toList();
+        if (loggedLocations.size() < properties.getMaxLoggedLocations() && loggedLocations.add(frames.getFirst())) {
+            log.warn("Virtual thread pinned for {} ms at:\n\t{}", event.getDuration().toMillis(),
+                    String.join("\n\t", frames));
+        }
+    }
+
+    private static boolean isJdkFrame(RecordedFrame frame) {
+        var type = frame.getMethod().getType().getName();
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,37 @@
+package pl.atins.core;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    @Autowired
+    public WorkerThreads(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    public WorkerThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public Thread.Builder builder(String name) {
+        return virtual ? Thread.ofVirtual().name(name) : Thread.ofPlatform().name(name).daemon();
+    }
+
+    public ThreadFactory factory(String prefix) {
+        return virtual
+                ? Thread.ofVirtual().name(prefix, 0).factory()
+                : Thread.ofPlatform().name(prefix, 0).daemon().factory();
+    }
+}
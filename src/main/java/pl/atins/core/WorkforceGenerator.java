@@ -0,0 +1,297 @@
+package pl.atins.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import pl.atins.config.SeedProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Component
+@Slf4j
+public class WorkforceGenerator {
+
+    private static final String INSERT_DEPARTMENT = "INSERT INTO department (id, name, description, location, " +
+            "employee_count, version) VALUES (?, ?, ?, ?, 0, 0)";
+
+    private static final String INSERT_EMPLOYEE = "INSERT INTO employee (id, first_name, last_name, email, job_title, " +
+            "hire_date, salary, phone, office_location, supervisor_id, supervisor_since, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_MEMBERSHIP = "INSERT INTO employee_department (employee_id, department_id) " +
+            "VALUES (?, ?)";
+
+    private static final String UPDATE_HEAD = "UPDATE department SET head_id = ? WHERE id = ?";
+
+    private static final String COUNT_MEMBERS = "UPDATE department d SET employee_count = " +
+            "(SELECT COUNT(*) FROM employee_department ed WHERE ed.department_id = d.id)";
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Charles", "Karen", "Anna", "Piotr", "Maria", "Jan", "Katarzyna", "Tomasz", "Ewa", "Marek"};
+
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Jackson", "Martin",
+            "Lee", "Nowak", "Kowalski", "Wisniewski", "Wojcik", "Kaminski", "Lewandowski", "Zielinski", "Szymanski"};
+
+    private static final String[] FUNCTIONS = {"Engineering", "Sales", "Marketing", "Finance", "Human Resources",
+            "Operations", "Customer Support", "Legal", "Product", "Research"};
+
+    private static final String[][] FUNCTION_TITLES = {
+            {"Software Engineer", "QA Engineer", "DevOps Engineer", "Data Engineer"},
+            {"Account Executive", "Sales Representative", "Sales Engineer"},
+            {"Marketing Specialist", "Content Writer", "SEO Analyst"},
+            {"Accountant", "Financial Analyst", "Controller"},
+            {"Recruiter", "HR Specialist", "Payroll Specialist"},
+            {"Operations Analyst", "Logistics Coordinator", "Facilities Specialist"},
+            {"Support Specialist", "Support Engineer", "Customer Success Manager"},
+            {"Legal Counsel", "Paralegal", "Compliance Officer"},
+            {"Product Manager", "UX Designer", "Business Analyst"},
+            {"Research Scientist", "Research Engineer", "Data Scientist"}};
+
+    private static final String[] MANAGEMENT_TITLES = {"CEO", "Vice President", "Director", "Senior Manager",
+            "Manager"};
+
+    private static final int MAX_TENURE_DAYS = 20 * 365;
+
+    public record Summary(int employees, int departments, int depth, Duration elapsed) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedProperties properties;
+
+    public WorkforceGenerator(JdbcTemplate jdbcTemplate, SeedProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public Summary generate() {
+        var started = System.nanoTime();
+        var employees = properties.getEmployees();
+        if (employees < 1) {
+            throw new IllegalArgumentException("Number of employees to generate must be positive");
+        }
+        if (properties.getSpanOfControl() < 1 || properties.getMaxDepth() < 1) {
+            throw new IllegalArgumentException("Span of control and maximum depth must be at least 1");
+        }
+
+        var departments = Math.max(1, Math.min(properties.getDepartments(), employees));
+        var org = layOut(employees, departments);
+        var threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+
+        insertDepartments(departments);
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int level = 0; level < org.levelStarts().length - 1; level++) {
+                var from = org.levelStarts()[level];
+                var to = org.levelStarts()[level + 1];
+                var batches = new ArrayList<Future<?>>();
+                for (int batchStart = from; batchStart < to; batchStart += properties.getBatchSize()) {
+                    var start = batchStart;
+                    var end = Math.min(to, batchStart + properties.getBatchSize());
+                    var depth = level;
+                    batches.add(executor.submit(() -> insertEmployees(org, depth, start, end)));
+                }
+                awaitAll(batches);
+            }
+        }
+        assignHeads(org, departments);
+        jdbcTemplate.update(COUNT_MEMBERS);
+        restartIdentity("employee", employees);
+        restartIdentity("department", departments);
+
+        var summary = new Summary(employees, departments, org.levelStarts().length - 1,
+                Duration.ofNanos(System.nanoTime() - started));
+        log.info("Generated {} employees in {} departments, {} levels deep, in {} ms", summary.employees(),
+                summary.departments(), summary.depth(), summary.elapsed().toMillis());
+        return summary;
+    }
+
+    private Org layOut(int employees, int departments) {
+        var random = new SplittableRandom(properties.getRandomSeed());
+        var levelStarts = levelStarts(employees);
+        var supervisors = new int[employees];
+        var reports = new int[employees];
+        var primary = new int[employees];
+        var secondary = new int[employees];
+        var departmentWeights = departmentWeights(departments);
+
+        supervisors[0] = -1;
+        primary[0] = pick(departmentWeights, random);
+        for (int level = 1; level < levelStarts.length - 1; level++) {
+            var managersFrom = levelStarts[level - 1];
+            var managers = levelStarts[level] - managersFrom;
+            for (int i = levelStarts[level]; i < levelStarts[level + 1]; i++) {
+                supervisors[i] = managersFrom + random.nextInt(managers);
+            }
+            Arrays.sort(supervisors, levelStarts[level], levelStarts[level + 1]);
+            for (int i = levelStarts[level]; i < levelStarts[level + 1]; i++) {
+                var supervisor = supervisors[i];
+                reports[supervisor]++;
+                primary[i] = level > 1 && random.nextDouble() < properties.getDepartmentAffinity()
+                        ? primary[supervisor]
+                        : pick(departmentWeights, random);
+            }
+        }
+        for (int i = 0; i < employees; i++) {
+            secondary[i] = -1;
+            if (departments > 1 && random.nextDouble() < properties.getSecondaryDepartmentRatio()) {
+                var department = pick(departmentWeights, random);
+                secondary[i] = department != primary[i] ? department : (department + 1) % departments;
+            }
+        }
+        return new Org(levelStarts, supervisors, reports, primary, secondary);
+    }
+
+    private int[] levelStarts(int employees) {
+        var starts = new ArrayList<Integer>();
+        starts.add(0);
+        var placed = 0;
+        var levelSize = 1.0;
+        while (placed < employees) {
+            var size = starts.size() == properties.getMaxDepth()
+                    ? employees - placed
+                    : (int) Math.min(employees - placed, Math.max(1, Math.round(levelSize)));
+            placed += size;
+            starts.add(placed);
+            levelSize = size * properties.getSpanOfControl();
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private double[] departmentWeights(int departments) {
+        var cumulative = new double[departments];
+        var total = 0.0;
+        for (int i = 0; i < departments; i++) {
+            total += 1 / Math.pow(i + 1, properties.getDepartmentSkew());
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < departments; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulativeWeights, SplittableRandom random) {
+        var index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulativeWeights.length - 1);
+    }
+
+    private void insertDepartments(int departments) {
+        var rows = new ArrayList<Object[]>(departments);
+        for (int i = 0; i < departments; i++) {
+            var function = FUNCTIONS[i % FUNCTIONS.length];
+            var name = i < FUNCTIONS.length ? function : function + " " + (i / FUNCTIONS.length + 1);
+            rows.add(new Object[]{i + 1L, name, function + " department",
+                    "Building " + (char) ('A' + i % 26) + ", Floor " + (i % 10 + 1)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_DEPARTMENT, rows);
+    }
+
+    private void insertEmployees(Org org, int level, int from, int to) {
+        var random = new SplittableRandom(properties.getRandomSeed() * 31 + from);
+        var depth = org.levelStarts().length - 1;
+        var today = LocalDate.now();
+        var employees = new ArrayList<Object[]>(to - from);
+        var memberships = new ArrayList<Object[]>(to - from);
+        for (int i = from; i < to; i++) {
+            long id = i + 1L;
+            var firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            var lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            var hireDate = today.minusDays(tenureDays(level, depth, random));
+            var supervisorId = org.supervisors()[i] < 0 ? null : org.supervisors()[i] + 1L;
+            employees.add(new Object[]{id, firstName, lastName,
+                    (firstName + "." + lastName + "." + id + "@company.com").toLowerCase(),
+                    jobTitle(org, i, level, hireDate, today, random), hireDate, salary(level, depth, random),
+                    "+1-555-%07d".formatted(id), "Building " + (char) ('A' + org.primary()[i] % 26) + ", Room " +
+                    (100 + random.nextInt(900)), supervisorId, hireDate});
+
+            memberships.add(new Object[]{id, org.primary()[i] + 1L});
+            if (org.secondary()[i] >= 0) {
+                memberships.add(new Object[]{id, org.secondary()[i] + 1L});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, employees);
+        jdbcTemplate.batchUpdate(INSERT_MEMBERSHIP, memberships);
+    }
+
+    private static int tenureDays(int level, int depth, SplittableRandom random) {
+        var seniority = 1 - 0.6 * level / Math.max(1, depth - 1);
+        return 1 + random.nextInt(Math.max(1, (int) (MAX_TENURE_DAYS * seniority)));
+    }
+
+    private static String jobTitle(Org org, int index, int level, LocalDate hireDate, LocalDate today,
+                                   SplittableRandom random) {
+        if (org.reports()[index] > 0 || level == 0) {
+            return level < MANAGEMENT_TITLES.length ? MANAGEMENT_TITLES[level] : "Team Lead";
+        }
+        var titles = FUNCTION_TITLES[org.primary()[index] % FUNCTION_TITLES.length];
+        var title = titles[random.nextInt(titles.length)];
+        return hireDate.isBefore(today.minusYears(5)) ? "Senior " + title : title;
+    }
+
+    private BigDecimal salary(int level, int depth, SplittableRandom random) {
+        var salary = properties.getSalary();
+        var levelsAboveBottom = Math.max(0, depth - 1 - level);
+        var noise = Math.exp(gaussian(random) * salary.getSpread());
+        var amount = salary.getEntryLevel() * Math.pow(salary.getLevelStep(), levelsAboveBottom) * noise;
+        return BigDecimal.valueOf(Math.round(amount / 100) * 100);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = random.nextDouble() * 2 - 1;
+            v = random.nextDouble() * 2 - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    private void assignHeads(Org org, int departments) {
+        var heads = new long[departments];
+        for (int i = 0; i < org.primary().length; i++) {
+            var department = org.primary()[i];
+            if (heads[department] == 0) {
+                heads[department] = i + 1L;
+            }
+        }
+        var rows = new ArrayList<Object[]>();
+        for (int department = 0; department < departments; department++) {
+            if (heads[department] != 0) {
+                rows.add(new Object[]{heads[department], department + 1L});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_HEAD, rows);
+    }
+
+    private void restartIdentity(String table, long lastId) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (lastId + 1));
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Workforce generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating workforce", e);
+        }
+    }
+
+    private record Org(int[] levelStarts, int[] supervisors, int[] reports, int[] primary, int[] secondary) {
+    }
+}
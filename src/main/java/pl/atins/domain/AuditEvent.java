@@ -0,0 +1,53 @@
+package pl.atins.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import pl.atins.core.EmployeeEvent;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "audit_event", indexes = {
+        @Index(name = "idx_audit_event_employee_time", columnList = "employee_id, occurred_at, id"),
+        @Index(name = "idx_audit_event_time", columnList = "occurred_at, id")
+})
+@Getter
+@Setter
+public class AuditEvent {
+
+    public static final int VALUE_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(name = "employee_name")
+    private String employeeName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EmployeeEvent.EventType eventType;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    private String details;
+
+    @Column(name = "old_value", length = VALUE_LENGTH)
+    private String oldValue;
+
+    @Column(name = "new_value", length = VALUE_LENGTH)
+    private String newValue;
+}
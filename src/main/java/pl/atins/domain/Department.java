@@ -1,20 +1,26 @@
 package pl.atins.domain;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
 @Entity
-@Table(name = "department")
+@Table(name = "department", indexes = @Index(name = "idx_department_employee_count", columnList = "employee_count"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 public class Department {
@@ -23,17 +29,28 @@ public class Department {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     private String name;
 
     private String description;
 
     private String location;
 
+    // Written only by DepartmentRepository.adjustEmployeeCounts; adjustEmployeeCount mirrors it in memory
+    @Column(name = "employee_count", nullable = false, updatable = false)
+    private int employeeCount;
+
     @OneToOne
     @JoinColumn(name = "head_id", unique = true)
     private Employee head;
 
     @ManyToMany(mappedBy = "departments")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Employee> employees;
 
+    public void adjustEmployeeCount(int delta) {
+        employeeCount += delta;
+    }
 }
@@ -2,17 +2,23 @@ package pl.atins.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -21,6 +27,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "employee")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 public class Employee {
@@ -29,6 +36,9 @@ public class Employee {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(name = "first_name", nullable = false)
     private String firstName;
 
@@ -51,7 +61,7 @@ public class Employee {
     @Column(name = "office_location")
     private String officeLocation;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supervisor_id")
     private Employee supervisor;
 
@@ -62,24 +72,37 @@ public class Employee {
     private Set<Employee> subordinates;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "employee_department",
             joinColumns = @JoinColumn(name = "employee_id"),
-            inverseJoinColumns = @JoinColumn(name = "department_id")
+            inverseJoinColumns = @JoinColumn(name = "department_id"),
+            indexes = @Index(name = "idx_employee_department_department", columnList = "department_id, employee_id")
     )
     private Set<Department> departments = new HashSet<>();
 
     public void addDepartment(Department department) {
         departments.add(department);
-        if (department.getEmployees() != null) {
+        if (isLoaded(department.getEmployees())) {
             department.getEmployees().add(this);
         }
     }
 
+    public void removeDepartment(Department department) {
+        departments.remove(department);
+        if (isLoaded(department.getEmployees())) {
+            department.getEmployees().remove(this);
+        }
+    }
+
     public void addSupervisor(Employee supervisor) {
         this.supervisor = supervisor;
         if (supervisor != null && supervisor.getSubordinates() != null) {
             supervisor.getSubordinates().add(this);
         }
     }
+
+    private static boolean isLoaded(Set<Employee> employees) {
+        return employees != null && Hibernate.isInitialized(employees);
+    }
 }
\ No newline at end of file
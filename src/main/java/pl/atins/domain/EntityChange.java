@@ -0,0 +1,49 @@
+package pl.atins.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "entity_change",
+        uniqueConstraints = @UniqueConstraint(name = "uk_entity_change_entity", columnNames = {"entity_type", "entity_id"}),
+        indexes = @Index(name = "idx_entity_change_sequence", columnList = "sequence, id"))
+@Getter
+@Setter
+public class EntityChange {
+
+    public enum EntityType {
+        EMPLOYEE, DEPARTMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
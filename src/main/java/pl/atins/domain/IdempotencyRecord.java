@@ -0,0 +1,43 @@
+package pl.atins.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_record", indexes = {
+        @Index(name = "idx_idempotency_record_created", columnList = "created_at")
+})
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+    public static final int KEY_LENGTH = 255;
+
+    @Id
+    @Column(name = "idempotency_key", length = KEY_LENGTH)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,79 @@
+package pl.atins.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import pl.atins.core.HRCommandType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "scheduled_command", indexes = {
+        @Index(name = "idx_scheduled_command_status_time", columnList = "status, effective_at, id")
+})
+@Getter
+@Setter
+public class ScheduledCommand {
+
+    public static final int FAILURE_REASON_LENGTH = 1000;
+
+    public enum Status {
+        PENDING, EXECUTED, FAILED, CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(name = "effective_at", nullable = false)
+    private Instant effectiveAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "executed_at")
+    private Instant executedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "command_type", nullable = false, length = 32)
+    private HRCommandType commandType;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "new_job_title")
+    private String newJobTitle;
+
+    @Column(name = "salary_increase")
+    private BigDecimal salaryIncrease;
+
+    @Column(name = "supervisor_id")
+    private Long supervisorId;
+
+    @Column(name = "strategy_type")
+    private String strategyType;
+
+    private BigDecimal amount;
+
+    @Column(name = "command_sequence")
+    private Long commandSequence;
+
+    @Column(name = "failure_reason", length = FAILURE_REASON_LENGTH)
+    private String failureReason;
+}
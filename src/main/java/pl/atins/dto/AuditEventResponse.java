@@ -0,0 +1,18 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditEventResponse {
+
+    private Long id;
+    private Long employeeId;
+    private String employeeName;
+    private String eventType;
+    private LocalDateTime occurredAt;
+    private String details;
+    private String oldValue;
+    private String newValue;
+}
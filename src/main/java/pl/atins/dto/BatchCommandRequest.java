@@ -0,0 +1,18 @@
+package pl.atins.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchCommandRequest {
+
+    public static final int MAX_COMMANDS = 10_000;
+
+    @NotEmpty(message = "At least one command is required")
+    @Size(max = MAX_COMMANDS, message = "A batch may contain at most " + MAX_COMMANDS + " commands")
+    private List<@Valid CommandSpec> commands;
+}
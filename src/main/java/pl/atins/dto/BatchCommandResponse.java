@@ -0,0 +1,16 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Set;
+
+@Data
+public class BatchCommandResponse {
+
+    private Long sequence;
+    private String description;
+    private Integer commandCount;
+    private Instant executedAt;
+    private Set<Long> employeeIds;
+}
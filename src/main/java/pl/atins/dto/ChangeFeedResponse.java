@@ -0,0 +1,17 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ChangeFeedResponse {
+
+    private String nextToken;
+    private boolean hasMore;
+    private List<EmployeeResponse> employees = new ArrayList<>();
+    private List<DepartmentResponse> departments = new ArrayList<>();
+    private List<Long> deletedEmployeeIds = new ArrayList<>();
+    private List<Long> deletedDepartmentIds = new ArrayList<>();
+}
@@ -0,0 +1,27 @@
+package pl.atins.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import pl.atins.core.HRCommandType;
+
+import java.math.BigDecimal;
+
+@Data
+public class CommandSpec {
+
+    @NotNull(message = "Command type is required")
+    private HRCommandType type;
+
+    @NotNull(message = "Employee id is required")
+    private Long employeeId;
+
+    private String newJobTitle;
+
+    private BigDecimal salaryIncrease;
+
+    private Long supervisorId;
+
+    private String strategyType;
+
+    private BigDecimal amount;
+}
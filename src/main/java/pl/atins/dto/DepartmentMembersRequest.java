@@ -0,0 +1,18 @@
+package pl.atins.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class DepartmentMembersRequest {
+
+    public static final int MAX_EMPLOYEES = 1_000;
+
+    @NotEmpty(message = "At least one employee is required")
+    @Size(max = MAX_EMPLOYEES, message = "At most " + MAX_EMPLOYEES + " employees may be changed at once")
+    private Set<@NotNull Long> employeeIds;
+}
@@ -11,4 +11,5 @@ public class DepartmentResponse {
     private String location;
     private Long headId;
     private String headName;
+    private Integer employeeCount;
 }
\ No newline at end of file
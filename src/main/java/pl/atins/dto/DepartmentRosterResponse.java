@@ -0,0 +1,16 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class DepartmentRosterResponse {
+
+    private Long departmentId;
+    private String sort;
+    private String nextToken;
+    private boolean hasMore;
+    private List<RosterEntryResponse> employees = new ArrayList<>();
+}
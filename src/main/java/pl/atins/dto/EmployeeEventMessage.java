@@ -0,0 +1,20 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+public class EmployeeEventMessage {
+
+    private long sequence;
+    private String eventType;
+    private Long employeeId;
+    private String employeeName;
+    private Set<Long> departmentIds;
+    private LocalDateTime timestamp;
+    private String details;
+    private String oldValue;
+    private String newValue;
+}
@@ -0,0 +1,101 @@
+package pl.atins.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public record EmployeeView(Set<String> fields, Set<Expansion> expansions) {
+
+    public enum Expansion {
+        DEPARTMENTS("departments"),
+        SUPERVISOR("supervisorName"),
+        SUBORDINATES("subordinatesCount");
+
+        private final String field;
+
+        Expansion(String field) {
+            this.field = field;
+        }
+    }
+
+    public static final List<String> FIELDS = List.of("id", "firstName", "lastName", "email", "jobTitle", "hireDate",
+            "salary", "phone", "officeLocation", "supervisorId", "supervisorName", "supervisorSince", "departments",
+            "subordinatesCount");
+
+    public static final EmployeeView FULL = new EmployeeView(null, EnumSet.allOf(Expansion.class));
+
+    public EmployeeView {
+        fields = fields == null ? null : Collections.unmodifiableSet(new TreeSet<>(fields));
+        expansions = Collections.unmodifiableSet(expansions.isEmpty()
+                ? EnumSet.noneOf(Expansion.class) : EnumSet.copyOf(expansions));
+    }
+
+    public static EmployeeView of(Set<String> fields, Set<String> expand) {
+        if (fields == null && expand == null) {
+            return FULL;
+        }
+        var selected = fields == null ? null : names(fields);
+        if (selected != null) {
+            selected.stream()
+                    .filter(field -> !FIELDS.contains(field))
+                    .findFirst()
+                    .ifPresent(field -> {
+                        throw new IllegalArgumentException("Unknown field: " + field + ", expected one of " + FIELDS);
+                    });
+        }
+        var expansions = expand == null ? EnumSet.allOf(Expansion.class) : EnumSet.noneOf(Expansion.class);
+        if (expand != null) {
+            names(expand).forEach(name -> expansions.add(parseExpansion(name)));
+        }
+        return new EmployeeView(selected, expansions);
+    }
+
+    public boolean isFull() {
+        return equals(FULL);
+    }
+
+    public boolean includes(String field) {
+        if (field.equals("id")) {
+            return true;
+        }
+        var expansion = Arrays.stream(Expansion.values())
+                .filter(candidate -> candidate.field.equals(field))
+                .findFirst();
+        return (fields == null || fields.contains(field)) && expansion.map(expansions::contains).orElse(true);
+    }
+
+    public boolean expands(Expansion expansion) {
+        return includes(expansion.field);
+    }
+
+    public List<String> includedFields() {
+        return FIELDS.stream().filter(this::includes).toList();
+    }
+
+    public String variant() {
+        var expanded = expansions.stream().map(expansion -> expansion.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining("."));
+        return (fields == null ? "*" : String.join(".", fields)) + "~" + expanded;
+    }
+
+    private static Set<String> names(Set<String> values) {
+        return values.stream()
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static Expansion parseExpansion(String name) {
+        try {
+            return Expansion.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown expansion: " + name + ", expected one of "
+                    + Arrays.toString(Expansion.values()).toLowerCase(Locale.ROOT));
+        }
+    }
+}
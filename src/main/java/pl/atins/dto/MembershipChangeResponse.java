@@ -0,0 +1,13 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class MembershipChangeResponse {
+
+    private List<Long> changedEmployeeIds = new ArrayList<>();
+    private List<DepartmentResponse> departments = new ArrayList<>();
+}
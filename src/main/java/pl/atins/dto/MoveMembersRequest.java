@@ -0,0 +1,20 @@
+package pl.atins.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.Set;
+
+@Data
+public class MoveMembersRequest {
+
+    @NotNull(message = "Target department is required")
+    private Long targetDepartmentId;
+
+    @NotEmpty(message = "At least one employee is required")
+    @Size(max = DepartmentMembersRequest.MAX_EMPLOYEES,
+            message = "At most " + DepartmentMembersRequest.MAX_EMPLOYEES + " employees may be changed at once")
+    private Set<@NotNull Long> employeeIds;
+}
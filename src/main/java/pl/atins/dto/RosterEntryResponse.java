@@ -0,0 +1,22 @@
+package pl.atins.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterEntryResponse {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String jobTitle;
+    private LocalDate hireDate;
+    private BigDecimal salary;
+}
@@ -0,0 +1,17 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class SalaryDistributionResponse {
+
+    private Long departmentId;
+    private String departmentName;
+    private String jobTitle;
+    private long count;
+    private BigDecimal p10;
+    private BigDecimal median;
+    private BigDecimal p90;
+}
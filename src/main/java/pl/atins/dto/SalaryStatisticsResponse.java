@@ -0,0 +1,15 @@
+package pl.atins.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class SalaryStatisticsResponse {
+
+    private double relativeAccuracy;
+    private Instant rebuiltAt;
+    private List<SalaryDistributionResponse> departments;
+    private List<SalaryDistributionResponse> jobTitles;
+}
@@ -0,0 +1,22 @@
+package pl.atins.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class ScheduleCommandRequest {
+
+    @NotNull(message = "Effective time is required")
+    private Instant effectiveAt;
+
+    @NotEmpty(message = "At least one command is required")
+    @Size(max = BatchCommandRequest.MAX_COMMANDS,
+            message = "A request may schedule at most " + BatchCommandRequest.MAX_COMMANDS + " commands")
+    private List<@Valid CommandSpec> commands;
+}
@@ -0,0 +1,20 @@
+package pl.atins.dto;
+
+import lombok.Data;
+import pl.atins.domain.ScheduledCommand;
+
+import java.time.Instant;
+
+@Data
+public class ScheduledCommandResponse {
+
+    private Long id;
+    private String actor;
+    private ScheduledCommand.Status status;
+    private Instant effectiveAt;
+    private Instant createdAt;
+    private Instant executedAt;
+    private Long commandSequence;
+    private String failureReason;
+    private CommandSpec command;
+}
@@ -0,0 +1,8 @@
+package pl.atins.exception;
+
+public class UnauthenticatedException extends RuntimeException {
+
+    public UnauthenticatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,42 @@
+package pl.atins.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.domain.AuditEvent;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditEvent a WHERE a.employeeId = :employeeId " +
+            "AND a.occurredAt >= :from AND a.occurredAt < :to " +
+            "AND (:type IS NULL OR a.eventType = :type) " +
+            "ORDER BY a.occurredAt, a.id")
+    Stream<AuditEvent> streamByEmployee(@Param("employeeId") Long employeeId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        @Param("type") EmployeeEvent.EventType type);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AuditEvent a WHERE a.occurredAt >= :from AND a.occurredAt < :to " +
+            "AND (:type IS NULL OR a.eventType = :type) " +
+            "ORDER BY a.occurredAt, a.id")
+    Stream<AuditEvent> streamByTimeRange(@Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("type") EmployeeEvent.EventType type);
+}
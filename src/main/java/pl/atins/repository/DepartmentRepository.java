@@ -1,30 +1,54 @@
 package pl.atins.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import pl.atins.domain.Department;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Department> findByName(String name);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Department> findByHeadId(Long headId);
 
+    @Query("SELECT d FROM Department d WHERE d.name = :name OR d.head.id = :headId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Department> findByNameOrHeadId(@Param("name") String name, @Param("headId") Long headId);
+
     @Query("SELECT d FROM Department d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Department> findByNameContaining(@Param("name") String name);
 
     @Query("SELECT d FROM Department d WHERE LOWER(d.location) LIKE LOWER(CONCAT('%', :location, '%'))")
     List<Department> findByLocationContaining(@Param("location") String location);
 
-    @Query("SELECT d FROM Department d WHERE SIZE(d.employees) = 0")
+    @Query("SELECT d FROM Department d WHERE d.employeeCount = 0")
     List<Department> findEmptyDepartments();
 
-    @Query("SELECT d FROM Department d WHERE SIZE(d.employees) > :minSize")
+    @Query("SELECT d FROM Department d WHERE d.employeeCount > :minSize")
     List<Department> findDepartmentsWithMinEmployees(@Param("minSize") int minSize);
+
+    // The query space names no mapped table, so the cache is kept; callers evict through MembershipCache
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "department_employee_count"))
+    @Query(value = "UPDATE department SET employee_count = employee_count + :delta WHERE id IN :ids",
+            nativeQuery = true)
+    int adjustEmployeeCounts(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Department d SET d.employeeCount = SIZE(d.employees)")
+    int recountEmployees();
 }
\ No newline at end of file
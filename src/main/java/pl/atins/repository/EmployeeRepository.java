@@ -1,11 +1,22 @@
 package pl.atins.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pl.atins.domain.Employee;
+import pl.atins.dto.RosterEntryResponse;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +35,67 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("SELECT e FROM Employee e JOIN e.departments d WHERE d.id = :departmentId")
     List<Employee> findByDepartmentId(@Param("departmentId") Long departmentId);
 
+    @Query("SELECT e.id FROM Employee e WHERE e.supervisor.id = :supervisorId")
+    List<Long> findIdsBySupervisorId(@Param("supervisorId") Long supervisorId);
+
+    @Query("SELECT e.id FROM Employee e JOIN e.departments d WHERE d.id = :departmentId")
+    List<Long> findIdsByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query("SELECT e.id FROM Employee e JOIN e.departments d WHERE d.id = :departmentId AND e.id IN :ids")
+    List<Long> findIdsByDepartmentIdAndIdIn(@Param("departmentId") Long departmentId,
+                                            @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT e FROM Employee e WHERE e.id IN :ids")
+    List<Employee> findAllForMembershipChange(@Param("ids") Collection<Long> ids);
+
+    // Only the join table is named as a query space; an entity table would clear its whole cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employee_department"))
+    @Query(value = "INSERT INTO employee_department (employee_id, department_id) " +
+            "SELECT id, :departmentId FROM employee WHERE id IN :employeeIds", nativeQuery = true)
+    int insertMemberships(@Param("departmentId") Long departmentId,
+                          @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employee_department"))
+    @Query(value = "DELETE FROM employee_department WHERE department_id = :departmentId " +
+            "AND employee_id IN :employeeIds", nativeQuery = true)
+    int deleteMemberships(@Param("departmentId") Long departmentId,
+                          @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Query("SELECT e.supervisor.id, COUNT(e) FROM Employee e WHERE e.supervisor.id IN :supervisorIds " +
+            "GROUP BY e.supervisor.id")
+    List<Object[]> countSubordinatesBySupervisorIdIn(@Param("supervisorIds") Collection<Long> supervisorIds);
+
+    @Query("SELECT new pl.atins.dto.RosterEntryResponse(e.id, e.firstName, e.lastName, e.email, e.jobTitle, " +
+            "e.hireDate, e.salary) FROM Employee e JOIN e.departments d WHERE d.id = :departmentId " +
+            "AND (e.lastName > :lastName OR (e.lastName = :lastName AND e.id > :id)) ORDER BY e.lastName, e.id")
+    List<RosterEntryResponse> findRosterByLastName(@Param("departmentId") Long departmentId,
+                                                   @Param("lastName") String lastName, @Param("id") long id,
+                                                   Limit limit);
+
+    @Query("SELECT new pl.atins.dto.RosterEntryResponse(e.id, e.firstName, e.lastName, e.email, e.jobTitle, " +
+            "e.hireDate, e.salary) FROM Employee e JOIN e.departments d WHERE d.id = :departmentId " +
+            "AND (e.hireDate > :hireDate OR (e.hireDate = :hireDate AND e.id > :id)) ORDER BY e.hireDate, e.id")
+    List<RosterEntryResponse> findRosterByHireDate(@Param("departmentId") Long departmentId,
+                                                   @Param("hireDate") LocalDate hireDate, @Param("id") long id,
+                                                   Limit limit);
+
+    @Query("SELECT new pl.atins.dto.RosterEntryResponse(e.id, e.firstName, e.lastName, e.email, e.jobTitle, " +
+            "e.hireDate, e.salary) FROM Employee e JOIN e.departments d WHERE d.id = :departmentId " +
+            "AND (e.salary > :salary OR (e.salary = :salary AND e.id > :id)) ORDER BY e.salary, e.id")
+    List<RosterEntryResponse> findRosterBySalary(@Param("departmentId") Long departmentId,
+                                                 @Param("salary") BigDecimal salary, @Param("id") long id,
+                                                 Limit limit);
+
+    @Query("SELECT e.id FROM Employee e ORDER BY e.id")
+    List<Long> findIds(Limit limit);
+
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.supervisor WHERE e.id IN :ids")
+    List<Employee> findAllWithSupervisorByIdIn(@Param("ids") Collection<Long> ids);
+
 }
\ No newline at end of file
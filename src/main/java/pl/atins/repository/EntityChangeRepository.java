@@ -0,0 +1,22 @@
+package pl.atins.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.atins.domain.EntityChange;
+
+import java.util.List;
+
+@Repository
+public interface EntityChangeRepository extends JpaRepository<EntityChange, Long> {
+
+    @Query("SELECT c FROM EntityChange c WHERE (c.sequence > :sequence OR (c.sequence = :sequence AND c.id > :id)) " +
+            "AND c.sequence <= :upTo ORDER BY c.sequence, c.id")
+    List<EntityChange> findChangesAfter(@Param("sequence") long sequence, @Param("id") long id,
+                                        @Param("upTo") long upTo, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM EntityChange c")
+    long findMaxSequence();
+}
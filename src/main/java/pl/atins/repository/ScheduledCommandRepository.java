@@ -0,0 +1,31 @@
+package pl.atins.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pl.atins.domain.ScheduledCommand;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScheduledCommandRepository extends JpaRepository<ScheduledCommand, Long> {
+
+    List<ScheduledCommand> findByStatusOrderByEffectiveAtAscIdAsc(ScheduledCommand.Status status);
+
+    List<ScheduledCommand> findByIdInAndStatusOrderByEffectiveAtAscIdAsc(Collection<Long> ids,
+                                                                         ScheduledCommand.Status status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ScheduledCommand s SET s.status = :status, s.executedAt = :executedAt, "
+            + "s.commandSequence = :commandSequence, s.failureReason = :failureReason "
+            + "WHERE s.id IN :ids AND s.status = pl.atins.domain.ScheduledCommand.Status.PENDING")
+    int completePending(@Param("ids") Collection<Long> ids,
+                        @Param("status") ScheduledCommand.Status status,
+                        @Param("executedAt") Instant executedAt,
+                        @Param("commandSequence") Long commandSequence,
+                        @Param("failureReason") String failureReason);
+}
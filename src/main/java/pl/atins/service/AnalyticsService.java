@@ -0,0 +1,8 @@
+package pl.atins.service;
+
+import pl.atins.dto.SalaryStatisticsResponse;
+
+public interface AnalyticsService {
+
+    SalaryStatisticsResponse getSalaryStatistics();
+}
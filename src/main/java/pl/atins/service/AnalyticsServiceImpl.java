@@ -0,0 +1,72 @@
+package pl.atins.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.atins.config.SalaryAnalyticsProperties;
+import pl.atins.core.QuantileSketch;
+import pl.atins.core.SalaryAnalytics;
+import pl.atins.domain.Department;
+import pl.atins.dto.SalaryDistributionResponse;
+import pl.atins.dto.SalaryStatisticsResponse;
+import pl.atins.repository.DepartmentRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final SalaryAnalytics salaryAnalytics;
+    private final SalaryAnalyticsProperties properties;
+    private final DepartmentRepository departmentRepository;
+
+    @Override
+    public SalaryStatisticsResponse getSalaryStatistics() {
+        var snapshot = salaryAnalytics.snapshot();
+        var names = departmentRepository.findAllById(snapshot.departments().keySet()).stream()
+                .collect(Collectors.toMap(Department::getId, Department::getName));
+
+        var response = new SalaryStatisticsResponse();
+        response.setRelativeAccuracy(properties.getRelativeAccuracy());
+        response.setRebuiltAt(snapshot.rebuiltAt());
+        response.setDepartments(snapshot.departments().entrySet().stream()
+                .filter(entry -> names.containsKey(entry.getKey()))
+                .map(entry -> {
+                    var distribution = mapToResponse(entry.getValue());
+                    distribution.setDepartmentId(entry.getKey());
+                    distribution.setDepartmentName(names.get(entry.getKey()));
+                    return distribution;
+                })
+                .sorted(Comparator.comparing(SalaryDistributionResponse::getDepartmentName))
+                .toList());
+        response.setJobTitles(snapshot.jobTitles().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    var distribution = mapToResponse(entry.getValue());
+                    distribution.setJobTitle(entry.getKey());
+                    return distribution;
+                })
+                .toList());
+        return response;
+    }
+
+    private static SalaryDistributionResponse mapToResponse(QuantileSketch sketch) {
+        var response = new SalaryDistributionResponse();
+        response.setCount(sketch.getCount());
+        response.setP10(salary(sketch.quantile(0.1)));
+        response.setMedian(salary(sketch.quantile(0.5)));
+        response.setP90(salary(sketch.quantile(0.9)));
+        return response;
+    }
+
+    private static BigDecimal salary(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
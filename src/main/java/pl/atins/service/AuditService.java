@@ -0,0 +1,13 @@
+package pl.atins.service;
+
+import pl.atins.core.EmployeeEvent;
+import pl.atins.dto.AuditEventResponse;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+public interface AuditService {
+
+    void streamEvents(Long employeeId, LocalDateTime from, LocalDateTime to,
+                      EmployeeEvent.EventType type, Consumer<AuditEventResponse> consumer);
+}
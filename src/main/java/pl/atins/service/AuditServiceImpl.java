@@ -0,0 +1,54 @@
+package pl.atins.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.domain.AuditEvent;
+import pl.atins.dto.AuditEventResponse;
+import pl.atins.repository.AuditEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AuditServiceImpl implements AuditService {
+
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final AuditEventRepository auditEventRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public void streamEvents(Long employeeId, LocalDateTime from, LocalDateTime to,
+                             EmployeeEvent.EventType type, Consumer<AuditEventResponse> consumer) {
+        var lower = from != null ? from : MIN_TIMESTAMP;
+        var upper = to != null ? to : MAX_TIMESTAMP;
+
+        try (var events = employeeId != null
+                ? auditEventRepository.streamByEmployee(employeeId, lower, upper, type)
+                : auditEventRepository.streamByTimeRange(lower, upper, type)) {
+            events.forEach(event -> {
+                consumer.accept(mapToResponse(event));
+                entityManager.detach(event);
+            });
+        }
+    }
+
+    private AuditEventResponse mapToResponse(AuditEvent event) {
+        var response = new AuditEventResponse();
+        response.setId(event.getId());
+        response.setEmployeeId(event.getEmployeeId());
+        response.setEmployeeName(event.getEmployeeName());
+        response.setEventType(event.getEventType().name());
+        response.setOccurredAt(event.getOccurredAt());
+        response.setDetails(event.getDetails());
+        response.setOldValue(event.getOldValue());
+        response.setNewValue(event.getNewValue());
+        return response;
+    }
+}
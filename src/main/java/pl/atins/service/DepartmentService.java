@@ -2,9 +2,12 @@ package pl.atins.service;
 
 import pl.atins.dto.CreateDepartmentRequest;
 import pl.atins.dto.DepartmentResponse;
+import pl.atins.dto.DepartmentRosterResponse;
+import pl.atins.dto.MembershipChangeResponse;
 import pl.atins.dto.UpdateDepartmentRequest;
 
 import java.util.List;
+import java.util.Set;
 
 public interface DepartmentService {
 
@@ -26,6 +29,8 @@ public interface DepartmentService {
 
     List<DepartmentResponse> getDepartmentsWithMinEmployees(int minSize);
 
+    DepartmentRosterResponse getRoster(Long departmentId, String sort, String after, int limit);
+
     DepartmentResponse updateDepartment(Long id, UpdateDepartmentRequest request);
 
     void deleteDepartment(Long id);
@@ -33,4 +38,8 @@ public interface DepartmentService {
     DepartmentResponse assignHead(Long departmentId, Long employeeId);
 
     DepartmentResponse removeHead(Long departmentId);
+
+    MembershipChangeResponse addMembers(Long departmentId, Set<Long> employeeIds);
+
+    MembershipChangeResponse moveMembers(Long departmentId, Long targetDepartmentId, Set<Long> employeeIds);
 }
\ No newline at end of file
@@ -1,42 +1,62 @@
 package pl.atins.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.atins.core.ChangeTracker;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.MembershipCache;
+import pl.atins.core.RetryOnConflict;
 import pl.atins.domain.Department;
 import pl.atins.domain.Employee;
 import pl.atins.dto.CreateDepartmentRequest;
 import pl.atins.dto.DepartmentResponse;
+import pl.atins.dto.DepartmentRosterResponse;
+import pl.atins.dto.MembershipChangeResponse;
+import pl.atins.dto.RosterEntryResponse;
 import pl.atins.dto.UpdateDepartmentRequest;
 import pl.atins.repository.DepartmentRepository;
 import pl.atins.repository.EmployeeRepository;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class DepartmentServiceImpl implements DepartmentService {
 
+    static final int MAX_ROSTER_PAGE = 500;
+
     private final DepartmentRepository departmentRepository;
     private final EmployeeRepository employeeRepository;
+    private final ChangeTracker changeTracker;
+    private final EmployeeEventPublisher eventPublisher;
+    private final MembershipCache membershipCache;
 
     @Override
     public DepartmentResponse createDepartment(CreateDepartmentRequest request) {
-        validateDepartmentNameUniqueness(request.getName(), null);
+        var head = request.getHeadId() != null ? findEmployeeById(request.getHeadId()) : null;
+        validateNameAndHead(request.getName(), head, null);
 
         var department = new Department();
         department.setName(request.getName());
         department.setDescription(request.getDescription());
         department.setLocation(request.getLocation());
+        department.setHead(head);
 
-        if (request.getHeadId() != null) {
-            var head = findEmployeeById(request.getHeadId());
-            validateHeadAssignment(head);
-            department.setHead(head);
-        }
-
-        return saveAndMapToResponse(department);
+        var response = saveAndMapToResponse(department);
+        changeTracker.departmentChanged(response.getId());
+        return response;
     }
 
     @Override
@@ -103,11 +123,47 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public DepartmentRosterResponse getRoster(Long departmentId, String sort, String after, int limit) {
+        if (limit < 1 || limit > MAX_ROSTER_PAGE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_ROSTER_PAGE);
+        }
+        var order = RosterSort.parse(sort);
+        var position = RosterToken.parse(after, order);
+        var page = Limit.of(limit + 1);
+        var entries = switch (order) {
+            case LAST_NAME -> employeeRepository.findRosterByLastName(departmentId, position.key(), position.id(),
+                    page);
+            case HIRE_DATE -> employeeRepository.findRosterByHireDate(departmentId, LocalDate.parse(position.key()),
+                    position.id(), page);
+            case SALARY -> employeeRepository.findRosterBySalary(departmentId, new BigDecimal(position.key()),
+                    position.id(), page);
+        };
+        if (entries.isEmpty() && !departmentRepository.existsById(departmentId)) {
+            throw new IllegalArgumentException("Department not found with id: " + departmentId);
+        }
+
+        var response = new DepartmentRosterResponse();
+        response.setDepartmentId(departmentId);
+        response.setSort(order.parameter);
+        response.setHasMore(entries.size() > limit);
+        response.setEmployees(response.isHasMore() ? entries.subList(0, limit) : entries);
+        var last = response.getEmployees().isEmpty() ? null : response.getEmployees().getLast();
+        response.setNextToken(last == null ? position.toString()
+                : new RosterToken(order, order.keyOf(last), last.getId()).toString());
+        return response;
+    }
+
+    @Override
+    @RetryOnConflict
     public DepartmentResponse updateDepartment(Long id, UpdateDepartmentRequest request) {
         var department = findDepartmentById(id);
+        var head = request.getHeadId() != null ? findEmployeeById(request.getHeadId()) : null;
+        if (request.getName() != null || head != null) {
+            validateNameAndHead(request.getName(), head, id);
+        }
 
         if (request.getName() != null) {
-            validateDepartmentNameUniqueness(request.getName(), id);
             department.setName(request.getName());
         }
 
@@ -119,23 +175,25 @@ public class DepartmentServiceImpl implements DepartmentService {
             department.setLocation(request.getLocation());
         }
 
-        if (request.getHeadId() != null) {
-            var head = findEmployeeById(request.getHeadId());
-            validateHeadAssignment(head);
+        if (head != null) {
             department.setHead(head);
         }
 
+        recordDepartmentChange(id);
         return saveAndMapToResponse(department);
     }
 
     @Override
+    @RetryOnConflict
     public void deleteDepartment(Long id) {
         var department = findDepartmentById(id);
         validateDepartmentDeletion(department);
+        changeTracker.departmentDeleted(id);
         departmentRepository.delete(department);
     }
 
     @Override
+    @RetryOnConflict
     public DepartmentResponse assignHead(Long departmentId, Long employeeId) {
         var department = findDepartmentById(departmentId);
         var employee = findEmployeeById(employeeId);
@@ -143,22 +201,181 @@ public class DepartmentServiceImpl implements DepartmentService {
         validateHeadAssignment(employee);
         department.setHead(employee);
 
+        recordDepartmentChange(departmentId);
         return saveAndMapToResponse(department);
     }
 
     @Override
+    @RetryOnConflict
     public DepartmentResponse removeHead(Long departmentId) {
         var department = findDepartmentById(departmentId);
         department.setHead(null);
+        recordDepartmentChange(departmentId);
         return saveAndMapToResponse(department);
     }
 
+    @Override
+    @RetryOnConflict
+    public MembershipChangeResponse addMembers(Long departmentId, Set<Long> employeeIds) {
+        var department = findDepartmentById(departmentId);
+        var missing = new TreeSet<>(employeeIds);
+        employeeRepository.findExistingIds(employeeIds).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Employees not found with ids: " + missing);
+        }
+
+        var joining = new TreeSet<>(employeeIds);
+        employeeRepository.findIdsByDepartmentIdAndIdIn(departmentId, employeeIds).forEach(joining::remove);
+        if (!joining.isEmpty()) {
+            employeeRepository.findAllForMembershipChange(joining);
+            employeeRepository.insertMemberships(departmentId, joining);
+            membershipCache.evict(joining, Set.of(departmentId));
+            adjustEmployeeCount(department, joining.size());
+            changeTracker.departmentChanged(departmentId);
+            changeTracker.employeesChanged(joining);
+            publishDepartmentChanges(joining, "Employee assigned to department", null, department.getName());
+        }
+
+        var response = new MembershipChangeResponse();
+        response.setChangedEmployeeIds(List.copyOf(joining));
+        response.setDepartments(List.of(mapToResponse(department)));
+        return response;
+    }
+
+    @Override
+    @RetryOnConflict
+    public MembershipChangeResponse moveMembers(Long departmentId, Long targetDepartmentId, Set<Long> employeeIds) {
+        if (departmentId.equals(targetDepartmentId)) {
+            throw new IllegalArgumentException("Employees can only be moved to a different department");
+        }
+        var source = findDepartmentById(departmentId);
+        var target = findDepartmentById(targetDepartmentId);
+        var moving = new TreeSet<>(employeeRepository.findIdsByDepartmentIdAndIdIn(departmentId, employeeIds));
+        var outsiders = new TreeSet<>(employeeIds);
+        outsiders.removeAll(moving);
+        if (!outsiders.isEmpty()) {
+            throw new IllegalArgumentException("Employees are not members of department " + departmentId + ": "
+                    + outsiders);
+        }
+
+        var joining = new TreeSet<>(moving);
+        employeeRepository.findIdsByDepartmentIdAndIdIn(targetDepartmentId, moving).forEach(joining::remove);
+        employeeRepository.findAllForMembershipChange(moving);
+        employeeRepository.deleteMemberships(departmentId, moving);
+        adjustEmployeeCount(source, -moving.size());
+        if (!joining.isEmpty()) {
+            employeeRepository.insertMemberships(targetDepartmentId, joining);
+            adjustEmployeeCount(target, joining.size());
+        }
+        membershipCache.evict(moving, Set.of(departmentId, targetDepartmentId));
+        changeTracker.departmentChanged(departmentId);
+        changeTracker.departmentChanged(targetDepartmentId);
+        changeTracker.employeesChanged(moving);
+        publishDepartmentChanges(moving, "Employee moved to department", source.getName(), target.getName());
+
+        var response = new MembershipChangeResponse();
+        response.setChangedEmployeeIds(List.copyOf(moving));
+        response.setDepartments(List.of(mapToResponse(source), mapToResponse(target)));
+        return response;
+    }
+
+    private void adjustEmployeeCount(Department department, int delta) {
+        departmentRepository.adjustEmployeeCounts(Set.of(department.getId()), delta);
+        membershipCache.evictDepartments(Set.of(department.getId()));
+        department.adjustEmployeeCount(delta);
+    }
+
+    private void publishDepartmentChanges(Set<Long> employeeIds, String details, String oldValue, String newValue) {
+        var events = employeeRepository.findAllWithSupervisorByIdIn(employeeIds).stream()
+                .sorted(Comparator.comparing(Employee::getId))
+                .map(employee -> new EmployeeEvent(employee, EmployeeEvent.EventType.DEPARTMENT_CHANGED, details,
+                        oldValue, newValue))
+                .toList();
+        eventPublisher.publishEvents(events);
+    }
+
+    private enum RosterSort {
+        LAST_NAME("lastName", ""),
+        HIRE_DATE("hireDate", LocalDate.of(1, 1, 1).toString()),
+        SALARY("salary", "0");
+
+        private final String parameter;
+        private final String first;
+
+        RosterSort(String parameter, String first) {
+            this.parameter = parameter;
+            this.first = first;
+        }
+
+        static RosterSort parse(String sort) {
+            return Arrays.stream(values())
+                    .filter(candidate -> candidate.parameter.equals(sort))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown sort: " + sort
+                            + ", expected one of lastName, hireDate, salary"));
+        }
+
+        String keyOf(RosterEntryResponse entry) {
+            return switch (this) {
+                case LAST_NAME -> entry.getLastName();
+                case HIRE_DATE -> entry.getHireDate().toString();
+                case SALARY -> entry.getSalary().toPlainString();
+            };
+        }
+    }
+
+    private record RosterToken(RosterSort sort, String key, long id) {
+
+        static RosterToken parse(String token, RosterSort sort) {
+            if (token == null || token.isBlank()) {
+                return new RosterToken(sort, sort.first, 0);
+            }
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", 3);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid roster token: " + token);
+            }
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid roster token: " + token);
+            }
+            if (!parts[0].equals(sort.parameter)) {
+                throw new IllegalArgumentException("Roster token was issued for sort " + parts[0] + ", not "
+                        + sort.parameter);
+            }
+            try {
+                var key = parts[2];
+                switch (sort) {
+                    case HIRE_DATE -> LocalDate.parse(key);
+                    case SALARY -> new BigDecimal(key);
+                    default -> {
+                    }
+                }
+                return new RosterToken(sort, key, Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid roster token: " + token);
+            }
+        }
+
+        @Override
+        public String toString() {
+            var value = sort.parameter + "\n" + id + "\n" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void recordDepartmentChange(Long departmentId) {
+        changeTracker.departmentChanged(departmentId);
+        changeTracker.employeesChanged(employeeRepository.findIdsByDepartmentId(departmentId));
+    }
+
     private DepartmentResponse mapToResponse(Department department) {
         var response = new DepartmentResponse();
         response.setId(department.getId());
         response.setName(department.getName());
         response.setDescription(department.getDescription());
         response.setLocation(department.getLocation());
+        response.setEmployeeCount(department.getEmployeeCount());
 
         if (department.getHead() != null) {
             response.setHeadId(department.getHead().getId());
@@ -178,12 +395,19 @@ public class DepartmentServiceImpl implements DepartmentService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with id: " + id));
     }
 
-    private void validateDepartmentNameUniqueness(String name, Long excludeDepartmentId) {
-        var existingDepartment = departmentRepository.findByName(name);
-        if (existingDepartment.isPresent() &&
-                (excludeDepartmentId == null || !existingDepartment.get().getId().equals(excludeDepartmentId))) {
+    private void validateNameAndHead(String name, Employee head, Long excludeDepartmentId) {
+        var conflicts = departmentRepository.findByNameOrHeadId(name, head != null ? head.getId() : null);
+        if (conflicts.stream().anyMatch(existing -> existing.getName().equals(name)
+                && !existing.getId().equals(excludeDepartmentId))) {
             throw new IllegalArgumentException("Department with name '" + name + "' already exists");
         }
+        conflicts.stream()
+                .filter(existing -> head != null && existing.getHead() != null
+                        && existing.getHead().getId().equals(head.getId()))
+                .findFirst()
+                .ifPresent(existing -> {
+                    throw new IllegalArgumentException("Employee is already head of department: " + existing.getName());
+                });
     }
 
     private void validateHeadAssignment(Employee employee) {
@@ -195,7 +419,7 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     private void validateDepartmentDeletion(Department department) {
-        if (department.getEmployees() != null && !department.getEmployees().isEmpty()) {
+        if (department.getEmployeeCount() > 0) {
             throw new IllegalStateException(
                     "Cannot delete department with employees. Remove employees from department first.");
         }
@@ -1,7 +1,9 @@
 package pl.atins.service;
 
+import pl.atins.dto.ChangeFeedResponse;
 import pl.atins.dto.CreateEmployeeRequest;
 import pl.atins.dto.EmployeeResponse;
+import pl.atins.dto.EmployeeView;
 import pl.atins.dto.SalaryAdjustmentRequest;
 import pl.atins.dto.UpdateEmployeeRequest;
 
@@ -12,19 +14,43 @@ public interface EmployeeService {
 
     EmployeeResponse createEmployee(CreateEmployeeRequest request);
 
-    EmployeeResponse getEmployeeById(Long id);
+    default EmployeeResponse getEmployeeById(Long id) {
+        return getEmployeeById(id, EmployeeView.FULL);
+    }
+
+    EmployeeResponse getEmployeeById(Long id, EmployeeView view);
 
     EmployeeResponse getEmployeeByEmail(String email);
 
-    List<EmployeeResponse> getAllEmployees();
+    default List<EmployeeResponse> getAllEmployees() {
+        return getAllEmployees(EmployeeView.FULL);
+    }
+
+    List<EmployeeResponse> getAllEmployees(EmployeeView view);
+
+    default List<EmployeeResponse> getEmployeesByJobTitle(String jobTitle) {
+        return getEmployeesByJobTitle(jobTitle, EmployeeView.FULL);
+    }
+
+    List<EmployeeResponse> getEmployeesByJobTitle(String jobTitle, EmployeeView view);
 
-    List<EmployeeResponse> getEmployeesByJobTitle(String jobTitle);
+    default List<EmployeeResponse> getEmployeesByDepartment(Long departmentId) {
+        return getEmployeesByDepartment(departmentId, EmployeeView.FULL);
+    }
 
-    List<EmployeeResponse> getEmployeesByDepartment(Long departmentId);
+    List<EmployeeResponse> getEmployeesByDepartment(Long departmentId, EmployeeView view);
 
-    List<EmployeeResponse> getEmployeesBySupervisor(Long supervisorId);
+    default List<EmployeeResponse> getEmployeesBySupervisor(Long supervisorId) {
+        return getEmployeesBySupervisor(supervisorId, EmployeeView.FULL);
+    }
 
-    List<EmployeeResponse> searchEmployeesByName(String name);
+    List<EmployeeResponse> getEmployeesBySupervisor(Long supervisorId, EmployeeView view);
+
+    default List<EmployeeResponse> searchEmployeesByName(String name) {
+        return searchEmployeesByName(name, EmployeeView.FULL);
+    }
+
+    List<EmployeeResponse> searchEmployeesByName(String name, EmployeeView view);
 
     EmployeeResponse updateEmployee(Long id, UpdateEmployeeRequest request);
 
@@ -39,4 +65,6 @@ public interface EmployeeService {
     EmployeeResponse assignToDepartment(Long employeeId, Long departmentId);
 
     EmployeeResponse removeFromDepartment(Long employeeId, Long departmentId);
+
+    ChangeFeedResponse getChanges(String since, int limit);
 }
\ No newline at end of file
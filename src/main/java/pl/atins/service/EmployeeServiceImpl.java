@@ -1,26 +1,41 @@
 package pl.atins.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.atins.core.ChangeTracker;
 import pl.atins.core.EmployeeEvent;
 import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.EntityLoader;
+import pl.atins.core.MembershipCache;
+import pl.atins.core.RetryOnConflict;
 import pl.atins.domain.Department;
 import pl.atins.domain.Employee;
+import pl.atins.domain.EntityChange;
+import pl.atins.dto.ChangeFeedResponse;
 import pl.atins.dto.CreateEmployeeRequest;
 import pl.atins.dto.DepartmentResponse;
 import pl.atins.dto.EmployeeResponse;
+import pl.atins.dto.EmployeeView;
 import pl.atins.dto.SalaryAdjustmentRequest;
 import pl.atins.dto.UpdateEmployeeRequest;
 import pl.atins.repository.DepartmentRepository;
 import pl.atins.repository.EmployeeRepository;
+import pl.atins.repository.EntityChangeRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,10 +43,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class EmployeeServiceImpl implements EmployeeService {
 
+    static final int MAX_CHANGES_PER_PAGE = 10_000;
+
+    private static final int SUBORDINATE_COUNT_BATCH = 1_000;
+
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
     private final SalaryService salaryService;
     private final EmployeeEventPublisher eventPublisher;
+    private final ChangeTracker changeTracker;
+    private final EntityChangeRepository entityChangeRepository;
+    private final EntityLoader entityLoader;
+    private final MembershipCache membershipCache;
 
     @Override
     public EmployeeResponse createEmployee(CreateEmployeeRequest request) {
@@ -49,6 +72,11 @@ public class EmployeeServiceImpl implements EmployeeService {
         assignDepartments(employee, request.getDepartmentIds());
 
         var response = saveAndMapToResponse(employee);
+        adjustEmployeeCounts(employee.getDepartments(), 1);
+        changeTracker.employeeChanged(employee.getId());
+        if (employee.getSupervisor() != null) {
+            changeTracker.employeeChanged(employee.getSupervisor().getId());
+        }
 
         var event = new EmployeeEvent(employee, EmployeeEvent.EventType.HIRED,
                 "New employee hired", null, employee);
@@ -70,9 +98,9 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     @Transactional(readOnly = true)
-    public EmployeeResponse getEmployeeById(Long id) {
+    public EmployeeResponse getEmployeeById(Long id, EmployeeView view) {
         var employee = findEmployeeById(id);
-        return mapToResponse(employee);
+        return mapListToResponse(List.of(employee), view).getFirst();
     }
 
     @Override
@@ -85,54 +113,65 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<EmployeeResponse> getAllEmployees() {
-        return mapListToResponse(employeeRepository.findAll());
+    public List<EmployeeResponse> getAllEmployees(EmployeeView view) {
+        return mapListToResponse(employeeRepository.findAll(), view);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EmployeeResponse> getEmployeesByJobTitle(String jobTitle) {
-        return mapListToResponse(employeeRepository.findByJobTitle(jobTitle));
+    public List<EmployeeResponse> getEmployeesByJobTitle(String jobTitle, EmployeeView view) {
+        return mapListToResponse(employeeRepository.findByJobTitle(jobTitle), view);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EmployeeResponse> getEmployeesByDepartment(Long departmentId) {
-        return mapListToResponse(employeeRepository.findByDepartmentId(departmentId));
+    public List<EmployeeResponse> getEmployeesByDepartment(Long departmentId, EmployeeView view) {
+        return mapListToResponse(employeeRepository.findByDepartmentId(departmentId), view);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EmployeeResponse> getEmployeesBySupervisor(Long supervisorId) {
-        return mapListToResponse(employeeRepository.findBySupervisorId(supervisorId));
+    public List<EmployeeResponse> getEmployeesBySupervisor(Long supervisorId, EmployeeView view) {
+        return mapListToResponse(employeeRepository.findBySupervisorId(supervisorId), view);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EmployeeResponse> searchEmployeesByName(String name) {
-        return mapListToResponse(employeeRepository.findByNameContaining(name));
+    public List<EmployeeResponse> searchEmployeesByName(String name, EmployeeView view) {
+        return mapListToResponse(employeeRepository.findByNameContaining(name), view);
     }
 
     @Override
+    @RetryOnConflict
     public EmployeeResponse updateEmployee(Long id, UpdateEmployeeRequest request) {
-        var employee = findEmployeeById(id);
+        var employees = entityLoader.employees(Arrays.asList(id, request.getSupervisorId()));
+        var employee = requireEmployee(employees, id);
+        var previousName = getFullName(employee);
+        var previousSupervisor = employee.getSupervisor();
 
         updateEmployeeFields(employee, request);
 
         if (request.getSupervisorId() != null) {
-            var supervisor = findEmployeeById(request.getSupervisorId());
+            var supervisor = requireEmployee(employees, request.getSupervisorId());
             employee.addSupervisor(supervisor);
         }
 
         if (request.getDepartmentIds() != null) {
-            employee.getDepartments().clear();
-            assignDepartments(employee, request.getDepartmentIds());
+            updateDepartments(employee, request.getDepartmentIds());
         }
 
+        changeTracker.employeeChanged(id);
+        if (!previousName.equals(getFullName(employee))) {
+            recordNameChange(employee);
+        }
+        if (previousSupervisor != employee.getSupervisor()) {
+            recordSupervisorChange(previousSupervisor, employee.getSupervisor());
+        }
         return saveAndMapToResponse(employee);
     }
 
     @Override
+    @RetryOnConflict
     public void deleteEmployee(Long id) {
         var employee = findEmployeeById(id);
         validateEmployeeDeletion(employee);
@@ -141,34 +180,42 @@ public class EmployeeServiceImpl implements EmployeeService {
                 "Employee terminated", employee, null);
         eventPublisher.publishEvent(event);
 
+        changeTracker.employeeDeleted(id);
+        recordSupervisorChange(employee.getSupervisor(), null);
+        adjustEmployeeCounts(employee.getDepartments(), -1);
         employeeRepository.delete(employee);
     }
 
     @Override
+    @RetryOnConflict
     public BigDecimal adjustSalary(Long employeeId, SalaryAdjustmentRequest request) {
         var employee = findEmployeeById(employeeId);
         var strategy = salaryService.createStrategy(request.getStrategyType(),
                 request.getAmount());
 
+        var newSalary = salaryService.applyAdjustment(employee, strategy);
         if (request.getJobTitle() != null) {
             employee.setJobTitle(request.getJobTitle());
         }
 
-        return salaryService.applyAdjustment(employee, strategy);
+        changeTracker.employeeChanged(employeeId);
+        return newSalary;
     }
 
     @Override
+    @RetryOnConflict
     public EmployeeResponse promoteEmployee(Long employeeId, String newJobTitle, BigDecimal salaryAdjustment) {
         var employee = findEmployeeById(employeeId);
         var oldJobTitle = employee.getJobTitle();
-        employee.setJobTitle(newJobTitle);
 
         if (salaryAdjustment != null && salaryAdjustment.compareTo(BigDecimal.ZERO) > 0) {
             var strategy = salaryService.createStrategy("promotion_bonus", salaryAdjustment);
             salaryService.applyAdjustment(employee, strategy);
         }
+        employee.setJobTitle(newJobTitle);
 
         var response = saveAndMapToResponse(employee);
+        changeTracker.employeeChanged(employeeId);
 
         var event = new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED,
                 "Employee promoted", oldJobTitle, newJobTitle);
@@ -178,9 +225,11 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @RetryOnConflict
     public EmployeeResponse assignSupervisor(Long employeeId, Long supervisorId) {
-        var employee = findEmployeeById(employeeId);
-        var supervisor = findEmployeeById(supervisorId);
+        var employees = entityLoader.employees(Arrays.asList(employeeId, supervisorId));
+        var employee = requireEmployee(employees, employeeId);
+        var supervisor = requireEmployee(employees, supervisorId);
         var oldSupervisor = employee.getSupervisor();
 
         validateSupervisorAssignment(employee, supervisor);
@@ -189,6 +238,8 @@ public class EmployeeServiceImpl implements EmployeeService {
         employee.setSupervisorSince(LocalDate.now());
 
         var response = saveAndMapToResponse(employee);
+        changeTracker.employeeChanged(employeeId);
+        recordSupervisorChange(oldSupervisor, supervisor);
 
         var event = new EmployeeEvent(employee, EmployeeEvent.EventType.SUPERVISOR_ASSIGNED,
                 "Supervisor assigned", oldSupervisor, supervisor);
@@ -198,13 +249,19 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @RetryOnConflict
     public EmployeeResponse assignToDepartment(Long employeeId, Long departmentId) {
         var employee = findEmployeeById(employeeId);
         var department = findDepartmentById(departmentId);
+        var joined = !employee.getDepartments().contains(department);
 
         employee.addDepartment(department);
 
         var response = saveAndMapToResponse(employee);
+        if (joined) {
+            adjustEmployeeCounts(Set.of(department), 1);
+        }
+        changeTracker.employeeChanged(employeeId);
 
         var event = new EmployeeEvent(employee, EmployeeEvent.EventType.DEPARTMENT_CHANGED,
                 "Employee assigned to department", null, department.getName());
@@ -214,17 +271,112 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @RetryOnConflict
     public EmployeeResponse removeFromDepartment(Long employeeId, Long departmentId) {
         var employee = findEmployeeById(employeeId);
         var department = findDepartmentById(departmentId);
 
-        employee.getDepartments().remove(department);
-        department.getEmployees().remove(employee);
+        var left = employee.getDepartments().contains(department);
+
+        employee.removeDepartment(department);
+        if (left) {
+            adjustEmployeeCounts(Set.of(department), -1);
+        }
+        changeTracker.employeeChanged(employeeId);
 
         return saveAndMapToResponse(employee);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedResponse getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_CHANGES_PER_PAGE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGES_PER_PAGE);
+        }
+        var position = ChangeToken.parse(since);
+        var upTo = changeTracker.getStableSequence();
+        var changes = entityChangeRepository.findChangesAfter(position.sequence(), position.id(), upTo,
+                Limit.of(limit + 1));
+
+        var response = new ChangeFeedResponse();
+        response.setHasMore(changes.size() > limit);
+        var page = response.isHasMore() ? changes.subList(0, limit) : changes;
+        response.setNextToken(page.isEmpty() ? position.toString()
+                : new ChangeToken(page.getLast().getSequence(), page.getLast().getId()).toString());
+
+        var changedEmployees = new ArrayList<Long>();
+        var changedDepartments = new ArrayList<Long>();
+        for (EntityChange change : page) {
+            var employeeChange = change.getEntityType() == EntityChange.EntityType.EMPLOYEE;
+            if (change.isDeleted()) {
+                (employeeChange ? response.getDeletedEmployeeIds() : response.getDeletedDepartmentIds())
+                        .add(change.getEntityId());
+            } else {
+                (employeeChange ? changedEmployees : changedDepartments).add(change.getEntityId());
+            }
+        }
+        response.setEmployees(mapListToResponse(inRequestedOrder(changedEmployees,
+                employeeRepository.findAllById(changedEmployees), Employee::getId), EmployeeView.FULL));
+        response.setDepartments(inRequestedOrder(changedDepartments,
+                departmentRepository.findAllById(changedDepartments), Department::getId).stream()
+                .map(this::mapDepartmentToResponse)
+                .toList());
+        return response;
+    }
+
+    private record ChangeToken(long sequence, long id) {
+
+        static ChangeToken parse(String token) {
+            if (token == null || token.isBlank()) {
+                return new ChangeToken(0, 0);
+            }
+            try {
+                var separator = token.indexOf('.');
+                return separator < 0
+                        ? new ChangeToken(Long.parseLong(token), Long.MAX_VALUE)
+                        : new ChangeToken(Long.parseLong(token.substring(0, separator)),
+                        Long.parseLong(token.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid change token: " + token);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return id == Long.MAX_VALUE ? Long.toString(sequence) : sequence + "." + id;
+        }
+    }
+
+    private static <E> List<E> inRequestedOrder(List<Long> ids, List<E> entities, Function<E, Long> idOf) {
+        var byId = entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void recordNameChange(Employee employee) {
+        changeTracker.employeesChanged(employeeRepository.findIdsBySupervisorId(employee.getId()));
+        departmentRepository.findByHeadId(employee.getId()).ifPresent(department -> {
+            changeTracker.departmentChanged(department.getId());
+            changeTracker.employeesChanged(employeeRepository.findIdsByDepartmentId(department.getId()));
+        });
+    }
+
+    private void recordSupervisorChange(Employee previousSupervisor, Employee newSupervisor) {
+        if (previousSupervisor != null) {
+            changeTracker.employeeChanged(previousSupervisor.getId());
+        }
+        if (newSupervisor != null) {
+            changeTracker.employeeChanged(newSupervisor.getId());
+        }
+    }
+
     private EmployeeResponse mapToResponse(Employee employee) {
+        return mapListToResponse(List.of(employee), EmployeeView.FULL).getFirst();
+    }
+
+    private EmployeeResponse mapToResponse(Employee employee, EmployeeView view, Map<Long, Long> subordinateCounts) {
         var response = new EmployeeResponse();
         response.setId(employee.getId());
         fillEmployeeDetail(employee, response);
@@ -232,16 +384,16 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         if (employee.getSupervisor() != null) {
             response.setSupervisorId(employee.getSupervisor().getId());
-            response.setSupervisorName(getFullName(employee.getSupervisor()));
+            if (view.expands(EmployeeView.Expansion.SUPERVISOR)) {
+                response.setSupervisorName(getFullName(employee.getSupervisor()));
+            }
         }
 
-        if (employee.getSubordinates() != null) {
-            response.setSubordinatesCount(employee.getSubordinates().size());
-        } else {
-            response.setSubordinatesCount(0);
+        if (view.expands(EmployeeView.Expansion.SUBORDINATES)) {
+            response.setSubordinatesCount(subordinateCounts.getOrDefault(employee.getId(), 0L).intValue());
         }
 
-        if (employee.getDepartments() != null) {
+        if (view.expands(EmployeeView.Expansion.DEPARTMENTS) && employee.getDepartments() != null) {
             Set<DepartmentResponse> departmentResponses = employee.getDepartments().stream()
                     .map(this::mapDepartmentToResponse)
                     .collect(Collectors.toSet());
@@ -282,6 +434,14 @@ public class EmployeeServiceImpl implements EmployeeService {
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found with id: " + id));
     }
 
+    private static Employee requireEmployee(Map<Long, Employee> employees, Long id) {
+        var employee = employees.get(id);
+        if (employee == null) {
+            throw new IllegalArgumentException("Employee not found with id: " + id);
+        }
+        return employee;
+    }
+
     private Department findDepartmentById(Long id) {
         return departmentRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Department not found with id: " + id));
@@ -297,10 +457,60 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private void assignDepartments(Employee employee, Set<Long> departmentIds) {
         if (departmentIds != null && !departmentIds.isEmpty()) {
-            for (Long departmentId : departmentIds) {
-                var department = findDepartmentById(departmentId);
-                employee.addDepartment(department);
-            }
+            findDepartmentsByIds(departmentIds).forEach(employee::addDepartment);
+        }
+    }
+
+    private void updateDepartments(Employee employee, Set<Long> departmentIds) {
+        var currentDepartmentIds = departmentIds(employee);
+        var joinedDepartmentIds = new HashSet<>(departmentIds);
+        joinedDepartmentIds.removeAll(currentDepartmentIds);
+        var leftDepartmentIds = new HashSet<>(currentDepartmentIds);
+        leftDepartmentIds.removeAll(departmentIds);
+        if (joinedDepartmentIds.isEmpty() && leftDepartmentIds.isEmpty()) {
+            return;
+        }
+
+        var joined = joinedDepartmentIds.isEmpty() ? List.<Department>of() : findDepartmentsByIds(joinedDepartmentIds);
+        var left = employee.getDepartments().stream()
+                .filter(department -> leftDepartmentIds.contains(department.getId()))
+                .toList();
+        left.forEach(employee::removeDepartment);
+        joined.forEach(employee::addDepartment);
+
+        adjustEmployeeCounts(left, -1);
+        adjustEmployeeCounts(joined, 1);
+    }
+
+    private List<Department> findDepartmentsByIds(Set<Long> ids) {
+        var departments = entityLoader.departments(ids);
+        return ids.stream()
+                .map(id -> {
+                    var department = departments.get(id);
+                    if (department == null) {
+                        throw new IllegalArgumentException("Department not found with id: " + id);
+                    }
+                    return department;
+                })
+                .toList();
+    }
+
+    private static Set<Long> departmentIds(Employee employee) {
+        return employee.getDepartments().stream()
+                .map(Department::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private void adjustEmployeeCounts(Collection<Department> departments, int delta) {
+        if (departments.isEmpty()) {
+            return;
+        }
+        var ids = departments.stream().map(Department::getId).collect(Collectors.toSet());
+        departmentRepository.adjustEmployeeCounts(ids, delta);
+        membershipCache.evictDepartments(ids);
+        for (Department department : departments) {
+            department.adjustEmployeeCount(delta);
+            changeTracker.departmentChanged(department.getId());
         }
     }
 
@@ -309,12 +519,26 @@ public class EmployeeServiceImpl implements EmployeeService {
         return mapToResponse(savedEmployee);
     }
 
-    private List<EmployeeResponse> mapListToResponse(Collection<Employee> employees) {
+    private List<EmployeeResponse> mapListToResponse(Collection<Employee> employees, EmployeeView view) {
+        var subordinateCounts = view.expands(EmployeeView.Expansion.SUBORDINATES)
+                ? countSubordinates(employees) : Map.<Long, Long>of();
         return employees.stream()
-                .map(this::mapToResponse)
+                .map(employee -> mapToResponse(employee, view, subordinateCounts))
                 .toList();
     }
 
+    private Map<Long, Long> countSubordinates(Collection<Employee> employees) {
+        var ids = employees.stream().map(Employee::getId).toList();
+        var counts = new HashMap<Long, Long>();
+        for (int from = 0; from < ids.size(); from += SUBORDINATE_COUNT_BATCH) {
+            var batch = ids.subList(from, Math.min(ids.size(), from + SUBORDINATE_COUNT_BATCH));
+            for (Object[] row : employeeRepository.countSubordinatesBySupervisorIdIn(batch)) {
+                counts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
     private String getFullName(Employee employee) {
         return employee.getFirstName() + " " + employee.getLastName();
     }
@@ -0,0 +1,13 @@
+package pl.atins.service;
+
+import pl.atins.dto.BatchCommandResponse;
+import pl.atins.dto.CommandSpec;
+
+import java.util.List;
+
+public interface HRCommandService {
+
+    BatchCommandResponse executeBatch(String actor, List<CommandSpec> commands);
+
+    void validateCommands(List<CommandSpec> commands);
+}
@@ -0,0 +1,121 @@
+package pl.atins.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.atins.core.AdjustSalaryCommand;
+import pl.atins.core.AssignSupervisorCommand;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.HRCommand;
+import pl.atins.core.HRCommandManager;
+import pl.atins.core.MacroCommand;
+import pl.atins.core.PromoteEmployeeCommand;
+import pl.atins.core.RetryOnConflict;
+import pl.atins.domain.Employee;
+import pl.atins.dto.BatchCommandResponse;
+import pl.atins.dto.CommandSpec;
+import pl.atins.repository.EmployeeRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class HRCommandServiceImpl implements HRCommandService {
+
+    private final HRCommandManager commandManager;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeEventPublisher eventPublisher;
+    private final SalaryService salaryService;
+
+    @Override
+    @RetryOnConflict
+    public BatchCommandResponse executeBatch(String actor, List<CommandSpec> specs) {
+        var commands = toCommands(specs);
+        var macro = new MacroCommand(commands, String.format("Batch of %d HR commands", commands.size()));
+        var record = commandManager.executeCommand(actor, macro);
+
+        var response = new BatchCommandResponse();
+        response.setSequence(record.getSequence());
+        response.setDescription(record.getDescription());
+        response.setCommandCount(macro.size());
+        response.setExecutedAt(record.getExecutedAt());
+        response.setEmployeeIds(specs.stream()
+                .map(CommandSpec::getEmployeeId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void validateCommands(List<CommandSpec> specs) {
+        toCommands(specs);
+    }
+
+    private List<HRCommand> toCommands(List<CommandSpec> specs) {
+        var employees = loadEmployees(specs);
+
+        var commands = new ArrayList<HRCommand>(specs.size());
+        for (int i = 0; i < specs.size(); i++) {
+            commands.add(toCommand(i, specs.get(i), employees));
+        }
+        return commands;
+    }
+
+    private Map<Long, Employee> loadEmployees(List<CommandSpec> specs) {
+        var ids = new HashSet<Long>();
+        for (CommandSpec spec : specs) {
+            ids.add(spec.getEmployeeId());
+            if (spec.getSupervisorId() != null) {
+                ids.add(spec.getSupervisorId());
+            }
+        }
+
+        return employeeRepository.findAllWithSupervisorByIdIn(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+    }
+
+    private HRCommand toCommand(int index, CommandSpec spec, Map<Long, Employee> employees) {
+        var employee = requireEmployee(index, "Employee", spec.getEmployeeId(), employees);
+
+        return switch (spec.getType()) {
+            case PROMOTE -> {
+                if (spec.getNewJobTitle() == null || spec.getNewJobTitle().isBlank()) {
+                    throw new IllegalArgumentException("Command " + index + ": new job title is required");
+                }
+                yield new PromoteEmployeeCommand(employee, spec.getNewJobTitle(), spec.getSalaryIncrease(),
+                        employeeRepository, eventPublisher);
+            }
+            case ASSIGN_SUPERVISOR -> {
+                if (spec.getSupervisorId() == null) {
+                    throw new IllegalArgumentException("Command " + index + ": supervisor id is required");
+                }
+                var supervisor = requireEmployee(index, "Supervisor", spec.getSupervisorId(), employees);
+                yield new AssignSupervisorCommand(employee, supervisor, employeeRepository, eventPublisher);
+            }
+            case SALARY_ADJUSTMENT -> {
+                if (spec.getStrategyType() == null || spec.getAmount() == null
+                        || spec.getAmount().signum() <= 0) {
+                    throw new IllegalArgumentException(
+                            "Command " + index + ": strategy type and a positive amount are required");
+                }
+                var strategy = salaryService.createStrategy(spec.getStrategyType(), spec.getAmount());
+                yield new AdjustSalaryCommand(employee, strategy, employeeRepository, eventPublisher);
+            }
+        };
+    }
+
+    private static Employee requireEmployee(int index, String role, Long id, Map<Long, Employee> employees) {
+        var employee = employees.get(id);
+        if (employee == null) {
+            throw new IllegalArgumentException("Command " + index + ": " + role + " not found with id: " + id);
+        }
+        return employee;
+    }
+}
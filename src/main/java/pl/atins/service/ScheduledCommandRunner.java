@@ -0,0 +1,179 @@
+package pl.atins.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.atins.config.CommandSchedulerProperties;
+import pl.atins.core.ConflictRetryExecutor;
+import pl.atins.core.HierarchicalTimingWheel;
+import pl.atins.core.WorkerThreads;
+import pl.atins.domain.ScheduledCommand;
+import pl.atins.dto.CommandSpec;
+import pl.atins.repository.ScheduledCommandRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ScheduledCommandRunner {
+
+    private final ScheduledCommandRepository scheduledCommandRepository;
+    private final HRCommandService hrCommandService;
+    private final CommandSchedulerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ConflictRetryExecutor retryExecutor;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final WorkerThreads workerThreads;
+    private final ExecutorService[] workers;
+
+    public ScheduledCommandRunner(ScheduledCommandRepository scheduledCommandRepository,
+                                  HRCommandService hrCommandService, CommandSchedulerProperties properties,
+                                  PlatformTransactionManager transactionManager,
+                                  ConflictRetryExecutor retryExecutor, WorkerThreads workerThreads) {
+        this.scheduledCommandRepository = scheduledCommandRepository;
+        this.hrCommandService = hrCommandService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retryExecutor = retryExecutor;
+        this.workerThreads = workerThreads;
+        this.wheel = new HierarchicalTimingWheel<>(properties.getTick(), properties.getWheelSize(),
+                properties.getLevels(), Clock.systemUTC());
+        this.workers = new ExecutorService[properties.getWorkers()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = Executors.newSingleThreadExecutor(workerThreads.builder("hr-command-worker-" + i).factory());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        var pending = transactionTemplate.execute(status -> scheduledCommandRepository
+                .findByStatusOrderByEffectiveAtAscIdAsc(ScheduledCommand.Status.PENDING));
+        pending.forEach(command -> wheel.schedule(command.getId(), command.getEffectiveAt()));
+        wheel.start(workerThreads.builder("hr-command-scheduler"), this::dispatch);
+        log.info("Scheduled command runner started with {} pending commands", pending.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+        for (ExecutorService worker : workers) {
+            worker.shutdown();
+        }
+        try {
+            for (ExecutorService worker : workers) {
+                worker.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void register(Long id, Instant effectiveAt) {
+        afterCommit(() -> wheel.schedule(id, effectiveAt));
+    }
+
+    public void unregister(Long id) {
+        afterCommit(() -> wheel.cancel(id));
+    }
+
+    public int getPendingCount() {
+        return wheel.size();
+    }
+
+    void dispatch(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            var chunk = ids.subList(from, Math.min(from + properties.getBatchSize(), ids.size()));
+            var due = scheduledCommandRepository.findByIdInAndStatusOrderByEffectiveAtAscIdAsc(
+                    chunk, ScheduledCommand.Status.PENDING);
+
+            var lanes = due.stream().collect(Collectors.groupingBy(
+                    command -> Math.floorMod(command.getEmployeeId(), workers.length),
+                    LinkedHashMap::new, Collectors.toList()));
+            lanes.forEach((lane, commands) -> workers[lane].execute(() -> executeLane(commands)));
+        }
+    }
+
+    void executeLane(List<ScheduledCommand> commands) {
+        var byActor = commands.stream().collect(Collectors.groupingBy(
+                ScheduledCommand::getActor, LinkedHashMap::new, Collectors.toList()));
+
+        byActor.forEach((actor, group) -> {
+            if (!executeGroup(actor, group) && group.size() > 1) {
+                group.forEach(command -> executeGroup(actor, List.of(command)));
+            }
+        });
+    }
+
+    private boolean executeGroup(String actor, List<ScheduledCommand> group) {
+        var ids = group.stream().map(ScheduledCommand::getId).toList();
+        try {
+            retryExecutor.execute("ScheduledCommandRunner.executeGroup", () -> transactionTemplate.execute(status -> {
+                var response = hrCommandService.executeBatch(actor, group.stream()
+                        .map(ScheduledCommandRunner::toSpec)
+                        .collect(Collectors.toCollection(ArrayList::new)));
+                var updated = scheduledCommandRepository.completePending(ids, ScheduledCommand.Status.EXECUTED,
+                        Instant.now(), response.getSequence(), null);
+                if (updated != ids.size()) {
+                    throw new IllegalStateException("Scheduled commands were cancelled before execution: " + ids);
+                }
+                return response;
+            }));
+            log.info("Executed {} scheduled commands for {}", ids.size(), actor);
+            return true;
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                markFailed(ids, e);
+            }
+            log.warn("Failed to execute scheduled commands {} for {}: {}", ids, actor, e.getMessage());
+            return false;
+        }
+    }
+
+    private void markFailed(List<Long> ids, RuntimeException cause) {
+        var reason = String.valueOf(cause.getMessage());
+        if (reason.length() > ScheduledCommand.FAILURE_REASON_LENGTH) {
+            reason = reason.substring(0, ScheduledCommand.FAILURE_REASON_LENGTH);
+        }
+        var failureReason = reason;
+        transactionTemplate.executeWithoutResult(status -> scheduledCommandRepository.completePending(
+                ids, ScheduledCommand.Status.FAILED, Instant.now(), null, failureReason));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static CommandSpec toSpec(ScheduledCommand command) {
+        var spec = new CommandSpec();
+        spec.setType(command.getCommandType());
+        spec.setEmployeeId(command.getEmployeeId());
+        spec.setNewJobTitle(command.getNewJobTitle());
+        spec.setSalaryIncrease(command.getSalaryIncrease());
+        spec.setSupervisorId(command.getSupervisorId());
+        spec.setStrategyType(command.getStrategyType());
+        spec.setAmount(command.getAmount());
+        return spec;
+    }
+}
@@ -0,0 +1,18 @@
+package pl.atins.service;
+
+import pl.atins.domain.ScheduledCommand;
+import pl.atins.dto.ScheduleCommandRequest;
+import pl.atins.dto.ScheduledCommandResponse;
+
+import java.util.List;
+
+public interface ScheduledCommandService {
+
+    List<ScheduledCommandResponse> scheduleCommands(String actor, ScheduleCommandRequest request);
+
+    List<ScheduledCommandResponse> getScheduledCommands(ScheduledCommand.Status status);
+
+    ScheduledCommandResponse getScheduledCommand(Long id);
+
+    ScheduledCommandResponse cancelScheduledCommand(Long id);
+}
@@ -0,0 +1,99 @@
+package pl.atins.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.atins.domain.ScheduledCommand;
+import pl.atins.dto.CommandSpec;
+import pl.atins.dto.ScheduleCommandRequest;
+import pl.atins.dto.ScheduledCommandResponse;
+import pl.atins.repository.ScheduledCommandRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ScheduledCommandServiceImpl implements ScheduledCommandService {
+
+    private final ScheduledCommandRepository scheduledCommandRepository;
+    private final HRCommandService hrCommandService;
+    private final ScheduledCommandRunner runner;
+
+    @Override
+    public List<ScheduledCommandResponse> scheduleCommands(String actor, ScheduleCommandRequest request) {
+        hrCommandService.validateCommands(request.getCommands());
+
+        var now = Instant.now();
+        var commands = new ArrayList<ScheduledCommand>(request.getCommands().size());
+        for (CommandSpec spec : request.getCommands()) {
+            var command = new ScheduledCommand();
+            command.setActor(actor);
+            command.setEffectiveAt(request.getEffectiveAt());
+            command.setCreatedAt(now);
+            command.setCommandType(spec.getType());
+            command.setEmployeeId(spec.getEmployeeId());
+            command.setNewJobTitle(spec.getNewJobTitle());
+            command.setSalaryIncrease(spec.getSalaryIncrease());
+            command.setSupervisorId(spec.getSupervisorId());
+            command.setStrategyType(spec.getStrategyType());
+            command.setAmount(spec.getAmount());
+            commands.add(command);
+        }
+
+        var saved = scheduledCommandRepository.saveAll(commands);
+        saved.forEach(command -> runner.register(command.getId(), command.getEffectiveAt()));
+        return saved.stream().map(this::mapToResponse).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScheduledCommandResponse> getScheduledCommands(ScheduledCommand.Status status) {
+        var commands = status != null
+                ? scheduledCommandRepository.findByStatusOrderByEffectiveAtAscIdAsc(status)
+                : scheduledCommandRepository.findAll(Sort.by("effectiveAt", "id"));
+        return commands.stream().map(this::mapToResponse).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ScheduledCommandResponse getScheduledCommand(Long id) {
+        return mapToResponse(findScheduledCommandById(id));
+    }
+
+    @Override
+    public ScheduledCommandResponse cancelScheduledCommand(Long id) {
+        var command = findScheduledCommandById(id);
+        var cancelled = command.getStatus() == ScheduledCommand.Status.PENDING
+                && scheduledCommandRepository.completePending(List.of(id), ScheduledCommand.Status.CANCELLED,
+                Instant.now(), null, null) == 1;
+        if (!cancelled) {
+            throw new IllegalStateException("Scheduled command with id " + id + " is no longer pending");
+        }
+
+        runner.unregister(id);
+        return mapToResponse(findScheduledCommandById(id));
+    }
+
+    private ScheduledCommand findScheduledCommandById(Long id) {
+        return scheduledCommandRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Scheduled command not found with id: " + id));
+    }
+
+    private ScheduledCommandResponse mapToResponse(ScheduledCommand command) {
+        var response = new ScheduledCommandResponse();
+        response.setId(command.getId());
+        response.setActor(command.getActor());
+        response.setStatus(command.getStatus());
+        response.setEffectiveAt(command.getEffectiveAt());
+        response.setCreatedAt(command.getCreatedAt());
+        response.setExecutedAt(command.getExecutedAt());
+        response.setCommandSequence(command.getCommandSequence());
+        response.setFailureReason(command.getFailureReason());
+        response.setCommand(ScheduledCommandRunner.toSpec(command));
+        return response;
+    }
+}
@@ -0,0 +1,144 @@
+package pl.atins;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures request throughput in the virtual-thread profile for a range of connection-pool sizes.
+ * Run with {@code mvn test -Dtest=VirtualThreadThroughputBenchmarkTest -Dhr.benchmark=true}; optional
+ * {@code hr.benchmark.pool-sizes}, {@code hr.benchmark.clients} and {@code hr.benchmark.duration} override the defaults.
+ */
+@EnabledIfSystemProperty(named = "hr.benchmark", matches = "true")
+class VirtualThreadThroughputBenchmarkTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    @Test
+    void throughputByConnectionPoolSize() throws Exception {
+        var poolSizes = Arrays.stream(System.getProperty("hr.benchmark.pool-sizes", "2,5,10,20,40").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        var clients = Integer.getInteger("hr.benchmark.clients", 500);
+        var duration = Duration.parse(System.getProperty("hr.benchmark.duration", "PT10S"));
+
+        var results = new ArrayList<Result>();
+        for (int poolSize : poolSizes) {
+            results.add(run(poolSize, clients, duration));
+        }
+
+        System.out.printf("%nVirtual threads, %d clients, %s per run%n", clients, duration);
+        System.out.printf("%8s %12s %10s %10s %10s %8s%n", "pool", "req/s", "p50 ms", "p99 ms", "errors", "pinned");
+        for (Result result : results) {
+            System.out.printf("%8d %12.1f %10.2f %10.2f %10d %8d%n", result.poolSize(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.errors(), result.pinned());
+        }
+        assertTrue(results.stream().allMatch(result -> result.throughput() > 0));
+    }
+
+    private Result run(int poolSize, int clients, Duration duration) throws Exception {
+        try (var context = start(poolSize);
+             var httpClient = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            var baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            drive(httpClient, baseUri, clients, WARMUP, new LongAdder());
+
+            var errors = new LongAdder();
+            var latencies = drive(httpClient, baseUri, clients, duration, errors);
+            var pinned = context.getBean(MeterRegistry.class).find("hr.threads.virtual.pinned").timer();
+            return new Result(poolSize, latencies.length / (duration.toNanos() / 1e9),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), errors.sum(),
+                    pinned != null ? pinned.count() : 0);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(int poolSize) {
+        return SpringApplication.run(HrSystemApplication.class,
+                "--spring.profiles.active=virtual",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + poolSize,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.pl.atins=WARN");
+    }
+
+    private static long[] drive(HttpClient httpClient, URI baseUri, int clients, Duration duration,
+                                LongAdder errors) throws InterruptedException {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var perClient = new ArrayList<List<Long>>(clients);
+        var threads = new ArrayList<Thread>(clients);
+        for (int i = 0; i < clients; i++) {
+            var latencies = new ArrayList<Long>();
+            perClient.add(latencies);
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    var started = System.nanoTime();
+                    try {
+                        var response = httpClient.send(nextRequest(baseUri), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    latencies.add(System.nanoTime() - started);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return perClient.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    // Mostly reads, with a share of inserts so write transactions also compete for connections
+    private static HttpRequest nextRequest(URI baseUri) {
+        var random = ThreadLocalRandom.current();
+        var roll = random.nextInt(10);
+        if (roll < 7) {
+            return HttpRequest.newBuilder(baseUri.resolve("/api/employees/" + random.nextInt(1, 6))).GET().build();
+        }
+        if (roll < 9) {
+            return HttpRequest.newBuilder(baseUri.resolve("/api/departments")).GET().build();
+        }
+        var body = """
+                {"firstName":"Load","lastName":"Test","email":"%s@bench.local","jobTitle":"Engineer",
+                 "hireDate":"2024-01-01","salary":50000}""".formatted(UUID.randomUUID());
+        return HttpRequest.newBuilder(baseUri.resolve("/api/employees"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(int poolSize, double throughput, double p50Millis, double p99Millis, long errors,
+                          long pinned) {
+    }
+}
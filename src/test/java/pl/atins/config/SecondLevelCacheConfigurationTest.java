@@ -0,0 +1,251 @@
+package pl.atins.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.atins.core.MembershipCache;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+import pl.atins.repository.DepartmentRepository;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({SecondLevelCacheConfiguration.class, MembershipCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigurationTest {
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterBinder hibernateMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MembershipCache membershipCache;
+
+    private Statistics statistics;
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName("Finance");
+        department.setLocation("Building C");
+        department = departmentRepository.save(department);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        departmentRepository.findById(department.getId()).orElseThrow();
+        statistics.clear();
+
+        departmentRepository.findById(department.getId()).orElseThrow();
+
+        var region = statistics.getDomainDataRegionStatistics(Department.class.getName());
+        assertEquals(1, region.getHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldInvalidateCachedQueryOnWrite() {
+        assertTrue(departmentRepository.findByName("Finance").isPresent());
+        assertTrue(departmentRepository.findByName("Finance").isPresent());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        department.setName("Treasury");
+        departmentRepository.save(department);
+
+        assertTrue(departmentRepository.findByName("Finance").isEmpty());
+        assertEquals("Treasury", departmentRepository.findByName("Treasury").orElseThrow().getName());
+    }
+
+    @Test
+    void shouldCacheMembershipCollections() {
+        var employee = employeeIn(department);
+        statistics.clear();
+
+        for (int i = 0; i < 2; i++) {
+            transactionTemplate.executeWithoutResult(status -> assertEquals(1,
+                    employeeRepository.findById(employee.getId()).orElseThrow().getDepartments().size()));
+        }
+
+        var collection = statistics.getDomainDataRegionStatistics(Employee.class.getName() + ".departments");
+        assertEquals(1, collection.getHitCount());
+        assertEquals(1, collection.getMissCount());
+    }
+
+    @Test
+    void shouldEvictOnlyTheAdjustedDepartmentFromCache() {
+        var audit = new Department();
+        audit.setName("Audit");
+        audit.setLocation("Building C");
+        var other = departmentRepository.save(audit);
+        assertEquals(0, departmentRepository.findById(department.getId()).orElseThrow().getEmployeeCount());
+        departmentRepository.findById(other.getId()).orElseThrow();
+        assertEquals(2, departmentRepository.findEmptyDepartments().size());
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var managed = departmentRepository.findById(department.getId()).orElseThrow();
+            departmentRepository.adjustEmployeeCounts(Set.of(department.getId()), 1);
+            membershipCache.evictDepartments(Set.of(department.getId()));
+            managed.adjustEmployeeCount(1);
+        });
+
+        // The relative update only; the in-memory count is never written back and does not bump the version
+        assertEquals(1, statistics.getPrepareStatementCount());
+        var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertTrue(cache.containsEntity(Department.class, other.getId()));
+        assertFalse(cache.containsEntity(Department.class, department.getId()));
+        var adjusted = departmentRepository.findById(department.getId()).orElseThrow();
+        assertEquals(1, adjusted.getEmployeeCount());
+        assertEquals(department.getVersion(), adjusted.getVersion());
+        assertEquals(List.of(other.getId()), departmentRepository.findEmptyDepartments().stream()
+                .map(Department::getId).toList());
+        assertEquals(1, departmentRepository.findDepartmentsWithMinEmployees(0).size());
+    }
+
+    @Test
+    void shouldChangeMembershipsWithoutLoadingDepartmentMembers() {
+        var employee = employeeIn(department);
+        var audit = new Department();
+        audit.setName("Audit");
+        audit.setLocation("Building C");
+        var target = departmentRepository.save(audit);
+        var members = Department.class.getName() + ".employees";
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(1, departmentRepository.findById(department.getId()).orElseThrow().getEmployees().size());
+            employeeRepository.findById(employee.getId()).orElseThrow().getDepartments().size();
+            departmentRepository.findById(target.getId()).orElseThrow();
+        });
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var managed = employeeRepository.findById(employee.getId()).orElseThrow();
+            managed.removeDepartment(departmentRepository.findById(department.getId()).orElseThrow());
+            managed.addDepartment(departmentRepository.findById(target.getId()).orElseThrow());
+        });
+
+        // Deleting and inserting the join row plus the owner's version bump; neither member set is read
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionStatistics(members).getFetchCount());
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(departmentRepository.findById(department.getId()).orElseThrow().getEmployees().isEmpty());
+            assertEquals(1, departmentRepository.findById(target.getId()).orElseThrow().getEmployees().size());
+        });
+    }
+
+    @Test
+    void shouldDropOnlyTouchedMembershipsOnSetBasedWrites() {
+        var employee = employeeIn(department);
+        var bystander = employeeIn(department, "jan.kowalski@company.com");
+        var finance = department;
+        var audit = new Department();
+        audit.setName("Audit");
+        audit.setLocation("Building C");
+        var target = departmentRepository.save(audit);
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(Set.of(finance.getId()),
+                    departmentIds(employeeRepository.findById(employee.getId()).orElseThrow()));
+            assertTrue(departmentRepository.findById(target.getId()).orElseThrow().getEmployees().isEmpty());
+            assertEquals(Set.of(finance.getId()),
+                    departmentIds(employeeRepository.findById(bystander.getId()).orElseThrow()));
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeRepository.findAllForMembershipChange(Set.of(employee.getId()));
+            employeeRepository.deleteMemberships(finance.getId(), Set.of(employee.getId()));
+            employeeRepository.insertMemberships(target.getId(), Set.of(employee.getId()));
+            membershipCache.evict(Set.of(employee.getId()), Set.of(finance.getId(), target.getId()));
+        });
+
+        var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertTrue(cache.containsEntity(Employee.class, bystander.getId()));
+        assertTrue(cache.containsEntity(Department.class, finance.getId()));
+        assertTrue(cache.containsCollection(Employee.class.getName() + ".departments", bystander.getId()));
+        assertFalse(cache.containsCollection(Employee.class.getName() + ".departments", employee.getId()));
+        assertFalse(cache.containsEntity(Employee.class, employee.getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var moved = employeeRepository.findById(employee.getId()).orElseThrow();
+            assertEquals(Set.of(target.getId()), departmentIds(moved));
+            assertEquals(employee.getVersion() + 1, moved.getVersion());
+            assertEquals(1, departmentRepository.findById(target.getId()).orElseThrow().getEmployees().size());
+        });
+        assertEquals(List.of(employee.getId()), employeeRepository.findIdsByDepartmentIdAndIdIn(target.getId(),
+                Set.of(employee.getId())));
+    }
+
+    @Test
+    void shouldExportHitsAndMissesPerRegion() {
+        departmentRepository.findById(department.getId()).orElseThrow();
+        departmentRepository.findById(department.getId()).orElseThrow();
+        departmentRepository.findByName("Finance");
+        departmentRepository.findByName("Finance");
+        var meterRegistry = new SimpleMeterRegistry();
+
+        hibernateMetrics.bindTo(meterRegistry);
+
+        assertEquals(1, meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", Department.class.getName()).tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("hibernate.cache.query.requests")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    private static Set<Long> departmentIds(Employee employee) {
+        return employee.getDepartments().stream().map(Department::getId).collect(Collectors.toSet());
+    }
+
+    private Employee employeeIn(Department department) {
+        return employeeIn(department, "maria.nowak@company.com");
+    }
+
+    private Employee employeeIn(Department department, String email) {
+        var employee = new Employee();
+        employee.setFirstName("Maria");
+        employee.setLastName("Nowak");
+        employee.setEmail(email);
+        employee.setHireDate(LocalDate.of(2022, 3, 1));
+        employee.setSalary(new BigDecimal("70000"));
+        employee.setDepartments(new HashSet<>());
+        employee.getDepartments().add(department);
+        return employeeRepository.save(employee);
+    }
+}
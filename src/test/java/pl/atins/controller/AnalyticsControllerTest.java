@@ -0,0 +1,52 @@
+package pl.atins.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.atins.dto.SalaryDistributionResponse;
+import pl.atins.dto.SalaryStatisticsResponse;
+import pl.atins.service.AnalyticsService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @Test
+    void shouldReturnSalaryPercentiles() throws Exception {
+        var department = new SalaryDistributionResponse();
+        department.setDepartmentId(1L);
+        department.setDepartmentName("IT");
+        department.setCount(120);
+        department.setP10(new BigDecimal("52000.00"));
+        department.setMedian(new BigDecimal("81000.00"));
+        department.setP90(new BigDecimal("134000.00"));
+        var response = new SalaryStatisticsResponse();
+        response.setRelativeAccuracy(0.01);
+        response.setDepartments(List.of(department));
+        response.setJobTitles(List.of());
+        when(analyticsService.getSalaryStatistics()).thenReturn(response);
+
+        mockMvc.perform(get("/api/analytics/salaries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.relativeAccuracy").value(0.01))
+                .andExpect(jsonPath("$.departments[0].departmentName").value("IT"))
+                .andExpect(jsonPath("$.departments[0].count").value(120))
+                .andExpect(jsonPath("$.departments[0].median").value(81000.00))
+                .andExpect(jsonPath("$.jobTitles.length()").value(0));
+    }
+}
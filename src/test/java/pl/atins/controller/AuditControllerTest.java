@@ -0,0 +1,108 @@
+package pl.atins.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.dto.AuditEventResponse;
+import pl.atins.service.AuditService;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AuditController.class)
+class AuditControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuditService auditService;
+
+    private AuditEventResponse auditEvent;
+
+    @BeforeEach
+    void setUp() {
+        auditEvent = new AuditEventResponse();
+        auditEvent.setId(10L);
+        auditEvent.setEmployeeId(1L);
+        auditEvent.setEmployeeName("John Doe");
+        auditEvent.setEventType("PROMOTED");
+        auditEvent.setOccurredAt(LocalDateTime.of(2025, 2, 1, 9, 30));
+        auditEvent.setOldValue("Developer");
+        auditEvent.setNewValue("Senior Developer");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamAuditEventsForEmployee() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<AuditEventResponse> consumer = invocation.getArgument(4);
+            consumer.accept(auditEvent);
+            consumer.accept(auditEvent);
+            return null;
+        }).when(auditService).streamEvents(eq(1L), any(), any(), eq(EmployeeEvent.EventType.PROMOTED), any());
+
+        var result = mockMvc.perform(get("/api/audit")
+                        .param("employeeId", "1")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-04-01T00:00:00")
+                        .param("type", "PROMOTED"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].employeeId").value(1))
+                .andExpect(jsonPath("$[0].eventType").value("PROMOTED"))
+                .andExpect(jsonPath("$[0].newValue").value("Senior Developer"));
+
+        verify(auditService).streamEvents(eq(1L), eq(LocalDateTime.of(2025, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2025, 4, 1, 0, 0)), eq(EmployeeEvent.EventType.PROMOTED), any());
+    }
+
+    @Test
+    void shouldStreamEmptyArrayWhenNothingMatches() throws Exception {
+        var result = mockMvc.perform(get("/api/audit"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        verify(auditService).streamEvents(isNull(), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    void shouldRejectInvertedTimeRange() throws Exception {
+        mockMvc.perform(get("/api/audit")
+                        .param("from", "2025-04-01T00:00:00")
+                        .param("to", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(auditService, never()).streamEvents(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectUnknownEventType() throws Exception {
+        mockMvc.perform(get("/api/audit").param("type", "RETIRED"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -8,14 +8,25 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import pl.atins.core.EntityTags;
 import pl.atins.dto.CreateDepartmentRequest;
+import pl.atins.dto.DepartmentMembersRequest;
 import pl.atins.dto.DepartmentResponse;
+import pl.atins.dto.DepartmentRosterResponse;
+import pl.atins.dto.MembershipChangeResponse;
+import pl.atins.dto.MoveMembersRequest;
+import pl.atins.dto.RosterEntryResponse;
 import pl.atins.dto.UpdateDepartmentRequest;
 import pl.atins.service.DepartmentService;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +40,9 @@ class DepartmentControllerTest {
     @MockitoBean
     private DepartmentService departmentService;
 
+    @MockitoBean
+    private EntityTags entityTags;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -42,6 +56,7 @@ class DepartmentControllerTest {
         departmentResponse.setName("IT Department");
         departmentResponse.setDescription("Information Technology Department");
         departmentResponse.setLocation("Building A, Floor 3");
+        departmentResponse.setEmployeeCount(12);
 
         createRequest = new CreateDepartmentRequest();
         createRequest.setName("HR Department");
@@ -79,7 +94,113 @@ class DepartmentControllerTest {
         mockMvc.perform(get("/api/departments/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.name").value("IT Department"));
+                .andExpect(jsonPath("$.name").value("IT Department"))
+                .andExpect(jsonPath("$.employeeCount").value(12));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingDepartment() throws Exception {
+        when(entityTags.department(1L)).thenReturn("\"e1-7\"");
+
+        mockMvc.perform(get("/api/departments/1").header("If-None-Match", "\"e1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e1-7\""));
+
+        verify(departmentService, never()).getDepartmentById(1L);
+    }
+
+    @Test
+    void shouldReturnDepartmentsWhenListTagIsStale() throws Exception {
+        when(entityTags.all()).thenReturn("\"e1-8\"");
+        when(departmentService.getAllDepartments()).thenReturn(List.of(departmentResponse));
+
+        mockMvc.perform(get("/api/departments").header("If-None-Match", "\"e1-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e1-8\""))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void shouldReturnRosterPage() throws Exception {
+        var roster = new DepartmentRosterResponse();
+        roster.setDepartmentId(1L);
+        roster.setSort("salary");
+        roster.setHasMore(true);
+        roster.setNextToken("next");
+        roster.setEmployees(List.of(new RosterEntryResponse(4L, "Anna", "Nowak", "anna.nowak@company.com",
+                "Developer", LocalDate.of(2021, 5, 4), new BigDecimal("72000.00"))));
+        when(entityTags.all()).thenReturn("\"e1-9\"");
+        when(departmentService.getRoster(1L, "salary", "previous", 20)).thenReturn(roster);
+
+        mockMvc.perform(get("/api/departments/1/employees")
+                        .param("sort", "salary")
+                        .param("after", "previous")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e1-9\""))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.nextToken").value("next"))
+                .andExpect(jsonPath("$.employees[0].lastName").value("Nowak"))
+                .andExpect(jsonPath("$.employees[0].salary").value(72000.00));
+    }
+
+    @Test
+    void shouldSortRosterByLastNameByDefault() throws Exception {
+        when(entityTags.all()).thenReturn("\"e1-9\"");
+        when(departmentService.getRoster(1L, "lastName", null, 50)).thenReturn(new DepartmentRosterResponse());
+
+        mockMvc.perform(get("/api/departments/1/employees"))
+                .andExpect(status().isOk());
+
+        verify(departmentService).getRoster(1L, "lastName", null, 50);
+    }
+
+    @Test
+    void shouldAddMembers() throws Exception {
+        var request = new DepartmentMembersRequest();
+        request.setEmployeeIds(Set.of(4L, 5L));
+        var response = new MembershipChangeResponse();
+        response.setChangedEmployeeIds(List.of(4L, 5L));
+        response.setDepartments(List.of(departmentResponse));
+        when(departmentService.addMembers(1L, Set.of(4L, 5L))).thenReturn(response);
+
+        mockMvc.perform(post("/api/departments/1/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changedEmployeeIds.length()").value(2))
+                .andExpect(jsonPath("$.departments[0].employeeCount").value(12));
+    }
+
+    @Test
+    void shouldMoveMembers() throws Exception {
+        var request = new MoveMembersRequest();
+        request.setTargetDepartmentId(2L);
+        request.setEmployeeIds(Set.of(4L));
+        var response = new MembershipChangeResponse();
+        response.setChangedEmployeeIds(List.of(4L));
+        when(departmentService.moveMembers(1L, 2L, Set.of(4L))).thenReturn(response);
+
+        mockMvc.perform(post("/api/departments/1/members/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changedEmployeeIds[0]").value(4));
+    }
+
+    @Test
+    void shouldRejectMoveWithoutTargetOrEmployees() throws Exception {
+        var request = new MoveMembersRequest();
+        request.setEmployeeIds(Set.of());
+
+        mockMvc.perform(post("/api/departments/1/members/move")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validationErrors.targetDepartmentId").exists())
+                .andExpect(jsonPath("$.validationErrors.employeeIds").exists());
+
+        verify(departmentService, never()).moveMembers(any(), any(), any());
     }
 
     @Test
@@ -8,8 +8,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import pl.atins.core.EntityTags;
+import pl.atins.dto.ChangeFeedResponse;
 import pl.atins.dto.CreateEmployeeRequest;
 import pl.atins.dto.EmployeeResponse;
+import pl.atins.dto.EmployeeView;
 import pl.atins.dto.SalaryAdjustmentRequest;
 import pl.atins.dto.UpdateEmployeeRequest;
 import pl.atins.service.EmployeeService;
@@ -17,16 +20,20 @@ import pl.atins.service.EmployeeService;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +46,9 @@ class EmployeeControllerTest {
     @MockitoBean
     private EmployeeService employeeService;
 
+    @MockitoBean
+    private EntityTags entityTags;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -91,7 +101,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldGetEmployeeById() throws Exception {
-        when(employeeService.getEmployeeById(1L)).thenReturn(employeeResponse);
+        when(employeeService.getEmployeeById(1L, EmployeeView.FULL)).thenReturn(employeeResponse);
 
         mockMvc.perform(get("/api/employees/1"))
                 .andExpect(status().isOk())
@@ -100,6 +110,73 @@ class EmployeeControllerTest {
                 .andExpect(jsonPath("$.lastName").value("Doe"));
     }
 
+    @Test
+    void shouldTagEmployeeWithItsChangeSequence() throws Exception {
+        when(entityTags.employee(1L, EmployeeView.FULL)).thenReturn("\"e1-42\"");
+        when(employeeService.getEmployeeById(1L, EmployeeView.FULL)).thenReturn(employeeResponse);
+
+        mockMvc.perform(get("/api/employees/1").header("If-None-Match", "\"e1-41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e1-42\""))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingEmployee() throws Exception {
+        when(entityTags.employee(1L, EmployeeView.FULL)).thenReturn("\"e1-42\"");
+
+        mockMvc.perform(get("/api/employees/1").header("If-None-Match", "\"e1-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e1-42\""))
+                .andExpect(content().string(""));
+
+        verify(employeeService, never()).getEmployeeById(1L);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForUnchangedEmployeeList() throws Exception {
+        when(entityTags.all(EmployeeView.FULL)).thenReturn("\"e1-42\"");
+
+        mockMvc.perform(get("/api/employees").param("jobTitle", "Developer").header("If-None-Match", "\"e1-42\""))
+                .andExpect(status().isNotModified());
+
+        verify(employeeService, never()).getEmployeesByJobTitle("Developer");
+    }
+
+    @Test
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        var view = EmployeeView.of(Set.of("firstName", "email"), null);
+        when(employeeService.getEmployeeById(1L, view)).thenReturn(employeeResponse);
+
+        mockMvc.perform(get("/api/employees/1").param("fields", "firstName,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.firstName").value("John"))
+                .andExpect(jsonPath("$.email").value("john.doe@company.com"))
+                .andExpect(jsonPath("$.lastName").doesNotExist())
+                .andExpect(jsonPath("$.departments").doesNotExist())
+                .andExpect(jsonPath("$.subordinatesCount").doesNotExist());
+    }
+
+    @Test
+    void shouldPassExpansionsToService() throws Exception {
+        employeeResponse.setSupervisorName("Jane Smith");
+        var view = EmployeeView.of(null, Set.of("supervisor"));
+        when(employeeService.getAllEmployees(view)).thenReturn(List.of(employeeResponse));
+
+        mockMvc.perform(get("/api/employees").param("expand", "supervisor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$[0].supervisorName").value("Jane Smith"))
+                .andExpect(jsonPath("$[0].departments").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectUnknownField() throws Exception {
+        mockMvc.perform(get("/api/employees/1").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetEmployeeByEmail() throws Exception {
         when(employeeService.getEmployeeByEmail("john.doe@company.com")).thenReturn(employeeResponse);
@@ -111,7 +188,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldGetAllEmployees() throws Exception {
-        when(employeeService.getAllEmployees()).thenReturn(List.of(employeeResponse));
+        when(employeeService.getAllEmployees(EmployeeView.FULL)).thenReturn(List.of(employeeResponse));
 
         mockMvc.perform(get("/api/employees"))
                 .andExpect(status().isOk())
@@ -121,7 +198,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldGetEmployeesByJobTitle() throws Exception {
-        when(employeeService.getEmployeesByJobTitle("Developer")).thenReturn(List.of(employeeResponse));
+        when(employeeService.getEmployeesByJobTitle("Developer", EmployeeView.FULL)).thenReturn(List.of(employeeResponse));
 
         mockMvc.perform(get("/api/employees?jobTitle=Developer"))
                 .andExpect(status().isOk())
@@ -130,7 +207,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldGetEmployeesByDepartment() throws Exception {
-        when(employeeService.getEmployeesByDepartment(1L)).thenReturn(List.of(employeeResponse));
+        when(employeeService.getEmployeesByDepartment(1L, EmployeeView.FULL)).thenReturn(List.of(employeeResponse));
 
         mockMvc.perform(get("/api/employees?departmentId=1"))
                 .andExpect(status().isOk())
@@ -139,7 +216,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldGetEmployeesBySupervisor() throws Exception {
-        when(employeeService.getEmployeesBySupervisor(2L)).thenReturn(List.of(employeeResponse));
+        when(employeeService.getEmployeesBySupervisor(2L, EmployeeView.FULL)).thenReturn(List.of(employeeResponse));
 
         mockMvc.perform(get("/api/employees?supervisorId=2"))
                 .andExpect(status().isOk())
@@ -148,7 +225,7 @@ class EmployeeControllerTest {
 
     @Test
     void shouldSearchEmployeesByName() throws Exception {
-        when(employeeService.searchEmployeesByName("John")).thenReturn(List.of(employeeResponse));
+        when(employeeService.searchEmployeesByName("John", EmployeeView.FULL)).thenReturn(List.of(employeeResponse));
 
         mockMvc.perform(get("/api/employees?name=John"))
                 .andExpect(status().isOk())
@@ -274,10 +351,37 @@ class EmployeeControllerTest {
 
     @Test
     void shouldHandleServiceExceptions() throws Exception {
-        when(employeeService.getEmployeeById(999L))
+        when(employeeService.getEmployeeById(999L, EmployeeView.FULL))
                 .thenThrow(new IllegalArgumentException("Employee not found"));
 
         mockMvc.perform(get("/api/employees/999"))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnChangesSinceToken() throws Exception {
+        var changes = new ChangeFeedResponse();
+        changes.setNextToken("42.7");
+        changes.setEmployees(List.of(employeeResponse));
+        changes.setDeletedEmployeeIds(List.of(5L));
+        when(employeeService.getChanges("40.3", 500)).thenReturn(changes);
+
+        mockMvc.perform(get("/api/employees/changes")
+                        .param("since", "40.3")
+                        .param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextToken").value("42.7"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.employees[0].id").value(1))
+                .andExpect(jsonPath("$.deletedEmployeeIds[0]").value(5));
+    }
+
+    @Test
+    void shouldRejectInvalidChangeToken() throws Exception {
+        when(employeeService.getChanges("abc", 1000))
+                .thenThrow(new IllegalArgumentException("Invalid change token: abc"));
+
+        mockMvc.perform(get("/api/employees/changes").param("since", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -4,22 +4,34 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import pl.atins.core.AssignSupervisorCommand;
+import pl.atins.core.CommandRecord;
 import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.EntityLoader;
 import pl.atins.core.HRCommandManager;
 import pl.atins.core.PromoteEmployeeCommand;
+import pl.atins.core.PromotionUndoRecord;
 import pl.atins.domain.Employee;
+import pl.atins.dto.BatchCommandResponse;
 import pl.atins.dto.EmployeeResponse;
 import pl.atins.repository.EmployeeRepository;
 import pl.atins.service.EmployeeService;
+import pl.atins.service.HRCommandService;
 
 import java.math.BigDecimal;
+import java.security.Principal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +39,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(HRCommandController.class)
 class HRCommandControllerTest {
 
+    private static final Principal ALICE = () -> "alice";
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -39,9 +53,15 @@ class HRCommandControllerTest {
     @MockitoBean
     private EmployeeEventPublisher eventPublisher;
 
+    @MockitoBean
+    private EntityLoader entityLoader;
+
     @MockitoBean
     private EmployeeService employeeService;
 
+    @MockitoBean
+    private HRCommandService hrCommandService;
+
     private Employee employee;
     private Employee supervisor;
     private EmployeeResponse employeeResponse;
@@ -77,13 +97,14 @@ class HRCommandControllerTest {
         when(employeeService.getEmployeeById(1L)).thenReturn(employeeResponse);
 
         mockMvc.perform(post("/api/hr-commands/1/promote")
+                .principal(ALICE)
                 .param("newJobTitle", "Senior Developer")
                 .param("salaryIncrease", "10000"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.jobTitle").value("Senior Developer"));
 
-        verify(commandManager).executeCommand(any(PromoteEmployeeCommand.class));
+        verify(commandManager).executeCommand(eq("alice"), any(PromoteEmployeeCommand.class));
     }
 
     @Test
@@ -92,11 +113,12 @@ class HRCommandControllerTest {
         when(employeeService.getEmployeeById(1L)).thenReturn(employeeResponse);
 
         mockMvc.perform(post("/api/hr-commands/1/promote")
+                .principal(ALICE)
                 .param("newJobTitle", "Senior Developer"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1));
 
-        verify(commandManager).executeCommand(any(PromoteEmployeeCommand.class));
+        verify(commandManager).executeCommand(eq("alice"), any(PromoteEmployeeCommand.class));
     }
 
     @Test
@@ -104,120 +126,207 @@ class HRCommandControllerTest {
         when(employeeRepository.findById(999L)).thenReturn(Optional.empty());
 
         mockMvc.perform(post("/api/hr-commands/999/promote")
+                .principal(ALICE)
                 .param("newJobTitle", "Senior Developer"))
                 .andExpect(status().isBadRequest());
 
-        verify(commandManager, never()).executeCommand(any());
+        verify(commandManager, never()).executeCommand(any(), any());
     }
 
     @Test
     void shouldAssignSupervisor() throws Exception {
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
-        when(employeeRepository.findById(2L)).thenReturn(Optional.of(supervisor));
+        when(entityLoader.employees(List.of(1L, 2L))).thenReturn(Map.of(1L, employee, 2L, supervisor));
         when(employeeService.getEmployeeById(1L)).thenReturn(employeeResponse);
 
-        mockMvc.perform(post("/api/hr-commands/1/assign-supervisor/2"))
+        mockMvc.perform(post("/api/hr-commands/1/assign-supervisor/2").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1));
 
-        verify(commandManager).executeCommand(any(AssignSupervisorCommand.class));
+        verify(commandManager).executeCommand(eq("alice"), any(AssignSupervisorCommand.class));
     }
 
     @Test
     void shouldReturnBadRequestWhenEmployeeNotFoundForSupervisorAssignment() throws Exception {
-        when(employeeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(entityLoader.employees(List.of(999L, 2L))).thenReturn(Map.of(2L, supervisor));
 
-        mockMvc.perform(post("/api/hr-commands/999/assign-supervisor/2"))
+        mockMvc.perform(post("/api/hr-commands/999/assign-supervisor/2").principal(ALICE))
                 .andExpect(status().isBadRequest());
 
-        verify(commandManager, never()).executeCommand(any());
+        verify(commandManager, never()).executeCommand(any(), any());
     }
 
     @Test
     void shouldReturnBadRequestWhenSupervisorNotFound() throws Exception {
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
-        when(employeeRepository.findById(999L)).thenReturn(Optional.empty());
+        when(entityLoader.employees(List.of(1L, 999L))).thenReturn(Map.of(1L, employee));
+
+        mockMvc.perform(post("/api/hr-commands/1/assign-supervisor/999").principal(ALICE))
+                .andExpect(status().isBadRequest());
+
+        verify(commandManager, never()).executeCommand(any(), any());
+    }
+
+    @Test
+    void shouldExecuteBatch() throws Exception {
+        var response = new BatchCommandResponse();
+        response.setSequence(7L);
+        response.setDescription("Batch of 2 HR commands");
+        response.setCommandCount(2);
+        response.setEmployeeIds(Set.of(1L));
+        when(hrCommandService.executeBatch(eq("alice"), any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/hr-commands/batch")
+                .principal(ALICE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"commands": [
+                          {"type": "PROMOTE", "employeeId": 1, "newJobTitle": "Senior Developer"},
+                          {"type": "ASSIGN_SUPERVISOR", "employeeId": 1, "supervisorId": 2}
+                        ]}
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sequence").value(7))
+                .andExpect(jsonPath("$.commandCount").value(2));
+
+        verify(hrCommandService).executeBatch(eq("alice"), argThat(commands -> commands.size() == 2));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/hr-commands/batch")
+                .principal(ALICE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"commands\": []}"))
+                .andExpect(status().isBadRequest());
 
-        mockMvc.perform(post("/api/hr-commands/1/assign-supervisor/999"))
+        verify(hrCommandService, never()).executeBatch(any(), any());
+    }
+
+    @Test
+    void shouldRejectBatchCommandWithoutType() throws Exception {
+        mockMvc.perform(post("/api/hr-commands/batch")
+                .principal(ALICE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"commands\": [{\"employeeId\": 1}]}"))
                 .andExpect(status().isBadRequest());
 
-        verify(commandManager, never()).executeCommand(any());
+        verify(hrCommandService, never()).executeBatch(any(), any());
     }
 
     @Test
     void shouldUndoLastCommand() throws Exception {
-        when(commandManager.canUndo()).thenReturn(true);
+        when(commandManager.undoLastCommand("alice")).thenReturn(Optional.of(commandRecord("alice")));
 
-        mockMvc.perform(post("/api/hr-commands/undo"))
+        mockMvc.perform(post("/api/hr-commands/undo").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Last command undone successfully"));
 
-        verify(commandManager).undoLastCommand();
+        verify(commandManager).undoLastCommand("alice");
     }
 
     @Test
-    void shouldReturnBadRequestWhenNoCommandsToUndo() throws Exception {
-        when(commandManager.canUndo()).thenReturn(false);
+    void shouldUndoOnlyCallersOwnCommands() throws Exception {
+        when(commandManager.undoLastCommand("bob")).thenReturn(Optional.of(commandRecord("bob")));
+
+        mockMvc.perform(post("/api/hr-commands/undo")
+                .principal(() -> "bob")
+                .header("X-Actor-Id", "alice"))
+                .andExpect(status().isOk());
 
+        verify(commandManager).undoLastCommand("bob");
+        verify(commandManager, never()).undoLastCommand("alice");
+    }
+
+    @Test
+    void shouldRejectUndoWithoutAuthenticatedUser() throws Exception {
         mockMvc.perform(post("/api/hr-commands/undo"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(commandManager);
+    }
+
+    @Test
+    void shouldRejectCommandWithoutAuthenticatedUser() throws Exception {
+        mockMvc.perform(post("/api/hr-commands/1/promote")
+                .param("newJobTitle", "Senior Developer"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(employeeRepository, commandManager);
+    }
+
+    @Test
+    void shouldExecuteCommandOnBehalfOfActor() throws Exception {
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeService.getEmployeeById(1L)).thenReturn(employeeResponse);
+
+        mockMvc.perform(post("/api/hr-commands/1/promote")
+                .principal(ALICE)
+                .param("newJobTitle", "Senior Developer"))
+                .andExpect(status().isOk());
+
+        verify(commandManager).executeCommand(eq("alice"), any(PromoteEmployeeCommand.class));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenNoCommandsToUndo() throws Exception {
+        when(commandManager.undoLastCommand("alice")).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/hr-commands/undo").principal(ALICE))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("No commands to undo"));
-
-        verify(commandManager, never()).undoLastCommand();
     }
 
     @Test
     void shouldReturnCanUndoStatus() throws Exception {
-        when(commandManager.canUndo()).thenReturn(true);
+        when(commandManager.canUndo("alice")).thenReturn(true);
 
-        mockMvc.perform(get("/api/hr-commands/can-undo"))
+        mockMvc.perform(get("/api/hr-commands/can-undo").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(content().string("true"));
     }
 
     @Test
     void shouldReturnCannotUndoStatus() throws Exception {
-        when(commandManager.canUndo()).thenReturn(false);
+        when(commandManager.canUndo("alice")).thenReturn(false);
 
-        mockMvc.perform(get("/api/hr-commands/can-undo"))
+        mockMvc.perform(get("/api/hr-commands/can-undo").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
     }
 
     @Test
     void shouldReturnHistorySize() throws Exception {
-        when(commandManager.getHistorySize()).thenReturn(5);
+        when(commandManager.getHistorySize("alice")).thenReturn(5);
 
-        mockMvc.perform(get("/api/hr-commands/history-size"))
+        mockMvc.perform(get("/api/hr-commands/history-size").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(content().string("5"));
     }
 
     @Test
     void shouldClearHistory() throws Exception {
-        mockMvc.perform(post("/api/hr-commands/clear-history"))
+        mockMvc.perform(post("/api/hr-commands/clear-history").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(content().string("Command history cleared"));
 
-        verify(commandManager).clearHistory();
+        verify(commandManager).clearHistory("alice");
     }
 
     @Test
     void shouldHandleCommandExecutionException() throws Exception {
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
-        doThrow(new RuntimeException("Command execution failed")).when(commandManager).executeCommand(any());
+        doThrow(new RuntimeException("Command execution failed")).when(commandManager).executeCommand(any(), any());
 
         mockMvc.perform(post("/api/hr-commands/1/promote")
+                .principal(ALICE)
                 .param("newJobTitle", "Senior Developer"))
                 .andExpect(status().isInternalServerError());
     }
 
     @Test
     void shouldHandleUndoException() throws Exception {
-        when(commandManager.canUndo()).thenReturn(true);
-        doThrow(new IllegalStateException("Cannot undo")).when(commandManager).undoLastCommand();
+        doThrow(new IllegalStateException("Cannot undo")).when(commandManager).undoLastCommand("alice");
 
-        mockMvc.perform(post("/api/hr-commands/undo"))
+        mockMvc.perform(post("/api/hr-commands/undo").principal(ALICE))
                 .andExpect(status().isConflict());
     }
 
@@ -225,10 +334,10 @@ class HRCommandControllerTest {
     void shouldValidatePromotionParameters() throws Exception {
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
 
-        mockMvc.perform(post("/api/hr-commands/1/promote"))
+        mockMvc.perform(post("/api/hr-commands/1/promote").principal(ALICE))
                 .andExpect(status().isBadRequest());
 
-        verify(commandManager, never()).executeCommand(any());
+        verify(commandManager, never()).executeCommand(any(), any());
     }
 
     @Test
@@ -236,6 +345,7 @@ class HRCommandControllerTest {
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
 
         mockMvc.perform(post("/api/hr-commands/1/promote")
+                .principal(ALICE)
                 .param("newJobTitle", "Senior Developer")
                 .param("salaryIncrease", "invalid"))
                 .andExpect(status().isBadRequest());
@@ -243,10 +353,16 @@ class HRCommandControllerTest {
 
     @Test
     void shouldReturnZeroHistorySizeWhenEmpty() throws Exception {
-        when(commandManager.getHistorySize()).thenReturn(0);
+        when(commandManager.getHistorySize("alice")).thenReturn(0);
 
-        mockMvc.perform(get("/api/hr-commands/history-size"))
+        mockMvc.perform(get("/api/hr-commands/history-size").principal(ALICE))
                 .andExpect(status().isOk())
                 .andExpect(content().string("0"));
     }
+
+    private CommandRecord commandRecord(String actor) {
+        var undoRecord = new PromotionUndoRecord(1L, "Promote John Doe", "Developer", "Senior Developer",
+                new BigDecimal("50000"), new BigDecimal("60000"));
+        return new CommandRecord(1L, actor, Instant.now(), undoRecord);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package pl.atins.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.atins.core.HRCommandType;
+import pl.atins.domain.ScheduledCommand;
+import pl.atins.dto.CommandSpec;
+import pl.atins.dto.ScheduledCommandResponse;
+import pl.atins.service.ScheduledCommandService;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ScheduledCommandController.class)
+class ScheduledCommandControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ScheduledCommandService scheduledCommandService;
+
+    @Test
+    void shouldScheduleCommands() throws Exception {
+        when(scheduledCommandService.scheduleCommands(eq("alice"), any()))
+                .thenReturn(List.of(response(1L, ScheduledCommand.Status.PENDING)));
+
+        mockMvc.perform(post("/api/hr-commands/scheduled")
+                .principal(() -> "alice")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"effectiveAt": "2025-02-01T00:00:00Z",
+                         "commands": [{"type": "PROMOTE", "employeeId": 1, "newJobTitle": "Senior Developer"}]}
+                        """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value("PENDING"))
+                .andExpect(jsonPath("$[0].command.type").value("PROMOTE"));
+
+        verify(scheduledCommandService).scheduleCommands(eq("alice"),
+                argThat(request -> request.getEffectiveAt().equals(Instant.parse("2025-02-01T00:00:00Z"))));
+    }
+
+    @Test
+    void shouldRejectScheduleWithoutEffectiveTime() throws Exception {
+        mockMvc.perform(post("/api/hr-commands/scheduled")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"commands\": [{\"type\": \"PROMOTE\", \"employeeId\": 1}]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(scheduledCommandService);
+    }
+
+    @Test
+    void shouldListScheduledCommandsByStatus() throws Exception {
+        when(scheduledCommandService.getScheduledCommands(ScheduledCommand.Status.PENDING))
+                .thenReturn(List.of(response(1L, ScheduledCommand.Status.PENDING)));
+
+        mockMvc.perform(get("/api/hr-commands/scheduled").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void shouldCancelScheduledCommand() throws Exception {
+        when(scheduledCommandService.cancelScheduledCommand(1L))
+                .thenReturn(response(1L, ScheduledCommand.Status.CANCELLED));
+
+        mockMvc.perform(delete("/api/hr-commands/scheduled/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    void shouldReturnConflictWhenCommandNoLongerPending() throws Exception {
+        when(scheduledCommandService.cancelScheduledCommand(1L))
+                .thenThrow(new IllegalStateException("Scheduled command with id 1 is no longer pending"));
+
+        mockMvc.perform(delete("/api/hr-commands/scheduled/1"))
+                .andExpect(status().isConflict());
+    }
+
+    private static ScheduledCommandResponse response(Long id, ScheduledCommand.Status status) {
+        var spec = new CommandSpec();
+        spec.setType(HRCommandType.PROMOTE);
+        spec.setEmployeeId(1L);
+        spec.setNewJobTitle("Senior Developer");
+
+        var response = new ScheduledCommandResponse();
+        response.setId(id);
+        response.setActor("alice");
+        response.setStatus(status);
+        response.setEffectiveAt(Instant.parse("2025-02-01T00:00:00Z"));
+        response.setCommand(spec);
+        return response;
+    }
+}
@@ -0,0 +1,103 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.atins.domain.AuditEvent;
+import pl.atins.domain.Employee;
+import pl.atins.repository.AuditEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(AuditLogObserver.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditLogObserverTest {
+
+    @Autowired
+    private AuditLogObserver auditLogObserver;
+
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private EmployeeEventPublisher publisher;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new EmployeeEventPublisher(Runnable::run);
+        publisher.addObserver(auditLogObserver);
+
+        employee = new Employee();
+        employee.setId(1L);
+        employee.setFirstName("John");
+        employee.setLastName("Doe");
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditEventRepository.deleteAll();
+    }
+
+    @Test
+    void shouldWriteAuditRowBeforeBusinessTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            publisher.publishEvent(promoted());
+
+            assertEquals(1, auditEventRepository.count());
+        });
+
+        var auditEvent = auditEventRepository.findAll().getFirst();
+        assertEquals(1L, auditEvent.getEmployeeId());
+        assertEquals("John Doe", auditEvent.getEmployeeName());
+        assertEquals(EmployeeEvent.EventType.PROMOTED, auditEvent.getEventType());
+        assertEquals("Developer", auditEvent.getOldValue());
+        assertEquals("Lead", auditEvent.getNewValue());
+    }
+
+    @Test
+    void shouldDiscardAuditRowsWhenBusinessTransactionRollsBack() {
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            publisher.publishEvents(List.of(promoted(), promoted()));
+            throw new IllegalStateException("Business change failed");
+        }));
+
+        assertEquals(0, auditEventRepository.count());
+    }
+
+    @Test
+    void shouldRollBackBusinessTransactionWhenAuditRowCannotBeWritten() {
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED, "x".repeat(300), null, null);
+
+        assertThrows(RuntimeException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            auditEventRepository.save(auditEvent("written by the business change"));
+            publisher.publishEvent(event);
+        }));
+
+        assertEquals(0, auditEventRepository.count());
+    }
+
+    private EmployeeEvent promoted() {
+        return new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED, "Promoted", "Developer", "Lead");
+    }
+
+    private static AuditEvent auditEvent(String details) {
+        var auditEvent = new AuditEvent();
+        auditEvent.setEventType(EmployeeEvent.EventType.HIRED);
+        auditEvent.setOccurredAt(LocalDateTime.now());
+        auditEvent.setDetails(details);
+        return auditEvent;
+    }
+}
@@ -0,0 +1,131 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import pl.atins.domain.EntityChange;
+import pl.atins.repository.EntityChangeRepository;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityChangeRepository entityChangeRepository;
+
+    private ChangeTracker changeTracker;
+
+    @BeforeEach
+    void setUp() {
+        when(entityChangeRepository.findMaxSequence()).thenReturn(10L);
+        changeTracker = new ChangeTracker(jdbcTemplate, entityChangeRepository);
+        changeTracker.restoreSequence();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(changeTracker);
+    }
+
+    @Test
+    void shouldWriteImmediatelyOutsideTransaction() {
+        changeTracker.employeeChanged(1L);
+
+        var rows = captureWrite();
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[]{"EMPLOYEE", 1L, 11L, false}, head(rows.getFirst()));
+        assertEquals(11L, changeTracker.getStableSequence());
+    }
+
+    @Test
+    void shouldWriteOncePerTransactionAtCommitWithSingleSequence() {
+        TransactionSynchronizationManager.initSynchronization();
+        changeTracker.employeeChanged(1L);
+        changeTracker.employeesChanged(List.of(1L, 2L));
+        changeTracker.departmentChanged(3L);
+        changeTracker.employeeDeleted(2L);
+
+        verifyNoInteractions(jdbcTemplate);
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        var rows = captureWrite();
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{"EMPLOYEE", 1L, 11L, false}, head(rows.get(0)));
+        assertArrayEquals(new Object[]{"EMPLOYEE", 2L, 11L, true}, head(rows.get(1)));
+        assertArrayEquals(new Object[]{"DEPARTMENT", 3L, 11L, false}, head(rows.get(2)));
+    }
+
+    @Test
+    void shouldHoldBackStableSequenceUntilTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        changeTracker.employeeChanged(1L);
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.unbindResource(changeTracker);
+
+        // A later change lands first, but readers must not move past the one still in flight
+        changeTracker.employeeChanged(2L);
+        assertEquals(10L, changeTracker.getStableSequence());
+
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(12L, changeTracker.getStableSequence());
+    }
+
+    @Test
+    void shouldNotWriteWhenTransactionRecordedNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        changeTracker.employeesChanged(List.of());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(10L, changeTracker.getStableSequence());
+    }
+
+    @Test
+    void shouldFindSequenceOfLiveEntityOnly() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("EMPLOYEE"), eq(1L))).thenReturn(List.of(7L));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("EMPLOYEE"), eq(2L))).thenReturn(List.of());
+
+        assertEquals(OptionalLong.of(7L), changeTracker.findSequence(EntityChange.EntityType.EMPLOYEE, 1L));
+        assertEquals(OptionalLong.empty(), changeTracker.findSequence(EntityChange.EntityType.EMPLOYEE, 2L));
+        verify(jdbcTemplate, times(2)).queryForList(contains("deleted = FALSE"), eq(Long.class), any(Object[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureWrite() {
+        var captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), (List<Object[]>) captor.capture());
+        return captor.getValue();
+    }
+
+    private static Object[] head(Object[] row) {
+        return new Object[]{row[0], row[1], row[2], row[3]};
+    }
+}
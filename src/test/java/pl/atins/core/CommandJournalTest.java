@@ -0,0 +1,279 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.atins.config.CommandHistoryProperties;
+import pl.atins.config.CommandJournalProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private CommandJournalProperties properties;
+    private CommandHistoryProperties historyProperties;
+    private final List<CommandRecord> state = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        properties = new CommandJournalProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory);
+        properties.setFsync(false);
+        historyProperties = new CommandHistoryProperties();
+    }
+
+    @Test
+    void shouldRecoverExecutedCommandsAfterRestart() {
+        var journal = open();
+        execute(journal, promotion(1, "alice"));
+        execute(journal, assignment(2, "bob"));
+        execute(journal, promotion(3, "alice"));
+        undo(journal, 3);
+
+        var recovered = new CommandJournal(properties, historyProperties).recover(List::of);
+
+        assertEquals(List.of(1L, 2L), sequences(recovered));
+        var promotion = (PromotionUndoRecord) recovered.get(0).getUndoRecord();
+        assertEquals("Developer", promotion.getPreviousJobTitle());
+        assertEquals(new BigDecimal("55000.00"), promotion.getNewSalary());
+        var assignment = (SupervisorAssignmentUndoRecord) recovered.get(1).getUndoRecord();
+        assertNull(assignment.getPreviousSupervisorId());
+        assertEquals(7L, assignment.getNewSupervisorId());
+    }
+
+    @Test
+    void shouldOnlyClearCommandsRecordedBeforeClear() {
+        var journal = open();
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "bob"));
+        journal.recordCleared("alice", 2);
+        execute(journal, promotion(3, "alice"));
+
+        var recovered = new CommandJournal(properties, historyProperties).recover(List::of);
+
+        assertEquals(List.of(2L, 3L), sequences(recovered));
+    }
+
+    @Test
+    void shouldSnapshotAndRotateJournal() throws IOException {
+        properties.setSnapshotInterval(2);
+        var journal = open();
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "alice"));
+        execute(journal, promotion(3, "bob"));
+
+        assertTrue(Files.exists(directory.resolve("commands.snapshot")));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.getFileName().toString().startsWith("commands-")).count());
+        }
+
+        var recovered = new CommandJournal(properties, historyProperties).recover(List::of);
+
+        assertEquals(List.of(1L, 2L, 3L), sequences(recovered));
+    }
+
+    @Test
+    void shouldReplayArchivedSegmentsWhenSnapshotIsCorrupt() throws IOException {
+        properties.setSnapshotInterval(2);
+        var journal = open();
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "alice"));
+        execute(journal, promotion(3, "bob"));
+        Files.write(directory.resolve("commands.snapshot"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        var recovered = new CommandJournal(properties, historyProperties).recover(List::of);
+
+        assertEquals(List.of(1L, 2L, 3L), sequences(recovered));
+    }
+
+    @Test
+    void shouldKeepArchivedEntriesWithinRetention() throws IOException {
+        properties.setSnapshotInterval(2);
+        var journal = open();
+        for (long sequence = 1; sequence <= 6; sequence++) {
+            execute(journal, promotion(sequence, "alice"));
+        }
+        undo(journal, 6);
+        undo(journal, 5);
+
+        assertEquals(List.of("commands-00000000000000000002.journal", "commands-00000000000000000004.journal",
+                "commands-00000000000000000006.journal"), archiveNames());
+
+        Files.delete(directory.resolve("commands.snapshot"));
+        Files.delete(directory.resolve("commands.snapshot.previous"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences(new CommandJournal(properties, historyProperties)
+                .recover(List::of)));
+    }
+
+    @Test
+    void shouldDeleteExpiredArchivesCoveredByPreviousSnapshot() throws IOException {
+        properties.setSnapshotInterval(2);
+        historyProperties.setArchiveRetention(Duration.ZERO);
+        var journal = open();
+        for (long sequence = 1; sequence <= 7; sequence++) {
+            execute(journal, promotion(sequence, "alice"));
+        }
+
+        assertEquals(List.of("commands-00000000000000000006.journal"), archiveNames());
+        assertTrue(Files.exists(directory.resolve("commands.snapshot.previous")));
+
+        Files.write(directory.resolve("commands.snapshot"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+        var recovered = new CommandJournal(properties, historyProperties).recover(List::of);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), sequences(recovered));
+    }
+
+    @Test
+    void shouldNotRotateUntilANewCommandIsExecuted() throws IOException {
+        properties.setSnapshotInterval(2);
+        var journal = open();
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "alice"));
+        undo(journal, 2);
+        undo(journal, 1);
+
+        assertEquals(List.of("commands-00000000000000000002.journal"), archiveNames());
+        assertTrue(sequences(new CommandJournal(properties, historyProperties).recover(List::of)).isEmpty());
+    }
+
+    @Test
+    void shouldDiscardTornTailAndKeepAppending() throws IOException {
+        var journal = open();
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "alice"));
+        var journalFile = directory.resolve("commands.journal");
+        var intactSize = Files.size(journalFile);
+        Files.write(journalFile, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        var reopened = new CommandJournal(properties, historyProperties);
+        assertEquals(List.of(1L, 2L), sequences(reopened.recover(List::of)));
+        assertEquals(intactSize, Files.size(journalFile));
+        assertEquals(2, reopened.getLastSequence());
+
+        reopened.recordExecuted(promotion(3, "bob"));
+
+        assertEquals(List.of(1L, 2L, 3L), sequences(new CommandJournal(properties, historyProperties).recover(List::of)));
+    }
+
+    @Test
+    void shouldKeepAppendingWhenRotationFails() throws IOException {
+        properties.setSnapshotInterval(2);
+        var journal = open();
+        var archive = blockArchive(2);
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "alice"));
+
+        execute(journal, promotion(3, "bob"));
+
+        Files.delete(archive.resolve("blocker"));
+        Files.delete(archive);
+        assertEquals(List.of(1L, 2L, 3L), sequences(new CommandJournal(properties, historyProperties).recover(List::of)));
+    }
+
+    @Test
+    void shouldFailAppendWhenJournalCannotBeWritten() throws IOException {
+        properties.setSnapshotInterval(2);
+        var journal = open();
+        blockArchive(2);
+        execute(journal, promotion(1, "alice"));
+        execute(journal, promotion(2, "alice"));
+        Files.delete(directory.resolve("commands.journal"));
+        Files.createDirectory(directory.resolve("commands.journal"));
+
+        assertThrows(UncheckedIOException.class, () -> journal.recordExecuted(promotion(3, "bob")));
+    }
+
+    @Test
+    void shouldRecoverCompositeCommands() {
+        var journal = open();
+        var composite = new CompositeUndoRecord("Batch of 2 HR commands",
+                List.of(promotion(0, "alice").getUndoRecord(), assignment(0, "alice").getUndoRecord()));
+        execute(journal, new CommandRecord(1, "alice", Instant.now().truncatedTo(ChronoUnit.MILLIS), composite));
+
+        var recovered = new CommandJournal(properties, historyProperties).recover(List::of);
+
+        var undoRecord = assertInstanceOf(CompositeUndoRecord.class, recovered.get(0).getUndoRecord());
+        assertEquals("Batch of 2 HR commands", undoRecord.getDescription());
+        assertInstanceOf(PromotionUndoRecord.class, undoRecord.getSteps().get(0));
+        assertInstanceOf(SupervisorAssignmentUndoRecord.class, undoRecord.getSteps().get(1));
+        assertEquals(Set.of(1L, 2L, 7L), undoRecord.getReferencedEmployeeIds());
+    }
+
+    @Test
+    void shouldIgnoreEntriesWhenDisabled() {
+        properties.setEnabled(false);
+        var journal = new CommandJournal(properties, historyProperties);
+
+        assertTrue(journal.recover(List::of).isEmpty());
+        journal.recordExecuted(promotion(1, "alice"));
+
+        assertFalse(Files.exists(directory.resolve("commands.journal")));
+    }
+
+    // A non-empty directory in place of the archive makes moving the journal aside fail after it was closed
+    private Path blockArchive(long sequence) throws IOException {
+        var archive = Files.createDirectory(directory.resolve(String.format("commands-%020d.journal", sequence)));
+        Files.createFile(archive.resolve("blocker"));
+        return archive;
+    }
+
+    private CommandJournal open() {
+        var journal = new CommandJournal(properties, historyProperties);
+        journal.recover(() -> List.copyOf(state));
+        return journal;
+    }
+
+    private void execute(CommandJournal journal, CommandRecord record) {
+        state.add(record);
+        journal.recordExecuted(record);
+    }
+
+    private void undo(CommandJournal journal, long sequence) {
+        var record = state.stream().filter(r -> r.getSequence() == sequence).findFirst().orElseThrow();
+        state.remove(record);
+        journal.recordUndone(record);
+    }
+
+    private List<String> archiveNames() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("commands-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static List<Long> sequences(List<CommandRecord> records) {
+        return records.stream().map(CommandRecord::getSequence).toList();
+    }
+
+    private static CommandRecord promotion(long sequence, String actor) {
+        var undoRecord = new PromotionUndoRecord(1L, "Promote employee John Doe to Senior Developer",
+                "Developer", "Senior Developer", new BigDecimal("50000.00"), new BigDecimal("55000.00"));
+        return new CommandRecord(sequence, actor, Instant.now().truncatedTo(ChronoUnit.MILLIS), undoRecord);
+    }
+
+    private static CommandRecord assignment(long sequence, String actor) {
+        var undoRecord = new SupervisorAssignmentUndoRecord(2L, "Assign supervisor Jane Smith to John Doe",
+                null, LocalDate.of(2024, 1, 1), 7L);
+        return new CommandRecord(sequence, actor, Instant.now().truncatedTo(ChronoUnit.MILLIS), undoRecord);
+    }
+}
@@ -0,0 +1,142 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import pl.atins.config.DatabaseImageProperties;
+import pl.atins.config.PersistenceProperties;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class DatabaseImageTest {
+
+    @TempDir
+    private Path directory;
+
+    private DatabaseImageProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DatabaseImageProperties();
+        properties.setEnabled(true);
+        properties.setLocation(directory.resolve("image.zip"));
+    }
+
+    @Test
+    void shouldRestoreScriptImageIntoEmptyInMemoryDatabase() throws Exception {
+        var source = inMemory();
+        seed(source, 3);
+        imageFor(source, "jdbc:h2:mem:source").export();
+
+        var target = inMemory();
+        var image = imageFor(target, "jdbc:h2:mem:target");
+
+        assertTrue(image.restore(target));
+        assertTrue(image.isRestored());
+        assertEquals(3, countEmployees(target));
+        assertTrue(Files.readString(directory.resolve("image.zip.properties")).contains("format=SCRIPT"));
+    }
+
+    @Test
+    void shouldNotRestoreOverExistingSchema() {
+        var source = inMemory();
+        seed(source, 3);
+        var image = imageFor(source, "jdbc:h2:mem:source");
+        image.export();
+
+        assertFalse(image.restore(source));
+        assertFalse(image.isRestored());
+    }
+
+    @Test
+    void shouldIgnoreImageBuiltForAnotherSchema() throws Exception {
+        var source = inMemory();
+        seed(source, 3);
+        imageFor(source, "jdbc:h2:mem:source").export();
+        var manifest = directory.resolve("image.zip.properties");
+        Files.writeString(manifest, Files.readString(manifest).replaceAll("schema=\\w+", "schema=0000"));
+
+        var target = inMemory();
+
+        assertFalse(imageFor(target, "jdbc:h2:mem:target").restore(target));
+        assertEquals(0, new JdbcTemplate(target).queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_NAME = 'EMPLOYEE'", Integer.class));
+    }
+
+    @Test
+    void shouldStartFromScratchWithoutImage() {
+        var target = inMemory();
+
+        assertFalse(imageFor(target, "jdbc:h2:mem:target").restore(target));
+    }
+
+    @Test
+    void shouldRestoreBinaryImageByExtractingDatabaseFile() throws Exception {
+        var sourceUrl = "jdbc:h2:file:" + directory.resolve("source/hr");
+        var source = new DriverManagerDataSource(sourceUrl, "sa", "");
+        seed(source, 5);
+        imageFor(source, sourceUrl).export();
+        assertTrue(Files.readString(directory.resolve("image.zip.properties")).contains("format=BINARY"));
+
+        var targetUrl = "jdbc:h2:file:" + directory.resolve("target/hr") + ";DB_CLOSE_ON_EXIT=FALSE";
+        var target = new DriverManagerDataSource(targetUrl, "sa", "");
+        var image = imageFor(target, targetUrl);
+
+        assertTrue(image.restore(target));
+        assertTrue(Files.exists(directory.resolve("target/hr.mv.db")));
+        assertEquals(5, countEmployees(target));
+        assertFalse(imageFor(target, targetUrl).restore(target));
+    }
+
+    @Test
+    void shouldResolveDatabaseFileFromUrl() {
+        assertNull(imageFor(inMemory(), "jdbc:h2:mem:hr").databaseFile());
+        assertNull(imageFor(inMemory(), "jdbc:h2:tcp://localhost/hr").databaseFile());
+        assertEquals(Path.of("data/db/hr.mv.db"),
+                imageFor(inMemory(), "jdbc:h2:file:data/db/hr;CACHE_SIZE=65536").databaseFile());
+        assertEquals(Path.of("/srv/hr.mv.db"), imageFor(inMemory(), "jdbc:h2:/srv/hr").databaseFile());
+    }
+
+    @Test
+    void shouldProduceStableSchemaFingerprint() {
+        assertEquals(DatabaseImage.schemaFingerprint(), DatabaseImage.schemaFingerprint());
+        assertEquals(16, DatabaseImage.schemaFingerprint().length());
+    }
+
+    private DatabaseImage imageFor(DataSource dataSource, String url) {
+        var environment = new MockEnvironment().withProperty("spring.datasource.url", url);
+        var beanFactory = new StaticListableBeanFactory(Map.of("dataSource", dataSource));
+        var dataSourceProvider = beanFactory.getBeanProvider(DataSource.class);
+        return new DatabaseImage(properties, dataSourceProvider, environment, mock(ApplicationContext.class),
+                new DatabaseMaintenance(new PersistenceProperties(), dataSourceProvider, new SimpleMeterRegistry()));
+    }
+
+    private static DataSource inMemory() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static void seed(DataSource dataSource, int employees) {
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE employee (id BIGINT PRIMARY KEY, last_name VARCHAR(50))");
+        for (int i = 1; i <= employees; i++) {
+            jdbcTemplate.update("INSERT INTO employee VALUES (?, ?)", i, "Employee " + i);
+        }
+    }
+
+    private static int countEmployees(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM employee", Integer.class);
+    }
+}
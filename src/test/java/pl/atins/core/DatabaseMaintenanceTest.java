@@ -0,0 +1,144 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.util.unit.DataSize;
+import pl.atins.config.PersistenceProperties;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseMaintenanceTest {
+
+    @TempDir
+    private Path directory;
+
+    private PersistenceProperties properties;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PersistenceProperties();
+        properties.setEnabled(true);
+        properties.setCacheSize(DataSize.ofMegabytes(8));
+        properties.setWriteDelay(Duration.ofMillis(100));
+        properties.getBackup().setDirectory(directory.resolve("backups"));
+        properties.getBackup().setRetention(2);
+        dataSource = new DriverManagerDataSource("jdbc:h2:file:" + directory.resolve("db/hr") + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE employee (id BIGINT PRIMARY KEY, notes VARCHAR(4000))");
+        meterRegistry = new SimpleMeterRegistry();
+        maintenance = maintenanceFor(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void shouldApplyStoreSettings() {
+        maintenance.configure();
+
+        assertEquals("8192", setting("CACHE_SIZE"));
+        assertEquals("100", setting("WRITE_DELAY"));
+    }
+
+    @Test
+    void shouldTakeBackupWhileDatabaseStaysWritable() throws IOException {
+        insert(1, 100);
+
+        var backup = maintenance.backup();
+        insert(101, 200);
+
+        try (var zip = new ZipFile(backup.toFile())) {
+            assertNotNull(zip.getEntry("hr.mv.db"));
+        }
+        assertEquals(200, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee", Integer.class));
+    }
+
+    @Test
+    void shouldKeepOnlyConfiguredNumberOfBackups() throws IOException {
+        var backups = properties.getBackup().getDirectory();
+        Files.createDirectories(backups);
+        Files.writeString(backups.resolve("hr-20200101-000000-000.zip"), "expired");
+        Files.writeString(backups.resolve("hr-20200102-000000-000.zip"), "expired");
+        Files.writeString(backups.resolve("notes.txt"), "unrelated");
+
+        var latest = maintenance.backup();
+
+        assertTrue(Files.exists(latest));
+        assertTrue(Files.exists(backups.resolve("hr-20200102-000000-000.zip")));
+        assertFalse(Files.exists(backups.resolve("hr-20200101-000000-000.zip")));
+        assertTrue(Files.exists(backups.resolve("notes.txt")));
+    }
+
+    @Test
+    void shouldCompactSparseFile() {
+        insert(1, 5000);
+        jdbcTemplate.execute("CHECKPOINT");
+        jdbcTemplate.update("DELETE FROM employee WHERE id > 100");
+        jdbcTemplate.execute("CHECKPOINT");
+        properties.getCompaction().setFillRateThreshold(50);
+        var sizeBefore = meterRegistry.get("hr.database.file.size").gauge().value();
+
+        assertTrue(maintenance.compact());
+
+        assertTrue(meterRegistry.get("hr.database.file.size").gauge().value() < sizeBefore);
+        assertEquals(100, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee", Integer.class));
+    }
+
+    @Test
+    void shouldSkipCompactionOfDenseFile() {
+        insert(1, 100);
+        jdbcTemplate.execute("CHECKPOINT");
+
+        assertFalse(maintenance.compact());
+    }
+
+    @Test
+    void shouldLeaveInMemoryDatabaseAlone() {
+        var inMemory = new DriverManagerDataSource("jdbc:h2:mem:maintenance;DB_CLOSE_DELAY=-1", "sa", "");
+        var inMemoryMaintenance = maintenanceFor(inMemory);
+
+        inMemoryMaintenance.configure();
+
+        assertThrows(IllegalStateException.class, inMemoryMaintenance::backup);
+        assertThrows(IllegalStateException.class, inMemoryMaintenance::compact);
+        new JdbcTemplate(inMemory).execute("SHUTDOWN");
+    }
+
+    private DatabaseMaintenance maintenanceFor(DataSource target) {
+        var beanFactory = new StaticListableBeanFactory(Map.of("dataSource", target));
+        return new DatabaseMaintenance(properties, beanFactory.getBeanProvider(DataSource.class), meterRegistry);
+    }
+
+    private void insert(int from, int to) {
+        var notes = "x".repeat(2000);
+        for (int id = from; id <= to; id++) {
+            jdbcTemplate.update("INSERT INTO employee VALUES (?, ?)", id, notes + id);
+        }
+    }
+
+    private String setting(String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT DISTINCT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = ?", String.class, name);
+    }
+}
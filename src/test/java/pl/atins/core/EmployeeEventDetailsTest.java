@@ -0,0 +1,117 @@
+package pl.atins.core;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+import pl.atins.repository.DepartmentRepository;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(EmployeeEventDetails.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeEventDetailsTest {
+
+    @Autowired
+    private EmployeeEventDetails details;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    void shouldResolveUnloadedDetailsWithoutLazyLoads() {
+        var finance = department("Finance");
+        var audit = department("Audit");
+        var supervisor = employeeRepository.save(employee("anna", null, Set.of()));
+        var first = employeeRepository.save(employee("jan", supervisor, Set.of(finance, audit)));
+        var second = employeeRepository.save(employee("ewa", supervisor, Set.of(audit)));
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var employees = employeeRepository.findAllById(List.of(first.getId(), second.getId()));
+            statistics.clear();
+            var events = employees.stream()
+                    .map(employee -> new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED, "Promoted", null,
+                            null))
+                    .toList();
+            assertEquals(0, statistics.getPrepareStatementCount());
+            assertFalse(Hibernate.isInitialized(employees.getFirst().getDepartments()));
+
+            details.resolve(events);
+
+            var byEmployee = events.stream().collect(Collectors.toMap(
+                    event -> event.getEmployee().getId(), event -> event));
+            assertEquals(Set.of(finance.getId(), audit.getId()), byEmployee.get(first.getId()).getDepartmentIds());
+            assertEquals(Set.of(audit.getId()), byEmployee.get(second.getId()).getDepartmentIds());
+            events.forEach(event -> assertEquals("anna@company.com", event.getSupervisorEmail()));
+            assertEquals(0, statistics.getPrepareStatementCount());
+            assertFalse(Hibernate.isInitialized(employees.getFirst().getDepartments()));
+            assertFalse(Hibernate.isInitialized(employees.getFirst().getSupervisor()));
+        });
+    }
+
+    @Test
+    void shouldKeepDetailsAlreadyLoaded() {
+        var finance = department("Finance");
+        var employee = employee("jan", null, Set.of(finance));
+        employee.setId(1L);
+        var event = new EmployeeEvent(employee, EmployeeEvent.EventType.HIRED, "Hired", null, null);
+
+        details.resolve(List.of(event));
+
+        assertEquals(Set.of(finance.getId()), event.getDepartmentIds());
+        assertNull(event.getSupervisorEmail());
+    }
+
+    private Department department(String name) {
+        var department = new Department();
+        department.setName(name);
+        department.setLocation("Building C");
+        return departmentRepository.save(department);
+    }
+
+    private static Employee employee(String name, Employee supervisor, Set<Department> departments) {
+        var employee = new Employee();
+        employee.setFirstName(name);
+        employee.setLastName("Nowak");
+        employee.setEmail(name + "@company.com");
+        employee.setHireDate(LocalDate.of(2022, 3, 1));
+        employee.setSalary(new BigDecimal("70000"));
+        employee.setSupervisor(supervisor);
+        employee.setDepartments(new HashSet<>(departments));
+        return employee;
+    }
+}
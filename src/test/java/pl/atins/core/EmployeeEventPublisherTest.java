@@ -0,0 +1,133 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import pl.atins.domain.Employee;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EmployeeEventPublisherTest {
+
+    private EmployeeEventPublisher publisher;
+    private EmployeeEventObserver observer;
+    private EmployeeEvent event;
+
+    @BeforeEach
+    void setUp() {
+        observer = mock(EmployeeEventObserver.class);
+        when(observer.isInterestedIn(any())).thenReturn(true);
+        publisher = new EmployeeEventPublisher(ForkJoinPool.commonPool());
+        publisher.addObserver(observer);
+
+        var employee = new Employee();
+        employee.setId(1L);
+        employee.setFirstName("John");
+        employee.setLastName("Doe");
+        event = new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED, "Promoted", "Developer", "Lead");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldDispatchImmediatelyOutsideTransaction() {
+        publisher.publishEvent(event);
+
+        verify(observer, timeout(1000)).onEmployeeEvent(event);
+    }
+
+    @Test
+    void shouldDeferDispatchUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publishEvent(event);
+        publisher.publishEvent(event);
+
+        verify(observer, after(100).never()).onEmployeeEvent(any());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(observer, timeout(1000).times(2)).onEmployeeEvent(event);
+    }
+
+    @Test
+    void shouldDropEventsOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publishEvent(event);
+
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+        publisher.publishEvent(event);
+
+        verify(observer, timeout(1000).times(1)).onEmployeeEvent(event);
+        verify(observer, after(100).times(1)).onEmployeeEvent(event);
+    }
+
+    @Test
+    void shouldDeliverBatchInOneCallAfterCommit() {
+        var other = new Employee();
+        other.setId(2L);
+        other.setFirstName("Jane");
+        other.setLastName("Roe");
+        var moved = new EmployeeEvent(other, EmployeeEvent.EventType.DEPARTMENT_CHANGED, "Moved", "IT", "HR");
+        var hired = new EmployeeEvent(other, EmployeeEvent.EventType.HIRED, "Hired", null, other);
+        var picky = mock(EmployeeEventObserver.class);
+        when(picky.isInterestedIn(any())).thenReturn(false);
+        when(picky.isInterestedIn(EmployeeEvent.EventType.DEPARTMENT_CHANGED)).thenReturn(true);
+        publisher.addObserver(picky);
+
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publishEvents(List.of(event, moved, hired));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        verify(observer, timeout(1000)).onEmployeeEvents(List.of(event, moved, hired));
+        verify(picky, timeout(1000)).onEmployeeEvent(moved);
+        verify(observer, after(100).never()).onEmployeeEvent(any());
+        verify(picky, never()).onEmployeeEvents(any());
+    }
+
+    @Test
+    void shouldNotifyTransactionalObserverInsidePublishingTransaction() {
+        var audit = mock(EmployeeEventObserver.class);
+        when(audit.isInterestedIn(any())).thenReturn(true);
+        when(audit.isTransactional()).thenReturn(true);
+        publisher.addObserver(audit);
+
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publishEvent(event);
+
+        verify(audit).onEmployeeEvent(event);
+        verify(observer, after(100).never()).onEmployeeEvent(any());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        verify(observer, timeout(1000)).onEmployeeEvent(event);
+        verify(audit, after(100).times(1)).onEmployeeEvent(event);
+    }
+
+    @Test
+    void shouldPropagateTransactionalObserverFailure() {
+        var audit = mock(EmployeeEventObserver.class);
+        when(audit.isInterestedIn(any())).thenReturn(true);
+        when(audit.isTransactional()).thenReturn(true);
+        doThrow(new IllegalStateException("Audit table unavailable")).when(audit).onEmployeeEvent(event);
+        publisher.addObserver(audit);
+
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThrows(IllegalStateException.class, () -> publisher.publishEvent(event));
+    }
+}
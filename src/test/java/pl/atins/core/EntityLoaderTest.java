@@ -0,0 +1,117 @@
+package pl.atins.core;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.atins.config.SecondLevelCacheConfiguration;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+import pl.atins.repository.DepartmentRepository;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({EntityLoader.class, SecondLevelCacheConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityLoaderTest {
+
+    @Autowired
+    private EntityLoader entityLoader;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Long> employeeIds;
+
+    @BeforeEach
+    void setUp() {
+        employeeIds = employeeRepository.saveAll(List.of(employee("anna"), employee("jan"), employee("ewa")))
+                .stream().map(Employee::getId).toList();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    void shouldResolveIdsInOneQueryAndMemoizeWithinTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            var ids = Arrays.asList(employeeIds.get(0), employeeIds.get(1), null, employeeIds.get(0), -1L);
+
+            var employees = entityLoader.employees(ids);
+            assertEquals(Set.of(employeeIds.get(0), employeeIds.get(1)), employees.keySet());
+            assertEquals(1, statistics.getPrepareStatementCount());
+
+            var again = entityLoader.employees(employeeIds.subList(0, 2));
+            assertSame(employees.get(employeeIds.get(0)), again.get(employeeIds.get(0)));
+            assertSame(again.get(employeeIds.get(1)), employeeRepository.findById(employeeIds.get(1)).orElseThrow());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+
+    @Test
+    void shouldServeCachedEntitiesWithoutQuerying() {
+        transactionTemplate.executeWithoutResult(status -> entityLoader.employees(employeeIds));
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> assertEquals(3, entityLoader.employees(employeeIds).size()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        transactionTemplate.executeWithoutResult(status -> assertEquals(Set.of(employeeIds.get(0)),
+                entityLoader.employees(List.of(employeeIds.get(0), -1L)).keySet()));
+    }
+
+    @Test
+    void shouldLoadDepartments() {
+        var department = new Department();
+        department.setName("Finance");
+        department.setLocation("Building C");
+        var id = departmentRepository.save(department).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("Finance", entityLoader.departments(List.of(id, -1L)).get(id).getName());
+            assertTrue(entityLoader.departments(List.of()).isEmpty());
+        });
+    }
+
+    private static Employee employee(String name) {
+        var employee = new Employee();
+        employee.setFirstName(name);
+        employee.setLastName("Nowak");
+        employee.setEmail(name + ".nowak@company.com");
+        employee.setHireDate(LocalDate.of(2022, 3, 1));
+        employee.setSalary(new BigDecimal("70000"));
+        return employee;
+    }
+}
@@ -0,0 +1,76 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.atins.domain.EntityChange;
+import pl.atins.dto.EmployeeView;
+
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EntityTagsTest {
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    private EntityTags entityTags;
+
+    @BeforeEach
+    void setUp() {
+        entityTags = new EntityTags(changeTracker);
+    }
+
+    @Test
+    void shouldTagEntityWithItsLastChange() {
+        when(changeTracker.findSequence(EntityChange.EntityType.EMPLOYEE, 1L))
+                .thenReturn(OptionalLong.of(41L), OptionalLong.of(42L));
+
+        var before = entityTags.employee(1L, EmployeeView.FULL);
+        var after = entityTags.employee(1L, EmployeeView.FULL);
+
+        assertTrue(before.matches("\"[0-9a-z]+-41\""), before);
+        assertNotEquals(before, after);
+        assertTrue(after.endsWith("-42\""));
+    }
+
+    @Test
+    void shouldTagEachViewSeparately() {
+        when(changeTracker.getStableSequence()).thenReturn(7L);
+        var names = EmployeeView.of(Set.of("firstName", "lastName"), null);
+
+        assertNotEquals(entityTags.all(), entityTags.all(names));
+        assertEquals(entityTags.all(names), entityTags.all(EmployeeView.of(Set.of("lastName", "firstName"), null)));
+        assertNotEquals(entityTags.all(names), entityTags.all(EmployeeView.of(Set.of("firstName", "lastName"), Set.of())));
+    }
+
+    @Test
+    void shouldNotTagUntrackedOrDeletedEntity() {
+        when(changeTracker.findSequence(EntityChange.EntityType.DEPARTMENT, 3L)).thenReturn(OptionalLong.empty());
+
+        assertNull(entityTags.department(3L));
+    }
+
+    @Test
+    void shouldTagListsWithStableSequence() {
+        when(changeTracker.getStableSequence()).thenReturn(7L, 7L, 8L);
+
+        assertEquals(entityTags.all(), entityTags.all());
+        assertTrue(entityTags.all().endsWith("-8\""));
+    }
+
+    @Test
+    void shouldNotMatchTagsFromEarlierRun() throws InterruptedException {
+        when(changeTracker.getStableSequence()).thenReturn(7L);
+        var earlierRun = entityTags.all();
+        Thread.sleep(2);
+
+        assertNotEquals(earlierRun, new EntityTags(changeTracker).all());
+    }
+}
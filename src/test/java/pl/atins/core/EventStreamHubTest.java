@@ -0,0 +1,307 @@
+package pl.atins.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.atins.config.EventStreamProperties;
+import pl.atins.controller.EventStreamController;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class EventStreamHubTest {
+
+    private EventStreamProperties properties;
+    private ManualExecutor executor;
+    private EventStreamHub hub;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EventStreamProperties();
+        properties.setBufferSize(3);
+        properties.setReplaySize(5);
+        executor = new ManualExecutor();
+        createHub();
+    }
+
+    @Test
+    void shouldStreamMatchingEventsWithResumableIds() throws Exception {
+        var response = subscribe("/api/events/stream?employeeId=1");
+
+        hub.onEmployeeEvent(event(1L, EmployeeEvent.EventType.PROMOTED));
+        hub.onEmployeeEvent(event(2L, EmployeeEvent.EventType.PROMOTED));
+        executor.runAll();
+
+        var content = response.getContentAsString();
+        assertTrue(content.contains("id:" + hub.eventId(1)));
+        assertTrue(content.contains("event:PROMOTED"));
+        assertTrue(content.contains("\"employeeId\":1"));
+        assertFalse(content.contains("\"employeeId\":2"));
+    }
+
+    @Test
+    void shouldFilterByTypeAndDepartment() throws Exception {
+        var response = subscribe("/api/events/stream?type=HIRED,TERMINATED&departmentId=10");
+
+        hub.onEmployeeEvent(event(1L, EmployeeEvent.EventType.HIRED, 10L));
+        hub.onEmployeeEvent(event(2L, EmployeeEvent.EventType.HIRED, 20L));
+        hub.onEmployeeEvent(event(3L, EmployeeEvent.EventType.PROMOTED, 10L));
+        executor.runAll();
+
+        var content = response.getContentAsString();
+        assertEquals(1, count(content, "event:"));
+        assertTrue(content.contains("\"employeeId\":1"));
+        assertTrue(content.contains("\"departmentIds\":[10]"));
+    }
+
+    @Test
+    void shouldReplayEventsAfterLastEventId() throws Exception {
+        hub.onEmployeeEvent(event(1L, EmployeeEvent.EventType.HIRED));
+        hub.onEmployeeEvent(event(2L, EmployeeEvent.EventType.HIRED));
+        hub.onEmployeeEvent(event(3L, EmployeeEvent.EventType.HIRED));
+
+        var response = subscribe("/api/events/stream?lastEventId=" + hub.eventId(1));
+        executor.runAll();
+
+        var content = response.getContentAsString();
+        assertFalse(content.contains("\"employeeId\":1"));
+        assertTrue(content.contains("id:" + hub.eventId(2)));
+        assertTrue(content.contains("id:" + hub.eventId(3)));
+        assertFalse(content.contains("event:reset"));
+    }
+
+    @Test
+    void shouldResetWhenResumePointIsNoLongerRetained() throws Exception {
+        for (long id = 1; id <= 8; id++) {
+            hub.onEmployeeEvent(event(id, EmployeeEvent.EventType.HIRED));
+        }
+
+        var expired = subscribe("/api/events/stream?lastEventId=" + hub.eventId(1));
+        var otherRun = subscribe("/api/events/stream?lastEventId=1-8");
+        executor.runAll();
+
+        assertTrue(expired.getContentAsString().contains("event:reset"));
+        assertTrue(otherRun.getContentAsString().contains("event:reset"));
+    }
+
+    @Test
+    void shouldRejectMalformedEventId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> hub.subscribe(new EventStreamHub.Filter(null, null, null), "not-an-id"));
+    }
+
+    @Test
+    void shouldDropOldestEventsForSlowSubscriber() throws Exception {
+        var response = subscribe("/api/events/stream");
+        executor.runAll();
+
+        for (long id = 1; id <= 5; id++) {
+            hub.onEmployeeEvent(event(id, EmployeeEvent.EventType.HIRED));
+        }
+        executor.runAll();
+
+        var content = response.getContentAsString();
+        assertTrue(content.startsWith(":heartbeat"));
+        assertTrue(content.contains("event:dropped"));
+        assertTrue(content.contains("\"count\":2"));
+        assertFalse(content.contains("\"employeeId\":2,"));
+        assertTrue(content.contains("\"employeeId\":5"));
+        assertEquals(1, hub.getSubscriberCount());
+    }
+
+    @Test
+    void shouldDisconnectSlowSubscriberWhenConfigured() throws Exception {
+        properties.setOverflowPolicy(EventStreamProperties.OverflowPolicy.DISCONNECT);
+        createHub();
+        var response = subscribe("/api/events/stream");
+        executor.runAll();
+
+        for (long id = 1; id <= 5; id++) {
+            hub.onEmployeeEvent(event(id, EmployeeEvent.EventType.HIRED));
+        }
+        executor.runAll();
+
+        assertTrue(response.getContentAsString().contains("event:overflow"));
+        assertEquals(0, hub.getSubscriberCount());
+    }
+
+    @Test
+    void shouldRejectSubscribersAboveLimit() throws Exception {
+        properties.setMaxSubscribers(1);
+        subscribe("/api/events/stream");
+
+        assertThrows(IllegalStateException.class,
+                () -> hub.subscribe(new EventStreamHub.Filter(null, null, null), null));
+    }
+
+    @Test
+    void shouldKeepDeliveringWhileSubscribersStall() throws Exception {
+        properties.setWriteTimeout(Duration.ofMillis(50));
+        var meterRegistry = new SimpleMeterRegistry();
+        hub = new EventStreamHub(properties, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+        var filter = new EventStreamHub.Filter(null, null, null);
+        try {
+            var stalledEmitters = new ArrayList<StalledEmitter>();
+            for (int i = 0; i < 5; i++) {
+                var stalledEmitter = new StalledEmitter();
+                hub.subscribe(filter, null, stalledEmitter);
+                assertTrue(stalledEmitter.entered.await(5, TimeUnit.SECONDS));
+                stalledEmitters.add(stalledEmitter);
+            }
+            var healthy = new RecordingEmitter();
+            hub.subscribe(filter, null, healthy);
+
+            hub.onEmployeeEvent(event(1L, EmployeeEvent.EventType.HIRED));
+
+            assertTrue(healthy.awaitSent("\"employeeId\":1"));
+            assertTrue(healthy.sentFromVirtualThreads);
+            Thread.sleep(100);
+            hub.disconnectStalledSubscribers();
+            for (StalledEmitter stalledEmitter : stalledEmitters) {
+                assertTrue(stalledEmitter.aborted.await(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, hub.getSubscriberCount());
+            assertEquals(5, meterRegistry.get("hr.events.stream.disconnected.stalled").counter().count());
+
+            hub.onEmployeeEvent(event(2L, EmployeeEvent.EventType.HIRED));
+            assertTrue(healthy.awaitSent("\"employeeId\":2"));
+        } finally {
+            hub.shutdown();
+        }
+    }
+
+    private void createHub() {
+        var objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        hub = new EventStreamHub(properties, objectMapper, executor, new SimpleMeterRegistry());
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventStreamController(hub)).build();
+    }
+
+    private MockHttpServletResponse subscribe(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static EmployeeEvent event(Long employeeId, EmployeeEvent.EventType type, Long... departmentIds) {
+        var employee = new Employee();
+        employee.setId(employeeId);
+        employee.setFirstName("Employee");
+        employee.setLastName(String.valueOf(employeeId));
+        for (Long departmentId : departmentIds) {
+            var department = new Department();
+            department.setId(departmentId);
+            employee.getDepartments().add(department);
+        }
+        return new EmployeeEvent(employee, type, "Test event", null, null);
+    }
+
+    private static int count(String content, String token) {
+        return content.split(token, -1).length - 1;
+    }
+
+    // Blocks in send like a client that stopped reading, until its writer is interrupted
+    private static final class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch aborted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                aborted.countDown();
+                throw new IOException("Write aborted");
+            }
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private volatile boolean sentFromVirtualThreads = true;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sentFromVirtualThreads &= Thread.currentThread().isVirtual();
+            sent.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        boolean awaitSent(String token) throws InterruptedException {
+            String event;
+            while ((event = sent.poll(5, TimeUnit.SECONDS)) != null) {
+                if (event.contains(token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
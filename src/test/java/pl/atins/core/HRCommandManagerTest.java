@@ -0,0 +1,277 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import pl.atins.config.CommandHistoryProperties;
+import pl.atins.config.CommandJournalProperties;
+import pl.atins.config.ConflictRetryProperties;
+import pl.atins.domain.Employee;
+import pl.atins.repository.EmployeeRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HRCommandManagerTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    private CommandHistoryProperties properties;
+    private HRCommandManager commandManager;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CommandHistoryProperties();
+        properties.setMaxEntriesPerActor(3);
+        commandManager = new HRCommandManager(employeeRepository, eventPublisher, properties, transactionManager,
+                new CommandJournal(new CommandJournalProperties(), properties),
+                new ConflictRetryExecutor(new ConflictRetryProperties(), new SimpleMeterRegistry()), changeTracker);
+
+        employee = new Employee();
+        employee.setId(1L);
+        employee.setFirstName("John");
+        employee.setLastName("Doe");
+        employee.setEmail("john.doe@company.com");
+        employee.setJobTitle("Developer");
+        employee.setSalary(new BigDecimal("50000"));
+        employee.setHireDate(LocalDate.now());
+    }
+
+    @Test
+    void shouldKeepSeparateHistoryPerActor() {
+        commandManager.executeCommand("alice", promote("Senior Developer"));
+        commandManager.executeCommand("alice", promote("Lead Developer"));
+        commandManager.executeCommand("bob", promote("Architect"));
+
+        assertEquals(2, commandManager.getHistorySize("alice"));
+        assertEquals(1, commandManager.getHistorySize("bob"));
+        assertFalse(commandManager.canUndo("carol"));
+        assertTrue(commandManager.undoLastCommand("carol").isEmpty());
+    }
+
+    @Test
+    void shouldUndoOnlyTheCallersLastCommand() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        commandManager.executeCommand("alice", promote("Senior Developer"));
+        commandManager.executeCommand("bob", new PromoteEmployeeCommand(employee, "Lead Developer",
+                new BigDecimal("5000"), employeeRepository, eventPublisher));
+
+        var undone = commandManager.undoLastCommand("bob");
+
+        assertTrue(undone.isPresent());
+        assertEquals("bob", undone.get().getActor());
+        assertEquals("Senior Developer", employee.getJobTitle());
+        assertEquals(new BigDecimal("50000"), employee.getSalary());
+        assertEquals(1, commandManager.getHistorySize("alice"));
+        assertEquals(0, commandManager.getHistorySize("bob"));
+    }
+
+    @Test
+    void shouldEvictOldestEntriesBeyondCapacity() {
+        for (int i = 0; i < 5; i++) {
+            commandManager.executeCommand("alice", promote("Title " + i));
+        }
+
+        assertEquals(3, commandManager.getHistorySize("alice"));
+    }
+
+    @Test
+    void shouldStoreCompactRecordsInsteadOfEntities() {
+        var record = commandManager.executeCommand("alice", promote("Senior Developer"));
+
+        var undoRecord = assertInstanceOf(PromotionUndoRecord.class, record.getUndoRecord());
+        assertEquals(1L, undoRecord.getEmployeeId());
+        assertEquals("Developer", undoRecord.getPreviousJobTitle());
+        assertEquals("Senior Developer", undoRecord.getNewJobTitle());
+    }
+
+    @Test
+    void shouldRefuseUndoWhenEmployeeChangedSinceCommand() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        commandManager.executeCommand("alice", promote("Senior Developer"));
+        employee.setJobTitle("Manager");
+
+        assertThrows(IllegalStateException.class, () -> commandManager.undoLastCommand("alice"));
+        assertEquals(1, commandManager.getHistorySize("alice"));
+        assertEquals("Manager", employee.getJobTitle());
+    }
+
+    @Test
+    void shouldForgetCommandThatCouldNotBeJournaled() {
+        var journal = mock(CommandJournal.class);
+        doThrow(new UncheckedIOException(new IOException("No space left on device"))).when(journal).recordExecuted(any());
+        var manager = managerWith(journal);
+
+        assertThrows(UncheckedIOException.class, () -> manager.executeCommand("alice", promote("Senior Developer")));
+        assertEquals(0, manager.getHistorySize("alice"));
+    }
+
+    @Test
+    void shouldKeepCommandWhenUndoCannotBeJournaled() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        var journal = mock(CommandJournal.class);
+        doThrow(new UncheckedIOException(new IOException("No space left on device"))).when(journal).recordUndone(any());
+        var manager = managerWith(journal);
+        manager.executeCommand("alice", promote("Senior Developer"));
+
+        assertThrows(UncheckedIOException.class, () -> manager.undoLastCommand("alice"));
+        assertEquals(1, manager.getHistorySize("alice"));
+    }
+
+    @Test
+    void shouldForgetCommandWhoseTransactionFailedToCommitAfterJournaling() {
+        var journal = mock(CommandJournal.class);
+        var transactionManager = new FailingCommitTransactionManager();
+        transactionManager.failCommit = true;
+        var manager = managerWith(journal, transactionManager);
+
+        assertThrows(TransactionSystemException.class,
+                () -> manager.executeCommand("alice", promote("Senior Developer")));
+
+        assertEquals(0, manager.getHistorySize("alice"));
+        var inOrder = inOrder(journal);
+        inOrder.verify(journal).recordExecuted(any());
+        inOrder.verify(journal).recordUndone(any());
+    }
+
+    @Test
+    void shouldJournalCommandAgainWhenUndoFailedToCommit() {
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        var journal = mock(CommandJournal.class);
+        var transactionManager = new FailingCommitTransactionManager();
+        var manager = managerWith(journal, transactionManager);
+        var record = manager.executeCommand("alice", promote("Senior Developer"));
+        transactionManager.failCommit = true;
+
+        assertThrows(TransactionSystemException.class, () -> manager.undoLastCommand("alice"));
+
+        assertEquals(1, manager.getHistorySize("alice"));
+        var inOrder = inOrder(journal);
+        inOrder.verify(journal).recordExecuted(record);
+        inOrder.verify(journal).recordUndone(record);
+        inOrder.verify(journal).recordExecuted(record);
+    }
+
+    @Test
+    void shouldEvictIdleActors() {
+        commandManager.executeCommand("alice", promote("Senior Developer"));
+        properties.setIdleTimeout(Duration.ZERO);
+
+        commandManager.evictIdleHistories();
+
+        assertEquals(0, commandManager.getActorCount());
+    }
+
+    @Test
+    void shouldKeepCommandWhoseUndoFailedAfterHistoryWasEvicted() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        commandManager.executeCommand("alice", promote("Senior Developer"));
+        properties.setIdleTimeout(Duration.ZERO);
+        when(employeeRepository.findById(1L)).thenAnswer(invocation -> {
+            // The sweep runs while the undo is in flight and drops the history it just emptied
+            commandManager.evictIdleHistories();
+            employee.setJobTitle("Manager");
+            return Optional.of(employee);
+        });
+
+        assertThrows(IllegalStateException.class, () -> commandManager.undoLastCommand("alice"));
+        assertEquals(1, commandManager.getHistorySize("alice"));
+        assertTrue(commandManager.canUndo("alice"));
+    }
+
+    @Test
+    void shouldCapNumberOfTrackedActors() {
+        properties.setMaxActors(2);
+        commandManager.executeCommand("alice", promote("A"));
+        commandManager.executeCommand("bob", promote("B"));
+        commandManager.executeCommand("carol", promote("C"));
+
+        commandManager.evictIdleHistories();
+
+        assertEquals(2, commandManager.getActorCount());
+        assertFalse(commandManager.canUndo("alice"));
+        assertTrue(commandManager.canUndo("carol"));
+    }
+
+    @Test
+    void shouldClearOnlyCallersHistory() {
+        commandManager.executeCommand("alice", promote("A"));
+        commandManager.executeCommand("bob", promote("B"));
+
+        commandManager.clearHistory("alice");
+
+        assertEquals(0, commandManager.getHistorySize("alice"));
+        assertEquals(1, commandManager.getHistorySize("bob"));
+    }
+
+    private HRCommandManager managerWith(CommandJournal journal) {
+        return managerWith(journal, transactionManager);
+    }
+
+    private HRCommandManager managerWith(CommandJournal journal, PlatformTransactionManager transactionManager) {
+        return new HRCommandManager(employeeRepository, eventPublisher, properties, transactionManager, journal,
+                new ConflictRetryExecutor(new ConflictRetryProperties(), new SimpleMeterRegistry()), changeTracker);
+    }
+
+    private PromoteEmployeeCommand promote(String newJobTitle) {
+        return new PromoteEmployeeCommand(employee, newJobTitle, null, employeeRepository, eventPublisher);
+    }
+
+    // Runs transaction synchronizations like a real manager; the commit itself can be made to fail
+    private static class FailingCommitTransactionManager extends AbstractPlatformTransactionManager {
+
+        private boolean failCommit;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failCommit) {
+                throw new TransactionSystemException("Commit failed");
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
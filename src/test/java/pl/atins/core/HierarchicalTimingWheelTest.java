@@ -0,0 +1,159 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private MutableClock clock;
+    private HierarchicalTimingWheel<Long> wheel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 8, 2, clock);
+    }
+
+    @Test
+    void shouldExpireEntriesAtTheirTick() {
+        wheel.schedule(1L, START.plusSeconds(3));
+        wheel.schedule(2L, START.plusSeconds(5));
+
+        assertTrue(advanceTo(START.plusSeconds(2)).isEmpty());
+        assertEquals(List.of(1L), advanceTo(START.plusSeconds(3)));
+        assertEquals(List.of(2L), advanceTo(START.plusSeconds(5)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldCascadeEntriesFromHigherLevels() {
+        wheel.schedule(1L, START.plusSeconds(20));
+        wheel.schedule(2L, START.plusSeconds(63));
+
+        assertTrue(advanceTo(START.plusSeconds(19)).isEmpty());
+        assertEquals(List.of(1L), advanceTo(START.plusSeconds(20)));
+        assertTrue(advanceTo(START.plusSeconds(62)).isEmpty());
+        assertEquals(List.of(2L), advanceTo(START.plusSeconds(63)));
+    }
+
+    @Test
+    void shouldKeepEntriesBeyondHorizonInOverflow() {
+        wheel.schedule(1L, START.plusSeconds(500));
+
+        assertTrue(advanceTo(START.plusSeconds(499)).isEmpty());
+        assertEquals(List.of(1L), advanceTo(START.plusSeconds(500)));
+    }
+
+    @Test
+    void shouldExpireEachEntryExactlyOnceAcrossManyDeadlines() {
+        var expected = new ArrayList<Long>();
+        for (long second = 1; second <= 300; second++) {
+            wheel.schedule(second, START.plusSeconds(second).minusMillis(300));
+            expected.add(second);
+        }
+
+        var expired = new ArrayList<Long>();
+        for (int second = 1; second <= 300; second++) {
+            var batch = advanceTo(START.plusSeconds(second));
+            assertEquals(List.of((long) second), batch);
+            expired.addAll(batch);
+        }
+
+        assertEquals(expected, expired);
+    }
+
+    @Test
+    void shouldExpireOverdueEntriesOnNextAdvance() {
+        clock.set(START.plusSeconds(100));
+        wheel.schedule(1L, START);
+
+        assertEquals(List.of(1L), wheel.advance());
+    }
+
+    @Test
+    void shouldBatchEverythingDueAfterAStall() {
+        wheel.schedule(1L, START.plusSeconds(2));
+        wheel.schedule(2L, START.plusSeconds(30));
+        wheel.schedule(3L, START.plusSeconds(90));
+
+        assertEquals(List.of(1L, 2L), advanceTo(START.plusSeconds(45)));
+    }
+
+    @Test
+    void shouldSkipCancelledAndRescheduledEntries() {
+        wheel.schedule(1L, START.plusSeconds(2));
+        wheel.schedule(2L, START.plusSeconds(2));
+        wheel.schedule(2L, START.plusSeconds(4));
+
+        assertTrue(wheel.cancel(1L));
+        assertFalse(wheel.cancel(99L));
+
+        assertTrue(advanceTo(START.plusSeconds(3)).isEmpty());
+        assertEquals(List.of(2L), advanceTo(START.plusSeconds(4)));
+    }
+
+    @Test
+    void shouldDeliverBatchesFromTickerThread() throws InterruptedException {
+        var realWheel = new HierarchicalTimingWheel<Long>(Duration.ofMillis(10), 8, 2, Clock.systemUTC());
+        var delivered = new CopyOnWriteArrayList<Long>();
+        realWheel.schedule(1L, Instant.now().plusMillis(30));
+        realWheel.schedule(2L, Instant.now().plusMillis(30));
+
+        realWheel.start("timing-wheel-test", delivered::addAll);
+        try {
+            for (int i = 0; i < 100 && delivered.size() < 2; i++) {
+                Thread.sleep(10);
+            }
+        } finally {
+            realWheel.stop();
+        }
+
+        assertEquals(List.of(1L, 2L), delivered.stream().sorted().toList());
+    }
+
+    private List<Long> advanceTo(Instant instant) {
+        clock.set(instant);
+        return wheel.advance();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package pl.atins.core;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import pl.atins.config.IdempotencyProperties;
+import pl.atins.domain.IdempotencyRecord;
+import pl.atins.repository.IdempotencyRecordRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyProperties properties;
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        store = new IdempotencyStore(repository, properties);
+        filter = new IdempotencyFilter(store, properties);
+        executions = new AtomicInteger();
+        lenient().when(repository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void shouldExecuteOnceAndReplayDuplicate() throws Exception {
+        var first = perform(adjustSalary("key-1", "{\"amount\":100}"), handler(200, "55100.00"));
+        var second = perform(adjustSalary("key-1", "{\"amount\":100}"), handler(200, "55200.00"));
+
+        assertEquals(1, executions.get());
+        assertEquals("55100.00", first.getContentAsString());
+        assertEquals(200, second.getStatus());
+        assertEquals("55100.00", second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(repository).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldReplayFromPersistedRecordAfterCacheMiss() throws Exception {
+        perform(adjustSalary("key-1", "{\"amount\":100}"), handler(200, "55100.00"));
+        var persisted = new IdempotencyRecord();
+        persisted.setKey("key-1");
+        persisted.setStatusCode(200);
+        persisted.setContentType("application/json");
+        persisted.setResponseBody("55100.00".getBytes(StandardCharsets.UTF_8));
+        persisted.setCreatedAt(Instant.now());
+        persisted.setFingerprint(store.find("key-1").orElseThrow().getFingerprint());
+
+        var restartedStore = new IdempotencyStore(repository, properties);
+        when(repository.findById("key-1")).thenReturn(Optional.of(persisted));
+        var response = new MockHttpServletResponse();
+        new IdempotencyFilter(restartedStore, properties)
+                .doFilter(adjustSalary("key-1", "{\"amount\":100}"), response, handler(200, "other"));
+
+        assertEquals(1, executions.get());
+        assertEquals("55100.00", response.getContentAsString());
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() throws Exception {
+        perform(adjustSalary("key-1", "{\"amount\":100}"), handler(200, "55100.00"));
+
+        var response = perform(adjustSalary("key-1", "{\"amount\":500}"), handler(200, "55600.00"));
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldRejectConcurrentDuplicateWhileInFlight() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var slow = (FilterChain) (request, response) -> {
+            executions.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) response).setStatus(200);
+        };
+
+        var worker = Thread.ofPlatform().start(() -> {
+            try {
+                filter.doFilter(adjustSalary("key-1", "{}"), new MockHttpServletResponse(), slow);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        entered.await();
+
+        var duplicate = perform(adjustSalary("key-1", "{}"), handler(200, "ignored"));
+        release.countDown();
+        worker.join();
+
+        assertEquals(409, duplicate.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldNotStoreServerErrorsOrConflicts() throws Exception {
+        perform(adjustSalary("key-1", "{}"), handler(500, "boom"));
+        perform(adjustSalary("key-1", "{}"), handler(409, "conflict"));
+        perform(adjustSalary("key-1", "{}"), handler(200, "ok"));
+
+        assertEquals(3, executions.get());
+        verify(repository, times(1)).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldStoreClientErrors() throws Exception {
+        perform(adjustSalary("key-1", "{}"), handler(400, "bad"));
+        var replay = perform(adjustSalary("key-1", "{}"), handler(200, "ok"));
+
+        assertEquals(1, executions.get());
+        assertEquals(400, replay.getStatus());
+    }
+
+    @Test
+    void shouldIgnoreRequestsWithoutKeyOrWithSafeMethod() throws Exception {
+        var request = adjustSalary(null, "{}");
+        perform(request, handler(200, "ok"));
+        perform(adjustSalary(null, "{}"), handler(200, "ok"));
+        var get = new MockHttpServletRequest("GET", "/api/employees/1");
+        get.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        perform(get, handler(200, "ok"));
+
+        assertEquals(3, executions.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void shouldTreatExpiredRecordsAsMissing() throws Exception {
+        properties.setTtl(Duration.ZERO);
+        perform(adjustSalary("key-1", "{}"), handler(200, "first"));
+
+        var second = perform(adjustSalary("key-1", "{}"), handler(200, "second"));
+
+        assertEquals(2, executions.get());
+        assertEquals("second", second.getContentAsString());
+    }
+
+    @Test
+    void shouldPassCachedBodyToHandler() throws Exception {
+        var seen = new StringBuilder();
+        perform(adjustSalary("key-1", "{\"amount\":100}"), (request, response) -> {
+            executions.incrementAndGet();
+            seen.append(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        });
+
+        assertEquals("{\"amount\":100}", seen.toString());
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain handler(int status, String body) {
+        return (ServletRequest request, ServletResponse response) -> {
+            executions.incrementAndGet();
+            var httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(status);
+            httpResponse.setContentType("application/json");
+            httpResponse.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest adjustSalary(String key, String body) {
+        var request = new MockHttpServletRequest("POST", "/api/employees/1/salary/adjust");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,59 @@
+package pl.atins.core;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import pl.atins.config.NotificationProperties;
+import pl.atins.domain.Employee;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailNotificationTransportTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailNotificationTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        transport = new MailNotificationTransport(mailSender, new NotificationProperties());
+    }
+
+    @Test
+    void shouldDeliverDigestAsSingleMail() throws Exception {
+        var digest = new NotificationDigest("jane.boss@company.com", Instant.now());
+        digest.add(new EmployeeEvent(employee(1L, "John", "Doe"), EmployeeEvent.EventType.HIRED,
+                "New employee hired", null, null));
+        digest.add(new EmployeeEvent(employee(2L, "Carol", "Davis"), EmployeeEvent.EventType.PROMOTED,
+                "Employee promoted", "Developer", "Senior Developer"));
+
+        transport.send(digest);
+
+        var messages = greenMail.getReceivedMessages();
+        assertEquals(1, messages.length);
+        assertEquals("HR update: 2 changes", messages[0].getSubject());
+        assertEquals("jane.boss@company.com", messages[0].getAllRecipients()[0].toString());
+        var body = GreenMailUtil.getBody(messages[0]);
+        assertTrue(body.contains("HIRED: John Doe"));
+        assertTrue(body.contains("PROMOTED: Carol Davis"));
+    }
+
+    private Employee employee(Long id, String firstName, String lastName) {
+        var employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        return employee;
+    }
+}
@@ -0,0 +1,177 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.atins.config.NotificationProperties;
+import pl.atins.domain.Employee;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationObserverTest {
+
+    private final List<NotificationDigest> sent = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationProperties properties;
+    private NotificationObserver observer;
+    private Employee supervisor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new NotificationProperties();
+        properties.setWindow(Duration.ofSeconds(30));
+        properties.setBurst(2);
+        properties.setRatePerSecond(0.001);
+        observer = new NotificationObserver(sent::add, properties, meterRegistry);
+
+        supervisor = employee(100L, "Jane", "Boss");
+        supervisor.setEmail("jane.boss@company.com");
+    }
+
+    @Test
+    void shouldCoalesceEventsPerRecipientIntoOneDigest() {
+        for (long id = 1; id <= 50; id++) {
+            var employee = employee(id, "Employee", "No" + id);
+            employee.setSupervisor(supervisor);
+            observer.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.DEPARTMENT_CHANGED,
+                    "Employee assigned to department", null, "IT"));
+        }
+
+        observer.flush(Instant.now().plusSeconds(31), false);
+
+        assertEquals(2, sent.size());
+        var supervisorDigest = sent.stream()
+                .filter(digest -> digest.getRecipient().equals("jane.boss@company.com"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(50, supervisorDigest.size());
+        assertEquals(2, meterRegistry.get("hr.notifications.digest.size").summary().count());
+        assertEquals(100, meterRegistry.get("hr.notifications.digest.size").summary().totalAmount());
+    }
+
+    @Test
+    void shouldNotSendBeforeWindowElapses() {
+        observer.onEmployeeEvent(new EmployeeEvent(employee(1L, "John", "Doe"),
+                EmployeeEvent.EventType.HIRED, "New employee hired", null, null));
+
+        observer.flush(Instant.now(), false);
+
+        assertTrue(sent.isEmpty());
+        assertEquals(1, observer.pendingRecipients());
+    }
+
+    @Test
+    void shouldFoldRepeatedEventsForSameEmployeeIntoOneChange() {
+        var employee = employee(1L, "John", "Doe");
+        observer.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED,
+                "Employee promoted", "Developer", "Senior Developer"));
+        observer.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED,
+                "Employee promoted", "Senior Developer", "Lead Developer"));
+
+        observer.flush(Instant.now().plusSeconds(31), false);
+
+        assertEquals(1, sent.size());
+        var digest = sent.get(0);
+        assertEquals(1, digest.size());
+        var change = digest.getChangeList().get(0);
+        assertEquals(2, change.count());
+        assertEquals("Developer", change.oldValue());
+        assertEquals("Lead Developer", change.newValue());
+        assertTrue(digest.render().endsWith("(2 changes: Developer -> Lead Developer)"));
+        assertEquals(1.0, meterRegistry.get("hr.notifications.events.deduplicated").counter().count());
+    }
+
+    @Test
+    void shouldHoldBackDigestsWhenRateLimited() {
+        for (long id = 1; id <= 3; id++) {
+            var manager = employee(200L + id, "Manager", "No" + id);
+            manager.setEmail("manager" + id + "@company.com");
+            var employee = employee(id, "Employee", "No" + id);
+            employee.setSupervisor(manager);
+            observer.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.HIRED,
+                    "New employee hired", null, employee));
+        }
+
+        observer.flush(Instant.now().plusSeconds(31), false);
+
+        assertEquals(2, sent.size());
+        assertEquals(2, observer.pendingRecipients());
+        assertEquals(1.0, meterRegistry.get("hr.notifications.digests.rate_limited").counter().count());
+    }
+
+    @Test
+    void shouldFlushEverythingOnShutdown() {
+        observer.onEmployeeEvent(new EmployeeEvent(employee(1L, "John", "Doe"),
+                EmployeeEvent.EventType.TERMINATED, "Employee terminated", null, null));
+
+        observer.flushAll();
+
+        assertEquals(1, sent.size());
+        assertEquals(0, observer.pendingRecipients());
+    }
+
+    @Test
+    void shouldRequeueDigestWhenTransportFails() {
+        var failingObserver = new NotificationObserver(digest -> {
+            throw new IllegalStateException("SMTP unavailable");
+        }, properties, meterRegistry);
+        failingObserver.onEmployeeEvent(new EmployeeEvent(employee(1L, "John", "Doe"),
+                EmployeeEvent.EventType.HIRED, "New employee hired", null, null));
+
+        failingObserver.flush(Instant.now().plusSeconds(31), false);
+
+        assertEquals(1, failingObserver.pendingRecipients());
+        assertEquals(1.0, meterRegistry.get("hr.notifications.digests.failed").counter().count());
+    }
+
+    @Test
+    void shouldBackOffBetweenAttemptsAndDropDigestAfterLastOne() {
+        properties.setBurst(100);
+        properties.getRetry().setMaxAttempts(3);
+        properties.getRetry().setInitialBackoff(Duration.ofSeconds(10));
+        var failingObserver = new NotificationObserver(digest -> {
+            throw new IllegalStateException("SMTP unavailable");
+        }, properties, meterRegistry);
+        failingObserver.onEmployeeEvent(new EmployeeEvent(employee(1L, "John", "Doe"),
+                EmployeeEvent.EventType.HIRED, "New employee hired", null, null));
+        var due = Instant.now().plusSeconds(31);
+
+        failingObserver.flush(due, false);
+        failingObserver.flush(due.plusSeconds(9), false);
+        assertEquals(1.0, meterRegistry.get("hr.notifications.digests.failed").counter().count());
+
+        failingObserver.flush(due.plusSeconds(10), false);
+        failingObserver.flush(due.plusSeconds(29), false);
+        assertEquals(2.0, meterRegistry.get("hr.notifications.digests.failed").counter().count());
+        assertEquals(1, failingObserver.pendingRecipients());
+
+        failingObserver.flush(due.plusSeconds(30), false);
+        assertEquals(3.0, meterRegistry.get("hr.notifications.digests.failed").counter().count());
+        assertEquals(0, failingObserver.pendingRecipients());
+        assertEquals(1.0, meterRegistry.get("hr.notifications.digests.abandoned").counter().count());
+    }
+
+    @Test
+    void shouldOnlyBeInterestedInNotifiableEvents() {
+        assertTrue(observer.isInterestedIn(EmployeeEvent.EventType.SUPERVISOR_ASSIGNED));
+        assertTrue(observer.isInterestedIn(EmployeeEvent.EventType.DEPARTMENT_CHANGED));
+        assertFalse(observer.isInterestedIn(EmployeeEvent.EventType.SALARY_ADJUSTED));
+    }
+
+    private Employee employee(Long id, String firstName, String lastName) {
+        var employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@company.com");
+        employee.setSalary(new BigDecimal("50000"));
+        return employee;
+    }
+}
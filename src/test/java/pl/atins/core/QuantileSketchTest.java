@@ -0,0 +1,95 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    void shouldStayWithinRelativeAccuracy() {
+        var random = new SplittableRandom(7);
+        var salaries = new double[100_000];
+        var sketch = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = Math.exp(11 + 0.5 * random.nextGaussian(0, 1));
+            sketch.add(salaries[i]);
+        }
+        Arrays.sort(salaries);
+
+        for (double quantile : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            var exact = salaries[(int) (quantile * (salaries.length - 1))];
+            assertEquals(exact, sketch.quantile(quantile), exact * ACCURACY, "quantile " + quantile);
+        }
+        assertEquals(salaries.length, sketch.getCount());
+    }
+
+    @Test
+    void shouldForgetRemovedValues() {
+        var sketch = new QuantileSketch(ACCURACY);
+        for (int salary = 40_000; salary <= 60_000; salary += 1_000) {
+            sketch.add(salary);
+        }
+        sketch.add(1_000_000);
+
+        assertTrue(sketch.remove(1_000_000));
+        assertFalse(sketch.remove(1_000_000));
+        assertFalse(sketch.remove(5));
+
+        assertEquals(21, sketch.getCount());
+        assertEquals(60_000, sketch.quantile(1), 60_000 * ACCURACY);
+        assertEquals(50_000, sketch.quantile(0.5), 50_000 * ACCURACY);
+    }
+
+    @Test
+    void shouldMergeToSameResultAsSingleSketch() {
+        var random = new SplittableRandom(11);
+        var whole = new QuantileSketch(ACCURACY);
+        var low = new QuantileSketch(ACCURACY);
+        var high = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < 10_000; i++) {
+            var salary = 20_000 + random.nextDouble() * 480_000;
+            whole.add(salary);
+            (salary < 100_000 ? low : high).add(salary);
+        }
+
+        low.merge(high);
+
+        assertEquals(whole.getCount(), low.getCount());
+        for (double quantile : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(whole.quantile(quantile), low.quantile(quantile));
+        }
+    }
+
+    @Test
+    void shouldKeepCopiesIndependent() {
+        var sketch = new QuantileSketch(ACCURACY);
+        sketch.add(50_000);
+        var copy = sketch.copy();
+
+        sketch.add(90_000);
+
+        assertEquals(1, copy.getCount());
+        assertEquals(2, sketch.getCount());
+    }
+
+    @Test
+    void shouldHandleEmptyAndZeroValues() {
+        var sketch = new QuantileSketch(ACCURACY);
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(70_000);
+
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(70_000, sketch.quantile(1), 70_000 * ACCURACY);
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0));
+    }
+}
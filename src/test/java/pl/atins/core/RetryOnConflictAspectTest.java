@@ -0,0 +1,119 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.atins.config.ConflictRetryProperties;
+import pl.atins.domain.Employee;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryOnConflictAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictRetryProperties properties;
+    private ConflictingService target;
+    private ConflictingService proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConflictRetryProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(2));
+
+        target = new ConflictingService();
+        var factory = new AspectJProxyFactory(target);
+        factory.addAspect(new RetryOnConflictAspect(new ConflictRetryExecutor(properties, meterRegistry)));
+        proxy = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void shouldRetryUntilAttemptSucceeds() {
+        target.conflictsBeforeSuccess = 2;
+
+        assertEquals("done", proxy.update());
+
+        assertEquals(3, target.invocations);
+        assertEquals(2, count("hr.concurrency.conflicts"));
+        assertEquals(2, count("hr.concurrency.retries"));
+        assertEquals(0, count("hr.concurrency.retries.exhausted"));
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        target.conflictsBeforeSuccess = 10;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.update());
+
+        assertEquals(properties.getMaxAttempts(), target.invocations);
+        assertEquals(1, count("hr.concurrency.retries.exhausted"));
+    }
+
+    @Test
+    void shouldNotRetryInsideOuterTransaction() {
+        target.conflictsBeforeSuccess = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.update());
+
+        assertEquals(1, target.invocations);
+        assertEquals(1, count("hr.concurrency.conflicts"));
+        assertEquals(0, count("hr.concurrency.retries"));
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        assertThrows(IllegalArgumentException.class, () -> proxy.fail());
+
+        assertEquals(1, target.invocations);
+        assertEquals(0, count("hr.concurrency.conflicts"));
+    }
+
+    @Test
+    void shouldTagMetricsWithOperation() {
+        target.conflictsBeforeSuccess = 1;
+
+        proxy.update();
+
+        assertEquals(1, meterRegistry.get("hr.concurrency.retries")
+                .tag("operation", "ConflictingService.update").counter().count());
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    static class ConflictingService {
+
+        int conflictsBeforeSuccess;
+        int invocations;
+
+        @RetryOnConflict
+        public String update() {
+            invocations++;
+            if (invocations <= conflictsBeforeSuccess) {
+                throw new ObjectOptimisticLockingFailureException(Employee.class, 1L);
+            }
+            return "done";
+        }
+
+        @RetryOnConflict
+        public String fail() {
+            invocations++;
+            throw new IllegalArgumentException("Employee not found");
+        }
+    }
+}
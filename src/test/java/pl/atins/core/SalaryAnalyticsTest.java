@@ -0,0 +1,156 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import pl.atins.config.SalaryAnalyticsProperties;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryAnalyticsTest {
+
+    private static final double ACCURACY = 0.01;
+
+    private JdbcTemplate jdbcTemplate;
+    private SalaryAnalytics salaryAnalytics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:salary-analytics;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE employee (id BIGINT PRIMARY KEY, job_title VARCHAR(255), " +
+                "salary NUMERIC(38, 2))");
+        jdbcTemplate.execute("CREATE TABLE employee_department (employee_id BIGINT, department_id BIGINT)");
+        var properties = new SalaryAnalyticsProperties();
+        properties.setRelativeAccuracy(ACCURACY);
+        properties.setThreads(3);
+        salaryAnalytics = new SalaryAnalytics(jdbcTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void shouldRebuildFromTablesInParallel() {
+        for (long id = 1; id <= 1_000; id++) {
+            var title = id % 2 == 0 ? "Developer" : "Analyst";
+            jdbcTemplate.update("INSERT INTO employee VALUES (?, ?, ?)", id, title, 40_000 + id * 100);
+            jdbcTemplate.update("INSERT INTO employee_department VALUES (?, ?)", id, id <= 500 ? 1L : 2L);
+        }
+
+        salaryAnalytics.rebuild();
+
+        var snapshot = salaryAnalytics.snapshot();
+        assertNotNull(snapshot.rebuiltAt());
+        assertEquals(500, snapshot.departments().get(1L).getCount());
+        assertEquals(500, snapshot.jobTitles().get("Developer").getCount());
+        assertEquals(65_000, snapshot.departments().get(1L).quantile(0.5), 65_000 * ACCURACY);
+        assertEquals(115_000, snapshot.departments().get(2L).quantile(0.5), 115_000 * ACCURACY);
+        assertEquals(130_000, snapshot.jobTitles().get("Analyst").quantile(0.9), 130_000 * ACCURACY);
+    }
+
+    @Test
+    void shouldFollowHiresAdjustmentsAndTerminations() {
+        var employee = employee(1L, "Developer", "50000", 3L);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.HIRED, "Hired", null,
+                employee));
+        var colleague = employee(2L, "Developer", "70000", 3L);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(colleague, EmployeeEvent.EventType.HIRED, "Hired", null,
+                colleague));
+
+        employee.setSalary(new BigDecimal("90000"));
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.SALARY_ADJUSTED,
+                "Raise", new BigDecimal("50000"), new BigDecimal("90000")));
+
+        var department = salaryAnalytics.snapshot().departments().get(3L);
+        assertEquals(2, department.getCount());
+        assertEquals(70_000, department.quantile(0), 70_000 * ACCURACY);
+        assertEquals(90_000, department.quantile(1), 90_000 * ACCURACY);
+
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(colleague, EmployeeEvent.EventType.TERMINATED,
+                "Terminated", colleague, null));
+
+        var snapshot = salaryAnalytics.snapshot();
+        assertEquals(1, snapshot.departments().get(3L).getCount());
+        assertEquals(90_000, snapshot.jobTitles().get("Developer").quantile(0.5), 90_000 * ACCURACY);
+    }
+
+    @Test
+    void shouldMovePromotionRaiseWithinTheTitleItWasCountedIn() {
+        var employee = employee(1L, "Developer", "50000", 3L);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.HIRED, "Hired", null,
+                employee));
+        var lead = employee(2L, "Lead Developer", "95000", 3L);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(lead, EmployeeEvent.EventType.HIRED, "Hired", null, lead));
+
+        // As in a promotion: the raise is published first, the title changes before observers see the events
+        employee.setSalary(new BigDecimal("60000"));
+        var raise = new EmployeeEvent(employee, EmployeeEvent.EventType.SALARY_ADJUSTED, "Promotion bonus",
+                new BigDecimal("50000"), new BigDecimal("60000"));
+        employee.setJobTitle("Lead Developer");
+        salaryAnalytics.onEmployeeEvent(raise);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.PROMOTED, "Promoted",
+                "Developer", "Lead Developer"));
+
+        var jobTitles = salaryAnalytics.snapshot().jobTitles();
+        assertEquals(1, jobTitles.get("Developer").getCount());
+        assertEquals(60_000, jobTitles.get("Developer").quantile(0.5), 60_000 * ACCURACY);
+        assertEquals(1, jobTitles.get("Lead Developer").getCount());
+        assertEquals(95_000, jobTitles.get("Lead Developer").quantile(0.5), 95_000 * ACCURACY);
+    }
+
+    @Test
+    void shouldReplayEventsOnRebuiltSketches() {
+        jdbcTemplate.update("INSERT INTO employee VALUES (1, 'Developer', 50000)");
+        jdbcTemplate.update("INSERT INTO employee_department VALUES (1, 3)");
+        salaryAnalytics.rebuild();
+
+        var hired = employee(2L, "Developer", "80000", 3L);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(hired, EmployeeEvent.EventType.HIRED, "Hired", null, hired));
+
+        assertEquals(2, salaryAnalytics.snapshot().departments().get(3L).getCount());
+        assertFalse(salaryAnalytics.isInterestedIn(EmployeeEvent.EventType.SUPERVISOR_ASSIGNED));
+        assertTrue(salaryAnalytics.isSynchronous());
+    }
+
+    @Test
+    void shouldLeaveOutEmptyGroups() {
+        var employee = employee(1L, "Developer", "50000", 3L);
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.HIRED, "Hired", null,
+                employee));
+        salaryAnalytics.onEmployeeEvent(new EmployeeEvent(employee, EmployeeEvent.EventType.TERMINATED,
+                "Terminated", employee, null));
+
+        var snapshot = salaryAnalytics.snapshot();
+        assertTrue(snapshot.departments().isEmpty());
+        assertTrue(snapshot.jobTitles().isEmpty());
+    }
+
+    private static Employee employee(Long id, String jobTitle, String salary, Long... departmentIds) {
+        var employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName("Test");
+        employee.setLastName("Employee" + id);
+        employee.setJobTitle(jobTitle);
+        employee.setSalary(new BigDecimal(salary));
+        employee.setDepartments(new HashSet<>());
+        for (Long departmentId : List.of(departmentIds)) {
+            var department = new Department();
+            department.setId(departmentId);
+            department.setEmployees(new HashSet<>(Set.of()));
+            employee.getDepartments().add(department);
+        }
+        return employee;
+    }
+}
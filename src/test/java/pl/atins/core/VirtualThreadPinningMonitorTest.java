@@ -0,0 +1,76 @@
+package pl.atins.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import pl.atins.config.VirtualThreadProperties;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new VirtualThreadProperties();
+        properties.setThreshold(Duration.ofMillis(5));
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(properties, meterRegistry);
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    // Blocking inside synchronized no longer pins carriers from JDK 24 onwards
+    @EnabledForJreRange(max = JRE.JAVA_23)
+    void shouldRecordBlockingWhilePinned() throws Exception {
+        var deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (pinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+            Thread.sleep(200);
+        }
+
+        assertTrue(pinnedCount() > 0);
+    }
+
+    @Test
+    void shouldNotRecordUnpinnedBlocking() throws Exception {
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).join();
+        Thread.sleep(1500);
+
+        assertEquals(0, pinnedCount());
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private long pinnedCount() {
+        return meterRegistry.get("hr.threads.virtual.pinned").timer().count();
+    }
+}
@@ -0,0 +1,146 @@
+package pl.atins.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.atins.config.SeedProperties;
+import pl.atins.domain.Employee;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WorkforceGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private SeedProperties properties;
+    private WorkforceGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SeedProperties();
+        properties.setEmployees(2000);
+        properties.setDepartments(12);
+        properties.setSpanOfControl(6);
+        properties.setMaxDepth(4);
+        properties.setBatchSize(150);
+        properties.setThreads(4);
+        generator = new WorkforceGenerator(jdbcTemplate, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE employee_department");
+        jdbcTemplate.execute("TRUNCATE TABLE employee RESTART IDENTITY");
+        jdbcTemplate.execute("TRUNCATE TABLE department RESTART IDENTITY");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    void shouldGenerateHierarchyWithinDepthLimit() {
+        var summary = generator.generate();
+
+        assertEquals(2000, summary.employees());
+        assertEquals(12, summary.departments());
+        assertEquals(4, summary.depth());
+        assertEquals(2000, count("SELECT COUNT(*) FROM employee"));
+        assertEquals(1, count("SELECT COUNT(*) FROM employee WHERE supervisor_id IS NULL"));
+        assertEquals("CEO", jdbcTemplate.queryForObject(
+                "SELECT job_title FROM employee WHERE supervisor_id IS NULL", String.class));
+
+        // Everyone reaches the CEO within the depth limit
+        var deepest = count("""
+                WITH RECURSIVE chain(id, depth) AS (
+                    SELECT id, 1 FROM employee WHERE supervisor_id IS NULL
+                    UNION ALL
+                    SELECT e.id, c.depth + 1 FROM employee e JOIN chain c ON e.supervisor_id = c.id)
+                SELECT MAX(depth) FROM chain""");
+        assertEquals(4, deepest);
+    }
+
+    @Test
+    void shouldAssignEveryoneToDepartmentsWithHeads() {
+        properties.setDepartmentAffinity(0);
+        generator.generate();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM employee e WHERE NOT EXISTS " +
+                "(SELECT 1 FROM employee_department ed WHERE ed.employee_id = e.id)"));
+        var memberships = count("SELECT COUNT(*) FROM employee_department");
+        assertTrue(memberships > 2000 && memberships < 2000 * 1.2);
+        assertEquals(count("SELECT COUNT(DISTINCT department_id) FROM employee_department"),
+                count("SELECT COUNT(*) FROM department WHERE head_id IS NOT NULL"));
+        assertEquals(memberships, count("SELECT SUM(employee_count) FROM department"));
+        assertEquals(0, count("SELECT COUNT(*) FROM department d WHERE employee_count <> " +
+                "(SELECT COUNT(*) FROM employee_department ed WHERE ed.department_id = d.id)"));
+
+        // Without affinity to the supervisor's department, sizes follow the skew alone
+        // and the first department is the largest
+        var largest = count("SELECT department_id FROM employee_department GROUP BY department_id " +
+                "ORDER BY COUNT(*) DESC LIMIT 1");
+        assertEquals(1, largest);
+    }
+
+    @Test
+    void shouldPaySeniorLevelsMore() {
+        generator.generate();
+
+        var ceoSalary = jdbcTemplate.queryForObject(
+                "SELECT salary FROM employee WHERE supervisor_id IS NULL", BigDecimal.class);
+        var averageLeafSalary = jdbcTemplate.queryForObject("SELECT AVG(salary) FROM employee e WHERE NOT EXISTS " +
+                "(SELECT 1 FROM employee s WHERE s.supervisor_id = e.id)", BigDecimal.class);
+        assertTrue(ceoSalary.compareTo(averageLeafSalary.multiply(BigDecimal.TWO)) > 0);
+    }
+
+    @Test
+    void shouldBeReproducibleForSameSeed() {
+        generator.generate();
+        var first = jdbcTemplate.queryForList("SELECT email, salary, supervisor_id FROM employee ORDER BY id");
+        tearDown();
+
+        generator.generate();
+        var second = jdbcTemplate.queryForList("SELECT email, salary, supervisor_id FROM employee ORDER BY id");
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void shouldContinueIdentityAfterGeneratedRows() {
+        generator.generate();
+
+        var employee = new Employee();
+        employee.setFirstName("New");
+        employee.setLastName("Hire");
+        employee.setEmail("new.hire@company.com");
+        employee.setHireDate(LocalDate.now());
+        employee.setSalary(new BigDecimal("50000"));
+        var saved = employeeRepository.save(employee);
+
+        assertEquals(2001L, saved.getId());
+    }
+
+    @Test
+    void shouldRejectEmptyWorkforce() {
+        properties.setEmployees(0);
+
+        assertThrows(IllegalArgumentException.class, generator::generate);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,93 @@
+package pl.atins.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.domain.AuditEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AuditEventRepositoryTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2025, 2, 1, 0, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        auditEventRepository.saveAll(List.of(
+                auditEvent(1L, EmployeeEvent.EventType.HIRED, JANUARY.plusDays(1), "hired"),
+                auditEvent(1L, EmployeeEvent.EventType.PROMOTED, FEBRUARY.plusDays(2), "second promotion"),
+                auditEvent(1L, EmployeeEvent.EventType.PROMOTED, JANUARY.plusDays(5), "first promotion"),
+                auditEvent(1L, EmployeeEvent.EventType.PROMOTED, MARCH.plusDays(1), "after window"),
+                auditEvent(2L, EmployeeEvent.EventType.PROMOTED, JANUARY.plusDays(3), "other employee")));
+    }
+
+    @Test
+    void shouldStreamEmployeeEventsInWindowOrderedByTime() {
+        try (var events = auditEventRepository.streamByEmployee(1L, JANUARY, MARCH, null)) {
+            assertEquals(List.of("hired", "first promotion", "second promotion"),
+                    events.map(AuditEvent::getDetails).toList());
+        }
+    }
+
+    @Test
+    void shouldStreamEmployeeEventsOfOneType() {
+        try (var events = auditEventRepository.streamByEmployee(1L, JANUARY, MARCH,
+                EmployeeEvent.EventType.PROMOTED)) {
+            assertEquals(List.of("first promotion", "second promotion"),
+                    events.map(AuditEvent::getDetails).toList());
+        }
+    }
+
+    @Test
+    void shouldExcludeUpperBoundOfWindow() {
+        try (var events = auditEventRepository.streamByEmployee(1L, JANUARY, JANUARY.plusDays(5), null)) {
+            assertEquals(List.of("hired"), events.map(AuditEvent::getDetails).toList());
+        }
+    }
+
+    @Test
+    void shouldStreamAllEmployeesInTimeRange() {
+        try (var events = auditEventRepository.streamByTimeRange(JANUARY, FEBRUARY,
+                EmployeeEvent.EventType.PROMOTED)) {
+            assertEquals(List.of("other employee", "first promotion"),
+                    events.map(AuditEvent::getDetails).toList());
+        }
+    }
+
+    @Test
+    void shouldPageAuditEventsByTime() {
+        var sort = Sort.by("occurredAt", "id");
+
+        var first = auditEventRepository.findAll(PageRequest.of(0, 2, sort));
+        var last = auditEventRepository.findAll(PageRequest.of(2, 2, sort));
+
+        assertEquals(5, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(List.of("hired", "other employee"), first.map(AuditEvent::getDetails).getContent());
+        assertEquals(List.of("after window"), last.map(AuditEvent::getDetails).getContent());
+    }
+
+    private static AuditEvent auditEvent(Long employeeId, EmployeeEvent.EventType type, LocalDateTime occurredAt,
+                                         String details) {
+        var auditEvent = new AuditEvent();
+        auditEvent.setEmployeeId(employeeId);
+        auditEvent.setEmployeeName("Employee " + employeeId);
+        auditEvent.setEventType(type);
+        auditEvent.setOccurredAt(occurredAt);
+        auditEvent.setDetails(details);
+        return auditEvent;
+    }
+}
@@ -0,0 +1,276 @@
+package pl.atins.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import pl.atins.core.ChangeTracker;
+import pl.atins.core.EmployeeEvent;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.MembershipCache;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+import pl.atins.dto.CreateDepartmentRequest;
+import pl.atins.dto.DepartmentResponse;
+import pl.atins.dto.RosterEntryResponse;
+import pl.atins.dto.UpdateDepartmentRequest;
+import pl.atins.repository.DepartmentRepository;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepartmentServiceImplTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private EmployeeEventPublisher eventPublisher;
+
+    @Mock
+    private MembershipCache membershipCache;
+
+    private DepartmentServiceImpl departmentService;
+
+    @BeforeEach
+    void setUp() {
+        departmentService = new DepartmentServiceImpl(departmentRepository, employeeRepository, changeTracker,
+                eventPublisher, membershipCache);
+    }
+
+    @Test
+    void shouldContinueRosterAfterLastRowOfPreviousPage() {
+        when(employeeRepository.findRosterByLastName(1L, "", 0, Limit.of(3)))
+                .thenReturn(List.of(entry(5L, "Adams", "2020-01-01", "50000"), entry(2L, "Baker", "2019-01-01",
+                        "60000"), entry(9L, "Clark", "2018-01-01", "70000")));
+        when(employeeRepository.findRosterByLastName(1L, "Baker", 2L, Limit.of(3)))
+                .thenReturn(List.of(entry(9L, "Clark", "2018-01-01", "70000")));
+
+        var first = departmentService.getRoster(1L, "lastName", null, 2);
+        var second = departmentService.getRoster(1L, "lastName", first.getNextToken(), 2);
+
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(5L, 2L), first.getEmployees().stream().map(RosterEntryResponse::getId).toList());
+        assertFalse(second.isHasMore());
+        assertEquals(9L, second.getEmployees().getFirst().getId());
+        verify(departmentRepository, never()).existsById(any());
+    }
+
+    @Test
+    void shouldPageByHireDateAndSalaryKeys() {
+        when(employeeRepository.findRosterByHireDate(1L, LocalDate.of(1, 1, 1), 0, Limit.of(2)))
+                .thenReturn(List.of(entry(3L, "Adams", "2015-06-30", "50000"),
+                        entry(4L, "Baker", "2016-01-01", "60000")));
+        when(employeeRepository.findRosterByHireDate(1L, LocalDate.of(2015, 6, 30), 3L, Limit.of(2)))
+                .thenReturn(List.of());
+        when(employeeRepository.findRosterBySalary(1L, BigDecimal.ZERO, 0, Limit.of(2)))
+                .thenReturn(List.of(entry(7L, "Clark", "2015-06-30", "55000.50")));
+        when(employeeRepository.findRosterBySalary(1L, new BigDecimal("55000.50"), 7L, Limit.of(2)))
+                .thenReturn(List.of());
+        when(departmentRepository.existsById(1L)).thenReturn(true);
+
+        var byHireDate = departmentService.getRoster(1L, "hireDate", null, 1);
+        var bySalary = departmentService.getRoster(1L, "salary", null, 1);
+
+        assertTrue(byHireDate.isHasMore());
+        assertTrue(departmentService.getRoster(1L, "hireDate", byHireDate.getNextToken(), 1).getEmployees().isEmpty());
+        assertFalse(bySalary.isHasMore());
+        var end = departmentService.getRoster(1L, "salary", bySalary.getNextToken(), 1);
+        assertTrue(end.getEmployees().isEmpty());
+        assertEquals(bySalary.getNextToken(), end.getNextToken());
+    }
+
+    @Test
+    void shouldRejectTokenFromAnotherSort() {
+        when(employeeRepository.findRosterByLastName(1L, "", 0, Limit.of(2)))
+                .thenReturn(List.of(entry(5L, "Adams", "2020-01-01", "50000")));
+        var token = departmentService.getRoster(1L, "lastName", null, 1).getNextToken();
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> departmentService.getRoster(1L, "salary", token, 1));
+        assertTrue(exception.getMessage().contains("lastName"));
+        verify(employeeRepository, never()).findRosterBySalary(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void shouldRejectInvalidRosterRequests() {
+        assertThrows(IllegalArgumentException.class, () -> departmentService.getRoster(1L, "age", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> departmentService.getRoster(1L, "lastName", null, 0));
+        assertThrows(IllegalArgumentException.class, () -> departmentService.getRoster(1L, "lastName", null,
+                DepartmentServiceImpl.MAX_ROSTER_PAGE + 1));
+        assertThrows(IllegalArgumentException.class, () -> departmentService.getRoster(1L, "lastName", "%%", 10));
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void shouldReportUnknownDepartment() {
+        when(employeeRepository.findRosterByLastName(99L, "", 0, Limit.of(11))).thenReturn(List.of());
+        when(departmentRepository.existsById(99L)).thenReturn(false);
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> departmentService.getRoster(99L, "lastName", null, 10));
+        assertEquals("Department not found with id: 99", exception.getMessage());
+    }
+
+    @Test
+    void shouldAddOnlyEmployeesNotYetInDepartment() {
+        var department = department(3L, "Finance", 10);
+        when(departmentRepository.findById(3L)).thenReturn(Optional.of(department));
+        when(employeeRepository.findExistingIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L, 3L));
+        when(employeeRepository.findIdsByDepartmentIdAndIdIn(3L, Set.of(1L, 2L, 3L))).thenReturn(List.of(2L));
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L, 3L)))
+                .thenReturn(List.of(employee(3L, department), employee(1L, department)));
+
+        var response = departmentService.addMembers(3L, Set.of(1L, 2L, 3L));
+
+        assertEquals(List.of(1L, 3L), response.getChangedEmployeeIds());
+        assertEquals(12, response.getDepartments().getFirst().getEmployeeCount());
+        verify(employeeRepository).findAllForMembershipChange(Set.of(1L, 3L));
+        verify(employeeRepository).insertMemberships(3L, Set.of(1L, 3L));
+        verify(membershipCache).evict(Set.of(1L, 3L), Set.of(3L));
+        verify(departmentRepository).adjustEmployeeCounts(Set.of(3L), 2);
+        verify(membershipCache).evictDepartments(Set.of(3L));
+        assertEquals(12, department.getEmployeeCount());
+        verify(changeTracker).departmentChanged(3L);
+        verify(changeTracker).employeesChanged(Set.of(1L, 3L));
+        var events = publishedBatch();
+        assertEquals(List.of(1L, 3L), events.stream().map(event -> event.getEmployee().getId()).toList());
+        assertEquals("Finance", events.getFirst().getNewValue());
+    }
+
+    @Test
+    void shouldRejectUnknownEmployeesBeforeWriting() {
+        when(departmentRepository.findById(3L)).thenReturn(Optional.of(department(3L, "Finance", 0)));
+        when(employeeRepository.findExistingIds(Set.of(1L, 99L))).thenReturn(List.of(1L));
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> departmentService.addMembers(3L, Set.of(1L, 99L)));
+
+        assertEquals("Employees not found with ids: [99]", exception.getMessage());
+        verify(employeeRepository, never()).insertMemberships(any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldMoveMembersWithSetBasedWrites() {
+        var source = department(1L, "IT", 20);
+        var target = department(2L, "HR", 5);
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(source));
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(target));
+        when(employeeRepository.findIdsByDepartmentIdAndIdIn(1L, Set.of(4L, 5L, 6L))).thenReturn(List.of(4L, 5L, 6L));
+        when(employeeRepository.findIdsByDepartmentIdAndIdIn(2L, Set.of(4L, 5L, 6L))).thenReturn(List.of(6L));
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(4L, 5L, 6L)))
+                .thenReturn(List.of(employee(4L, target), employee(5L, target), employee(6L, target)));
+
+        var response = departmentService.moveMembers(1L, 2L, Set.of(4L, 5L, 6L));
+
+        assertEquals(List.of(4L, 5L, 6L), response.getChangedEmployeeIds());
+        assertEquals(List.of(17, 7), response.getDepartments().stream()
+                .map(DepartmentResponse::getEmployeeCount).toList());
+        verify(employeeRepository).findAllForMembershipChange(Set.of(4L, 5L, 6L));
+        verify(employeeRepository).deleteMemberships(1L, Set.of(4L, 5L, 6L));
+        verify(employeeRepository).insertMemberships(2L, Set.of(4L, 5L));
+        verify(membershipCache).evict(Set.of(4L, 5L, 6L), Set.of(1L, 2L));
+        verify(departmentRepository).adjustEmployeeCounts(Set.of(1L), -3);
+        verify(departmentRepository).adjustEmployeeCounts(Set.of(2L), 2);
+        assertEquals(17, source.getEmployeeCount());
+        assertEquals(7, target.getEmployeeCount());
+        verify(changeTracker).departmentChanged(1L);
+        verify(changeTracker).departmentChanged(2L);
+        var events = publishedBatch();
+        assertEquals(3, events.size());
+        assertEquals("IT", events.getFirst().getOldValue());
+        assertEquals(Set.of(2L), events.getFirst().getDepartmentIds());
+    }
+
+    @Test
+    void shouldOnlyMoveMembersOfSourceDepartment() {
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(department(1L, "IT", 1)));
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(department(2L, "HR", 0)));
+        when(employeeRepository.findIdsByDepartmentIdAndIdIn(1L, Set.of(4L, 7L))).thenReturn(List.of(4L));
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> departmentService.moveMembers(1L, 2L, Set.of(4L, 7L)));
+
+        assertEquals("Employees are not members of department 1: [7]", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> departmentService.moveMembers(1L, 1L, Set.of(4L)));
+        verify(employeeRepository, never()).deleteMemberships(any(), any());
+    }
+
+    @Test
+    void shouldCheckNameAndHeadInOneQuery() {
+        var head = new Employee();
+        head.setId(4L);
+        var headed = department(2L, "HR", 0);
+        headed.setHead(head);
+        when(employeeRepository.findById(4L)).thenReturn(Optional.of(head));
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(department(1L, "IT", 0)));
+        when(departmentRepository.findByNameOrHeadId("Legal", 4L)).thenReturn(List.of(headed));
+        when(departmentRepository.findByNameOrHeadId("HR", null)).thenReturn(List.of(headed));
+        var create = new CreateDepartmentRequest();
+        create.setName("Legal");
+        create.setHeadId(4L);
+        var rename = new UpdateDepartmentRequest();
+        rename.setName("HR");
+
+        var headTaken = assertThrows(IllegalArgumentException.class, () -> departmentService.createDepartment(create));
+        var nameTaken = assertThrows(IllegalArgumentException.class,
+                () -> departmentService.updateDepartment(1L, rename));
+
+        assertEquals("Employee is already head of department: HR", headTaken.getMessage());
+        assertEquals("Department with name 'HR' already exists", nameTaken.getMessage());
+        verify(departmentRepository, never()).findByName(any());
+        verify(departmentRepository, never()).findByHeadId(any());
+        verify(departmentRepository, never()).save(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmployeeEvent> publishedBatch() {
+        ArgumentCaptor<List<EmployeeEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishEvents(captor.capture());
+        captor.getValue().forEach(event ->
+                assertEquals(EmployeeEvent.EventType.DEPARTMENT_CHANGED, event.getEventType()));
+        return captor.getValue();
+    }
+
+    private static Department department(Long id, String name, int employeeCount) {
+        var department = new Department();
+        department.setId(id);
+        department.setName(name);
+        department.setEmployeeCount(employeeCount);
+        return department;
+    }
+
+    private static Employee employee(Long id, Department department) {
+        var employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName("Test");
+        employee.setLastName("Employee" + id);
+        employee.setDepartments(new HashSet<>(Set.of(department)));
+        return employee;
+    }
+
+    private static RosterEntryResponse entry(Long id, String lastName, String hireDate, String salary) {
+        return new RosterEntryResponse(id, "Test", lastName, lastName.toLowerCase() + "@company.com", "Developer",
+                LocalDate.parse(hireDate), new BigDecimal(salary));
+    }
+}
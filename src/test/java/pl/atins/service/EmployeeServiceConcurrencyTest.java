@@ -0,0 +1,96 @@
+package pl.atins.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.atins.domain.Department;
+import pl.atins.dto.CreateEmployeeRequest;
+import pl.atins.repository.DepartmentRepository;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EmployeeServiceConcurrencyTest {
+
+    private static final int HIRES_PER_THREAD = 10;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Department department;
+    private final List<Long> hiredIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName("Concurrent Hiring");
+        department.setLocation("Building C");
+        department = departmentRepository.save(department);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hiredIds.forEach(employeeService::deleteEmployee);
+        departmentRepository.deleteById(department.getId());
+    }
+
+    @Test
+    void shouldCountParallelHiresIntoOneDepartment() throws Exception {
+        var start = new CountDownLatch(1);
+        var hires = new ArrayList<Future<List<Long>>>();
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            for (int thread = 0; thread < 2; thread++) {
+                var first = thread * HIRES_PER_THREAD;
+                hires.add(executor.submit(() -> {
+                    start.await();
+                    var ids = new ArrayList<Long>();
+                    for (int i = first; i < first + HIRES_PER_THREAD; i++) {
+                        ids.add(employeeService.createEmployee(request(i)).getId());
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+            for (Future<List<Long>> hire : hires) {
+                hiredIds.addAll(hire.get(30, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(2 * HIRES_PER_THREAD, hiredIds.size());
+        assertEquals(2 * HIRES_PER_THREAD,
+                departmentRepository.findById(department.getId()).orElseThrow().getEmployeeCount());
+        assertEquals(2 * HIRES_PER_THREAD,
+                employeeRepository.findIdsByDepartmentIdAndIdIn(department.getId(), hiredIds).size());
+    }
+
+    private CreateEmployeeRequest request(int index) {
+        var request = new CreateEmployeeRequest();
+        request.setFirstName("Hire");
+        request.setLastName(String.valueOf(index));
+        request.setEmail("hire" + index + ".parallel@company.com");
+        request.setJobTitle("Developer");
+        request.setHireDate(LocalDate.of(2024, 1, 1));
+        request.setSalary(new BigDecimal("50000"));
+        request.setDepartmentIds(Set.of(department.getId()));
+        return request;
+    }
+}
@@ -0,0 +1,225 @@
+package pl.atins.service;
+
+import org.hibernate.Hibernate;
+import org.hibernate.collection.spi.PersistentSet;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.atins.core.ChangeTracker;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.EntityLoader;
+import pl.atins.core.MembershipCache;
+import pl.atins.core.PromotionBonusStrategy;
+import pl.atins.domain.Department;
+import pl.atins.domain.Employee;
+import pl.atins.dto.UpdateEmployeeRequest;
+import pl.atins.repository.DepartmentRepository;
+import pl.atins.repository.EmployeeRepository;
+import pl.atins.repository.EntityChangeRepository;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeServiceImplTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private SalaryService salaryService;
+
+    @Mock
+    private EmployeeEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private EntityChangeRepository entityChangeRepository;
+
+    @Mock
+    private EntityLoader entityLoader;
+
+    @Mock
+    private MembershipCache membershipCache;
+
+    private EmployeeServiceImpl employeeService;
+    private Department finance;
+    private Department audit;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = new EmployeeServiceImpl(employeeRepository, departmentRepository, salaryService,
+                eventPublisher, changeTracker, entityChangeRepository, entityLoader, membershipCache);
+        finance = department(1L, "Finance");
+        audit = department(2L, "Audit");
+        employee = new Employee();
+        employee.setId(10L);
+        employee.setFirstName("Maria");
+        employee.setLastName("Nowak");
+        employee.addDepartment(finance);
+        employee.addDepartment(audit);
+        finance.setEmployeeCount(1);
+        audit.setEmployeeCount(1);
+    }
+
+    @Test
+    void shouldNotTouchMembershipsWhenDepartmentsAreUnchanged() {
+        var departments = employee.getDepartments();
+        when(entityLoader.employees(Arrays.asList(10L, null))).thenReturn(Map.of(10L, employee));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+
+        employeeService.updateEmployee(10L, request(Set.of(1L, 2L)));
+
+        assertSame(departments, employee.getDepartments());
+        assertEquals(Set.of(finance, audit), employee.getDepartments());
+        verify(entityLoader, never()).departments(any());
+        verify(departmentRepository, never()).findById(any());
+        verify(departmentRepository, never()).adjustEmployeeCounts(any(), anyInt());
+        assertEquals(1, finance.getEmployeeCount());
+        assertEquals(1, audit.getEmployeeCount());
+        verify(changeTracker, never()).departmentChanged(any());
+    }
+
+    @Test
+    void shouldApplyOnlyMembershipDifferences() {
+        var legal = department(3L, "Legal");
+        when(entityLoader.employees(Arrays.asList(10L, null))).thenReturn(Map.of(10L, employee));
+        when(entityLoader.departments(Set.of(3L))).thenReturn(Map.of(3L, legal));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+
+        var response = employeeService.updateEmployee(10L, request(Set.of(2L, 3L)));
+
+        assertEquals(Set.of(audit, legal), employee.getDepartments());
+        assertFalse(finance.getEmployees().contains(employee));
+        assertTrue(legal.getEmployees().contains(employee));
+        assertEquals(2, response.getDepartments().size());
+        assertEquals(0, finance.getEmployeeCount());
+        assertEquals(1, audit.getEmployeeCount());
+        assertEquals(1, legal.getEmployeeCount());
+        verify(departmentRepository).adjustEmployeeCounts(Set.of(1L), -1);
+        verify(departmentRepository).adjustEmployeeCounts(Set.of(3L), 1);
+        verify(membershipCache).evictDepartments(Set.of(1L));
+        verify(membershipCache).evictDepartments(Set.of(3L));
+        verify(changeTracker).departmentChanged(1L);
+        verify(changeTracker).departmentChanged(3L);
+        verify(changeTracker, never()).departmentChanged(2L);
+        verify(departmentRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldNotLoadMembersOfDepartmentsBeingJoinedOrLeft() {
+        var legal = department(3L, "Legal");
+        finance.setEmployees(unloadedMembers());
+        legal.setEmployees(unloadedMembers());
+        when(entityLoader.employees(Arrays.asList(10L, null))).thenReturn(Map.of(10L, employee));
+        when(entityLoader.departments(Set.of(3L))).thenReturn(Map.of(3L, legal));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+
+        employeeService.updateEmployee(10L, request(Set.of(2L, 3L)));
+
+        assertEquals(Set.of(audit, legal), employee.getDepartments());
+        assertFalse(Hibernate.isInitialized(finance.getEmployees()));
+        assertFalse(Hibernate.isInitialized(legal.getEmployees()));
+    }
+
+    @Test
+    void shouldNotLoadMembersWhenRemovingFromDepartment() {
+        finance.setEmployees(unloadedMembers());
+        when(employeeRepository.findById(10L)).thenReturn(Optional.of(employee));
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(finance));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+
+        employeeService.removeFromDepartment(10L, 1L);
+
+        assertEquals(Set.of(audit), employee.getDepartments());
+        assertFalse(Hibernate.isInitialized(finance.getEmployees()));
+        assertEquals(0, finance.getEmployeeCount());
+    }
+
+    @Test
+    void shouldApplyPromotionRaiseBeforeChangingTitle() {
+        employee.setJobTitle("Developer");
+        var strategy = new PromotionBonusStrategy(new BigDecimal("5000"));
+        when(employeeRepository.findById(10L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+        when(salaryService.createStrategy("promotion_bonus", new BigDecimal("5000"))).thenReturn(strategy);
+        var titleWhenAdjusted = new AtomicReference<String>();
+        when(salaryService.applyAdjustment(employee, strategy)).thenAnswer(invocation -> {
+            titleWhenAdjusted.set(employee.getJobTitle());
+            return new BigDecimal("55000");
+        });
+
+        employeeService.promoteEmployee(10L, "Lead Developer", new BigDecimal("5000"));
+
+        assertEquals("Developer", titleWhenAdjusted.get());
+        assertEquals("Lead Developer", employee.getJobTitle());
+    }
+
+    @Test
+    void shouldRejectUnknownDepartmentBeforeChangingMemberships() {
+        when(entityLoader.departments(Set.of(7L))).thenReturn(Map.of());
+        when(entityLoader.employees(Arrays.asList(10L, null))).thenReturn(Map.of(10L, employee));
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> employeeService.updateEmployee(10L, request(Set.of(7L))));
+
+        assertEquals("Department not found with id: 7", exception.getMessage());
+        assertEquals(Set.of(finance, audit), employee.getDepartments());
+        assertEquals(1, finance.getEmployeeCount());
+    }
+
+    @Test
+    void shouldLoadEmployeeAndSupervisorTogether() {
+        var supervisor = new Employee();
+        supervisor.setId(20L);
+        supervisor.setFirstName("Jan");
+        supervisor.setLastName("Kowalski");
+        when(entityLoader.employees(Arrays.asList(10L, 20L))).thenReturn(Map.of(10L, employee, 20L, supervisor));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+        var request = new UpdateEmployeeRequest();
+        request.setSupervisorId(20L);
+
+        var response = employeeService.updateEmployee(10L, request);
+
+        assertEquals(20L, response.getSupervisorId());
+        verify(employeeRepository, never()).findById(any());
+    }
+
+    // Stands in for a lazy collection that was never read; touching its contents outside a session would throw
+    private static Set<Employee> unloadedMembers() {
+        return new PersistentSet((SharedSessionContractImplementor) null);
+    }
+
+    private static UpdateEmployeeRequest request(Set<Long> departmentIds) {
+        var request = new UpdateEmployeeRequest();
+        request.setDepartmentIds(departmentIds);
+        return request;
+    }
+
+    private static Department department(Long id, String name) {
+        var department = new Department();
+        department.setId(id);
+        department.setName(name);
+        department.setEmployees(new HashSet<>());
+        return department;
+    }
+}
@@ -0,0 +1,211 @@
+package pl.atins.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import pl.atins.core.AnnualRaiseStrategy;
+import pl.atins.core.CommandRecord;
+import pl.atins.core.CompositeUndoRecord;
+import pl.atins.core.EmployeeEventPublisher;
+import pl.atins.core.HRCommand;
+import pl.atins.core.HRCommandManager;
+import pl.atins.core.HRCommandType;
+import pl.atins.core.MacroCommand;
+import pl.atins.domain.Employee;
+import pl.atins.dto.CommandSpec;
+import pl.atins.repository.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HRCommandServiceImplTest {
+
+    @Mock
+    private HRCommandManager commandManager;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeEventPublisher eventPublisher;
+
+    @Mock
+    private SalaryService salaryService;
+
+    private HRCommandServiceImpl hrCommandService;
+    private Employee developer;
+    private Employee lead;
+
+    @BeforeEach
+    void setUp() {
+        hrCommandService = new HRCommandServiceImpl(commandManager, employeeRepository, eventPublisher,
+                salaryService);
+        developer = employee(1L, "John", "Doe", "Developer", "50000");
+        lead = employee(2L, "Jane", "Smith", "Team Lead", "80000");
+    }
+
+    @Test
+    void shouldExecuteBatchAsSingleUndoableCommand() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L, 2L))).thenReturn(List.of(developer, lead));
+        when(commandManager.executeCommand(eq("alice"), any())).thenAnswer(invocation -> {
+            HRCommand command = invocation.getArgument(1);
+            command.execute();
+            return new CommandRecord(42L, "alice", Instant.now(), command.toUndoRecord());
+        });
+
+        var response = hrCommandService.executeBatch("alice", List.of(
+                promote(1L, "Senior Developer", "5000"),
+                assign(1L, 2L),
+                promote(2L, "Engineering Manager", null)));
+
+        assertEquals(42L, response.getSequence());
+        assertEquals(3, response.getCommandCount());
+        assertEquals(Set.of(1L, 2L), response.getEmployeeIds());
+        assertEquals("Senior Developer", developer.getJobTitle());
+        assertEquals(new BigDecimal("55000"), developer.getSalary());
+        assertSame(lead, developer.getSupervisor());
+        assertEquals("Engineering Manager", lead.getJobTitle());
+
+        var captor = ArgumentCaptor.forClass(HRCommand.class);
+        verify(commandManager).executeCommand(eq("alice"), captor.capture());
+        assertInstanceOf(MacroCommand.class, captor.getValue());
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(employeeRepository, times(3)).save(any(Employee.class));
+    }
+
+    @Test
+    void shouldUndoWholeBatchInReverseOrder() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L))).thenReturn(List.of(developer));
+        when(employeeRepository.findById(1L)).thenReturn(Optional.of(developer));
+        var undoRecord = new CompositeUndoRecord[1];
+        when(commandManager.executeCommand(eq("alice"), any())).thenAnswer(invocation -> {
+            HRCommand command = invocation.getArgument(1);
+            command.execute();
+            undoRecord[0] = (CompositeUndoRecord) command.toUndoRecord();
+            return new CommandRecord(1L, "alice", Instant.now(), undoRecord[0]);
+        });
+
+        hrCommandService.executeBatch("alice", List.of(
+                promote(1L, "Senior Developer", "5000"),
+                promote(1L, "Lead Developer", "5000")));
+        undoRecord[0].undo(employeeRepository, eventPublisher);
+
+        assertEquals("Developer", developer.getJobTitle());
+        assertEquals(new BigDecimal("50000"), developer.getSalary());
+        verify(employeeRepository).findAllById(Set.of(1L));
+    }
+
+    @Test
+    void shouldAdjustSalaryWithRequestedStrategy() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L))).thenReturn(List.of(developer));
+        when(salaryService.createStrategy("annual_raise", new BigDecimal("0.10")))
+                .thenReturn(new AnnualRaiseStrategy(new BigDecimal("0.10")));
+        when(commandManager.executeCommand(eq("alice"), any())).thenAnswer(invocation -> {
+            HRCommand command = invocation.getArgument(1);
+            command.execute();
+            return new CommandRecord(3L, "alice", Instant.now(), command.toUndoRecord());
+        });
+
+        var spec = new CommandSpec();
+        spec.setType(HRCommandType.SALARY_ADJUSTMENT);
+        spec.setEmployeeId(1L);
+        spec.setStrategyType("annual_raise");
+        spec.setAmount(new BigDecimal("0.10"));
+        hrCommandService.executeBatch("alice", List.of(spec));
+
+        assertEquals(0, new BigDecimal("55000").compareTo(developer.getSalary()));
+    }
+
+    @Test
+    void shouldValidateCommandsWithoutExecutingThem() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L, 2L))).thenReturn(List.of(developer, lead));
+
+        hrCommandService.validateCommands(List.of(promote(1L, "Senior Developer", "5000"), assign(1L, 2L)));
+
+        assertEquals("Developer", developer.getJobTitle());
+        verifyNoInteractions(commandManager);
+        verify(employeeRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectBatchReferencingUnknownEmployee() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L, 99L))).thenReturn(List.of(developer));
+
+        var exception = assertThrows(IllegalArgumentException.class, () -> hrCommandService.executeBatch("alice",
+                List.of(promote(1L, "Senior Developer", null), assign(1L, 99L))));
+
+        assertTrue(exception.getMessage().contains("Command 1"));
+        verify(commandManager, never()).executeCommand(any(), any());
+    }
+
+    @Test
+    void shouldRequireJobTitleForPromotion() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L))).thenReturn(List.of(developer));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> hrCommandService.executeBatch("alice", List.of(promote(1L, " ", null))));
+        verify(commandManager, never()).executeCommand(any(), any());
+    }
+
+    @Test
+    void shouldRevertExecutedStepsWhenLaterStepFails() {
+        when(employeeRepository.findAllWithSupervisorByIdIn(Set.of(1L))).thenReturn(List.of(developer));
+        when(commandManager.executeCommand(eq("alice"), any())).thenAnswer(invocation -> {
+            HRCommand command = invocation.getArgument(1);
+            command.execute();
+            return null;
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> hrCommandService.executeBatch("alice", List.of(
+                promote(1L, "Senior Developer", "5000"),
+                assign(1L, 1L))));
+
+        assertEquals("Developer", developer.getJobTitle());
+        assertEquals(new BigDecimal("50000"), developer.getSalary());
+    }
+
+    private static CommandSpec promote(Long employeeId, String newJobTitle, String salaryIncrease) {
+        var spec = new CommandSpec();
+        spec.setType(HRCommandType.PROMOTE);
+        spec.setEmployeeId(employeeId);
+        spec.setNewJobTitle(newJobTitle);
+        spec.setSalaryIncrease(salaryIncrease != null ? new BigDecimal(salaryIncrease) : null);
+        return spec;
+    }
+
+    private static CommandSpec assign(Long employeeId, Long supervisorId) {
+        var spec = new CommandSpec();
+        spec.setType(HRCommandType.ASSIGN_SUPERVISOR);
+        spec.setEmployeeId(employeeId);
+        spec.setSupervisorId(supervisorId);
+        return spec;
+    }
+
+    private static Employee employee(Long id, String firstName, String lastName, String jobTitle, String salary) {
+        var employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@company.com");
+        employee.setJobTitle(jobTitle);
+        employee.setSalary(new BigDecimal(salary));
+        employee.setHireDate(LocalDate.now());
+        employee.setSubordinates(new HashSet<>());
+        return employee;
+    }
+}
@@ -0,0 +1,123 @@
+package pl.atins.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import pl.atins.config.CommandSchedulerProperties;
+import pl.atins.config.ConflictRetryProperties;
+import pl.atins.core.ConflictRetryExecutor;
+import pl.atins.core.HRCommandType;
+import pl.atins.core.WorkerThreads;
+import pl.atins.domain.ScheduledCommand;
+import pl.atins.dto.BatchCommandResponse;
+import pl.atins.repository.ScheduledCommandRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledCommandRunnerTest {
+
+    @Mock
+    private ScheduledCommandRepository scheduledCommandRepository;
+
+    @Mock
+    private HRCommandService hrCommandService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ScheduledCommandRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        runner = new ScheduledCommandRunner(scheduledCommandRepository, hrCommandService,
+                new CommandSchedulerProperties(), transactionManager,
+                new ConflictRetryExecutor(new ConflictRetryProperties(), new SimpleMeterRegistry()),
+                new WorkerThreads(false));
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.stop();
+    }
+
+    @Test
+    void shouldExecuteActorGroupAsOneBatch() {
+        var first = scheduled(1L, "alice", 10L);
+        var second = scheduled(2L, "alice", 11L);
+        when(hrCommandService.executeBatch(eq("alice"), anyList())).thenReturn(batchResponse(5L));
+        when(scheduledCommandRepository.completePending(eq(List.of(1L, 2L)), eq(ScheduledCommand.Status.EXECUTED),
+                any(), eq(5L), isNull())).thenReturn(2);
+
+        runner.executeLane(List.of(first, second));
+
+        verify(hrCommandService).executeBatch(eq("alice"), argThat(specs -> specs.size() == 2));
+        verify(scheduledCommandRepository, never()).completePending(any(), eq(ScheduledCommand.Status.FAILED),
+                any(), any(), any());
+    }
+
+    @Test
+    void shouldFallBackToSingleCommandsWhenBatchFails() {
+        var good = scheduled(1L, "alice", 10L);
+        var bad = scheduled(2L, "alice", 11L);
+        when(hrCommandService.executeBatch(eq("alice"), argThat(specs -> specs != null && specs.size() == 2)))
+                .thenThrow(new IllegalArgumentException("Command 1: Employee not found with id: 11"));
+        when(hrCommandService.executeBatch(eq("alice"), argThat(specs -> specs != null && specs.size() == 1
+                && specs.get(0).getEmployeeId() == 10L))).thenReturn(batchResponse(6L));
+        when(hrCommandService.executeBatch(eq("alice"), argThat(specs -> specs != null && specs.size() == 1
+                && specs.get(0).getEmployeeId() == 11L)))
+                .thenThrow(new IllegalArgumentException("Command 0: Employee not found with id: 11"));
+        when(scheduledCommandRepository.completePending(eq(List.of(1L)), eq(ScheduledCommand.Status.EXECUTED),
+                any(), eq(6L), isNull())).thenReturn(1);
+
+        runner.executeLane(List.of(good, bad));
+
+        verify(scheduledCommandRepository).completePending(eq(List.of(2L)), eq(ScheduledCommand.Status.FAILED),
+                any(), isNull(), eq("Command 0: Employee not found with id: 11"));
+    }
+
+    @Test
+    void shouldRollBackWhenCommandWasCancelledConcurrently() {
+        var command = scheduled(1L, "alice", 10L);
+        when(hrCommandService.executeBatch(eq("alice"), anyList())).thenReturn(batchResponse(7L));
+        when(scheduledCommandRepository.completePending(eq(List.of(1L)), eq(ScheduledCommand.Status.EXECUTED),
+                any(), eq(7L), isNull())).thenReturn(0);
+
+        runner.executeLane(List.of(command));
+
+        verify(transactionManager, atLeastOnce()).rollback(any());
+    }
+
+    private static ScheduledCommand scheduled(Long id, String actor, Long employeeId) {
+        var command = new ScheduledCommand();
+        command.setId(id);
+        command.setActor(actor);
+        command.setEffectiveAt(Instant.now());
+        command.setCreatedAt(Instant.now());
+        command.setCommandType(HRCommandType.PROMOTE);
+        command.setEmployeeId(employeeId);
+        command.setNewJobTitle("Senior Developer");
+        return command;
+    }
+
+    private static BatchCommandResponse batchResponse(long sequence) {
+        var response = new BatchCommandResponse();
+        response.setSequence(sequence);
+        return response;
+    }
+}